@@ -0,0 +1,71 @@
+package com.asm.eb.bench;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Agent configurations compared by the benchmark. Every setup other than NONE attaches the agent at startup with
+ * its own configuration file and log; logs roll at 64 MiB keeping one rolled file, so long runs do not fill the disk.
+ *
+ * @author asmishra
+ * @since 10/17/2026
+ */
+enum AgentSetup {
+    /** No agent, the baseline. */
+    NONE(null),
+    /** Throwable instrumented but the hook uninstalled: the cost of the injected code alone. */
+    DISABLED(""),
+    /** Every exception passes the filter and is written on the throwing thread. */
+    FILTER_MATCH("\"useFilters\": true, \"filters\": [\"com.asm.eb.bench.\"]"),
+    /** The filter walks the stack and rejects every exception. */
+    FILTER_MISS("\"useFilters\": true, \"filters\": [\"com.example.nomatch.\"]"),
+    /** No filters, every exception is written on the throwing thread. */
+    SYNC(""),
+    /** No filters, every exception is handed to the eb-writer thread, dropping when the queue is full. */
+    ASYNC("\"asyncLogging\": true, \"asyncOverflowPolicy\": \"DROP\"");
+
+    private final String extraProperties;
+
+    AgentSetup(String extraProperties) {
+        this.extraProperties = extraProperties;
+    }
+
+    /**
+     * @param agentJar The agent jar.
+     * @param workDir  Directory for the configuration file and log of this setup.
+     * @return The JVM arguments of a fork measuring this setup.
+     * @throws IOException If the configuration file cannot be written.
+     */
+    List<String> jvmArgs(File agentJar, File workDir) throws IOException {
+        if (extraProperties == null) {
+            return Collections.emptyList();
+        }
+        String name = name().toLowerCase();
+        File logFile = new File(workDir, name + ".log");
+        File configFile = new File(workDir, name + ".json");
+        String json = "{\n"
+                + "  \"logFilePath\": \"" + escape(logFile.getAbsolutePath()) + "\",\n"
+                + "  \"rollMaxBytes\": 67108864,\n"
+                + "  \"rollRetention\": 1,\n"
+                + "  \"rollCompress\": false"
+                + (extraProperties.isEmpty() ? "" : ",\n  " + extraProperties)
+                + "\n}\n";
+        Files.write(configFile.toPath(), json.getBytes(StandardCharsets.UTF_8));
+
+        List<String> args = new ArrayList<>();
+        args.add("-javaagent:" + agentJar.getAbsolutePath() + "=configurationFile=" + configFile.getAbsolutePath());
+        if (this == DISABLED) {
+            args.add("-D" + ThrowableBenchmark.UNINSTALL_HOOK_PROPERTY + "=true");
+        }
+        return args;
+    }
+
+    private static String escape(String path) {
+        return path.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+}
@@ -0,0 +1,139 @@
+package com.asm.eb.bench;
+
+import org.apache.commons.cli.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Runs {@link ThrowableBenchmark} for every agent setup and thread count, with the GC profiler for allocation,
+ * and prints one summary table comparing the setups.
+ *
+ * @author asmishra
+ * @since 10/17/2026
+ */
+public class BenchmarkRunner {
+    private static final String AGENT_JAR_OPTION = "agentJar";
+    private static final String SETUPS_OPTION = "setups";
+    private static final String THREADS_OPTION = "threads";
+    private static final String DEPTHS_OPTION = "depths";
+    private static final String QUICK_OPTION = "quick";
+    private static final String ALLOC_SUFFIX = "gc.alloc.rate.norm";
+
+    public static void main(String[] args) {
+        Options options = buildOptions();
+        try {
+            CommandLine cmd = new DefaultParser().parse(options, args);
+            File agentJar = new File(cmd.getOptionValue(AGENT_JAR_OPTION));
+            if (!agentJar.isFile()) {
+                throw new ParseException("Option 'agentJar' must point to the agent jar: " + agentJar.getPath());
+            }
+            List<AgentSetup> setups = new ArrayList<>();
+            for (String setup : split(cmd.getOptionValue(SETUPS_OPTION, "none,disabled,filter_match,filter_miss,sync,async"))) {
+                try {
+                    setups.add(AgentSetup.valueOf(setup.toUpperCase()));
+                } catch (IllegalArgumentException e) {
+                    throw new ParseException("Unknown setup: " + setup);
+                }
+            }
+            List<Integer> threads = new ArrayList<>();
+            for (String count : split(cmd.getOptionValue(THREADS_OPTION, "1,4,16,64"))) {
+                try {
+                    threads.add(Integer.parseInt(count));
+                } catch (NumberFormatException e) {
+                    throw new ParseException("Option 'threads' must be a list of integers: " + count);
+                }
+            }
+            String[] depths = split(cmd.getOptionValue(DEPTHS_OPTION, "1,16,64"));
+            run(agentJar, setups, threads, depths, cmd.hasOption(QUICK_OPTION));
+        } catch (ParseException e) {
+            System.err.println("Error parsing command-line arguments: " + e.getMessage());
+            new HelpFormatter().printHelp("java -jar benchmarks.jar --agentJar <agent-jar> [--setups <list>] [--threads <list>] [--depths <list>] [--quick]", options);
+        } catch (Exception e) {
+            System.err.println("Benchmark run failed: " + e.getMessage());
+        }
+    }
+
+    private static Options buildOptions() {
+        Options options = new Options();
+        options.addOption(Option.builder().longOpt(AGENT_JAR_OPTION).hasArg(true).required(true)
+                .desc("Path to the ExceptionBuddy agent jar").build());
+        options.addOption(Option.builder().longOpt(SETUPS_OPTION).hasArg(true)
+                .desc("Comma separated setups: none, disabled, filter_match, filter_miss, sync, async (default all)").build());
+        options.addOption(Option.builder().longOpt(THREADS_OPTION).hasArg(true)
+                .desc("Comma separated benchmark thread counts (default 1,4,16,64)").build());
+        options.addOption(Option.builder().longOpt(DEPTHS_OPTION).hasArg(true)
+                .desc("Comma separated stack depths below the benchmark method (default 1,16,64)").build());
+        options.addOption(Option.builder().longOpt(QUICK_OPTION)
+                .desc("One short warmup and measurement iteration, to check the setup rather than to measure").build());
+        return options;
+    }
+
+    private static void run(File agentJar, List<AgentSetup> setups, List<Integer> threads, String[] depths, boolean quick)
+            throws IOException, RunnerException {
+        File workDir = Files.createTempDirectory("eb-bench").toFile();
+        StringBuilder summary = new StringBuilder(String.format("%-13s %7s %-12s %6s %16s %12s%n",
+                "Setup", "Threads", "Benchmark", "Depth", "ops/ms", "B/op"));
+        for (AgentSetup setup : setups) {
+            List<String> jvmArgs = setup.jvmArgs(agentJar, workDir);
+            for (int threadCount : threads) {
+                ChainedOptionsBuilder builder = new OptionsBuilder()
+                        .include(ThrowableBenchmark.class.getName())
+                        .param("stackDepth", depths)
+                        .threads(threadCount)
+                        .addProfiler(GCProfiler.class)
+                        .jvmArgsAppend(jvmArgs.toArray(new String[0]));
+                if (quick) {
+                    builder.warmupIterations(1).warmupTime(TimeValue.seconds(1))
+                            .measurementIterations(1).measurementTime(TimeValue.seconds(1));
+                }
+                Collection<RunResult> results = new Runner(builder.build()).run();
+                for (RunResult result : results) {
+                    String benchmark = result.getParams().getBenchmark();
+                    summary.append(String.format("%-13s %7d %-12s %6s %16.1f %12.1f%n",
+                            setup.name().toLowerCase(), threadCount,
+                            benchmark.substring(benchmark.lastIndexOf('.') + 1),
+                            result.getParams().getParam("stackDepth"),
+                            result.getPrimaryResult().getScore(),
+                            allocation(result.getSecondaryResults())));
+                }
+            }
+        }
+        System.out.println();
+        System.out.print(summary);
+        System.out.println("Agent logs and configurations: " + workDir.getAbsolutePath());
+    }
+
+    //The GC profiler's key carries a middle dot prefix in some JMH versions
+    private static double allocation(Map<String, Result> secondaryResults) {
+        for (Map.Entry<String, Result> entry : secondaryResults.entrySet()) {
+            if (entry.getKey().endsWith(ALLOC_SUFFIX)) {
+                return entry.getValue().getScore();
+            }
+        }
+        return Double.NaN;
+    }
+
+    private static String[] split(String value) {
+        List<String> parts = new ArrayList<>();
+        for (String part : value.split(",")) {
+            if (!part.trim().isEmpty()) {
+                parts.add(part.trim());
+            }
+        }
+        return parts.toArray(new String[0]);
+    }
+}
@@ -0,0 +1,84 @@
+package com.asm.eb.bench;
+
+import com.asm.eb.capture.FrameMatcher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures matching a 200 frame stack against {@code filters} prefixes, with the trie of {@code FrameMatcher}
+ * and with the per-filter {@code String.startsWith} it replaced. The trie should cost about the same for any
+ * filter count, the per-filter matching grows with it.
+ *
+ * @author asmishra
+ * @since 10/17/2026
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FrameMatcherBenchmark {
+    private static final int DEPTH = 200;
+
+    @Param({"1", "10", "100", "1000"})
+    public int filters;
+
+    private List<String> prefixes;
+    private FrameMatcher matcher;
+    private StackTraceElement[] frames;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        prefixes = new ArrayList<>();
+        for (int i = 0; i < filters; i++) {
+            prefixes.add("com.vendor" + i + ".lib");
+        }
+        prefixes.set(filters - 1, "com.app.service.Handler7");
+        matcher = FrameMatcher.prefixes(prefixes);
+        frames = new StackTraceElement[DEPTH];
+        for (int i = 0; i < DEPTH; i++) {
+            frames[i] = new StackTraceElement("com.app.service.Handler" + (i % 20), "handle", "Handler" + (i % 20) + ".java", 100 + i);
+        }
+    }
+
+    @Benchmark
+    public int trie() {
+        int hits = 0;
+        for (StackTraceElement frame : frames) {
+            if (matcher.test(frame.getClassName(), frame.getMethodName(), frame.getFileName(), frame.getLineNumber())) {
+                hits++;
+            }
+        }
+        return hits;
+    }
+
+    @Benchmark
+    public int startsWith() {
+        int hits = 0;
+        for (StackTraceElement frame : frames) {
+            String text = frame.getClassName() + "." + frame.getMethodName() + "(" + frame.getFileName() + ":" + frame.getLineNumber() + ")";
+            for (String prefix : prefixes) {
+                if (text.startsWith(prefix)) {
+                    hits++;
+                    break;
+                }
+            }
+        }
+        return hits;
+    }
+}
@@ -0,0 +1,141 @@
+package com.asm.eb.bench;
+
+import com.asm.eb.config.ConfigurationParser;
+import com.asm.eb.hook.ExceptionHook;
+import com.asm.eb.logger.ExceptionLogger;
+import com.asm.eb.model.Configuration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the volatile-read dispatch of {@code ExceptionHook} against the dispatch it replaced, which took a
+ * class-wide monitor on every Throwable construction, and measures the current path with a logger installed: one
+ * whose filter rejects the exception and one that writes it to a log, synchronously. Run with the agent jar on the
+ * class path. Each benchmark runs in its own fork, since the logger is created once per JVM.
+ *
+ * @author asmishra
+ * @since 10/17/2026
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class HookDispatchBenchmark {
+    private static final RuntimeException SAMPLE = new RuntimeException("sample");
+
+    @Benchmark
+    public void hook(NoLogger state) {
+        ExceptionHook.onThrowable(SAMPLE);
+    }
+
+    @Benchmark
+    public void hookFilterMiss(FilteringLogger state) {
+        ExceptionHook.onThrowable(SAMPLE);
+    }
+
+    @Benchmark
+    public void hookLogging(WritingLogger state) {
+        ExceptionHook.onThrowable(SAMPLE);
+    }
+
+    @Benchmark
+    public void synchronizedGetter(NoLogger state) {
+        LegacyDispatch.dispatch(SAMPLE);
+    }
+
+    @State(Scope.Benchmark)
+    public static class NoLogger {
+        @Setup(Level.Trial)
+        public void uninstallHook() {
+            ExceptionHook.uninstall();
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class FilteringLogger extends InstalledLogger {
+        @Override
+        void configure(Configuration configuration) {
+            configuration.setUseFilters(true);
+            configuration.setFilters(Collections.singletonList("com.example.nowhere"));
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class WritingLogger extends InstalledLogger {
+        @Override
+        void configure(Configuration configuration) {
+            //Keeps the log of a long run to two files of 64 MB
+            configuration.setRollMaxBytes(64L << 20);
+            configuration.setRollRetention(1);
+            configuration.setRollCompress(false);
+        }
+    }
+
+    public abstract static class InstalledLogger {
+        private File directory;
+        private ExceptionLogger logger;
+
+        abstract void configure(Configuration configuration);
+
+        @Setup(Level.Trial)
+        public void installHook() throws IOException {
+            directory = Files.createTempDirectory("eb-hook-bench").toFile();
+            Configuration configuration = new Configuration();
+            configuration.setLogFilePath(new File(directory, "eb.log").getAbsolutePath());
+            configure(configuration);
+            ConfigurationParser.compileFrameMatchers(configuration);
+            logger = ExceptionLogger.getInstance(configuration);
+            ExceptionHook.install(logger);
+        }
+
+        @TearDown(Level.Trial)
+        public void uninstallHook() {
+            ExceptionHook.uninstall();
+            logger.close();
+            File[] files = directory.listFiles();
+            if (files != null) {
+                for (File file : files) {
+                    file.delete();
+                }
+            }
+            directory.delete();
+        }
+    }
+
+    /**
+     * Mirrors the previously injected code: a class-wide monitor acquired before the logger is consulted.
+     */
+    private static final class LegacyDispatch {
+        private static volatile Object instance;
+
+        private static synchronized Object getInstance() {
+            return instance;
+        }
+
+        private static void dispatch(Throwable throwable) {
+            Object logger = getInstance();
+            if (logger != null) {
+                logger.hashCode();
+            }
+        }
+    }
+}
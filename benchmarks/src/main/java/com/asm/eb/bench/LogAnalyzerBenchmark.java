@@ -0,0 +1,204 @@
+package com.asm.eb.bench;
+
+import org.apache.commons.cli.*;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Measures how the throughput of {@code LogAnalyzerCLI} scales with its thread count. Generates a text log of
+ * the requested size in the agent's layout, then analyzes it in a fresh JVM per thread count, after one
+ * untimed run that loads the file into the page cache, and prints the throughput of each and its speedup over
+ * the first.
+ *
+ * @author asmishra
+ * @since 10/17/2026
+ */
+public class LogAnalyzerBenchmark {
+    private static final String AGENT_JAR_OPTION = "agentJar";
+    private static final String LOG_OPTION = "log";
+    private static final String SIZE_OPTION = "sizeMb";
+    private static final String THREADS_OPTION = "threads";
+    private static final Pattern SECONDS = Pattern.compile(" bytes in ([0-9.,]+) s with ");
+    private static final int POOLS = 6;
+    private static final int THREADS_PER_POOL = 16;
+    private static final int TYPES = 30;
+    private static final int SITES = 400;
+    private static final int FRAMES = 24;
+
+    public static void main(String[] args) {
+        Options options = buildOptions();
+        try {
+            CommandLine cmd = new DefaultParser().parse(options, args);
+            File agentJar = new File(cmd.getOptionValue(AGENT_JAR_OPTION));
+            if (!agentJar.isFile()) {
+                throw new ParseException("Option 'agentJar' must point to the agent jar: " + agentJar.getPath());
+            }
+            long sizeMb;
+            try {
+                sizeMb = Long.parseLong(cmd.getOptionValue(SIZE_OPTION, "4096"));
+            } catch (NumberFormatException e) {
+                throw new ParseException("Option 'sizeMb' must be an integer: " + cmd.getOptionValue(SIZE_OPTION));
+            }
+            List<Integer> threads = new ArrayList<>();
+            String defaultThreads = defaultThreads(Runtime.getRuntime().availableProcessors());
+            for (String count : cmd.getOptionValue(THREADS_OPTION, defaultThreads).split(",")) {
+                try {
+                    threads.add(Integer.parseInt(count.trim()));
+                } catch (NumberFormatException e) {
+                    throw new ParseException("Option 'threads' must be a list of integers: " + count);
+                }
+            }
+            File log = cmd.hasOption(LOG_OPTION) ? new File(cmd.getOptionValue(LOG_OPTION))
+                    : new File(Files.createTempDirectory("eb-analyzer-bench").toFile(), "eb.log");
+            run(agentJar, log, sizeMb << 20, threads);
+        } catch (ParseException e) {
+            System.err.println("Error parsing command-line arguments: " + e.getMessage());
+            new HelpFormatter().printHelp("java -cp benchmarks.jar com.asm.eb.bench.LogAnalyzerBenchmark --agentJar <agent-jar> [--log <path>] [--sizeMb <size>] [--threads <list>]", options);
+        } catch (Exception e) {
+            System.err.println("Benchmark run failed: " + e.getMessage());
+        }
+    }
+
+    private static Options buildOptions() {
+        Options options = new Options();
+        options.addOption(Option.builder().longOpt(AGENT_JAR_OPTION).hasArg(true).required(true)
+                .desc("Path to the ExceptionBuddy agent jar").build());
+        options.addOption(Option.builder().longOpt(LOG_OPTION).hasArg(true)
+                .desc("Log to analyze; generated there if missing, in a temporary directory when omitted").build());
+        options.addOption(Option.builder().longOpt(SIZE_OPTION).hasArg(true)
+                .desc("Size of the generated log in MB (default 4096)").build());
+        options.addOption(Option.builder().longOpt(THREADS_OPTION).hasArg(true)
+                .desc("Comma separated analyzer thread counts (default powers of two up to the number of processors)").build());
+        return options;
+    }
+
+    private static String defaultThreads(int processors) {
+        StringBuilder threads = new StringBuilder("1");
+        for (int count = 2; count < processors; count *= 2) {
+            threads.append(',').append(count);
+        }
+        if (processors > 1) {
+            threads.append(',').append(processors);
+        }
+        return threads.toString();
+    }
+
+    private static void run(File agentJar, File log, long size, List<Integer> threads) throws Exception {
+        if (!log.isFile()) {
+            long start = System.nanoTime();
+            generate(log, size);
+            System.out.println(String.format("Generated %s: %d bytes in %.1f s", log, log.length(), (System.nanoTime() - start) / 1e9));
+        }
+        int maxThreads = 1;
+        for (int count : threads) {
+            maxThreads = Math.max(maxThreads, count);
+        }
+        analyze(agentJar, log, maxThreads);
+        StringBuilder summary = new StringBuilder(String.format("%7s %10s %10s %8s%n", "Threads", "Seconds", "MB/s", "Speedup"));
+        double baseline = Double.NaN;
+        for (int count : threads) {
+            double seconds = analyze(agentJar, log, count);
+            if (Double.isNaN(baseline)) {
+                baseline = seconds;
+            }
+            summary.append(String.format("%7d %10.2f %10.1f %8.2f%n", count, seconds, log.length() / 1e6 / seconds, baseline / seconds));
+        }
+        System.out.println();
+        System.out.print(summary);
+        System.out.println("Processors: " + Runtime.getRuntime().availableProcessors() + ", log: " + log.getAbsolutePath());
+    }
+
+    //Runs the analyzer in its own JVM and returns the time it reports, which leaves out JVM startup
+    private static double analyze(File agentJar, File log, int threads) throws IOException, InterruptedException {
+        File report = File.createTempFile("eb-analyzer-report", ".txt");
+        try {
+            ProcessBuilder builder = new ProcessBuilder(new File(System.getProperty("java.home"), "bin/java").getPath(),
+                    "-cp", agentJar.getAbsolutePath(), "com.asm.eb.decode.LogAnalyzerCLI",
+                    "--input", log.getAbsolutePath(), "--threads", String.valueOf(threads), "--output", report.getPath());
+            builder.redirectErrorStream(true);
+            Process process = builder.start();
+            StringBuilder output = new StringBuilder();
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    output.append(line).append(System.lineSeparator());
+                }
+            }
+            process.waitFor();
+            List<String> lines = Files.readAllLines(report.toPath(), StandardCharsets.UTF_8);
+            Matcher matcher = lines.isEmpty() ? null : SECONDS.matcher(lines.get(0));
+            if (matcher == null || !matcher.find()) {
+                throw new IOException("Analyzer with " + threads + " threads reported no time: " + output);
+            }
+            return Double.parseDouble(matcher.group(1).replace(',', '.'));
+        } finally {
+            report.delete();
+        }
+    }
+
+    /*
+     * Writes records in the layout of the agent's text log: exception records with a stack, every tenth
+     * exception followed by a repeat record, spread over a few thread pools, exception classes and throw sites.
+     */
+    private static void generate(File log, long size) throws IOException {
+        File parentDir = log.getAbsoluteFile().getParentFile();
+        if (parentDir != null && !parentDir.exists() && !parentDir.mkdirs()) {
+            throw new IOException("Failed to create directory: " + parentDir.getAbsolutePath());
+        }
+        Random random = new Random(42);
+        SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss.SSS");
+        String[][] stacks = new String[SITES][FRAMES];
+        for (int site = 0; site < SITES; site++) {
+            for (int frame = 0; frame < FRAMES; frame++) {
+                int module = (site * 7 + frame) % 50;
+                stacks[site][frame] = "\tat com.example.module" + module + ".Component" + (site % 40) + ".method" + frame
+                        + "(Component" + (site % 40) + ".java:" + (10 + frame * 3) + ")\n";
+            }
+        }
+        long timestamp = System.currentTimeMillis() - 86_400_000L;
+        long written = 0;
+        try (Writer out = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(log), StandardCharsets.UTF_8), 1 << 20)) {
+            StringBuilder record = new StringBuilder(4096);
+            for (long i = 0; written < size; i++) {
+                timestamp += random.nextInt(3);
+                int site = (int) Math.min(SITES - 1, Math.abs(random.nextGaussian()) * SITES / 4);
+                int type = site % TYPES;
+                String thread = "pool-" + (site % POOLS + 1) + "-thread-" + (random.nextInt(THREADS_PER_POOL) + 1);
+                String prefix = format.format(new Date(timestamp));
+                long fingerprint = 0x9e3779b97f4a7c15L * (site + 1);
+                record.setLength(0);
+                record.append(prefix).append(" [EXCEPTION]  [").append(thread).append("] [fingerprint=")
+                        .append(Long.toHexString(fingerprint)).append("] com.example.errors.Failure").append(type)
+                        .append("Exception: request ").append(i).append(" failed\n");
+                for (String frame : stacks[site]) {
+                    record.append(frame);
+                }
+                record.append('\n');
+                if (i % 10 == 0) {
+                    record.append(prefix).append(" [REPEAT]  [").append(thread).append("] [fingerprint=")
+                            .append(Long.toHexString(fingerprint)).append("] com.example.errors.Failure").append(type)
+                            .append("Exception seen ").append(1 + random.nextInt(100)).append(" more times since ")
+                            .append(format.format(new Date(timestamp - 60_000L))).append('\n');
+                }
+                out.append(record);
+                written += record.length();
+            }
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.asm.eb.bench;
+
+import com.asm.eb.export.SharedRingWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures publishing one event to a {@code SharedRingWriter} of 1024 slots of 512 bytes in a temporary file.
+ *
+ * @author asmishra
+ * @since 10/17/2026
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SharedRingBenchmark {
+    private static final long TIMESTAMP = 1_760_000_000_123L;
+    private static final StackTraceElement[] FRAMES = {
+            new StackTraceElement("com.example.Service", "handle", "Service.java", 42),
+            new StackTraceElement("com.example.Controller", "get", "Controller.java", 17)
+    };
+
+    private File ring;
+    private SharedRingWriter writer;
+    private long event;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        ring = new File(Files.createTempDirectory("eb-ring-bench").toFile(), "eb.ring");
+        writer = SharedRingWriter.create(ring, 1024, 512);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        writer.close();
+        ring.delete();
+        ring.getParentFile().delete();
+    }
+
+    @Benchmark
+    public void publish() {
+        long i = event++;
+        writer.publish(TIMESTAMP + i, "worker-1", "java.lang.IllegalStateException", "boom", FRAMES, 0, i);
+    }
+}
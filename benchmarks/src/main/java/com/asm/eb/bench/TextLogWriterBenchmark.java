@@ -0,0 +1,111 @@
+package com.asm.eb.bench;
+
+import com.asm.eb.logger.TextLogWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures formatting one exception record with five frames, by {@code TextLogWriter} and by the string
+ * concatenating PrintWriter code it replaced, both into a writer that discards the text. Run with the GC
+ * profiler, {@code -prof gc}, for the bytes allocated per record.
+ *
+ * @author asmishra
+ * @since 10/17/2026
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TextLogWriterBenchmark {
+    private static final long TIMESTAMP = 1_760_000_000_123L;
+    private static final StackTraceElement[] FRAMES = {
+            new StackTraceElement("com.example.Service", "handle", "Service.java", 42),
+            new StackTraceElement("com.example.Controller", "get", "Controller.java", 17),
+            new StackTraceElement("sun.reflect.NativeMethodAccessorImpl", "invoke0", null, -2),
+            new StackTraceElement("com.example.Generated", "run", null, -1),
+            new StackTraceElement("java.lang.Thread", "run", "Thread.java", 750)
+    };
+
+    private TextLogWriter encoder;
+    private LegacyFormatter legacy;
+    private long record;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        encoder = new TextLogWriter(new DiscardingWriter());
+        legacy = new LegacyFormatter(new DiscardingWriter());
+    }
+
+    @Benchmark
+    public void encoder() {
+        long i = record++;
+        encoder.writeException(TIMESTAMP + i, "worker-1", "java.lang.IllegalStateException", "boom", FRAMES, 0, true, i);
+    }
+
+    @Benchmark
+    public void printWriter() {
+        long i = record++;
+        legacy.writeException(TIMESTAMP + i, "worker-1", "java.lang.IllegalStateException", "boom", FRAMES, i);
+    }
+
+    /**
+     * The formatting code ExceptionLogger used before records were encoded into reusable buffers.
+     */
+    private static final class LegacyFormatter {
+        private final SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss.SSS");
+        private final PrintWriter writer;
+
+        private LegacyFormatter(Writer out) {
+            this.writer = new PrintWriter(out, false);
+        }
+
+        private void writeException(long timestamp, String threadName, String className, String message,
+                                    StackTraceElement[] frames, long fingerprint) {
+            String fingerprintTag = "[fingerprint=" + Long.toHexString(fingerprint) + "] ";
+            writer.println(format.format(new Date(timestamp)) + " [EXCEPTION] " + " [" + threadName + "] " + fingerprintTag + className + ": " + message);
+            for (StackTraceElement element : frames) {
+                writer.println("\tat " + element);
+            }
+            writer.println();
+        }
+    }
+
+    private static final class DiscardingWriter extends Writer {
+        @Override
+        public void write(char[] buffer, int offset, int length) {
+        }
+
+        @Override
+        public void write(String value, int offset, int length) {
+        }
+
+        @Override
+        public void write(int c) {
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
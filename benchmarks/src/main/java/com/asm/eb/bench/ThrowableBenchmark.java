@@ -0,0 +1,75 @@
+package com.asm.eb.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures constructing and throwing a RuntimeException below {@code stackDepth} application frames.
+ * Which agent setup is measured is decided by the JVM arguments of the fork, see {@link AgentSetup}.
+ *
+ * @author asmishra
+ * @since 10/17/2026
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ThrowableBenchmark {
+    static final String UNINSTALL_HOOK_PROPERTY = "eb.bench.uninstallHook";
+    private static final String HOOK_CLASS_NAME = "com.asm.eb.hook.ExceptionHook";
+
+    @Param({"1", "16", "64"})
+    public int stackDepth;
+
+    @Setup(Level.Trial)
+    public void uninstallHookIfRequested() throws ReflectiveOperationException {
+        if (Boolean.getBoolean(UNINSTALL_HOOK_PROPERTY)) {
+            //The agent jar is on the bootstrap class path, so the hook is visible to the null loader
+            Class.forName(HOOK_CLASS_NAME, true, null).getMethod("uninstall").invoke(null);
+        }
+    }
+
+    @Benchmark
+    public RuntimeException construct() {
+        return construct(stackDepth);
+    }
+
+    @Benchmark
+    public int throwCatch() {
+        try {
+            throwAt(stackDepth);
+            return 0;
+        } catch (RuntimeException e) {
+            return e.hashCode();
+        }
+    }
+
+    private static RuntimeException construct(int depth) {
+        if (depth > 1) {
+            return construct(depth - 1);
+        }
+        return new RuntimeException("eb-bench");
+    }
+
+    private static void throwAt(int depth) {
+        if (depth > 1) {
+            throwAt(depth - 1);
+            return;
+        }
+        throw new RuntimeException("eb-bench");
+    }
+}
@@ -1,13 +1,26 @@
 package com.asm.eb;
 
+import com.asm.eb.capture.StackCapture;
+import com.asm.eb.hook.ExceptionHook;
+import com.asm.eb.jmx.ExceptionBuddyStats;
 import com.asm.eb.logger.ExceptionLogger;
+import com.asm.eb.metrics.MetricsEndpoint;
+import com.asm.eb.metrics.MetricsServer;
 import com.asm.eb.monitor.JVMExceptionMonitor;
+import com.asm.eb.store.ExceptionCostProfiler;
+import com.asm.eb.store.StackSuppressor;
+import com.asm.eb.store.StatsStore;
+import com.asm.eb.store.ThrowSiteTracker;
 import com.asm.eb.transformer.ExceptionTransformer;
+import com.asm.eb.transformer.InstrumentationMode;
 import com.asm.eb.config.ConfigurationParser;
+import com.asm.eb.config.ConfigurationWatcher;
 import com.asm.eb.model.Configuration;
 import com.asm.eb.util.JVMUtils;
 
+import javax.management.JMException;
 import java.io.File;
+import java.io.IOException;
 import java.lang.instrument.Instrumentation;
 import java.lang.instrument.UnmodifiableClassException;
 import java.util.jar.JarFile;
@@ -95,33 +108,67 @@ public class ExceptionBuddy {
 
         ExceptionLogger exceptionLogger;
         try {
-            exceptionLogger = configuration.isUseFilters()
-                    ? ExceptionLogger.getInstance(configuration.getLogFilePath(), configuration.getFilters(), configuration.isExceptionMonitoring(), configuration.getCnfSkipString())
-                    : ExceptionLogger.getInstance(configuration.getLogFilePath(), null, configuration.isExceptionMonitoring(), configuration.getCnfSkipString());
+            exceptionLogger = ExceptionLogger.getInstance(configuration);
         } catch (RuntimeException e) {
             System.err.println(EXCEPTION_BUDDY_TAG + " Failed to initialize logger: " + e.getMessage());
             return;
         }
 
         exceptionLogger.logInfo("Exception Buddy initialized successfully.");
+        exceptionLogger.logInfo("Stack capture engine: " + StackCapture.engineName());
         exceptionLogger.logInfo(JVMUtils.getJVMCommandLine());
         if(configuration.isPrintJVMSysProps())
             exceptionLogger.logInfo(JVMUtils.getJVMSystemProperties());
         if(configuration.isPrintEnvironmentVariables())
             exceptionLogger.logInfo(JVMUtils.getEnvVars());
 
-        ExceptionTransformer exceptionTransformer = new ExceptionTransformer(configuration, exceptionLogger, mode, absolutePath);
+        if (configuration.isExceptionMonitoring() && configuration.isThrowSiteTracking()) {
+            StatsStore.enableThrowSiteTracking(new ThrowSiteTracker(configuration.getThrowSiteTopK(),
+                    configuration.getThrowSiteSketchWidth(), configuration.getThrowSiteSkipPrefixes()));
+        }
+        if (configuration.isExceptionMonitoring() && configuration.isCostProfiling()) {
+            ExceptionCostProfiler costProfiler = new ExceptionCostProfiler(configuration.getCostProfilingTopN(),
+                    configuration.getCostProfilingSiteCapacity(), configuration.getThrowSiteSkipPrefixes());
+            StatsStore.enableCostProfiling(costProfiler);
+            exceptionLogger.logInfo("Exception cost profiling enabled" + (costProfiler.isMeasuringAllocation() ? "" : ", allocation is not measurable on this JVM"));
+        }
+        if (configuration.isStackSuppression()) {
+            StackSuppressor stackSuppressor = new StackSuppressor(configuration.getStackSuppressionClasses(),
+                    configuration.getStackSuppressionSitePrefixes(), configuration.getStackSuppressionMaxFrames(),
+                    configuration.getThrowSiteSkipPrefixes());
+            if (stackSuppressor.isEffective()) {
+                StatsStore.enableStackSuppression(stackSuppressor);
+                exceptionLogger.logInfo("Stack capture suppressed for " + configuration.getStackSuppressionClasses()
+                        + " and throw sites under " + configuration.getStackSuppressionSitePrefixes()
+                        + ", keeping " + configuration.getStackSuppressionMaxFrames() + " frames");
+            } else {
+                exceptionLogger.logInfo("Stack suppression needs the StackWalker capture engine for throw sites and truncation, it is disabled with " + StackCapture.engineName());
+            }
+        }
+        ExceptionHook.install(exceptionLogger);
+        ExceptionTransformer exceptionTransformer = new ExceptionTransformer(configuration, exceptionLogger, absolutePath);
 
         // Check if class retransformation is supported and apply transformation to Throwable
         if(inst.isRetransformClassesSupported()) {
-            inst.addTransformer(exceptionTransformer, true);
-            try {
-                Class<?> throwableClass = Class.forName(THROWABLE_CLASS_NAME);
-                inst.retransformClasses(throwableClass);
-            } catch (ClassNotFoundException e) {
-                exceptionLogger.logError("Throwable class not found: " + e.getMessage());
-            } catch (UnmodifiableClassException e) {
-                exceptionLogger.logError("Cannot redefine Throwable class: " + e.getMessage());
+            //Without class-loader tracing the constructor mode has nothing to transform but Throwable, so a transformer
+            //that only compares class names is registered. It stays registered to instrument Throwable again if
+            //another agent retransforms it. THROW mode needs the full one for classes loaded later.
+            if (exceptionTransformer.getInstrumentationMode() == InstrumentationMode.CONSTRUCTOR && !configuration.isClassLoaderTracing()) {
+                inst.addTransformer(exceptionTransformer.throwableOnly(), true);
+            } else {
+                inst.addTransformer(exceptionTransformer, true);
+            }
+            if (exceptionTransformer.getInstrumentationMode() == InstrumentationMode.THROW) {
+                exceptionTransformer.retransformThrowSiteClasses(inst);
+            } else {
+                try {
+                    Class<?> throwableClass = Class.forName(THROWABLE_CLASS_NAME);
+                    inst.retransformClasses(throwableClass);
+                } catch (ClassNotFoundException e) {
+                    exceptionLogger.logError("Throwable class not found: " + e.getMessage());
+                } catch (UnmodifiableClassException e) {
+                    exceptionLogger.logError("Cannot redefine Throwable class: " + e.getMessage());
+                }
             }
         } else {
             exceptionLogger.logError("Class re-transformation is not supported. Exiting.");
@@ -132,10 +179,48 @@ public class ExceptionBuddy {
             jvmExceptionMonitor.execute();
         }
 
+        boolean jmxEnabled = configuration.isJmxEnabled();
+        if (jmxEnabled) {
+            try {
+                ExceptionBuddyStats.register(exceptionLogger);
+                exceptionLogger.logInfo("Registered MBean " + ExceptionBuddyStats.OBJECT_NAME);
+            } catch (JMException e) {
+                exceptionLogger.logError("Failed to register MBean " + ExceptionBuddyStats.OBJECT_NAME + ": " + e.getMessage());
+            }
+        }
+
+        boolean metricsEnabled = configuration.getMetricsPort() >= 0;
+        if (metricsEnabled) {
+            try {
+                MetricsEndpoint metricsEndpoint = MetricsServer.start(configuration.getMetricsBindAddress(),
+                        configuration.getMetricsPort(), exceptionLogger, absolutePath);
+                exceptionLogger.logInfo("Metrics endpoint listening on " + configuration.getMetricsBindAddress() + ":" + metricsEndpoint.getPort() + "/metrics");
+            } catch (IOException | RuntimeException e) {
+                exceptionLogger.logError("Failed to start metrics endpoint on port " + configuration.getMetricsPort() + ": " + e.getMessage());
+            }
+        }
+
+        boolean configurationReload = configuration.isConfigurationReload();
+        if (configurationReload) {
+            try {
+                ConfigurationWatcher.start(configurationFile, exceptionLogger, configuration);
+                exceptionLogger.logInfo("Watching " + configurationFile + " for configuration changes");
+            } catch (IOException | RuntimeException e) {
+                exceptionLogger.logError("Failed to watch " + configurationFile + " for configuration changes: " + e.getMessage());
+            }
+        }
+
         Thread shutdownHook = new Thread(() -> {
             JVMExceptionMonitor jvmExceptionMonitor = JVMExceptionMonitor.getInstance();
             if (jvmExceptionMonitor != null)
                 jvmExceptionMonitor.shutdown();
+            ExceptionHook.uninstall();
+            if (jmxEnabled)
+                ExceptionBuddyStats.unregister();
+            if (metricsEnabled)
+                MetricsServer.stop();
+            if (configurationReload)
+                ConfigurationWatcher.stop();
             ExceptionLogger.getInstance().close();
             System.out.println(EXCEPTION_BUDDY_TAG + " Shutdown complete.");
         });
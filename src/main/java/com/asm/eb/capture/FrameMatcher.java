@@ -0,0 +1,176 @@
+package com.asm.eb.capture;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Immutable character trie compiled from frame filters.
+ * A frame is matched against the text {@code className.methodName(FileName.java:line)}, the layout of
+ * StackTraceElement.toString() on JDK 8, but the text is never built: the trie is walked character by character
+ * straight from the frame's parts. Matching cost depends on the length of the frame, not on the number of filters.
+ *
+ * @author asmishra
+ * @since 10/17/2026
+ */
+public final class FrameMatcher implements FramePredicate {
+    private static final int DEAD = -1;
+    private static final int MATCHED = -2;
+
+    //Children of node n are labels/targets[firstChild[n] .. firstChild[n + 1]), sorted by label
+    private final int[] firstChild;
+    private final char[] labels;
+    private final int[] targets;
+    private final boolean[] terminal;
+    private final boolean prefixMatch;
+    private final int size;
+
+    private FrameMatcher(Builder root, boolean prefixMatch, int size) {
+        List<Builder> nodes = new ArrayList<>();
+        root.collect(nodes);
+        this.firstChild = new int[nodes.size() + 1];
+        this.labels = new char[nodes.size() - 1];
+        this.targets = new int[nodes.size() - 1];
+        this.terminal = new boolean[nodes.size()];
+        int edge = 0;
+        for (int i = 0; i < nodes.size(); i++) {
+            Builder node = nodes.get(i);
+            terminal[i] = node.terminal;
+            firstChild[i] = edge;
+            for (Map.Entry<Character, Builder> entry : node.children.entrySet()) {
+                labels[edge] = entry.getKey();
+                targets[edge] = entry.getValue().index;
+                edge++;
+            }
+        }
+        firstChild[nodes.size()] = edge;
+        this.prefixMatch = prefixMatch;
+        this.size = size;
+    }
+
+    /**
+     * Compiles filters that match any frame whose text starts with one of them.
+     *
+     * @param prefixes The filter prefixes, blank entries are ignored.
+     * @return The compiled matcher.
+     */
+    public static FrameMatcher prefixes(Collection<String> prefixes) {
+        Builder root = new Builder();
+        int size = 0;
+        for (String prefix : prefixes == null ? Collections.<String>emptyList() : prefixes) {
+            if (prefix != null && !prefix.isEmpty()) {
+                root.add(prefix);
+                size++;
+            }
+        }
+        return new FrameMatcher(root, true, size);
+    }
+
+    /**
+     * Compiles a matcher for frames whose text is exactly the given value.
+     *
+     * @param value The full frame text, e.g. {@code java.lang.ClassLoader.loadClass(ClassLoader.java:406)}.
+     * @return The compiled matcher.
+     */
+    public static FrameMatcher exact(String value) {
+        Builder root = new Builder();
+        root.add(value);
+        return new FrameMatcher(root, false, 1);
+    }
+
+    /**
+     * @return The number of filters compiled into this matcher.
+     */
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean test(String className, String methodName, String fileName, int lineNumber) {
+        int node = feed(0, className);
+        node = feed(node, '.');
+        node = feed(node, methodName);
+        if (lineNumber == -2) {
+            node = feed(node, "(Native Method)");
+        } else if (fileName == null) {
+            node = feed(node, "(Unknown Source)");
+        } else {
+            node = feed(node, '(');
+            node = feed(node, fileName);
+            if (lineNumber >= 0) {
+                node = feed(node, ':');
+                node = feedNumber(node, lineNumber);
+            }
+            node = feed(node, ')');
+        }
+        if (node == MATCHED) {
+            return true;
+        }
+        return !prefixMatch && node >= 0 && terminal[node];
+    }
+
+    private int feed(int node, String value) {
+        for (int i = 0; i < value.length() && node >= 0; i++) {
+            node = feed(node, value.charAt(i));
+        }
+        return node;
+    }
+
+    private int feedNumber(int node, int value) {
+        int divisor = 1;
+        while (value / divisor >= 10) {
+            divisor *= 10;
+        }
+        while (divisor > 0 && node >= 0) {
+            node = feed(node, (char) ('0' + (value / divisor) % 10));
+            divisor /= 10;
+        }
+        return node;
+    }
+
+    private int feed(int node, char c) {
+        if (node < 0) {
+            return node;
+        }
+        int low = firstChild[node];
+        int high = firstChild[node + 1] - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            char candidate = labels[middle];
+            if (candidate < c) {
+                low = middle + 1;
+            } else if (candidate > c) {
+                high = middle - 1;
+            } else {
+                int next = targets[middle];
+                return prefixMatch && terminal[next] ? MATCHED : next;
+            }
+        }
+        return DEAD;
+    }
+
+    private static final class Builder {
+        private final TreeMap<Character, Builder> children = new TreeMap<>();
+        private boolean terminal;
+        private int index;
+
+        private void add(String value) {
+            Builder node = this;
+            for (int i = 0; i < value.length(); i++) {
+                node = node.children.computeIfAbsent(value.charAt(i), key -> new Builder());
+            }
+            node.terminal = true;
+        }
+
+        private void collect(List<Builder> nodes) {
+            index = nodes.size();
+            nodes.add(this);
+            for (Builder child : children.values()) {
+                child.collect(nodes);
+            }
+        }
+    }
+}
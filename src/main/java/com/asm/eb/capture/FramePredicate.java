@@ -0,0 +1,11 @@
+package com.asm.eb.capture;
+
+/**
+ * Test applied to a single stack frame while it is being walked.
+ *
+ * @author asmishra
+ * @since 10/17/2026
+ */
+public interface FramePredicate {
+    boolean test(String className, String methodName, String fileName, int lineNumber);
+}
@@ -0,0 +1,16 @@
+package com.asm.eb.capture;
+
+/**
+ * Strategy used by {@link StackCapture} to read the frames of a throwable.
+ *
+ * @author asmishra
+ * @since 10/17/2026
+ */
+public interface FrameWalker {
+
+    String name();
+
+    boolean anyFrameMatches(Throwable throwable, boolean constructingThread, int maxFrames, FramePredicate predicate);
+
+    StackTraceElement[] capture(Throwable throwable, boolean constructingThread, int maxFrames);
+}
@@ -0,0 +1,79 @@
+package com.asm.eb.capture;
+
+/**
+ * Bounded-depth access to the frames of a throwable.
+ * On JDK 9+ builds the StackWalker-based walker from src/main/java9 is bundled and selected when the running
+ * JVM supports it; it walks the constructing thread lazily so only the inspected frames are materialized.
+ * Everywhere else frames come from {@link Throwable#getStackTrace()}.
+ *
+ * @author asmishra
+ * @since 10/17/2026
+ */
+public final class StackCapture {
+    private static final String STACK_WALKER_IMPLEMENTATION = "com.asm.eb.capture.StackWalkerFrameWalker";
+    private static final FrameWalker FALLBACK = new ThrowableFrameWalker();
+    private static final FrameWalker WALKER = selectWalker();
+
+    private StackCapture() {
+    }
+
+    /**
+     * @return A short description of the capture engine in use, logged at startup.
+     */
+    public static String engineName() {
+        return WALKER.name();
+    }
+
+    /**
+     * @return true if frames come from the live stack of the constructing thread rather than from the throwable,
+     * so they can be walked before the throwable's own stack trace is filled in.
+     */
+    public static boolean walksLiveStack() {
+        return WALKER != FALLBACK;
+    }
+
+    /**
+     * Checks the frames of the throwable one by one and stops at the first match.
+     *
+     * @param throwable          The throwable whose frames are inspected.
+     * @param constructingThread true when called from inside the throwable's constructor on the throwing thread.
+     * @param maxFrames          Maximum number of frames to inspect, 0 for no limit.
+     * @param predicate          The test applied to each frame.
+     * @return true if any of the inspected frames matches.
+     */
+    public static boolean anyFrameMatches(Throwable throwable, boolean constructingThread, int maxFrames, FramePredicate predicate) {
+        return WALKER.anyFrameMatches(throwable, constructingThread, maxFrames, predicate);
+    }
+
+    /**
+     * Returns at most {@code maxFrames} frames of the throwable, top of the stack first.
+     *
+     * @param throwable          The throwable whose frames are captured.
+     * @param constructingThread true when called from inside the throwable's constructor on the throwing thread.
+     * @param maxFrames          Maximum number of frames to return, 0 for no limit.
+     * @return The captured frames.
+     */
+    public static StackTraceElement[] capture(Throwable throwable, boolean constructingThread, int maxFrames) {
+        return WALKER.capture(throwable, constructingThread, maxFrames);
+    }
+
+    static FrameWalker fallback() {
+        return FALLBACK;
+    }
+
+    static int limit(int maxFrames) {
+        return maxFrames > 0 ? maxFrames : Integer.MAX_VALUE;
+    }
+
+    private static FrameWalker selectWalker() {
+        if (System.getProperty("java.version").startsWith("1.")) {
+            return FALLBACK;
+        }
+        try {
+            return (FrameWalker) Class.forName(STACK_WALKER_IMPLEMENTATION).getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            // Built on JDK 8, the StackWalker variant is not bundled.
+            return FALLBACK;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.asm.eb.capture;
+
+import java.util.Arrays;
+
+/**
+ * Reads frames from {@link Throwable#getStackTrace()}, which materializes the whole trace.
+ * Used on JDK 8 and whenever the caller is not inside the throwable's constructor.
+ *
+ * @author asmishra
+ * @since 10/17/2026
+ */
+public final class ThrowableFrameWalker implements FrameWalker {
+
+    @Override
+    public String name() {
+        return "Throwable.getStackTrace";
+    }
+
+    @Override
+    public boolean anyFrameMatches(Throwable throwable, boolean constructingThread, int maxFrames, FramePredicate predicate) {
+        StackTraceElement[] frames = throwable.getStackTrace();
+        int limit = Math.min(frames.length, StackCapture.limit(maxFrames));
+        for (int i = 0; i < limit; i++) {
+            StackTraceElement frame = frames[i];
+            if (predicate.test(frame.getClassName(), frame.getMethodName(), frame.getFileName(), frame.getLineNumber())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public StackTraceElement[] capture(Throwable throwable, boolean constructingThread, int maxFrames) {
+        StackTraceElement[] frames = throwable.getStackTrace();
+        if (frames.length > StackCapture.limit(maxFrames)) {
+            return Arrays.copyOf(frames, maxFrames);
+        }
+        return frames;
+    }
+}
@@ -0,0 +1,94 @@
+package com.asm.eb.config;
+
+import com.asm.eb.capture.FrameMatcher;
+import com.asm.eb.model.Configuration;
+import com.asm.eb.sampling.ExceptionSampler;
+
+/**
+ * The part of the configuration that can change while the agent runs: filters, cnfSkipString, maxFrames, sampling
+ * and the monitor's report interval and spike thresholds. Instances are immutable and replaced as a whole, so a
+ * reader that loads the reference once sees either the old or the new settings, never a mix.
+ *
+ * @author asmishra
+ * @since 10/17/2026
+ */
+public final class CompiledConfiguration {
+    private final FrameMatcher filterMatcher;
+    private final FrameMatcher cnfSkipMatcher;
+    private final int maxFrames;
+    private final ExceptionSampler sampler; //null when sampling is disabled
+    private final boolean samplingEnabled;
+    private final double samplingPerTypeRate;
+    private final double samplingGlobalRate;
+    private final int samplingKeepOneIn;
+    private final int samplingSiteCapacity;
+    private final long monitorIntervalMillis;
+    private final double spikeFactor;
+    private final double spikeMinRate;
+
+    private CompiledConfiguration(Configuration configuration, CompiledConfiguration previous) {
+        this.filterMatcher = configuration.getFilterMatcher();
+        this.cnfSkipMatcher = configuration.getCnfSkipMatcher();
+        this.maxFrames = configuration.getMaxFrames();
+        this.samplingEnabled = configuration.isSamplingEnabled();
+        this.samplingPerTypeRate = configuration.getSamplingPerTypeRate();
+        this.samplingGlobalRate = configuration.getSamplingGlobalRate();
+        this.samplingKeepOneIn = configuration.getSamplingKeepOneIn();
+        this.samplingSiteCapacity = configuration.getSamplingSiteCapacity();
+        this.monitorIntervalMillis = configuration.getMonitorIntervalSeconds() * 1000L;
+        this.spikeFactor = configuration.getSpikeFactor();
+        this.spikeMinRate = configuration.getSpikeMinRate();
+        if (!samplingEnabled) {
+            this.sampler = null;
+        } else if (previous != null && previous.sampler != null && sameSampling(previous)) {
+            //Keeps the token buckets and the first-occurrence tables when only other settings changed
+            this.sampler = previous.sampler;
+        } else {
+            this.sampler = new ExceptionSampler(samplingPerTypeRate, samplingGlobalRate, samplingKeepOneIn, samplingSiteCapacity);
+        }
+    }
+
+    /**
+     * @param configuration A validated configuration with compiled frame matchers.
+     * @param previous      The settings being replaced, or null on startup.
+     * @return The compiled settings.
+     */
+    public static CompiledConfiguration compile(Configuration configuration, CompiledConfiguration previous) {
+        return new CompiledConfiguration(configuration, previous);
+    }
+
+    private boolean sameSampling(CompiledConfiguration other) {
+        return samplingPerTypeRate == other.samplingPerTypeRate
+                && samplingGlobalRate == other.samplingGlobalRate
+                && samplingKeepOneIn == other.samplingKeepOneIn
+                && samplingSiteCapacity == other.samplingSiteCapacity;
+    }
+
+    public FrameMatcher getFilterMatcher() {
+        return filterMatcher;
+    }
+
+    public FrameMatcher getCnfSkipMatcher() {
+        return cnfSkipMatcher;
+    }
+
+    public int getMaxFrames() {
+        return maxFrames;
+    }
+
+    public ExceptionSampler getSampler() {
+        return sampler;
+    }
+
+    public long getMonitorIntervalMillis() {
+        return monitorIntervalMillis;
+    }
+
+    public double getSpikeFactor() {
+        return spikeFactor;
+    }
+
+    public double getSpikeMinRate() {
+        return spikeMinRate;
+    }
+}
@@ -1,6 +1,11 @@
 package com.asm.eb.config;
 
+import com.asm.eb.capture.FrameMatcher;
+import com.asm.eb.export.SharedRingWriter;
+import com.asm.eb.logger.LogFormat;
+import com.asm.eb.logger.OverflowPolicy;
 import com.asm.eb.model.Configuration;
+import com.asm.eb.transformer.InstrumentationMode;
 import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
@@ -17,6 +22,11 @@ import java.util.List;
  * @since 2/13/2025
  */
 public class ConfigurationParser {
+    //cnfSkipString is only honoured for frames of ClassLoader.loadClass
+    private static final String DEFAULT_CNF_SKIP_PREFIX = "java.lang.ClassLoader.loadClass";
+    //Throw sites in these packages run inside the JDK or the agent itself and cannot be instrumented safely
+    private static final String[] RESERVED_PACKAGE_PREFIXES = {"java.", "jdk.", "sun.", "com.asm.eb."};
+
     public static Configuration parseConfigurationFile(String configurationFile) {
         if (configurationFile == null || configurationFile.trim().isEmpty()) {
             throw new IllegalArgumentException("Configuration file path cannot be null or blank.");
@@ -72,6 +82,177 @@ public class ConfigurationParser {
             configuration.setCnfSkipString(normalized.isEmpty() ? null : normalized);
         }
 
+        if (configuration.getAsyncQueueCapacity() <= 0) {
+            throw new IllegalArgumentException("Configuration property 'asyncQueueCapacity' must be a positive integer.");
+        }
+        if (configuration.getAsyncSampleRate() <= 0) {
+            throw new IllegalArgumentException("Configuration property 'asyncSampleRate' must be a positive integer.");
+        }
+        if (configuration.getFingerprintCacheSize() <= 0) {
+            throw new IllegalArgumentException("Configuration property 'fingerprintCacheSize' must be a positive integer.");
+        }
+        if (configuration.getRepeatSummaryIntervalSeconds() < 0) {
+            throw new IllegalArgumentException("Configuration property 'repeatSummaryIntervalSeconds' cannot be negative.");
+        }
+        if (configuration.getMaxFrames() < 0) {
+            throw new IllegalArgumentException("Configuration property 'maxFrames' cannot be negative.");
+        }
+        if (configuration.getSamplingPerTypeRate() < 0 || configuration.getSamplingGlobalRate() < 0) {
+            throw new IllegalArgumentException("Configuration properties 'samplingPerTypeRate' and 'samplingGlobalRate' cannot be negative.");
+        }
+        if (configuration.getSamplingKeepOneIn() < 0) {
+            throw new IllegalArgumentException("Configuration property 'samplingKeepOneIn' cannot be negative.");
+        }
+        if (configuration.getSamplingSiteCapacity() < 0) {
+            throw new IllegalArgumentException("Configuration property 'samplingSiteCapacity' cannot be negative.");
+        }
+        if (configuration.getBinarySegmentBytes() <= 0) {
+            throw new IllegalArgumentException("Configuration property 'binarySegmentBytes' must be a positive integer.");
+        }
+        if (configuration.getRollMaxBytes() < 0 || configuration.getRollIntervalMinutes() < 0) {
+            throw new IllegalArgumentException("Configuration properties 'rollMaxBytes' and 'rollIntervalMinutes' cannot be negative.");
+        }
+        if (configuration.getRollRetention() <= 0) {
+            throw new IllegalArgumentException("Configuration property 'rollRetention' must be a positive integer.");
+        }
+        if (configuration.getThrowSiteSkipPrefixes() != null) {
+            List<String> normalizedPrefixes = new ArrayList<>();
+            for (String prefix : configuration.getThrowSiteSkipPrefixes()) {
+                if (prefix != null && !prefix.trim().isEmpty()) {
+                    normalizedPrefixes.add(prefix.trim());
+                }
+            }
+            configuration.setThrowSiteSkipPrefixes(normalizedPrefixes);
+        }
+        if (configuration.getThrowSiteTopK() <= 0 || configuration.getThrowSiteSketchWidth() <= 0) {
+            throw new IllegalArgumentException("Configuration properties 'throwSiteTopK' and 'throwSiteSketchWidth' must be positive integers.");
+        }
+        if (configuration.getMonitorIntervalSeconds() <= 0) {
+            throw new IllegalArgumentException("Configuration property 'monitorIntervalSeconds' must be a positive integer.");
+        }
+        if (configuration.getSpikeFactor() < 0 || configuration.getSpikeMinRate() < 0) {
+            throw new IllegalArgumentException("Configuration properties 'spikeFactor' and 'spikeMinRate' cannot be negative.");
+        }
+        if (configuration.getMetricsPort() < -1 || configuration.getMetricsPort() > 65535) {
+            throw new IllegalArgumentException("Configuration property 'metricsPort' must be between 0 and 65535, or -1 to disable the endpoint.");
+        }
+        if (configuration.getMetricsBindAddress() == null || configuration.getMetricsBindAddress().trim().isEmpty()) {
+            configuration.setMetricsBindAddress("127.0.0.1");
+        } else {
+            configuration.setMetricsBindAddress(configuration.getMetricsBindAddress().trim());
+        }
+        InstrumentationMode instrumentationMode = InstrumentationMode.fromConfig(configuration.getInstrumentationMode());
+        configuration.setInstrumentationMode(instrumentationMode.name());
+        List<String> normalizedPackages = new ArrayList<>();
+        if (configuration.getThrowInstrumentationPackages() != null) {
+            for (String prefix : configuration.getThrowInstrumentationPackages()) {
+                if (prefix == null || prefix.trim().isEmpty()) {
+                    continue;
+                }
+                String normalized = prefix.trim();
+                for (String reserved : RESERVED_PACKAGE_PREFIXES) {
+                    if (normalized.startsWith(reserved) || reserved.startsWith(normalized)) {
+                        throw new IllegalArgumentException("Configuration property 'throwInstrumentationPackages' cannot include JDK or agent packages: " + normalized);
+                    }
+                }
+                normalizedPackages.add(normalized);
+            }
+        }
+        configuration.setThrowInstrumentationPackages(normalizedPackages);
+        if (instrumentationMode == InstrumentationMode.THROW && normalizedPackages.isEmpty()) {
+            throw new IllegalArgumentException("Configuration property 'throwInstrumentationPackages' must contain at least one value when 'instrumentationMode' is THROW.");
+        }
+        if (configuration.getCostProfilingTopN() <= 0 || configuration.getCostProfilingSiteCapacity() <= 0) {
+            throw new IllegalArgumentException("Configuration properties 'costProfilingTopN' and 'costProfilingSiteCapacity' must be positive integers.");
+        }
+        if (configuration.isCostProfiling() && instrumentationMode != InstrumentationMode.CONSTRUCTOR) {
+            throw new IllegalArgumentException("Configuration property 'costProfiling' requires 'instrumentationMode' CONSTRUCTOR.");
+        }
+        configuration.setStackSuppressionClasses(trimmed(configuration.getStackSuppressionClasses()));
+        configuration.setStackSuppressionSitePrefixes(trimmed(configuration.getStackSuppressionSitePrefixes()));
+        if (configuration.getStackSuppressionMaxFrames() < 0) {
+            throw new IllegalArgumentException("Configuration property 'stackSuppressionMaxFrames' cannot be negative.");
+        }
+        if (configuration.isStackSuppression() && instrumentationMode != InstrumentationMode.CONSTRUCTOR) {
+            throw new IllegalArgumentException("Configuration properties 'stackSuppressionClasses' and 'stackSuppressionSitePrefixes' require 'instrumentationMode' CONSTRUCTOR.");
+        }
+        if (configuration.getExportPort() < -1 || configuration.getExportPort() == 0 || configuration.getExportPort() > 65535) {
+            throw new IllegalArgumentException("Configuration property 'exportPort' must be between 1 and 65535, or -1 to disable exporting.");
+        }
+        if (configuration.getExportHost() == null || configuration.getExportHost().trim().isEmpty()) {
+            configuration.setExportHost("127.0.0.1");
+        } else {
+            configuration.setExportHost(configuration.getExportHost().trim());
+        }
+        if (configuration.getExportQueueCapacity() <= 0 || configuration.getExportFlushIntervalMillis() <= 0) {
+            throw new IllegalArgumentException("Configuration properties 'exportQueueCapacity' and 'exportFlushIntervalMillis' must be positive.");
+        }
+        String exportJvmName = configuration.getExportJvmName();
+        if (exportJvmName != null) {
+            String normalized = exportJvmName.trim();
+            configuration.setExportJvmName(normalized.isEmpty() ? null : normalized);
+        }
+        if (configuration.isExportOnly() && configuration.getExportPort() == -1) {
+            throw new IllegalArgumentException("Configuration property 'exportOnly' requires 'exportPort'.");
+        }
+        String sharedRingFile = configuration.getSharedRingFile();
+        if (sharedRingFile != null) {
+            String normalized = sharedRingFile.trim();
+            configuration.setSharedRingFile(normalized.isEmpty() ? null : normalized);
+        }
+        int sharedRingSlots = configuration.getSharedRingSlots();
+        if (sharedRingSlots < 2 || Integer.bitCount(sharedRingSlots) != 1) {
+            throw new IllegalArgumentException("Configuration property 'sharedRingSlots' must be a power of two.");
+        }
+        int sharedRingSlotBytes = configuration.getSharedRingSlotBytes();
+        if (sharedRingSlotBytes < SharedRingWriter.MIN_SLOT_BYTES || sharedRingSlotBytes > SharedRingWriter.MAX_SLOT_BYTES || sharedRingSlotBytes % 64 != 0) {
+            throw new IllegalArgumentException("Configuration property 'sharedRingSlotBytes' must be a multiple of 64 between "
+                    + SharedRingWriter.MIN_SLOT_BYTES + " and " + SharedRingWriter.MAX_SLOT_BYTES + ".");
+        }
+        if ((long) sharedRingSlots * sharedRingSlotBytes > SharedRingWriter.MAX_RING_BYTES) {
+            throw new IllegalArgumentException("Configuration properties 'sharedRingSlots' times 'sharedRingSlotBytes' must not exceed "
+                    + SharedRingWriter.MAX_RING_BYTES + " bytes.");
+        }
+        String bytecodeCacheDir = configuration.getBytecodeCacheDir();
+        if (bytecodeCacheDir != null) {
+            String normalized = bytecodeCacheDir.trim();
+            configuration.setBytecodeCacheDir(normalized.isEmpty() ? null : normalized);
+        }
+        configuration.setAsyncOverflowPolicy(OverflowPolicy.fromConfig(configuration.getAsyncOverflowPolicy()).name());
+        configuration.setLogFormat(LogFormat.fromConfig(configuration.getLogFormat()).name());
+
+        compileFrameMatchers(configuration);
         return configuration;
     }
+
+    //Trims the values and drops blank ones
+    private static List<String> trimmed(List<String> values) {
+        List<String> normalized = new ArrayList<>();
+        if (values != null) {
+            for (String value : values) {
+                if (value != null && !value.trim().isEmpty()) {
+                    normalized.add(value.trim());
+                }
+            }
+        }
+        return normalized;
+    }
+
+    /**
+     * Compiles the normalized filters and cnfSkipString into immutable frame matchers,
+     * so the exception path never has to build or compare frame strings.
+     *
+     * @param configuration The configuration to compile matchers for.
+     */
+    public static void compileFrameMatchers(Configuration configuration) {
+        List<String> filters = configuration.getFilters();
+        configuration.setFilterMatcher(configuration.isUseFilters() && filters != null && !filters.isEmpty()
+                ? FrameMatcher.prefixes(filters)
+                : null);
+
+        String cnfSkipString = configuration.getCnfSkipString();
+        configuration.setCnfSkipMatcher(cnfSkipString != null && cnfSkipString.startsWith(DEFAULT_CNF_SKIP_PREFIX)
+                ? FrameMatcher.exact(cnfSkipString)
+                : null);
+    }
 }
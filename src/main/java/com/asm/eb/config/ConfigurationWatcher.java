@@ -0,0 +1,229 @@
+package com.asm.eb.config;
+
+import com.asm.eb.logger.ExceptionLogger;
+import com.asm.eb.model.Configuration;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Watches the configuration file and applies filters, sampling, maxFrames and monitor settings when it changes.
+ * A changed file is validated like at startup and compiled into a new {@link CompiledConfiguration}, which replaces
+ * the logger's current one with a single volatile write; a file that fails validation leaves the running settings
+ * untouched. Settings that shape the logger itself, such as the log file or async mode, still need a restart.
+ *
+ * @author asmishra
+ * @since 10/17/2026
+ */
+public final class ConfigurationWatcher implements Runnable {
+    //Editors write a file in several steps, reading it right after the first event can see it half written
+    private static final long SETTLE_MILLIS = 200L;
+    private static ConfigurationWatcher instance;
+
+    private final Path configurationFile;
+    private final ExceptionLogger exceptionLogger;
+    private final Configuration startupConfiguration;
+    private WatchService watchService;
+    private Thread thread;
+    private byte[] appliedContent; //Only touched by the watcher thread after start
+    private String lastSeenState; //Likewise
+
+    ConfigurationWatcher(String configurationFile, ExceptionLogger exceptionLogger, Configuration startupConfiguration) throws IOException {
+        this.configurationFile = Paths.get(configurationFile).toAbsolutePath();
+        this.exceptionLogger = exceptionLogger;
+        this.startupConfiguration = startupConfiguration;
+        this.appliedContent = Files.readAllBytes(this.configurationFile);
+        this.lastSeenState = fileState();
+    }
+
+    /**
+     * Starts watching, replacing a watcher started by an earlier attach.
+     *
+     * @param configurationFile    The file the running configuration was read from.
+     * @param exceptionLogger      The logger to apply changes to.
+     * @param startupConfiguration The configuration read at attach, to tell which changes need a restart.
+     * @throws IOException If the file or its directory cannot be watched.
+     */
+    public static synchronized void start(String configurationFile, ExceptionLogger exceptionLogger,
+                                          Configuration startupConfiguration) throws IOException {
+        stop();
+        ConfigurationWatcher watcher = new ConfigurationWatcher(configurationFile, exceptionLogger, startupConfiguration);
+        watcher.watchService = FileSystems.getDefault().newWatchService();
+        watcher.configurationFile.getParent().register(watcher.watchService,
+                StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        watcher.thread = new Thread(watcher, "eb-config-watcher");
+        watcher.thread.setDaemon(true);
+        watcher.thread.start();
+        instance = watcher;
+    }
+
+    public static synchronized void stop() {
+        ConfigurationWatcher watcher = instance;
+        if (watcher == null) {
+            return;
+        }
+        watcher.thread.interrupt();
+        try {
+            watcher.watchService.close();
+        } catch (IOException ignored) {
+            //The thread exits on interrupt anyway
+        }
+        instance = null;
+    }
+
+    @Override
+    public void run() {
+        //Exceptions raised while parsing must not be logged as application exceptions
+        ExceptionLogger.markInsideLogging();
+        Path fileName = configurationFile.getFileName();
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                WatchKey key = watchService.take();
+                boolean changed = false;
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    changed |= fileName.equals(event.context()) || event.kind() == StandardWatchEventKinds.OVERFLOW;
+                }
+                key.reset();
+                //An event on another entry can still be the change, as when a deploy swaps a symlink the file resolves through
+                changed |= fileStateChanged();
+                if (changed) {
+                    Thread.sleep(SETTLE_MILLIS);
+                    fileStateChanged();
+                    reloadIfChanged();
+                }
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * @return true if the file the configuration path resolves to, or its modification time or size, changed
+     * since the last call.
+     */
+    boolean fileStateChanged() {
+        String state = fileState();
+        boolean changed = !state.equals(lastSeenState);
+        lastSeenState = state;
+        return changed;
+    }
+
+    private String fileState() {
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(configurationFile, BasicFileAttributes.class);
+            return configurationFile.toRealPath() + "|" + attributes.lastModifiedTime().toMillis() + "|" + attributes.size();
+        } catch (IOException e) {
+            return "missing";
+        }
+    }
+
+    /**
+     * Applies the file if its content differs from what was applied last.
+     *
+     * @return true when new settings were applied.
+     */
+    boolean reloadIfChanged() {
+        byte[] content;
+        try {
+            content = Files.readAllBytes(configurationFile);
+        } catch (IOException e) {
+            exceptionLogger.logError("Configuration reload rejected, keeping the current settings: cannot read "
+                    + configurationFile + ": " + e.getMessage());
+            return false;
+        }
+        if (Arrays.equals(content, appliedContent)) {
+            return false;
+        }
+        Configuration configuration;
+        try {
+            configuration = ConfigurationParser.parseConfigurationFile(configurationFile.toString());
+        } catch (RuntimeException e) {
+            exceptionLogger.logError("Configuration reload rejected, keeping the current settings: " + e.getMessage());
+            appliedContent = content;
+            return false;
+        }
+        exceptionLogger.applyConfiguration(CompiledConfiguration.compile(configuration, exceptionLogger.getCompiledConfiguration()));
+        appliedContent = content;
+        exceptionLogger.logInfo("Configuration reloaded from " + configurationFile
+                + ": filters, cnfSkipString, maxFrames, sampling and monitor settings applied.");
+        List<String> ignored = restartOnlyChanges(startupConfiguration, configuration);
+        if (!ignored.isEmpty()) {
+            exceptionLogger.logWarn("Configuration changes to " + String.join(", ", ignored) + " take effect after a restart.");
+        }
+        return true;
+    }
+
+    /**
+     * @return The changed properties that are not applied by a reload: every property except filters,
+     * useFilters, cnfSkipString, maxFrames, the sampling settings, monitorIntervalSeconds, spikeFactor and
+     * spikeMinRate.
+     */
+    static List<String> restartOnlyChanges(Configuration running, Configuration reloaded) {
+        List<String> changed = new ArrayList<>();
+        addIfChanged(changed, "logFilePath", running.getLogFilePath(), reloaded.getLogFilePath());
+        addIfChanged(changed, "logFormat", running.getLogFormat(), reloaded.getLogFormat());
+        addIfChanged(changed, "binarySegmentBytes", running.getBinarySegmentBytes(), reloaded.getBinarySegmentBytes());
+        addIfChanged(changed, "classLoaderTracing", running.isClassLoaderTracing(), reloaded.isClassLoaderTracing());
+        addIfChanged(changed, "exceptionMonitoring", running.isExceptionMonitoring(), reloaded.isExceptionMonitoring());
+        addIfChanged(changed, "printJVMSysProps", running.isPrintJVMSysProps(), reloaded.isPrintJVMSysProps());
+        addIfChanged(changed, "printEnvironmentVariables", running.isPrintEnvironmentVariables(), reloaded.isPrintEnvironmentVariables());
+        addIfChanged(changed, "asyncLogging", running.isAsyncLogging(), reloaded.isAsyncLogging());
+        addIfChanged(changed, "asyncQueueCapacity", running.getAsyncQueueCapacity(), reloaded.getAsyncQueueCapacity());
+        addIfChanged(changed, "asyncOverflowPolicy", running.getAsyncOverflowPolicy(), reloaded.getAsyncOverflowPolicy());
+        addIfChanged(changed, "asyncSampleRate", running.getAsyncSampleRate(), reloaded.getAsyncSampleRate());
+        addIfChanged(changed, "deduplicateTraces", running.isDeduplicateTraces(), reloaded.isDeduplicateTraces());
+        addIfChanged(changed, "fingerprintCacheSize", running.getFingerprintCacheSize(), reloaded.getFingerprintCacheSize());
+        addIfChanged(changed, "repeatSummaryIntervalSeconds", running.getRepeatSummaryIntervalSeconds(), reloaded.getRepeatSummaryIntervalSeconds());
+        addIfChanged(changed, "rollMaxBytes", running.getRollMaxBytes(), reloaded.getRollMaxBytes());
+        addIfChanged(changed, "rollIntervalMinutes", running.getRollIntervalMinutes(), reloaded.getRollIntervalMinutes());
+        addIfChanged(changed, "rollRetention", running.getRollRetention(), reloaded.getRollRetention());
+        addIfChanged(changed, "rollCompress", running.isRollCompress(), reloaded.isRollCompress());
+        addIfChanged(changed, "throwSiteTracking", running.isThrowSiteTracking(), reloaded.isThrowSiteTracking());
+        addIfChanged(changed, "throwSiteTopK", running.getThrowSiteTopK(), reloaded.getThrowSiteTopK());
+        addIfChanged(changed, "throwSiteSketchWidth", running.getThrowSiteSketchWidth(), reloaded.getThrowSiteSketchWidth());
+        addIfChanged(changed, "throwSiteSkipPrefixes", running.getThrowSiteSkipPrefixes(), reloaded.getThrowSiteSkipPrefixes());
+        addIfChanged(changed, "jmxEnabled", running.isJmxEnabled(), reloaded.isJmxEnabled());
+        addIfChanged(changed, "metricsPort", running.getMetricsPort(), reloaded.getMetricsPort());
+        addIfChanged(changed, "metricsBindAddress", running.getMetricsBindAddress(), reloaded.getMetricsBindAddress());
+        addIfChanged(changed, "configurationReload", running.isConfigurationReload(), reloaded.isConfigurationReload());
+        addIfChanged(changed, "instrumentationMode", running.getInstrumentationMode(), reloaded.getInstrumentationMode());
+        addIfChanged(changed, "throwInstrumentationPackages", running.getThrowInstrumentationPackages(), reloaded.getThrowInstrumentationPackages());
+        addIfChanged(changed, "bytecodeCache", running.isBytecodeCache(), reloaded.isBytecodeCache());
+        addIfChanged(changed, "bytecodeCacheDir", running.getBytecodeCacheDir(), reloaded.getBytecodeCacheDir());
+        addIfChanged(changed, "costProfiling", running.isCostProfiling(), reloaded.isCostProfiling());
+        addIfChanged(changed, "costProfilingTopN", running.getCostProfilingTopN(), reloaded.getCostProfilingTopN());
+        addIfChanged(changed, "costProfilingSiteCapacity", running.getCostProfilingSiteCapacity(), reloaded.getCostProfilingSiteCapacity());
+        addIfChanged(changed, "stackSuppressionClasses", running.getStackSuppressionClasses(), reloaded.getStackSuppressionClasses());
+        addIfChanged(changed, "stackSuppressionSitePrefixes", running.getStackSuppressionSitePrefixes(), reloaded.getStackSuppressionSitePrefixes());
+        addIfChanged(changed, "stackSuppressionMaxFrames", running.getStackSuppressionMaxFrames(), reloaded.getStackSuppressionMaxFrames());
+        addIfChanged(changed, "exportPort", running.getExportPort(), reloaded.getExportPort());
+        addIfChanged(changed, "exportHost", running.getExportHost(), reloaded.getExportHost());
+        addIfChanged(changed, "exportQueueCapacity", running.getExportQueueCapacity(), reloaded.getExportQueueCapacity());
+        addIfChanged(changed, "exportFlushIntervalMillis", running.getExportFlushIntervalMillis(), reloaded.getExportFlushIntervalMillis());
+        addIfChanged(changed, "exportJvmName", running.getExportJvmName(), reloaded.getExportJvmName());
+        addIfChanged(changed, "exportOnly", running.isExportOnly(), reloaded.isExportOnly());
+        addIfChanged(changed, "sharedRingFile", running.getSharedRingFile(), reloaded.getSharedRingFile());
+        addIfChanged(changed, "sharedRingSlots", running.getSharedRingSlots(), reloaded.getSharedRingSlots());
+        addIfChanged(changed, "sharedRingSlotBytes", running.getSharedRingSlotBytes(), reloaded.getSharedRingSlotBytes());
+        return changed;
+    }
+
+    private static void addIfChanged(List<String> changed, String property, Object running, Object reloaded) {
+        if (!Objects.equals(running, reloaded)) {
+            changed.add(property);
+        }
+    }
+}
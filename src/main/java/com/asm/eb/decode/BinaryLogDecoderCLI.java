@@ -0,0 +1,186 @@
+package com.asm.eb.decode;
+
+import com.asm.eb.logger.LogRecordWriter;
+import com.asm.eb.logger.TextLogWriter;
+import org.apache.commons.cli.*;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.text.ParsePosition;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * A command-line interface (CLI) tool that renders a binary exception log (logFormat BINARY) back to
+ * the text layout of eb.log, optionally restricted to a time range and to some exception types.
+ *
+ * @author asmishra
+ * @since 10/17/2026
+ */
+public class BinaryLogDecoderCLI {
+    private static final String INPUT_OPTION = "input";
+    private static final String OUTPUT_OPTION = "output";
+    private static final String FROM_OPTION = "from";
+    private static final String TO_OPTION = "to";
+    private static final String TYPE_OPTION = "type";
+    private static final String[] TIME_PATTERNS = {"yyyy-MM-dd HH:mm:ss.SSS", "yyyy-MM-dd HH:mm:ss", "yyyy-MM-dd"};
+
+    public static void main(String[] args) {
+        Options options = buildOptions();
+        try {
+            CliArguments cliArguments = parseAndValidateArguments(args, options);
+            decode(cliArguments);
+        } catch (ParseException e) {
+            System.err.println("Error parsing command-line arguments: " + e.getMessage());
+            printUsage(options);
+        } catch (Exception e) {
+            System.err.println("Error while decoding the binary log: " + e.getMessage());
+        }
+    }
+
+    static Options buildOptions() {
+        Options options = new Options();
+
+        Option inputOption = Option.builder()
+                .longOpt(INPUT_OPTION)
+                .hasArg(true)
+                .required(true)
+                .desc("Path to the binary log file")
+                .build();
+        Option outputOption = Option.builder()
+                .longOpt(OUTPUT_OPTION)
+                .hasArg(true)
+                .desc("Path of the text file to write, standard output when omitted")
+                .build();
+        Option fromOption = Option.builder()
+                .longOpt(FROM_OPTION)
+                .hasArg(true)
+                .desc("Earliest record to print, as epoch millis or yyyy-MM-dd[ HH:mm:ss[.SSS]]")
+                .build();
+        Option toOption = Option.builder()
+                .longOpt(TO_OPTION)
+                .hasArg(true)
+                .desc("Latest record to print, as epoch millis or yyyy-MM-dd[ HH:mm:ss[.SSS]]")
+                .build();
+        Option typeOption = Option.builder()
+                .longOpt(TYPE_OPTION)
+                .hasArg(true)
+                .desc("Comma separated fully qualified exception class names to print")
+                .build();
+        options.addOption(inputOption);
+        options.addOption(outputOption);
+        options.addOption(fromOption);
+        options.addOption(toOption);
+        options.addOption(typeOption);
+        return options;
+    }
+
+    private static void printUsage(Options options) {
+        HelpFormatter formatter = new HelpFormatter();
+        formatter.printHelp("java -cp <agent-jar> com.asm.eb.decode.BinaryLogDecoderCLI --input <path> [--from <time>] [--to <time>] [--type <classes>]", options);
+    }
+
+    static CliArguments parseAndValidateArguments(String[] args, Options options) throws ParseException {
+        CommandLineParser parser = new DefaultParser();
+        CommandLine cmd = parser.parse(options, args);
+
+        String inputPath = cmd.getOptionValue(INPUT_OPTION);
+        if (inputPath == null || inputPath.trim().isEmpty()) {
+            throw new ParseException("Option 'input' must be provided.");
+        }
+        File input = new File(inputPath.trim());
+        if (!input.isFile() || !input.canRead()) {
+            throw new ParseException("Option 'input' must point to a readable file: " + input.getPath());
+        }
+        long from = parseTime(cmd.getOptionValue(FROM_OPTION), FROM_OPTION, Long.MIN_VALUE);
+        long to = parseTime(cmd.getOptionValue(TO_OPTION), TO_OPTION, Long.MAX_VALUE);
+        if (from > to) {
+            throw new ParseException("Option 'from' must not be after option 'to'.");
+        }
+        Set<String> types = null;
+        String typeValue = cmd.getOptionValue(TYPE_OPTION);
+        if (typeValue != null) {
+            types = new LinkedHashSet<>();
+            for (String type : typeValue.split(",")) {
+                if (!type.trim().isEmpty()) {
+                    types.add(type.trim());
+                }
+            }
+            if (types.isEmpty()) {
+                throw new ParseException("Option 'type' must name at least one exception class.");
+            }
+        }
+        String outputPath = cmd.getOptionValue(OUTPUT_OPTION);
+        return new CliArguments(input.getAbsolutePath(), outputPath == null ? null : outputPath.trim(), from, to, types);
+    }
+
+    static long parseTime(String value, String optionName, long defaultValue) throws ParseException {
+        if (value == null || value.trim().isEmpty()) {
+            return defaultValue;
+        }
+        String normalized = value.trim();
+        if (normalized.chars().allMatch(Character::isDigit)) {
+            try {
+                return Long.parseLong(normalized);
+            } catch (NumberFormatException e) {
+                throw new ParseException("Option '" + optionName + "' is out of range: " + normalized);
+            }
+        }
+        for (String pattern : TIME_PATTERNS) {
+            SimpleDateFormat format = new SimpleDateFormat(pattern);
+            format.setLenient(false);
+            ParsePosition position = new ParsePosition(0);
+            Date date = format.parse(normalized, position);
+            if (date != null && position.getIndex() == normalized.length()) {
+                return date.getTime();
+            }
+        }
+        throw new ParseException("Option '" + optionName + "' must be epoch millis or yyyy-MM-dd[ HH:mm:ss[.SSS]]: " + normalized);
+    }
+
+    /**
+     * Decodes the input and writes the matching records as text.
+     *
+     * @param arguments The validated arguments.
+     * @return The number of records decoded.
+     * @throws Exception If the input cannot be read or is not a binary exception log.
+     */
+    static long decode(CliArguments arguments) throws Exception {
+        OutputStream out = arguments.outputPath == null ? System.out : new FileOutputStream(arguments.outputPath);
+        LogRecordWriter text = new TextLogWriter(new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8)));
+        LogRecordWriter sink = new RecordFilter(text, arguments.from, arguments.to, arguments.types);
+        try (InputStream in = new FileInputStream(arguments.inputPath)) {
+            return new BinaryLogReader().read(in, sink);
+        } finally {
+            if (arguments.outputPath == null) {
+                sink.flush();
+            } else {
+                sink.close();
+            }
+        }
+    }
+
+    static final class CliArguments {
+        final String inputPath;
+        final String outputPath;
+        final long from;
+        final long to;
+        final Set<String> types;
+
+        private CliArguments(String inputPath, String outputPath, long from, long to, Set<String> types) {
+            this.inputPath = inputPath;
+            this.outputPath = outputPath;
+            this.from = from;
+            this.to = to;
+            this.types = types;
+        }
+    }
+}
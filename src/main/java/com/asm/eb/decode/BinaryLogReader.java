@@ -0,0 +1,246 @@
+package com.asm.eb.decode;
+
+import com.asm.eb.logger.BinaryLogFormat;
+import com.asm.eb.logger.LogRecordWriter;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Decodes a binary exception log and replays its records into a {@link LogRecordWriter}.
+ * A record cut short at the end of the file, as left behind by a process that died mid-write, ends decoding
+ * without an error.
+ *
+ * @author asmishra
+ * @since 10/17/2026
+ */
+public final class BinaryLogReader {
+    private final List<String> strings = new ArrayList<>();
+    private final List<StackTraceElement> frames = new ArrayList<>();
+    private long lastTimestamp;
+    private long recordCount;
+
+    /**
+     * Reads every record from the stream.
+     *
+     * @param in   The binary log, positioned at the file header.
+     * @param sink Receives the decoded records in file order.
+     * @return The number of records decoded, dictionary records included.
+     * @throws IOException              If the stream cannot be read.
+     * @throws IllegalArgumentException If the stream is not a binary exception log or a record is malformed.
+     */
+    public long read(InputStream in, LogRecordWriter sink) throws IOException {
+        DataInputStream data = new DataInputStream(new BufferedInputStream(in));
+        readHeader(data);
+        byte[] record = new byte[256];
+        while (true) {
+            long length;
+            try {
+                length = readVarLong(data);
+            } catch (EOFException e) {
+                break;
+            }
+            if (length <= 0 || length > BinaryLogFormat.MAX_RECORD_BYTES) {
+                throw new IllegalArgumentException("Malformed record length " + length + " after " + recordCount + " records.");
+            }
+            if (record.length < length) {
+                record = new byte[(int) length];
+            }
+            try {
+                data.readFully(record, 0, (int) length);
+            } catch (EOFException e) {
+                break;
+            }
+            decode(new RecordInput(record, (int) length), sink);
+            recordCount++;
+        }
+        sink.flush();
+        return recordCount;
+    }
+
+    private static void readHeader(DataInputStream data) throws IOException {
+        byte[] magic = new byte[BinaryLogFormat.MAGIC.length];
+        try {
+            data.readFully(magic);
+            if (!Arrays.equals(magic, BinaryLogFormat.MAGIC)) {
+                throw new IllegalArgumentException("Input is not a binary exception log.");
+            }
+            byte version = data.readByte();
+            if (version != BinaryLogFormat.VERSION) {
+                throw new IllegalArgumentException("Unsupported binary log version " + version + ".");
+            }
+        } catch (EOFException e) {
+            throw new IllegalArgumentException("Input is not a binary exception log.");
+        }
+    }
+
+    private void decode(RecordInput in, LogRecordWriter sink) {
+        byte type = in.readByte();
+        switch (type) {
+            case BinaryLogFormat.SEGMENT:
+                in.readVarLong();
+                lastTimestamp = in.readVarLong();
+                strings.clear();
+                frames.clear();
+                break;
+            case BinaryLogFormat.STRING:
+                strings.add(in.readString());
+                break;
+            case BinaryLogFormat.FRAME: {
+                String className = string(in.readVarLong());
+                String methodName = string(in.readVarLong());
+                long fileId = in.readVarLong();
+                String fileName = fileId == 0 ? null : string(fileId - 1);
+                int lineNumber = (int) BinaryLogFormat.zigZagDecode(in.readVarLong());
+                frames.add(new StackTraceElement(className, methodName, fileName, lineNumber));
+                break;
+            }
+            case BinaryLogFormat.EXCEPTION: {
+                long timestamp = readTimestamp(in);
+                String threadName = string(in.readVarLong());
+                String className = string(in.readVarLong());
+                String message = in.readNullableString();
+                int flags = in.readByte();
+                boolean hasFingerprint = (flags & BinaryLogFormat.FLAG_FINGERPRINT) != 0;
+                long fingerprint = hasFingerprint ? in.readFixedLong() : 0L;
+                int truncatedAt = (flags & BinaryLogFormat.FLAG_TRUNCATED) != 0 ? (int) in.readVarLong() : 0;
+                int frameCount = (int) in.readVarLong();
+                if (frameCount < 0 || frameCount > in.remaining()) {
+                    throw new IllegalArgumentException("Malformed frame count " + frameCount + " in record " + recordCount + ".");
+                }
+                StackTraceElement[] stackFrames = new StackTraceElement[frameCount];
+                for (int i = 0; i < frameCount; i++) {
+                    stackFrames[i] = frame(in.readVarLong());
+                }
+                sink.writeException(timestamp, threadName, className, message, stackFrames, truncatedAt, hasFingerprint, fingerprint);
+                break;
+            }
+            case BinaryLogFormat.MESSAGE: {
+                long timestamp = readTimestamp(in);
+                String level = string(in.readVarLong());
+                String threadName = string(in.readVarLong());
+                sink.writeMessage(timestamp, level, threadName, in.readNullableString());
+                break;
+            }
+            case BinaryLogFormat.REPEAT: {
+                long timestamp = readTimestamp(in);
+                String threadName = string(in.readVarLong());
+                long fingerprint = in.readFixedLong();
+                String className = string(in.readVarLong());
+                long count = in.readVarLong();
+                long sinceTimestamp = timestamp + BinaryLogFormat.zigZagDecode(in.readVarLong());
+                sink.writeRepeat(timestamp, threadName, fingerprint, className, count, sinceTimestamp);
+                break;
+            }
+            case BinaryLogFormat.CLASS_LOADING: {
+                long timestamp = readTimestamp(in);
+                String threadName = string(in.readVarLong());
+                sink.writeClassLoading(timestamp, threadName, in.readNullableString());
+                break;
+            }
+            default:
+                throw new IllegalArgumentException("Unknown record type " + type + " in record " + recordCount + ".");
+        }
+    }
+
+    private long readTimestamp(RecordInput in) {
+        lastTimestamp += BinaryLogFormat.zigZagDecode(in.readVarLong());
+        return lastTimestamp;
+    }
+
+    private String string(long id) {
+        if (id < 0 || id >= strings.size()) {
+            throw new IllegalArgumentException("Undefined string id " + id + " in record " + recordCount + ".");
+        }
+        return strings.get((int) id);
+    }
+
+    private StackTraceElement frame(long id) {
+        if (id < 0 || id >= frames.size()) {
+            throw new IllegalArgumentException("Undefined frame id " + id + " in record " + recordCount + ".");
+        }
+        return frames.get((int) id);
+    }
+
+    private static long readVarLong(DataInputStream data) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = data.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint.");
+    }
+
+    /**
+     * Cursor over the payload of one record.
+     */
+    private static final class RecordInput {
+        private final byte[] bytes;
+        private final int limit;
+        private int position;
+
+        private RecordInput(byte[] bytes, int limit) {
+            this.bytes = bytes;
+            this.limit = limit;
+        }
+
+        private int remaining() {
+            return limit - position;
+        }
+
+        private byte readByte() {
+            if (position >= limit) {
+                throw new IllegalArgumentException("Record ends unexpectedly.");
+            }
+            return bytes[position++];
+        }
+
+        private long readVarLong() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                byte b = readByte();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IllegalArgumentException("Malformed varint.");
+        }
+
+        private long readFixedLong() {
+            long value = 0;
+            for (int i = 0; i < 8; i++) {
+                value = (value << 8) | (readByte() & 0xFF);
+            }
+            return value;
+        }
+
+        private String readString() {
+            return readBytes(readVarLong());
+        }
+
+        private String readNullableString() {
+            long length = readVarLong();
+            return length == 0 ? null : readBytes(length - 1);
+        }
+
+        private String readBytes(long length) {
+            if (length < 0 || length > remaining()) {
+                throw new IllegalArgumentException("Record ends unexpectedly.");
+            }
+            String value = new String(bytes, position, (int) length, StandardCharsets.UTF_8);
+            position += (int) length;
+            return value;
+        }
+    }
+}
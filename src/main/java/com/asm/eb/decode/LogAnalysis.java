@@ -0,0 +1,221 @@
+package com.asm.eb.decode;
+
+import java.io.PrintWriter;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Exception counts of a part of a text log, per exception class, top frame, minute and thread pool. Each
+ * part of the log is counted into its own instance, which are then merged. Exception records count once,
+ * repeat records as many times as they report. A repeat record only carries a fingerprint, so its top frame
+ * is taken from the exception record with the same fingerprint once all parts are merged.
+ * Not thread-safe.
+ *
+ * @author asmishra
+ * @since 10/17/2026
+ */
+final class LogAnalysis {
+    static final String NO_FRAMES = "<no frames>";
+
+    private final Map<String, long[]> types = new HashMap<>();
+    private final Map<String, long[]> topFrames = new HashMap<>();
+    private final Map<String, long[]> threadPools = new HashMap<>();
+    private final Map<Long, long[]> minutes = new HashMap<>();
+    //Fingerprints of exception records, and repeat counts whose top frame is not known yet
+    private final Map<Long, String> fingerprintFrames = new HashMap<>();
+    private final Map<Long, long[]> unresolvedRepeats = new HashMap<>();
+    private final Map<String, String> poolNames = new HashMap<>();
+    private long traces;
+    private long repeatRecords;
+    private long repeated;
+    private long otherRecords;
+    private long firstTimestamp = Long.MAX_VALUE;
+    private long lastTimestamp = Long.MIN_VALUE;
+
+    void addException(long timestamp, String type, String thread, String topFrame, boolean hasFingerprint, long fingerprint) {
+        traces++;
+        add(topFrames, topFrame, 1L);
+        if (hasFingerprint && !fingerprintFrames.containsKey(fingerprint)) {
+            fingerprintFrames.put(fingerprint, topFrame);
+        }
+        addOccurrences(timestamp, type, thread, 1L);
+    }
+
+    void addRepeat(long timestamp, String type, String thread, long fingerprint, long count) {
+        repeatRecords++;
+        repeated += count;
+        add(unresolvedRepeats, fingerprint, count);
+        addOccurrences(timestamp, type, thread, count);
+    }
+
+    void addOther() {
+        otherRecords++;
+    }
+
+    private void addOccurrences(long timestamp, String type, String thread, long count) {
+        add(types, type, count);
+        add(threadPools, poolName(thread), count);
+        add(minutes, Math.floorDiv(timestamp, 60_000L), count);
+        firstTimestamp = Math.min(firstTimestamp, timestamp);
+        lastTimestamp = Math.max(lastTimestamp, timestamp);
+    }
+
+    //pool-1-thread-7 and pool-1-thread-12 are both counted as pool-1-thread-*
+    private String poolName(String thread) {
+        String pool = poolNames.get(thread);
+        if (pool == null) {
+            int end = thread.length();
+            while (end > 0 && Character.isDigit(thread.charAt(end - 1))) {
+                end--;
+            }
+            pool = end == thread.length() || end == 0 ? thread : thread.substring(0, end) + "*";
+            poolNames.put(thread, pool);
+        }
+        return pool;
+    }
+
+    private static <K> void add(Map<K, long[]> counts, K key, long count) {
+        long[] counter = counts.get(key);
+        if (counter == null) {
+            counts.put(key, new long[]{count});
+        } else {
+            counter[0] += count;
+        }
+    }
+
+    /**
+     * Adds the counts of another part of the log and resolves the repeat records whose exception record is
+     * in the other part.
+     */
+    LogAnalysis merge(LogAnalysis other) {
+        mergeCounts(types, other.types);
+        mergeCounts(topFrames, other.topFrames);
+        mergeCounts(threadPools, other.threadPools);
+        mergeCounts(minutes, other.minutes);
+        mergeCounts(unresolvedRepeats, other.unresolvedRepeats);
+        for (Map.Entry<Long, String> entry : other.fingerprintFrames.entrySet()) {
+            if (!fingerprintFrames.containsKey(entry.getKey())) {
+                fingerprintFrames.put(entry.getKey(), entry.getValue());
+            }
+        }
+        traces += other.traces;
+        repeatRecords += other.repeatRecords;
+        repeated += other.repeated;
+        otherRecords += other.otherRecords;
+        firstTimestamp = Math.min(firstTimestamp, other.firstTimestamp);
+        lastTimestamp = Math.max(lastTimestamp, other.lastTimestamp);
+        return this;
+    }
+
+    private static <K> void mergeCounts(Map<K, long[]> counts, Map<K, long[]> other) {
+        for (Map.Entry<K, long[]> entry : other.entrySet()) {
+            add(counts, entry.getKey(), entry.getValue()[0]);
+        }
+    }
+
+    long getTraces() {
+        return traces;
+    }
+
+    long getRepeatRecords() {
+        return repeatRecords;
+    }
+
+    /**
+     * @return Exceptions counted: one per exception record plus the counts of the repeat records.
+     */
+    long getOccurrences() {
+        return traces + repeated;
+    }
+
+    long getOtherRecords() {
+        return otherRecords;
+    }
+
+    Map<String, Long> getTypeCounts() {
+        return sorted(types);
+    }
+
+    Map<String, Long> getThreadPoolCounts() {
+        return sorted(threadPools);
+    }
+
+    /**
+     * @return Counts per top frame, with repeat records attributed to the top frame of their fingerprint's
+     * exception record, or to {@code <fingerprint=...>} if the log does not hold it, as after a roll.
+     */
+    Map<String, Long> getTopFrameCounts() {
+        Map<String, long[]> counts = new HashMap<>();
+        mergeCounts(counts, topFrames);
+        for (Map.Entry<Long, long[]> entry : unresolvedRepeats.entrySet()) {
+            String frame = fingerprintFrames.get(entry.getKey());
+            add(counts, frame == null ? "<fingerprint=" + Long.toHexString(entry.getKey()) + ">" : frame, entry.getValue()[0]);
+        }
+        return sorted(counts);
+    }
+
+    /**
+     * @return Counts per minute since the epoch, in time order.
+     */
+    Map<Long, Long> getMinuteCounts() {
+        Map<Long, Long> counts = new TreeMap<>();
+        for (Map.Entry<Long, long[]> entry : minutes.entrySet()) {
+            counts.put(entry.getKey(), entry.getValue()[0]);
+        }
+        return counts;
+    }
+
+    //Highest count first, then by name
+    private static Map<String, Long> sorted(Map<String, long[]> counts) {
+        List<Map.Entry<String, long[]>> entries = new ArrayList<>(counts.entrySet());
+        Collections.sort(entries, (a, b) -> a.getValue()[0] != b.getValue()[0]
+                ? Long.compare(b.getValue()[0], a.getValue()[0]) : a.getKey().compareTo(b.getKey()));
+        Map<String, Long> result = new LinkedHashMap<>();
+        for (Map.Entry<String, long[]> entry : entries) {
+            result.put(entry.getKey(), entry.getValue()[0]);
+        }
+        return result;
+    }
+
+    /**
+     * Writes the report: totals, the {@code top} largest counts per exception class, top frame and thread
+     * pool, and the count of every minute.
+     */
+    void report(PrintWriter out, int top) {
+        SimpleDateFormat secondFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
+        out.print("Exceptions: " + getOccurrences() + " (" + traces + " traces, " + repeated + " more in " + repeatRecords
+                + " repeat records), " + otherRecords + " other records");
+        if (firstTimestamp <= lastTimestamp) {
+            out.print(", " + secondFormat.format(new Date(firstTimestamp)) + " to " + secondFormat.format(new Date(lastTimestamp)));
+        }
+        out.println();
+        section(out, "Exception types", getTypeCounts(), top);
+        section(out, "Top frames", getTopFrameCounts(), top);
+        section(out, "Thread pools", getThreadPoolCounts(), top);
+        out.println();
+        out.println("Per minute:");
+        SimpleDateFormat minuteFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm");
+        for (Map.Entry<Long, Long> entry : getMinuteCounts().entrySet()) {
+            out.println(String.format("  %s %12d", minuteFormat.format(new Date(entry.getKey() * 60_000L)), entry.getValue()));
+        }
+    }
+
+    private static void section(PrintWriter out, String title, Map<String, Long> counts, int top) {
+        out.println();
+        out.println(title + " (" + Math.min(top, counts.size()) + " of " + counts.size() + "):");
+        int printed = 0;
+        for (Map.Entry<String, Long> entry : counts.entrySet()) {
+            if (printed++ == top) {
+                break;
+            }
+            out.println(String.format("  %12d  %s", entry.getValue(), entry.getKey()));
+        }
+    }
+}
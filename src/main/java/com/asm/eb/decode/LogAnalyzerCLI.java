@@ -0,0 +1,360 @@
+package com.asm.eb.decode;
+
+import org.apache.commons.cli.*;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * A command-line interface (CLI) tool that summarizes a text exception log (logFormat TEXT): exception counts
+ * per class, top frame, minute and thread pool. The file is cut into chunks that are counted in parallel by a
+ * fork/join pool, each through its own memory map, and the partial counts are merged into one report. A chunk
+ * counts the records whose first line starts inside it, reading past its end only to finish its last record.
+ *
+ * @author asmishra
+ * @since 10/17/2026
+ */
+public class LogAnalyzerCLI {
+    private static final String INPUT_OPTION = "input";
+    private static final String OUTPUT_OPTION = "output";
+    private static final String THREADS_OPTION = "threads";
+    private static final String TOP_OPTION = "top";
+    private static final int DEFAULT_TOP = 20;
+    //Chunks per thread, so threads that finish early take over work
+    private static final int CHUNKS_PER_THREAD = 8;
+    private static final long MIN_CHUNK_BYTES = 1L << 20;
+    private static final long MAX_CHUNK_BYTES = 64L << 20;
+    private static final int TAIL_WINDOW_BYTES = 64 * 1024;
+
+    public static void main(String[] args) {
+        Options options = buildOptions();
+        try {
+            CliArguments cliArguments = parseAndValidateArguments(args, options);
+            analyze(cliArguments);
+        } catch (ParseException e) {
+            System.err.println("Error parsing command-line arguments: " + e.getMessage());
+            printUsage(options);
+        } catch (Exception e) {
+            System.err.println("Error while analyzing the log: " + e.getMessage());
+        }
+    }
+
+    static Options buildOptions() {
+        Options options = new Options();
+
+        Option inputOption = Option.builder()
+                .longOpt(INPUT_OPTION)
+                .hasArg(true)
+                .required(true)
+                .desc("Path to the text log file")
+                .build();
+        Option outputOption = Option.builder()
+                .longOpt(OUTPUT_OPTION)
+                .hasArg(true)
+                .desc("Path of the report to write, standard output when omitted")
+                .build();
+        Option threadsOption = Option.builder()
+                .longOpt(THREADS_OPTION)
+                .hasArg(true)
+                .desc("Number of threads counting in parallel, the number of processors when omitted")
+                .build();
+        Option topOption = Option.builder()
+                .longOpt(TOP_OPTION)
+                .hasArg(true)
+                .desc("Entries listed per exception class, top frame and thread pool (default " + DEFAULT_TOP + ")")
+                .build();
+        options.addOption(inputOption);
+        options.addOption(outputOption);
+        options.addOption(threadsOption);
+        options.addOption(topOption);
+        return options;
+    }
+
+    private static void printUsage(Options options) {
+        HelpFormatter formatter = new HelpFormatter();
+        formatter.printHelp("java -cp <agent-jar> com.asm.eb.decode.LogAnalyzerCLI --input <path> [--threads <count>] [--top <count>] [--output <path>]", options);
+    }
+
+    static CliArguments parseAndValidateArguments(String[] args, Options options) throws ParseException {
+        CommandLineParser parser = new DefaultParser();
+        CommandLine cmd = parser.parse(options, args);
+
+        String inputPath = cmd.getOptionValue(INPUT_OPTION);
+        if (inputPath == null || inputPath.trim().isEmpty()) {
+            throw new ParseException("Option 'input' must be provided.");
+        }
+        File input = new File(inputPath.trim());
+        if (!input.isFile() || !input.canRead()) {
+            throw new ParseException("Option 'input' must point to a readable file: " + input.getPath());
+        }
+        int threads = parsePositive(cmd.getOptionValue(THREADS_OPTION), THREADS_OPTION, Runtime.getRuntime().availableProcessors());
+        int top = parsePositive(cmd.getOptionValue(TOP_OPTION), TOP_OPTION, DEFAULT_TOP);
+        String outputPath = cmd.getOptionValue(OUTPUT_OPTION);
+        return new CliArguments(input.getAbsolutePath(), outputPath == null ? null : outputPath.trim(), threads, top);
+    }
+
+    private static int parsePositive(String value, String optionName, int defaultValue) throws ParseException {
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            int parsed = Integer.parseInt(value.trim());
+            if (parsed > 0) {
+                return parsed;
+            }
+        } catch (NumberFormatException e) {
+            //Reported below
+        }
+        throw new ParseException("Option '" + optionName + "' must be a positive integer: " + value);
+    }
+
+    static LogAnalysis analyze(CliArguments arguments) throws Exception {
+        long start = System.nanoTime();
+        LogAnalysis analysis = analyze(new File(arguments.inputPath), arguments.threads);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        long size = new File(arguments.inputPath).length();
+        OutputStream out = arguments.outputPath == null ? System.out : new FileOutputStream(arguments.outputPath);
+        PrintWriter report = new PrintWriter(new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8)));
+        try {
+            report.println(String.format("Analyzed %s: %d bytes in %.2f s with %d threads (%.1f MB/s)",
+                    arguments.inputPath, size, seconds, arguments.threads, size / 1e6 / Math.max(seconds, 1e-9)));
+            analysis.report(report, arguments.top);
+        } finally {
+            if (arguments.outputPath == null) {
+                report.flush();
+            } else {
+                report.close();
+            }
+        }
+        return analysis;
+    }
+
+    /**
+     * Counts the exceptions of a text log in parallel.
+     *
+     * @param threads Parallelism of the fork/join pool.
+     */
+    static LogAnalysis analyze(File log, int threads) throws IOException {
+        long chunkBytes = Math.max(MIN_CHUNK_BYTES, Math.min(MAX_CHUNK_BYTES, log.length() / ((long) threads * CHUNKS_PER_THREAD)));
+        return analyze(log, threads, chunkBytes);
+    }
+
+    static LogAnalysis analyze(File log, int threads, long chunkBytes) throws IOException {
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try (FileChannel channel = FileChannel.open(log.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            return pool.invoke(new ChunkTask(channel, size, 0L, size, chunkBytes));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Counts the records starting in {@code [start, end)}, halving the range until it is at most one chunk.
+     */
+    private static final class ChunkTask extends RecursiveTask<LogAnalysis> {
+        private final FileChannel channel;
+        private final long size;
+        private final long start;
+        private final long end;
+        private final long chunkBytes;
+
+        private ChunkTask(FileChannel channel, long size, long start, long end, long chunkBytes) {
+            this.channel = channel;
+            this.size = size;
+            this.start = start;
+            this.end = end;
+            this.chunkBytes = chunkBytes;
+        }
+
+        @Override
+        protected LogAnalysis compute() {
+            if (end - start > chunkBytes) {
+                long middle = start + (end - start) / 2;
+                ChunkTask right = new ChunkTask(channel, size, middle, end, chunkBytes);
+                right.fork();
+                LogAnalysis left = new ChunkTask(channel, size, start, middle, chunkBytes).compute();
+                return left.merge(right.join());
+            }
+            try {
+                return count();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private LogAnalysis count() throws IOException {
+            //Both neighbours move the boundary to the same line start
+            long first = lineStart(start);
+            long last = lineStart(end);
+            RecordCounter counter = new RecordCounter(last);
+            if (last <= first) {
+                return counter.analysis;
+            }
+            boolean atEnd = last == size;
+            long pending = counter.scan(channel.map(FileChannel.MapMode.READ_ONLY, first, last - first), first, atEnd);
+            //The last record runs on into the next chunk until the next record's first line
+            long window = TAIL_WINDOW_BYTES;
+            while (!atEnd && pending < last) {
+                long windowEnd = Math.min(size, last + window);
+                atEnd = windowEnd == size;
+                if (counter.scan(channel.map(FileChannel.MapMode.READ_ONLY, pending, windowEnd - pending), pending, atEnd) > pending) {
+                    break;
+                }
+                window = Math.min(window * 2, Integer.MAX_VALUE - (last - pending));
+            }
+            return counter.analysis;
+        }
+
+        //The first offset at or after position that starts a line
+        private long lineStart(long position) throws IOException {
+            if (position == 0 || position >= size) {
+                return Math.min(position, size);
+            }
+            ByteBuffer buffer = ByteBuffer.allocate(4096);
+            long offset = position - 1;
+            while (offset < size) {
+                buffer.clear();
+                int read = channel.read(buffer, offset);
+                if (read <= 0) {
+                    break;
+                }
+                for (int i = 0; i < read; i++) {
+                    if (buffer.get(i) == '\n') {
+                        return offset + i + 1;
+                    }
+                }
+                offset += read;
+            }
+            return size;
+        }
+    }
+
+    /**
+     * Counts the records a scan finds, up to the end of its chunk, reading the details the scanner leaves out
+     * from the mapped region: the repeat count, the fingerprint and the top frame.
+     */
+    private static final class RecordCounter implements TextLogScanner.RecordHandler {
+        private static final byte[] FINGERPRINT = "[fingerprint=".getBytes(StandardCharsets.US_ASCII);
+        private static final byte[] SEEN = " seen ".getBytes(StandardCharsets.US_ASCII);
+        private static final byte[] FRAME = "\tat ".getBytes(StandardCharsets.US_ASCII);
+        private static final int LEVEL = 25; //"yyyy-MM-dd HH:mm:ss.SSS ["
+
+        private final LogAnalysis analysis = new LogAnalysis();
+        private final TextLogScanner scanner = new TextLogScanner();
+        private final long chunkEnd;
+        private ByteBuffer region;
+        private long regionOffset;
+
+        private RecordCounter(long chunkEnd) {
+            this.chunkEnd = chunkEnd;
+        }
+
+        private long scan(MappedByteBuffer mapped, long baseOffset, boolean atEnd) {
+            region = mapped;
+            regionOffset = baseOffset;
+            return scanner.scan(mapped, baseOffset, atEnd, this);
+        }
+
+        @Override
+        public void onRecord(long start, long end, long timestamp, String type, String thread) {
+            if (start >= chunkEnd) {
+                //Counted by the next chunk
+                return;
+            }
+            if (type == null) {
+                analysis.addOther();
+                return;
+            }
+            int recordStart = (int) (start - regionOffset);
+            int recordEnd = (int) (end - regionOffset);
+            int headerEnd = recordStart;
+            while (headerEnd < recordEnd && region.get(headerEnd) != '\n') {
+                headerEnd++;
+            }
+            int fingerprintStart = indexOf(FINGERPRINT, recordStart, headerEnd);
+            long fingerprint = fingerprintStart < 0 ? 0L : parseNumber(fingerprintStart + FINGERPRINT.length, headerEnd, 16);
+            if (region.get(recordStart + LEVEL) == 'R') {
+                int seen = indexOf(SEEN, recordStart, headerEnd);
+                long count = seen < 0 ? 0L : parseNumber(seen + SEEN.length, headerEnd, 10);
+                analysis.addRepeat(timestamp, type, thread, fingerprint, count);
+                return;
+            }
+            //The first frame line, after the message, which may span several lines
+            String topFrame = LogAnalysis.NO_FRAMES;
+            int lineStart = headerEnd + 1;
+            while (lineStart + FRAME.length <= recordEnd) {
+                int lineEnd = lineStart;
+                while (lineEnd < recordEnd && region.get(lineEnd) != '\n') {
+                    lineEnd++;
+                }
+                if (matches(FRAME, lineStart)) {
+                    int frameEnd = lineEnd > lineStart && region.get(lineEnd - 1) == '\r' ? lineEnd - 1 : lineEnd;
+                    topFrame = scanner.text(region, lineStart + FRAME.length, frameEnd);
+                    break;
+                }
+                lineStart = lineEnd + 1;
+            }
+            analysis.addException(timestamp, type, thread, topFrame, fingerprintStart >= 0, fingerprint);
+        }
+
+        private int indexOf(byte[] pattern, int from, int end) {
+            for (int i = from; i + pattern.length <= end; i++) {
+                if (matches(pattern, i)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private boolean matches(byte[] pattern, int at) {
+            for (int i = 0; i < pattern.length; i++) {
+                if (region.get(at + i) != pattern[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private long parseNumber(int from, int end, int radix) {
+            long value = 0L;
+            for (int i = from; i < end; i++) {
+                int digit = Character.digit(region.get(i), radix);
+                if (digit < 0) {
+                    break;
+                }
+                value = value * radix + digit;
+            }
+            return value;
+        }
+    }
+
+    static final class CliArguments {
+        final String inputPath;
+        final String outputPath;
+        final int threads;
+        final int top;
+
+        private CliArguments(String inputPath, String outputPath, int threads, int top) {
+            this.inputPath = inputPath;
+            this.outputPath = outputPath;
+            this.threads = threads;
+            this.top = top;
+        }
+    }
+}
@@ -0,0 +1,334 @@
+package com.asm.eb.decode;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Sidecar index of a text log, so queries read only the parts of the file that can match. The log is cut at
+ * record boundaries into blocks of about {@value #BLOCK_BYTES} bytes; the index keeps each block's offset,
+ * length and time range, and for every exception class and every thread the blocks it occurs in.
+ * <p>
+ * The index covers the log up to the start of its last record, which may still grow, and is extended from
+ * there on every update. A log that shrank or whose first bytes changed, as after a roll, is indexed anew.
+ * Not thread-safe.
+ *
+ * @author asmishra
+ * @since 10/17/2026
+ */
+final class LogIndex implements TextLogScanner.RecordHandler {
+    static final int MAGIC = 0x45424931; //"EBI1"
+    static final int VERSION = 1;
+    static final int BLOCK_BYTES = 64 * 1024;
+    private static final int HEAD_BYTES = 4096;
+    //Largest region mapped at once, a single mapping must stay below 2 GB
+    static final long MAP_CHUNK_BYTES = 64L << 20;
+
+    private long indexedLength;
+    private int headLength;
+    private long headHash;
+    private final List<String> types = new ArrayList<>();
+    private final Map<String, Integer> typeIds = new HashMap<>();
+    private final List<IntList> typeBlocks = new ArrayList<>();
+    private final List<String> threads = new ArrayList<>();
+    private final Map<String, Integer> threadIds = new HashMap<>();
+    private final List<IntList> threadBlocks = new ArrayList<>();
+    private long[] blockOffsets = new long[64];
+    private int[] blockLengths = new int[64];
+    private long[] blockFirstTimestamps = new long[64];
+    private long[] blockLastTimestamps = new long[64];
+    private int blockCount;
+
+    /**
+     * Reads an index saved by {@link #save}.
+     *
+     * @return The index, or null if the file is missing or not a readable index.
+     */
+    static LogIndex load(File indexFile) {
+        if (!indexFile.isFile()) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(indexFile)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                return null;
+            }
+            LogIndex index = new LogIndex();
+            index.indexedLength = in.readLong();
+            index.headLength = in.readInt();
+            index.headHash = in.readLong();
+            readDictionary(in, index.types, index.typeIds, index.typeBlocks);
+            readDictionary(in, index.threads, index.threadIds, index.threadBlocks);
+            int blocks = in.readInt();
+            index.ensureBlockCapacity(blocks);
+            for (int i = 0; i < blocks; i++) {
+                index.blockOffsets[i] = in.readLong();
+                index.blockLengths[i] = in.readInt();
+                index.blockFirstTimestamps[i] = in.readLong();
+                index.blockLastTimestamps[i] = in.readLong();
+            }
+            index.blockCount = blocks;
+            return index;
+        } catch (IOException | RuntimeException e) {
+            //Damaged or cut short, rebuilt by the next update
+            return null;
+        }
+    }
+
+    private static void readDictionary(DataInputStream in, List<String> names, Map<String, Integer> ids, List<IntList> postings) throws IOException {
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            String name = in.readUTF();
+            int size = in.readInt();
+            IntList blocks = new IntList(size);
+            for (int block = 0; block < size; block++) {
+                blocks.add(in.readInt());
+            }
+            ids.put(name, names.size());
+            names.add(name);
+            postings.add(blocks);
+        }
+    }
+
+    /**
+     * Writes the index next to a temporary file and moves it over {@code indexFile}, so readers never see a
+     * partial index.
+     */
+    void save(File indexFile) throws IOException {
+        File temp = new File(indexFile.getPath() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(indexedLength);
+            out.writeInt(headLength);
+            out.writeLong(headHash);
+            writeDictionary(out, types, typeBlocks);
+            writeDictionary(out, threads, threadBlocks);
+            out.writeInt(blockCount);
+            for (int i = 0; i < blockCount; i++) {
+                out.writeLong(blockOffsets[i]);
+                out.writeInt(blockLengths[i]);
+                out.writeLong(blockFirstTimestamps[i]);
+                out.writeLong(blockLastTimestamps[i]);
+            }
+        }
+        try {
+            Files.move(temp.toPath(), indexFile.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp.toPath(), indexFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static void writeDictionary(DataOutputStream out, List<String> names, List<IntList> postings) throws IOException {
+        out.writeInt(names.size());
+        for (int i = 0; i < names.size(); i++) {
+            out.writeUTF(names.get(i));
+            IntList blocks = postings.get(i);
+            out.writeInt(blocks.size);
+            for (int block = 0; block < blocks.size; block++) {
+                out.writeInt(blocks.values[block]);
+            }
+        }
+    }
+
+    /**
+     * Indexes the records the log gained since the index was last updated, reading them through memory maps.
+     *
+     * @param index The index to extend, null to build one.
+     * @param log   The log, opened for reading.
+     * @return The extended index, or a new one if {@code index} was of a different or truncated file.
+     */
+    static LogIndex update(LogIndex index, FileChannel log) throws IOException {
+        long size = log.size();
+        if (index == null || size < index.indexedLength || index.headHash != hash(log, index.headLength)) {
+            index = new LogIndex();
+        }
+        if (index.headLength < HEAD_BYTES && size > index.headLength) {
+            //The head of a young log is hashed again as it grows
+            index.headLength = (int) Math.min(size, HEAD_BYTES);
+            index.headHash = hash(log, index.headLength);
+        }
+        TextLogScanner scanner = new TextLogScanner();
+        long position = index.indexedLength;
+        while (position < size) {
+            long length = Math.min(MAP_CHUNK_BYTES, size - position);
+            MappedByteBuffer region = log.map(FileChannel.MapMode.READ_ONLY, position, length);
+            long next = scanner.scan(region, position, false, index);
+            if (next == position) {
+                //Only the last record is left, or a record longer than a chunk
+                break;
+            }
+            position = next;
+        }
+        index.indexedLength = position;
+        return index;
+    }
+
+    //FNV-1a over the first bytes, which a rolled over log replaces
+    private static long hash(FileChannel log, int length) throws IOException {
+        if (length == 0) {
+            return 0L;
+        }
+        if (log.size() < length) {
+            return ~0L;
+        }
+        ByteBuffer head = ByteBuffer.allocate(length);
+        while (head.hasRemaining()) {
+            if (log.read(head, head.position()) < 0) {
+                return ~0L;
+            }
+        }
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < length; i++) {
+            hash = (hash ^ (head.get(i) & 0xFF)) * 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    @Override
+    public void onRecord(long start, long end, long timestamp, String type, String thread) {
+        int block = blockCount - 1;
+        if (block < 0 || start != blockOffsets[block] + blockLengths[block] || blockLengths[block] >= BLOCK_BYTES) {
+            ensureBlockCapacity(blockCount + 1);
+            block = blockCount++;
+            blockOffsets[block] = start;
+            blockFirstTimestamps[block] = timestamp;
+            blockLastTimestamps[block] = timestamp;
+        }
+        blockLengths[block] = (int) (end - blockOffsets[block]);
+        blockFirstTimestamps[block] = Math.min(blockFirstTimestamps[block], timestamp);
+        blockLastTimestamps[block] = Math.max(blockLastTimestamps[block], timestamp);
+        if (type != null) {
+            post(type, types, typeIds, typeBlocks, block);
+        }
+        post(thread, threads, threadIds, threadBlocks, block);
+    }
+
+    private static void post(String name, List<String> names, Map<String, Integer> ids, List<IntList> postings, int block) {
+        Integer id = ids.get(name);
+        if (id == null) {
+            id = names.size();
+            ids.put(name, id);
+            names.add(name);
+            postings.add(new IntList(4));
+        }
+        IntList blocks = postings.get(id);
+        if (blocks.size == 0 || blocks.values[blocks.size - 1] != block) {
+            blocks.add(block);
+        }
+    }
+
+    private void ensureBlockCapacity(int capacity) {
+        if (capacity > blockOffsets.length) {
+            int newCapacity = Math.max(capacity, blockOffsets.length * 2);
+            blockOffsets = Arrays.copyOf(blockOffsets, newCapacity);
+            blockLengths = Arrays.copyOf(blockLengths, newCapacity);
+            blockFirstTimestamps = Arrays.copyOf(blockFirstTimestamps, newCapacity);
+            blockLastTimestamps = Arrays.copyOf(blockLastTimestamps, newCapacity);
+        }
+    }
+
+    /**
+     * Selects the blocks that may hold a record matching all the given conditions.
+     *
+     * @param typeMatch   Exception classes to look for, null for records of any kind.
+     * @param threadMatch Threads to look for, null for any thread.
+     */
+    BitSet candidates(long from, long to, Predicate<String> typeMatch, Predicate<String> threadMatch) {
+        BitSet blocks = new BitSet(blockCount);
+        for (int i = 0; i < blockCount; i++) {
+            if (blockLastTimestamps[i] >= from && blockFirstTimestamps[i] <= to) {
+                blocks.set(i);
+            }
+        }
+        if (typeMatch != null) {
+            blocks.and(blocksOf(types, typeBlocks, typeMatch));
+        }
+        if (threadMatch != null) {
+            blocks.and(blocksOf(threads, threadBlocks, threadMatch));
+        }
+        return blocks;
+    }
+
+    private BitSet blocksOf(List<String> names, List<IntList> postings, Predicate<String> match) {
+        BitSet blocks = new BitSet(blockCount);
+        for (int i = 0; i < names.size(); i++) {
+            if (match.test(names.get(i))) {
+                IntList list = postings.get(i);
+                for (int block = 0; block < list.size; block++) {
+                    blocks.set(list.values[block]);
+                }
+            }
+        }
+        return blocks;
+    }
+
+    /**
+     * @return Offset up to which the log is indexed, the start of the record that may still grow.
+     */
+    long getIndexedLength() {
+        return indexedLength;
+    }
+
+    int getBlockCount() {
+        return blockCount;
+    }
+
+    long getBlockOffset(int block) {
+        return blockOffsets[block];
+    }
+
+    int getBlockLength(int block) {
+        return blockLengths[block];
+    }
+
+    /**
+     * @return The last block starting at or before {@code offset}, -1 if there is none.
+     */
+    int findBlock(long offset) {
+        int low = 0;
+        int high = blockCount - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            if (blockOffsets[middle] <= offset) {
+                low = middle + 1;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return high;
+    }
+
+    private static final class IntList {
+        private int[] values;
+        private int size;
+
+        private IntList(int capacity) {
+            this.values = new int[Math.max(capacity, 1)];
+        }
+
+        private void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+    }
+}
@@ -0,0 +1,454 @@
+package com.asm.eb.decode;
+
+import org.apache.commons.cli.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * A command-line interface (CLI) tool that searches a text exception log (logFormat TEXT) by time range,
+ * exception type and thread. It keeps a sidecar index next to the log ({@code <log>.idx}), extended with what
+ * the log gained since the last search, and reads only the blocks of the log the index selects. With
+ * {@code --follow} it then keeps printing matching records as they are written, reading the log through
+ * memory maps and extending the index as it goes.
+ *
+ * @author asmishra
+ * @since 10/17/2026
+ */
+public class LogSearchCLI {
+    private static final String INPUT_OPTION = "input";
+    private static final String INDEX_OPTION = "index";
+    private static final String FROM_OPTION = "from";
+    private static final String TO_OPTION = "to";
+    private static final String TYPE_OPTION = "type";
+    private static final String THREAD_OPTION = "thread";
+    private static final String FOLLOW_OPTION = "follow";
+    private static final String STATS_OPTION = "stats";
+    private static final long FOLLOW_POLL_MILLIS = 100L;
+    //A record that stopped growing for this long is printed even though no record follows it yet
+    private static final long FOLLOW_SETTLE_MILLIS = 1000L;
+    private static final long FOLLOW_SAVE_MILLIS = 10_000L;
+
+    public static void main(String[] args) {
+        Options options = buildOptions();
+        try {
+            CliArguments cliArguments = parseAndValidateArguments(args, options);
+            search(cliArguments, System.out);
+        } catch (ParseException e) {
+            System.err.println("Error parsing command-line arguments: " + e.getMessage());
+            printUsage(options);
+        } catch (Exception e) {
+            System.err.println("Error while searching the log: " + e.getMessage());
+        }
+    }
+
+    static Options buildOptions() {
+        Options options = new Options();
+
+        Option inputOption = Option.builder()
+                .longOpt(INPUT_OPTION)
+                .hasArg(true)
+                .required(true)
+                .desc("Path to the text log file")
+                .build();
+        Option indexOption = Option.builder()
+                .longOpt(INDEX_OPTION)
+                .hasArg(true)
+                .desc("Path of the index file, <input>.idx when omitted")
+                .build();
+        Option fromOption = Option.builder()
+                .longOpt(FROM_OPTION)
+                .hasArg(true)
+                .desc("Earliest record to print, as epoch millis or yyyy-MM-dd[ HH:mm:ss[.SSS]]")
+                .build();
+        Option toOption = Option.builder()
+                .longOpt(TO_OPTION)
+                .hasArg(true)
+                .desc("Latest record to print, as epoch millis or yyyy-MM-dd[ HH:mm:ss[.SSS]]")
+                .build();
+        Option typeOption = Option.builder()
+                .longOpt(TYPE_OPTION)
+                .hasArg(true)
+                .desc("Comma separated exception classes to print, fully qualified or simple names")
+                .build();
+        Option threadOption = Option.builder()
+                .longOpt(THREAD_OPTION)
+                .hasArg(true)
+                .desc("Comma separated thread names to print, a trailing * matches any name with that prefix")
+                .build();
+        Option followOption = Option.builder()
+                .longOpt(FOLLOW_OPTION)
+                .desc("Keep printing matching records as they are written")
+                .build();
+        Option statsOption = Option.builder()
+                .longOpt(STATS_OPTION)
+                .desc("Print how much of the log the search read to standard error")
+                .build();
+        options.addOption(inputOption);
+        options.addOption(indexOption);
+        options.addOption(fromOption);
+        options.addOption(toOption);
+        options.addOption(typeOption);
+        options.addOption(threadOption);
+        options.addOption(followOption);
+        options.addOption(statsOption);
+        return options;
+    }
+
+    private static void printUsage(Options options) {
+        HelpFormatter formatter = new HelpFormatter();
+        formatter.printHelp("java -cp <agent-jar> com.asm.eb.decode.LogSearchCLI --input <path> [--from <time>] [--to <time>] [--type <classes>] [--thread <names>] [--follow]", options);
+    }
+
+    static CliArguments parseAndValidateArguments(String[] args, Options options) throws ParseException {
+        CommandLineParser parser = new DefaultParser();
+        CommandLine cmd = parser.parse(options, args);
+
+        String inputPath = cmd.getOptionValue(INPUT_OPTION);
+        if (inputPath == null || inputPath.trim().isEmpty()) {
+            throw new ParseException("Option 'input' must be provided.");
+        }
+        File input = new File(inputPath.trim());
+        if (!input.isFile() || !input.canRead()) {
+            throw new ParseException("Option 'input' must point to a readable file: " + input.getPath());
+        }
+        String indexPath = cmd.getOptionValue(INDEX_OPTION);
+        File index = indexPath == null || indexPath.trim().isEmpty() ? new File(input.getPath() + ".idx") : new File(indexPath.trim());
+        long from = BinaryLogDecoderCLI.parseTime(cmd.getOptionValue(FROM_OPTION), FROM_OPTION, Long.MIN_VALUE);
+        long to = BinaryLogDecoderCLI.parseTime(cmd.getOptionValue(TO_OPTION), TO_OPTION, Long.MAX_VALUE);
+        if (from > to) {
+            throw new ParseException("Option 'from' must not be after option 'to'.");
+        }
+        List<String> types = parseList(cmd.getOptionValue(TYPE_OPTION), TYPE_OPTION);
+        List<String> threads = parseList(cmd.getOptionValue(THREAD_OPTION), THREAD_OPTION);
+        return new CliArguments(input.getAbsolutePath(), index.getAbsolutePath(), from, to, types, threads,
+                cmd.hasOption(FOLLOW_OPTION), cmd.hasOption(STATS_OPTION));
+    }
+
+    private static List<String> parseList(String value, String optionName) throws ParseException {
+        if (value == null) {
+            return null;
+        }
+        List<String> values = new ArrayList<>();
+        for (String item : value.split(",")) {
+            if (!item.trim().isEmpty()) {
+                values.add(item.trim());
+            }
+        }
+        if (values.isEmpty()) {
+            throw new ParseException("Option '" + optionName + "' must name at least one value.");
+        }
+        return values;
+    }
+
+    /**
+     * Updates the index, prints the matching records and, when following, keeps printing new ones until the
+     * process is terminated.
+     *
+     * @param arguments The validated arguments.
+     * @param out       Destination of the records, which are copied unchanged from the log.
+     * @return The number of records printed before following.
+     * @throws Exception If the log or the index cannot be read or written.
+     */
+    static long search(CliArguments arguments, OutputStream out) throws Exception {
+        return search(arguments, out, LogIndex.MAP_CHUNK_BYTES);
+    }
+
+    //mapBytes caps the size of a mapping, the indexed part of the log is cut at block boundaries to stay below it
+    static long search(CliArguments arguments, OutputStream out, long mapBytes) throws Exception {
+        File log = new File(arguments.inputPath);
+        File indexFile = new File(arguments.indexPath);
+        Matcher matcher = new Matcher(arguments, Channels.newChannel(out));
+        try (FileChannel channel = FileChannel.open(log.toPath(), StandardOpenOption.READ)) {
+            LogIndex index = LogIndex.update(LogIndex.load(indexFile), channel);
+            saveIndex(index, indexFile);
+            long size = channel.size();
+            BitSet blocks = index.candidates(arguments.from, arguments.to, matcher.typeMatch, matcher.threadMatch);
+            long bytesRead = 0;
+            TextLogScanner scanner = new TextLogScanner();
+            for (int block = blocks.nextSetBit(0); block >= 0; block = blocks.nextSetBit(block + 1)) {
+                //Adjacent blocks are read with as few mappings as the cap allows
+                int last = block;
+                while (blocks.get(last + 1)) {
+                    last++;
+                }
+                long start = index.getBlockOffset(block);
+                long end = index.getBlockOffset(last) + index.getBlockLength(last);
+                bytesRead += scanIndexed(channel, scanner, index, start, end, mapBytes, matcher);
+                block = last;
+            }
+            //The last record, which is not indexed while it may still grow
+            bytesRead += scan(channel, scanner, index.getIndexedLength(), size, matcher);
+            out.flush();
+            if (arguments.stats) {
+                System.err.println("[ExceptionBuddy] Printed " + matcher.printed + " records, read " + bytesRead + " of " + size
+                        + " bytes in " + blocks.cardinality() + " of " + index.getBlockCount() + " blocks");
+            }
+            long printed = matcher.printed;
+            if (arguments.follow) {
+                follow(log, indexFile, index, channel, size, mapBytes, matcher, out);
+            }
+            return printed;
+        }
+    }
+
+    /*
+     * Scans [start, end) of the indexed part of the log, both record boundaries, with mappings of at most
+     * mapBytes cut at block boundaries. A single block longer than that is mapped whole.
+     */
+    private static long scanIndexed(FileChannel channel, TextLogScanner scanner, LogIndex index, long start, long end,
+                                    long mapBytes, Matcher matcher) throws IOException {
+        long position = start;
+        while (end - position > mapBytes) {
+            int block = index.findBlock(position + mapBytes);
+            long cut = index.getBlockOffset(block);
+            if (cut <= position) {
+                cut = block + 1 < index.getBlockCount() ? Math.min(end, index.getBlockOffset(block + 1)) : end;
+            }
+            scan(channel, scanner, position, cut, matcher);
+            position = cut;
+        }
+        scan(channel, scanner, position, end, matcher);
+        return end - start;
+    }
+
+    private static long scan(FileChannel channel, TextLogScanner scanner, long start, long end, Matcher matcher) throws IOException {
+        if (end <= start) {
+            return 0L;
+        }
+        MappedByteBuffer region = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+        matcher.region = region;
+        matcher.regionOffset = start;
+        scanner.scan(region, start, true, matcher);
+        if (matcher.failure != null) {
+            throw matcher.failure;
+        }
+        return end - start;
+    }
+
+    /*
+     * Polls the size of the log and indexes what it gained, printing the matching records. A record is
+     * complete once the next one starts, or once the log stopped growing for FOLLOW_SETTLE_MILLIS. When the
+     * log is rolled over, the new file is followed from its start.
+     */
+    private static void follow(File log, File indexFile, LogIndex index, FileChannel channel, long printedUpTo,
+                               long mapBytes, Matcher matcher, OutputStream out) throws Exception {
+        Follower follower = new Follower(log, indexFile, index, channel, printedUpTo, mapBytes, matcher);
+        Thread saver = new Thread(follower::save, "eb-search-index-save");
+        Runtime.getRuntime().addShutdownHook(saver);
+        try {
+            follower.run(out);
+        } finally {
+            Runtime.getRuntime().removeShutdownHook(saver);
+            follower.close();
+        }
+    }
+
+    private static void saveIndex(LogIndex index, File indexFile) {
+        try {
+            index.save(indexFile);
+        } catch (IOException e) {
+            //A read-only directory only costs the next search a rebuild
+            System.err.println("[ExceptionBuddy] Failed to save the index " + indexFile + ": " + e.getMessage());
+        }
+    }
+
+    private static Object fileKey(File file) {
+        try {
+            return Files.readAttributes(file.toPath(), BasicFileAttributes.class).fileKey();
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static final class Follower {
+        private final File log;
+        private final File indexFile;
+        private final Matcher matcher;
+        private final long mapBytes;
+        private final TextLogScanner scanner = new TextLogScanner();
+        private LogIndex index;
+        private FileChannel channel;
+        private Object fileKey;
+        private long printedUpTo;
+
+        private Follower(File log, File indexFile, LogIndex index, FileChannel channel, long printedUpTo, long mapBytes,
+                         Matcher matcher) {
+            this.log = log;
+            this.indexFile = indexFile;
+            this.index = index;
+            this.channel = channel;
+            this.printedUpTo = printedUpTo;
+            this.mapBytes = mapBytes;
+            this.matcher = matcher;
+            this.fileKey = fileKey(log);
+        }
+
+        private void run(OutputStream out) throws Exception {
+            long knownSize = channel.size();
+            long lastGrowth = System.currentTimeMillis();
+            long lastSave = lastGrowth;
+            while (!Thread.currentThread().isInterrupted()) {
+                long now = System.currentTimeMillis();
+                Object currentKey = fileKey(log);
+                if ((currentKey != null && !currentKey.equals(fileKey)) || channel.size() < knownSize) {
+                    reopen(currentKey);
+                    knownSize = 0L;
+                }
+                long size = channel.size();
+                if (size != knownSize) {
+                    synchronized (this) {
+                        LogIndex updated = LogIndex.update(index, channel);
+                        if (updated != index) {
+                            //Rewritten in place, printed again from its start
+                            printedUpTo = 0L;
+                        }
+                        index = updated;
+                    }
+                    if (printedUpTo < index.getIndexedLength()) {
+                        scanIndexed(channel, scanner, index, printedUpTo, index.getIndexedLength(), mapBytes, matcher);
+                        printedUpTo = index.getIndexedLength();
+                    }
+                    knownSize = size;
+                    lastGrowth = now;
+                } else if (now - lastGrowth >= FOLLOW_SETTLE_MILLIS && printedUpTo < size) {
+                    scan(channel, scanner, Math.max(printedUpTo, index.getIndexedLength()), size, matcher);
+                    printedUpTo = size;
+                }
+                out.flush();
+                if (now - lastSave >= FOLLOW_SAVE_MILLIS) {
+                    save();
+                    lastSave = now;
+                }
+                Thread.sleep(FOLLOW_POLL_MILLIS);
+            }
+        }
+
+        private void reopen(Object currentKey) throws IOException {
+            save();
+            FileChannel reopened = FileChannel.open(log.toPath(), StandardOpenOption.READ);
+            channel.close();
+            channel = reopened;
+            fileKey = currentKey;
+            printedUpTo = 0L;
+            synchronized (this) {
+                index = LogIndex.update(null, channel);
+            }
+        }
+
+        private synchronized void save() {
+            saveIndex(index, indexFile);
+        }
+
+        private void close() throws IOException {
+            channel.close();
+        }
+    }
+
+    /**
+     * Prints the records that match the arguments, copying them from the mapped region being scanned.
+     */
+    private static final class Matcher implements TextLogScanner.RecordHandler {
+        private final long from;
+        private final long to;
+        private final Predicate<String> typeMatch;
+        private final Predicate<String> threadMatch;
+        private final WritableByteChannel out;
+        private ByteBuffer region;
+        private long regionOffset;
+        private long printed;
+        private IOException failure;
+
+        private Matcher(CliArguments arguments, WritableByteChannel out) {
+            this.from = arguments.from;
+            this.to = arguments.to;
+            this.typeMatch = arguments.types == null ? null : typeMatcher(arguments.types);
+            this.threadMatch = arguments.threads == null ? null : threadMatcher(arguments.threads);
+            this.out = out;
+        }
+
+        @Override
+        public void onRecord(long start, long end, long timestamp, String type, String thread) {
+            if (failure != null || timestamp < from || timestamp > to) {
+                return;
+            }
+            if (typeMatch != null && (type == null || !typeMatch.test(type))) {
+                return;
+            }
+            if (threadMatch != null && !threadMatch.test(thread)) {
+                return;
+            }
+            ByteBuffer record = region.duplicate();
+            ((Buffer) record).limit((int) (end - regionOffset));
+            ((Buffer) record).position((int) (start - regionOffset));
+            try {
+                while (record.hasRemaining()) {
+                    out.write(record);
+                }
+                printed++;
+            } catch (IOException e) {
+                failure = e;
+            }
+        }
+    }
+
+    //A fully qualified name matches that class, a simple name every class of that name
+    static Predicate<String> typeMatcher(List<String> types) {
+        return className -> {
+            for (String type : types) {
+                if (className.equals(type) || (type.indexOf('.') < 0 && (className.endsWith("." + type) || className.endsWith("$" + type)))) {
+                    return true;
+                }
+            }
+            return false;
+        };
+    }
+
+    static Predicate<String> threadMatcher(List<String> threads) {
+        return threadName -> {
+            for (String thread : threads) {
+                if (thread.endsWith("*") ? threadName.startsWith(thread.substring(0, thread.length() - 1)) : threadName.equals(thread)) {
+                    return true;
+                }
+            }
+            return false;
+        };
+    }
+
+    static final class CliArguments {
+        final String inputPath;
+        final String indexPath;
+        final long from;
+        final long to;
+        final List<String> types;
+        final List<String> threads;
+        final boolean follow;
+        final boolean stats;
+
+        private CliArguments(String inputPath, String indexPath, long from, long to, List<String> types, List<String> threads,
+                             boolean follow, boolean stats) {
+            this.inputPath = inputPath;
+            this.indexPath = indexPath;
+            this.from = from;
+            this.to = to;
+            this.types = types;
+            this.threads = threads;
+            this.follow = follow;
+            this.stats = stats;
+        }
+    }
+}
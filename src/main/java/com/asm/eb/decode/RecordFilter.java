@@ -0,0 +1,78 @@
+package com.asm.eb.decode;
+
+import com.asm.eb.logger.LogRecordWriter;
+
+import java.util.Set;
+
+/**
+ * Forwards only the records inside a time range and, when exception types are given, only the exception and
+ * repeat records of those types.
+ *
+ * @author asmishra
+ * @since 10/17/2026
+ */
+final class RecordFilter implements LogRecordWriter {
+    private final LogRecordWriter delegate;
+    private final long fromTimestamp;
+    private final long toTimestamp;
+    private final Set<String> exceptionTypes; //null when every type is accepted
+
+    RecordFilter(LogRecordWriter delegate, long fromTimestamp, long toTimestamp, Set<String> exceptionTypes) {
+        this.delegate = delegate;
+        this.fromTimestamp = fromTimestamp;
+        this.toTimestamp = toTimestamp;
+        this.exceptionTypes = exceptionTypes;
+    }
+
+    @Override
+    public void writeMessage(long timestamp, String level, String threadName, String message) {
+        if (exceptionTypes == null && inRange(timestamp)) {
+            delegate.writeMessage(timestamp, level, threadName, message);
+        }
+    }
+
+    @Override
+    public void writeClassLoading(long timestamp, String threadName, String message) {
+        if (exceptionTypes == null && inRange(timestamp)) {
+            delegate.writeClassLoading(timestamp, threadName, message);
+        }
+    }
+
+    @Override
+    public void writeException(long timestamp, String threadName, String className, String message,
+                               StackTraceElement[] frames, int truncatedAt, boolean hasFingerprint, long fingerprint) {
+        if (inRange(timestamp) && acceptsType(className)) {
+            delegate.writeException(timestamp, threadName, className, message, frames, truncatedAt, hasFingerprint, fingerprint);
+        }
+    }
+
+    @Override
+    public void writeRepeat(long timestamp, String threadName, long fingerprint, String className, long count, long sinceTimestamp) {
+        if (inRange(timestamp) && acceptsType(className)) {
+            delegate.writeRepeat(timestamp, threadName, fingerprint, className, count, sinceTimestamp);
+        }
+    }
+
+    @Override
+    public long bytesWritten() {
+        return delegate.bytesWritten();
+    }
+
+    @Override
+    public void flush() {
+        delegate.flush();
+    }
+
+    @Override
+    public void close() {
+        delegate.close();
+    }
+
+    private boolean inRange(long timestamp) {
+        return timestamp >= fromTimestamp && timestamp <= toTimestamp;
+    }
+
+    private boolean acceptsType(String className) {
+        return exceptionTypes == null || exceptionTypes.contains(className);
+    }
+}
@@ -0,0 +1,247 @@
+package com.asm.eb.decode;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.text.ParsePosition;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+
+/**
+ * Finds the records of a text log in a region of the file and parses what the index needs from their first
+ * line: the timestamp, the thread and, for exception and repeat records, the exception class. A record starts
+ * with a line beginning with a {@code yyyy-MM-dd HH:mm:ss.SSS [} timestamp and runs until the next such line.
+ * Not thread-safe.
+ *
+ * @author asmishra
+ * @since 10/17/2026
+ */
+final class TextLogScanner {
+    private static final int HEADER_PREFIX = 25; //"yyyy-MM-dd HH:mm:ss.SSS ["
+    private static final int SECOND_PREFIX = 19; //"yyyy-MM-dd HH:mm:ss"
+    private static final int TEXT_CACHE_SIZE = 1024;
+
+    /**
+     * Receives the records found by {@link #scan}, with absolute file offsets.
+     */
+    interface RecordHandler {
+        /**
+         * @param type Exception class of exception and repeat records, null for other records.
+         */
+        void onRecord(long start, long end, long timestamp, String type, String thread);
+    }
+
+    private final SimpleDateFormat secondFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
+    private final byte[] cachedSecond = new byte[SECOND_PREFIX];
+    private long cachedSecondMillis = Long.MIN_VALUE;
+    //Direct-mapped by content hash: a log names few distinct classes and threads, so most records allocate no strings
+    private final byte[][] cachedBytes = new byte[TEXT_CACHE_SIZE][];
+    private final String[] cachedTexts = new String[TEXT_CACHE_SIZE];
+    //Parsed from the last header line
+    private long timestamp;
+    private String type;
+    private String thread;
+    //The record whose end is not known yet
+    private long pendingTimestamp;
+    private String pendingType;
+    private String pendingThread;
+
+    /**
+     * Hands the records of {@code region} to the handler. The region must start at the beginning of a line.
+     *
+     * @param region     The bytes to scan, from index 0 to the limit.
+     * @param baseOffset File offset of index 0.
+     * @param atEnd      true if the region ends at a record boundary, so its last record is complete.
+     * @return File offset up to which records were handed over: the start of the last record when not
+     * {@code atEnd}, which may still grow.
+     */
+    long scan(ByteBuffer region, long baseOffset, boolean atEnd, RecordHandler handler) {
+        int limit = region.limit();
+        int recordStart = -1;
+        int lineStart = 0;
+        while (lineStart < limit) {
+            int lineEnd = lineEnd(region, lineStart, limit);
+            if (lineEnd < 0) {
+                if (!atEnd) {
+                    break;
+                }
+                lineEnd = limit;
+            }
+            if (parseHeader(region, lineStart, lineEnd)) {
+                if (recordStart >= 0) {
+                    handler.onRecord(baseOffset + recordStart, baseOffset + lineStart, pendingTimestamp, pendingType, pendingThread);
+                }
+                recordStart = lineStart;
+                pendingTimestamp = timestamp;
+                pendingType = type;
+                pendingThread = thread;
+            }
+            lineStart = lineEnd;
+        }
+        if (recordStart < 0) {
+            //Nothing but lines of a record that started before the region
+            return baseOffset + lineStart;
+        }
+        if (atEnd) {
+            handler.onRecord(baseOffset + recordStart, baseOffset + limit, pendingTimestamp, pendingType, pendingThread);
+            return baseOffset + limit;
+        }
+        return baseOffset + recordStart;
+    }
+
+    //Index after the next newline, -1 if the line is not complete
+    private static int lineEnd(ByteBuffer region, int from, int limit) {
+        for (int i = from; i < limit; i++) {
+            if (region.get(i) == '\n') {
+                return i + 1;
+            }
+        }
+        return -1;
+    }
+
+    private boolean parseHeader(ByteBuffer region, int start, int end) {
+        if (end - start < HEADER_PREFIX + 2 || !isTimestamp(region, start) || region.get(start + HEADER_PREFIX - 1) != '[') {
+            return false;
+        }
+        int levelStart = start + HEADER_PREFIX;
+        int levelEnd = indexOf(region, (byte) ']', levelStart, end);
+        if (levelEnd < 0) {
+            return false;
+        }
+        int threadStart = levelEnd + 1;
+        while (threadStart < end && region.get(threadStart) == ' ') {
+            threadStart++;
+        }
+        if (threadStart >= end || region.get(threadStart) != '[') {
+            return false;
+        }
+        threadStart++;
+        int threadEnd = threadStart;
+        while (true) {
+            threadEnd = indexOf(region, (byte) ']', threadEnd, end);
+            if (threadEnd < 0) {
+                return false;
+            }
+            byte next = threadEnd + 1 < end ? region.get(threadEnd + 1) : (byte) '\n';
+            if (next == ' ' || next == '\n' || next == '\r') {
+                break;
+            }
+            threadEnd++;
+        }
+        timestamp = parseTimestamp(region, start);
+        thread = text(region, threadStart, threadEnd);
+        type = null;
+        boolean exception = matches(region, levelStart, levelEnd, "EXCEPTION");
+        if (exception || matches(region, levelStart, levelEnd, "REPEAT")) {
+            int typeStart = threadEnd + 2;
+            if (matches(region, typeStart, Math.min(typeStart + 13, end), "[fingerprint=")) {
+                int fingerprintEnd = indexOf(region, (byte) ']', typeStart, end);
+                typeStart = fingerprintEnd < 0 ? end : fingerprintEnd + 2;
+            }
+            int typeEnd = exception ? indexOf(region, (byte) ':', typeStart, end) : indexOf(region, (byte) ' ', typeStart, end);
+            if (typeEnd < 0) {
+                typeEnd = end;
+                while (typeEnd > typeStart && (region.get(typeEnd - 1) == '\n' || region.get(typeEnd - 1) == '\r')) {
+                    typeEnd--;
+                }
+            }
+            if (typeEnd > typeStart) {
+                type = text(region, typeStart, typeEnd);
+            }
+        }
+        return true;
+    }
+
+    private static boolean isTimestamp(ByteBuffer region, int start) {
+        for (int i = 0; i < HEADER_PREFIX - 2; i++) {
+            byte b = region.get(start + i);
+            switch (i) {
+                case 4:
+                case 7:
+                    if (b != '-') return false;
+                    break;
+                case 10:
+                    if (b != ' ') return false;
+                    break;
+                case 13:
+                case 16:
+                    if (b != ':') return false;
+                    break;
+                case 19:
+                    if (b != '.') return false;
+                    break;
+                default:
+                    if (b < '0' || b > '9') return false;
+            }
+        }
+        return region.get(start + HEADER_PREFIX - 2) == ' ';
+    }
+
+    //The writer formats the second once and appends the millis, so the second is parsed once as well
+    private long parseTimestamp(ByteBuffer region, int start) {
+        boolean sameSecond = cachedSecondMillis != Long.MIN_VALUE;
+        for (int i = 0; i < SECOND_PREFIX && sameSecond; i++) {
+            sameSecond = cachedSecond[i] == region.get(start + i);
+        }
+        if (!sameSecond) {
+            for (int i = 0; i < SECOND_PREFIX; i++) {
+                cachedSecond[i] = region.get(start + i);
+            }
+            Date date = secondFormat.parse(new String(cachedSecond, StandardCharsets.US_ASCII), new ParsePosition(0));
+            cachedSecondMillis = date == null ? 0L : date.getTime();
+        }
+        int millis = (region.get(start + 20) - '0') * 100 + (region.get(start + 21) - '0') * 10 + (region.get(start + 22) - '0');
+        return cachedSecondMillis + millis;
+    }
+
+    private static int indexOf(ByteBuffer region, byte value, int from, int end) {
+        for (int i = from; i < end; i++) {
+            if (region.get(i) == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean matches(ByteBuffer region, int start, int end, String expected) {
+        if (end - start != expected.length()) {
+            return false;
+        }
+        for (int i = 0; i < expected.length(); i++) {
+            if (region.get(start + i) != expected.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Decodes {@code [start, end)} of the region as UTF-8, returning the same instance for the same bytes as
+     * long as they stay in the cache.
+     */
+    String text(ByteBuffer region, int start, int end) {
+        int length = end - start;
+        int hash = length;
+        for (int i = start; i < end; i++) {
+            hash = 31 * hash + region.get(i);
+        }
+        int slot = (hash ^ (hash >>> 16)) & (TEXT_CACHE_SIZE - 1);
+        byte[] cached = cachedBytes[slot];
+        if (cached != null && cached.length == length) {
+            int i = 0;
+            while (i < length && cached[i] == region.get(start + i)) {
+                i++;
+            }
+            if (i == length) {
+                return cachedTexts[slot];
+            }
+        }
+        byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++) {
+            bytes[i] = region.get(start + i);
+        }
+        String text = new String(bytes, StandardCharsets.UTF_8);
+        cachedBytes[slot] = bytes;
+        cachedTexts[slot] = text;
+        return text;
+    }
+}
@@ -0,0 +1,321 @@
+package com.asm.eb.export;
+
+import com.asm.eb.logger.ExceptionLogger;
+import com.asm.eb.store.StatsStore;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sends exception events to a {@link NodeCollector} over loopback UDP. The logger hands every exception it
+ * would write to {@link #export}, which only offers a small event to a bounded queue. The {@code eb-exporter}
+ * thread sums events per fingerprint and every flush interval sends the counts, preceded by the full trace of
+ * fingerprints not sent recently.
+ * <p>
+ * Nothing ever waits for the collector: a full queue, a full socket buffer or a collector that is not running
+ * drops the events concerned and counts them in {@link StatsStore#getExportDroppedCount()}. A trace counts as sent
+ * only once its datagram was written; a dropped one goes with the next event of its fingerprint. Memory is bounded
+ * by the queue capacity, which also bounds the fingerprints pending per interval and those remembered as sent.
+ *
+ * @author asmishra
+ * @since 10/17/2026
+ */
+public final class EventExporter implements Runnable {
+    private static final String THREAD_NAME = "eb-exporter";
+    private static final long POLL_MILLIS = 100L;
+    //A collector restarted meanwhile learns the trace again within this period
+    static final long TRACE_RESEND_MILLIS = 10 * 60_000L;
+    //Trace queued, not sent or dropped yet
+    private static final long IN_FLIGHT = Long.MAX_VALUE;
+    private static final long LOST = -1L;
+
+    private final InetSocketAddress collector;
+    private final String jvmId;
+    private final long flushIntervalMillis;
+    private final int capacity;
+    private final BlockingQueue<Event> queue;
+    //Fingerprint to when its trace was last sent, or IN_FLIGHT; only touched by export(), under the logger's lock
+    private final Map<Long, Long> traceSentAt;
+    //What became of the traces queued, applied to traceSentAt by the next export()
+    private final Queue<TraceOutcome> traceOutcomes = new ConcurrentLinkedQueue<>();
+    private final ExportFormat.Encoder encoder = new ExportFormat.Encoder(ExportFormat.MAX_DATAGRAM_BYTES);
+    //Exporter thread only
+    private final Map<Long, PendingCount> pendingCounts = new LinkedHashMap<>();
+    private final List<Event> pendingTraces = new ArrayList<>();
+    private final List<Event> tracesInDatagram = new ArrayList<>();
+    private DatagramChannel channel;
+    private long sequence;
+    private volatile boolean running;
+    private volatile Thread thread;
+
+    /**
+     * @param collector           Address the collector listens on.
+     * @param jvmId               Name of this JVM in the collector's store.
+     * @param capacity            Events queued at most.
+     * @param flushIntervalMillis How often pending events are sent.
+     */
+    public EventExporter(InetSocketAddress collector, String jvmId, int capacity, long flushIntervalMillis) {
+        this.collector = collector;
+        this.jvmId = jvmId;
+        this.capacity = capacity;
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.traceSentAt = new LinkedHashMap<Long, Long>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Long> eldest) {
+                return size() > EventExporter.this.capacity;
+            }
+        };
+    }
+
+    /**
+     * Opens the socket and starts the {@code eb-exporter} thread.
+     *
+     * @throws IOException If the socket cannot be opened.
+     */
+    public void start() throws IOException {
+        channel = DatagramChannel.open();
+        channel.configureBlocking(false);
+        //Connected, so a collector that is not listening surfaces as PortUnreachableException instead of silence
+        channel.connect(collector);
+        running = true;
+        thread = new Thread(this, THREAD_NAME);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Queues an exception for the collector. Never blocks; drops and counts the event if the queue is full.
+     * Must be called with the logger's lock held.
+     *
+     * @param fingerprint Fingerprint of the exception class and frames.
+     */
+    public void export(long timestamp, String threadName, String className, String message,
+                       StackTraceElement[] frames, int truncatedAt, long fingerprint) {
+        applyTraceOutcomes();
+        Long sentAt = traceSentAt.get(fingerprint);
+        boolean withTrace = sentAt == null || (sentAt != IN_FLIGHT && timestamp - sentAt >= TRACE_RESEND_MILLIS);
+        Event event = withTrace
+                ? new Event(fingerprint, timestamp, threadName, className, message, frames, truncatedAt)
+                : new Event(fingerprint, timestamp, null, className, null, null, 0);
+        if (!queue.offer(event)) {
+            StatsStore.incrementExportDroppedCount(1);
+            return;
+        }
+        if (withTrace) {
+            traceSentAt.put(fingerprint, IN_FLIGHT);
+        }
+    }
+
+    private void applyTraceOutcomes() {
+        TraceOutcome outcome;
+        while ((outcome = traceOutcomes.poll()) != null) {
+            if (outcome.sentAt == LOST) {
+                traceSentAt.remove(outcome.fingerprint);
+            } else {
+                traceSentAt.put(outcome.fingerprint, outcome.sentAt);
+            }
+        }
+    }
+
+    @Override
+    public void run() {
+        //Exceptions raised while sending must not be exported themselves
+        ExceptionLogger.markInsideLogging();
+        long nextFlushAt = System.currentTimeMillis() + flushIntervalMillis;
+        while (running) {
+            try {
+                long wait = Math.min(nextFlushAt - System.currentTimeMillis(), POLL_MILLIS);
+                Event event = wait > 0 ? queue.poll(wait, TimeUnit.MILLISECONDS) : null;
+                if (event != null) {
+                    add(event);
+                    drainQueue();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            if (System.currentTimeMillis() >= nextFlushAt) {
+                flush();
+                nextFlushAt = System.currentTimeMillis() + flushIntervalMillis;
+            }
+        }
+        drainQueue();
+        flush();
+    }
+
+    private void drainQueue() {
+        Event event;
+        while ((event = queue.poll()) != null) {
+            add(event);
+        }
+    }
+
+    private void add(Event event) {
+        PendingCount pending = pendingCounts.get(event.fingerprint);
+        if (pending == null) {
+            if (pendingCounts.size() >= capacity) {
+                StatsStore.incrementExportDroppedCount(1);
+                if (event.frames != null) {
+                    traceOutcomes.offer(new TraceOutcome(event.fingerprint, LOST));
+                }
+                return;
+            }
+            pending = new PendingCount(event.className, event.timestamp);
+            pendingCounts.put(event.fingerprint, pending);
+        }
+        if (event.frames != null) {
+            pendingTraces.add(event);
+        }
+        pending.count++;
+        pending.lastTimestamp = event.timestamp;
+    }
+
+    /**
+     * Sends the pending traces and counts in as few datagrams as they fit in.
+     */
+    void flush() {
+        if (pendingTraces.isEmpty() && pendingCounts.isEmpty()) {
+            return;
+        }
+        encoder.begin(jvmId, sequence);
+        for (Event trace : pendingTraces) {
+            if (!addTrace(trace)) {
+                send();
+                if (!addTrace(trace)) {
+                    //Does not fit even in an empty datagram
+                    StatsStore.incrementExportDroppedCount(1);
+                    traceOutcomes.offer(new TraceOutcome(trace.fingerprint, LOST));
+                    continue;
+                }
+            }
+            tracesInDatagram.add(trace);
+        }
+        for (Map.Entry<Long, PendingCount> entry : pendingCounts.entrySet()) {
+            PendingCount pending = entry.getValue();
+            if (!encoder.addCount(entry.getKey(), pending.className, pending.count, pending.firstTimestamp, pending.lastTimestamp)) {
+                send();
+                if (!encoder.addCount(entry.getKey(), pending.className, pending.count, pending.firstTimestamp, pending.lastTimestamp)) {
+                    StatsStore.incrementExportDroppedCount(1);
+                }
+            }
+        }
+        send();
+        pendingTraces.clear();
+        pendingCounts.clear();
+    }
+
+    private boolean addTrace(Event trace) {
+        return encoder.addTrace(trace.fingerprint, trace.timestamp, trace.threadName, trace.className, trace.message,
+                trace.frames, trace.truncatedAt);
+    }
+
+    //Sends the datagram being filled and starts the next one. The collector counts gaps in the sequence as lost.
+    private void send() {
+        int count = encoder.records();
+        if (count > 0) {
+            ByteBuffer datagram = encoder.finish();
+            sequence++;
+            boolean sent = false;
+            try {
+                if (channel.write(datagram) > 0) {
+                    StatsStore.recordExportDatagram(count);
+                    sent = true;
+                } else {
+                    //Socket buffer full
+                    StatsStore.incrementExportDroppedCount(count);
+                }
+            } catch (IOException e) {
+                //Collector not listening, or the channel was closed
+                StatsStore.incrementExportDroppedCount(count);
+            }
+            for (Event trace : tracesInDatagram) {
+                traceOutcomes.offer(new TraceOutcome(trace.fingerprint, sent ? trace.timestamp : LOST));
+            }
+            tracesInDatagram.clear();
+        }
+        encoder.begin(jvmId, sequence);
+    }
+
+    /**
+     * Stops the exporter after sending what was queued, and closes the socket.
+     */
+    public void shutdown() {
+        running = false;
+        Thread exporterThread = thread;
+        if (exporterThread != null) {
+            //Not interrupted: that would close the channel in the middle of the final send
+            try {
+                exporterThread.join(5000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            thread = null;
+        }
+        try {
+            if (channel != null) {
+                channel.close();
+            }
+        } catch (IOException ignored) {
+            //Nothing left to send
+        }
+    }
+
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    private static final class Event {
+        private final long fingerprint;
+        private final long timestamp;
+        private final String threadName;
+        private final String className;
+        private final String message;
+        private final StackTraceElement[] frames; //null when only counted
+        private final int truncatedAt;
+
+        private Event(long fingerprint, long timestamp, String threadName, String className, String message,
+                      StackTraceElement[] frames, int truncatedAt) {
+            this.fingerprint = fingerprint;
+            this.timestamp = timestamp;
+            this.threadName = threadName;
+            this.className = className;
+            this.message = message;
+            this.frames = frames;
+            this.truncatedAt = truncatedAt;
+        }
+    }
+
+    private static final class TraceOutcome {
+        private final long fingerprint;
+        private final long sentAt; //LOST if dropped
+
+        private TraceOutcome(long fingerprint, long sentAt) {
+            this.fingerprint = fingerprint;
+            this.sentAt = sentAt;
+        }
+    }
+
+    private static final class PendingCount {
+        private final String className;
+        private final long firstTimestamp;
+        private long lastTimestamp;
+        private long count;
+
+        private PendingCount(String className, long firstTimestamp) {
+            this.className = className;
+            this.firstTimestamp = firstTimestamp;
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package com.asm.eb.export;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Datagram layout shared by {@link EventExporter} and {@link NodeCollector}. Every datagram stands on its own:
+ * <pre>
+ * int magic, string jvmId, long sequence, short recordCount, records...
+ * TRACE: byte 1, long fingerprint, long timestamp, string threadName, string className, string message,
+ *        short truncatedAt, short frameCount, frames (string className, string methodName, string fileName, int line)
+ * COUNT: byte 2, long fingerprint, string className, long count, long firstTimestamp, long lastTimestamp
+ * </pre>
+ * Strings are UTF-8 prefixed by an unsigned short length, 0xFFFF for null. A trace that does not fit in one
+ * datagram keeps as many frames as fit and records where it was truncated.
+ *
+ * @author asmishra
+ * @since 10/17/2026
+ */
+public final class ExportFormat {
+    static final int MAGIC = 0x45425831; //"EBX1"
+    //Below the 65507 byte UDP payload limit, and a single loopback packet
+    public static final int MAX_DATAGRAM_BYTES = 60_000;
+    static final byte TRACE = 1;
+    static final byte COUNT = 2;
+    static final int MAX_MESSAGE_CHARS = 1024;
+    private static final int NULL_STRING = 0xFFFF;
+    private static final int MAX_STRING_BYTES = 0xFFFE;
+
+    private ExportFormat() {
+    }
+
+    /**
+     * Receives the content of a decoded datagram.
+     */
+    public interface Visitor {
+        void header(String jvmId, long sequence);
+
+        void trace(long fingerprint, long timestamp, String threadName, String className, String message,
+                   StackTraceElement[] frames, int truncatedAt);
+
+        void count(long fingerprint, String className, long count, long firstTimestamp, long lastTimestamp);
+    }
+
+    /**
+     * Decodes one datagram.
+     *
+     * @throws IllegalArgumentException If the datagram is not in this format or is damaged.
+     */
+    public static void decode(ByteBuffer datagram, Visitor visitor) {
+        try {
+            if (datagram.getInt() != MAGIC) {
+                throw new IllegalArgumentException("Not an exception export datagram");
+            }
+            visitor.header(readString(datagram), datagram.getLong());
+            int records = datagram.getShort() & 0xFFFF;
+            for (int i = 0; i < records; i++) {
+                byte type = datagram.get();
+                if (type == TRACE) {
+                    long fingerprint = datagram.getLong();
+                    long timestamp = datagram.getLong();
+                    String threadName = readString(datagram);
+                    String className = readString(datagram);
+                    String message = readString(datagram);
+                    int truncatedAt = datagram.getShort() & 0xFFFF;
+                    StackTraceElement[] frames = new StackTraceElement[datagram.getShort() & 0xFFFF];
+                    for (int frame = 0; frame < frames.length; frame++) {
+                        frames[frame] = new StackTraceElement(readString(datagram), readString(datagram), readString(datagram), datagram.getInt());
+                    }
+                    visitor.trace(fingerprint, timestamp, threadName, className, message, frames, truncatedAt);
+                } else if (type == COUNT) {
+                    visitor.count(datagram.getLong(), readString(datagram), datagram.getLong(), datagram.getLong(), datagram.getLong());
+                } else {
+                    throw new IllegalArgumentException("Unknown record type " + type);
+                }
+            }
+        } catch (RuntimeException e) {
+            if (e instanceof IllegalArgumentException) {
+                throw e;
+            }
+            throw new IllegalArgumentException("Damaged exception export datagram", e);
+        }
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = buffer.getShort() & 0xFFFF;
+        if (length == NULL_STRING) {
+            return null;
+        }
+        String value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + length);
+        return value;
+    }
+
+    /**
+     * Fills datagrams of at most {@link #MAX_DATAGRAM_BYTES}. Not thread-safe, reused by the exporter thread.
+     */
+    static final class Encoder {
+        private final ByteBuffer buffer;
+        private int recordCountPosition;
+        private int records;
+
+        Encoder(int capacity) {
+            this.buffer = ByteBuffer.allocate(capacity);
+        }
+
+        void begin(String jvmId, long sequence) {
+            buffer.clear();
+            buffer.putInt(MAGIC);
+            writeString(jvmId);
+            buffer.putLong(sequence);
+            recordCountPosition = buffer.position();
+            buffer.putShort((short) 0);
+            records = 0;
+        }
+
+        int records() {
+            return records;
+        }
+
+        /**
+         * @return false if the trace does not fit in this datagram, which is then left unchanged. A trace always
+         * fits in an empty datagram, truncated if need be.
+         */
+        boolean addTrace(long fingerprint, long timestamp, String threadName, String className, String message,
+                         StackTraceElement[] frames, int truncatedAt) {
+            int start = buffer.position();
+            try {
+                buffer.put(TRACE);
+                buffer.putLong(fingerprint);
+                buffer.putLong(timestamp);
+                writeString(threadName);
+                writeString(className);
+                writeString(message == null || message.length() <= MAX_MESSAGE_CHARS ? message : message.substring(0, MAX_MESSAGE_CHARS));
+                int truncatedAtPosition = buffer.position();
+                buffer.putShort((short) Math.min(truncatedAt, 0xFFFF));
+                int frameCountPosition = buffer.position();
+                buffer.putShort((short) 0);
+                int written = 0;
+                for (StackTraceElement frame : frames) {
+                    if (written == 0xFFFF) {
+                        break;
+                    }
+                    int frameStart = buffer.position();
+                    try {
+                        writeString(frame.getClassName());
+                        writeString(frame.getMethodName());
+                        writeString(frame.getFileName());
+                        buffer.putInt(frame.getLineNumber());
+                    } catch (BufferOverflowException e) {
+                        if (records > 0) {
+                            throw e;
+                        }
+                        buffer.position(frameStart);
+                        break;
+                    }
+                    written++;
+                }
+                if (written < frames.length) {
+                    buffer.putShort(truncatedAtPosition, (short) written);
+                }
+                buffer.putShort(frameCountPosition, (short) written);
+            } catch (BufferOverflowException e) {
+                buffer.position(start);
+                return false;
+            }
+            records++;
+            return true;
+        }
+
+        /**
+         * @return false if the count does not fit in this datagram, which is then left unchanged.
+         */
+        boolean addCount(long fingerprint, String className, long count, long firstTimestamp, long lastTimestamp) {
+            int start = buffer.position();
+            try {
+                buffer.put(COUNT);
+                buffer.putLong(fingerprint);
+                writeString(className);
+                buffer.putLong(count);
+                buffer.putLong(firstTimestamp);
+                buffer.putLong(lastTimestamp);
+            } catch (BufferOverflowException e) {
+                buffer.position(start);
+                return false;
+            }
+            records++;
+            return true;
+        }
+
+        /**
+         * @return The datagram, ready to be sent.
+         */
+        ByteBuffer finish() {
+            buffer.putShort(recordCountPosition, (short) records);
+            buffer.flip();
+            return buffer;
+        }
+
+        private void writeString(String value) {
+            if (value == null) {
+                buffer.putShort((short) NULL_STRING);
+                return;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            int length = Math.min(bytes.length, MAX_STRING_BYTES);
+            if (buffer.remaining() < 2 + length) {
+                throw new BufferOverflowException();
+            }
+            buffer.putShort((short) length);
+            buffer.put(bytes, 0, length);
+        }
+    }
+}
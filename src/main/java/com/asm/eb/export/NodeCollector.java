@@ -0,0 +1,299 @@
+package com.asm.eb.export;
+
+import com.asm.eb.logger.LogRecordWriter;
+
+import java.io.IOException;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetSocketAddress;
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Receives the datagrams of the {@link EventExporter}s of every JVM on a host and merges them per fingerprint
+ * into one deduplicated store, written through a {@link LogRecordWriter} in the layout of eb.log: the first full
+ * trace of each fingerprint, then every summary interval a repeat record with the occurrences reported by all
+ * JVMs together. When the store rolls over, traces are written again before their next repeat record, so every
+ * file can be read on its own.
+ * <p>
+ * A single {@code eb-collector} thread receives, merges and writes, so no state is shared. Sites beyond
+ * {@code maxSites} are counted but not stored, and gaps in a JVM's datagram sequence are counted as lost.
+ *
+ * @author asmishra
+ * @since 10/17/2026
+ */
+public final class NodeCollector implements Runnable {
+    private static final String THREAD_NAME = "eb-collector";
+    private static final int RECEIVE_BUFFER_BYTES = 4 * 1024 * 1024;
+    private static final int TICK_MILLIS = 200;
+    private static final int MAX_JVMS_PER_SITE = 64;
+    private static final int MAX_TRACKED_JVMS = 4096;
+
+    private final DatagramSocket socket;
+    private final LogRecordWriter store;
+    private final int maxSites;
+    private final long summaryIntervalMillis;
+    //Collector thread only
+    private final Map<Long, Site> sites = new HashMap<>();
+    private final Map<String, Long> nextSequences = new HashMap<>();
+    private final Merger merger = new Merger();
+    private boolean dirty;
+    private long datagramsAtLastSummary;
+    private volatile long datagramCount;
+    private volatile long lostDatagramCount;
+    private volatile long malformedDatagramCount;
+    private volatile long overflowCount;
+    private volatile boolean running;
+    private volatile Thread thread;
+
+    /**
+     * Binds the collector's socket.
+     *
+     * @param address               Address to listen on, port 0 for any free port.
+     * @param store                 Destination of the merged records, closed by the caller.
+     * @param maxSites              Distinct fingerprints kept in memory.
+     * @param summaryIntervalMillis How often repeat records are written.
+     * @throws SocketException If the address cannot be bound.
+     */
+    public NodeCollector(InetSocketAddress address, LogRecordWriter store, int maxSites, long summaryIntervalMillis) throws SocketException {
+        this.store = store;
+        this.maxSites = maxSites;
+        this.summaryIntervalMillis = summaryIntervalMillis;
+        this.socket = new DatagramSocket(null);
+        socket.setReceiveBufferSize(RECEIVE_BUFFER_BYTES);
+        socket.setSoTimeout(TICK_MILLIS);
+        socket.bind(address);
+    }
+
+    public int getPort() {
+        return socket.getLocalPort();
+    }
+
+    public void start() {
+        running = true;
+        thread = new Thread(this, THREAD_NAME);
+        thread.start();
+    }
+
+    @Override
+    public void run() {
+        byte[] buffer = new byte[65536];
+        DatagramPacket packet = new DatagramPacket(buffer, buffer.length);
+        long nextSummaryAt = System.currentTimeMillis() + summaryIntervalMillis;
+        while (running) {
+            try {
+                packet.setLength(buffer.length);
+                socket.receive(packet);
+                if (!running) {
+                    //Closing the socket can complete a pending receive with an empty packet
+                    break;
+                }
+                receive(ByteBuffer.wrap(buffer, 0, packet.getLength()));
+            } catch (SocketTimeoutException e) {
+                //Idle, check the summary interval below
+            } catch (IOException e) {
+                if (running) {
+                    System.err.println("[ExceptionBuddy] Node collector failed to receive: " + e.getMessage());
+                }
+            }
+            long now = System.currentTimeMillis();
+            if (now >= nextSummaryAt) {
+                writeSummary(now);
+                nextSummaryAt = now + summaryIntervalMillis;
+            } else if (dirty) {
+                flushStore();
+            }
+        }
+        writeSummary(System.currentTimeMillis());
+    }
+
+    void receive(ByteBuffer datagram) {
+        datagramCount++;
+        try {
+            ExportFormat.decode(datagram, merger);
+        } catch (IllegalArgumentException e) {
+            malformedDatagramCount++;
+        }
+    }
+
+    /**
+     * Writes a repeat record for every fingerprint reported since its last one, and a line of collector
+     * statistics if anything was received.
+     */
+    void writeSummary(long now) {
+        for (Map.Entry<Long, Site> entry : sites.entrySet()) {
+            Site site = entry.getValue();
+            long count = site.pendingCount - site.countedByTrace;
+            if (count > 0) {
+                if (!site.traceWritten && site.frames != null) {
+                    writeTrace(entry.getKey(), site, site.lastSeen);
+                }
+                store.writeRepeat(now, site.label(), entry.getKey(), site.className, count, site.lastReportedAt);
+                site.lastReportedAt = now;
+            }
+            if (site.pendingCount > 0) {
+                site.pendingCount = 0;
+                site.countedByTrace = 0;
+            }
+        }
+        if (datagramCount > datagramsAtLastSummary) {
+            store.writeMessage(now, "INFO", THREAD_NAME, "Received " + (datagramCount - datagramsAtLastSummary)
+                    + " datagrams from " + nextSequences.size() + " JVMs, tracking " + sites.size() + " sites; lost "
+                    + lostDatagramCount + " datagrams, malformed " + malformedDatagramCount + ", events beyond maxSites " + overflowCount);
+            datagramsAtLastSummary = datagramCount;
+        }
+        flushStore();
+    }
+
+    private void flushStore() {
+        long bytesBeforeFlush = store.bytesWritten();
+        store.flush();
+        dirty = false;
+        if (store.bytesWritten() < bytesBeforeFlush) {
+            //Rolled over: the new file has none of the traces yet
+            for (Site site : sites.values()) {
+                site.traceWritten = false;
+            }
+        }
+    }
+
+    private void writeTrace(long fingerprint, Site site, long timestamp) {
+        store.writeException(timestamp, site.threadName, site.className, site.message, site.frames, site.truncatedAt, true, fingerprint);
+        site.traceWritten = true;
+        dirty = true;
+    }
+
+    private Site siteFor(long fingerprint, String className) {
+        Site site = sites.get(fingerprint);
+        if (site == null && sites.size() < maxSites) {
+            site = new Site(className);
+            sites.put(fingerprint, site);
+        }
+        return site;
+    }
+
+    /**
+     * Stops receiving, writes a last summary and flushes the store.
+     */
+    public void shutdown() {
+        running = false;
+        socket.close();
+        Thread collectorThread = thread;
+        if (collectorThread != null) {
+            try {
+                collectorThread.join(5000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            thread = null;
+        }
+    }
+
+    public long getDatagramCount() {
+        return datagramCount;
+    }
+
+    public long getLostDatagramCount() {
+        return lostDatagramCount;
+    }
+
+    public long getMalformedDatagramCount() {
+        return malformedDatagramCount;
+    }
+
+    /**
+     * @return Events of fingerprints that were not stored because {@code maxSites} were already tracked.
+     */
+    public long getOverflowCount() {
+        return overflowCount;
+    }
+
+    /**
+     * Applies the records of the datagram being decoded.
+     */
+    private final class Merger implements ExportFormat.Visitor {
+        private String jvmId;
+
+        @Override
+        public void header(String jvmId, long sequence) {
+            this.jvmId = jvmId;
+            Long expected = nextSequences.get(jvmId);
+            if (expected != null && sequence > expected) {
+                lostDatagramCount += sequence - expected;
+            }
+            //A lower sequence means the JVM's exporter restarted
+            if (expected != null || nextSequences.size() < MAX_TRACKED_JVMS) {
+                nextSequences.put(jvmId, sequence + 1);
+            }
+        }
+
+        @Override
+        public void trace(long fingerprint, long timestamp, String threadName, String className, String message,
+                          StackTraceElement[] frames, int truncatedAt) {
+            Site site = siteFor(fingerprint, className);
+            if (site == null) {
+                return;
+            }
+            if (site.frames == null) {
+                site.threadName = jvmId + "/" + threadName;
+                site.message = message;
+                site.frames = frames;
+                site.truncatedAt = truncatedAt;
+                //The occurrence the trace stands for is not a repeat
+                site.countedByTrace = 1;
+            }
+            if (!site.traceWritten) {
+                writeTrace(fingerprint, site, timestamp);
+            }
+        }
+
+        @Override
+        public void count(long fingerprint, String className, long count, long firstTimestamp, long lastTimestamp) {
+            Site site = siteFor(fingerprint, className);
+            if (site == null) {
+                overflowCount += count;
+                return;
+            }
+            site.totalCount += count;
+            site.pendingCount += count;
+            site.lastSeen = Math.max(site.lastSeen, lastTimestamp);
+            if (site.lastReportedAt == 0L) {
+                site.lastReportedAt = firstTimestamp;
+            }
+            if (site.jvms.size() < MAX_JVMS_PER_SITE) {
+                site.jvms.add(jvmId);
+            }
+        }
+    }
+
+    /**
+     * Everything known about one fingerprint, merged across JVMs.
+     */
+    private static final class Site {
+        private final String className;
+        private final Set<String> jvms = new HashSet<>();
+        private String threadName;
+        private String message;
+        private StackTraceElement[] frames; //null until a trace arrives
+        private int truncatedAt;
+        private boolean traceWritten;
+        private long countedByTrace;
+        private long totalCount;
+        private long pendingCount;
+        private long lastSeen;
+        private long lastReportedAt;
+
+        private Site(String className) {
+            this.className = className;
+        }
+
+        private String label() {
+            return THREAD_NAME + " " + jvms.size() + (jvms.size() == MAX_JVMS_PER_SITE ? "+" : "") + " JVMs, " + totalCount + " total";
+        }
+    }
+}
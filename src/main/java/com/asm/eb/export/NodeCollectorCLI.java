@@ -0,0 +1,175 @@
+package com.asm.eb.export;
+
+import com.asm.eb.config.ConfigurationParser;
+import com.asm.eb.logger.ExceptionLogger;
+import com.asm.eb.logger.LogRecordWriter;
+import com.asm.eb.model.Configuration;
+import org.apache.commons.cli.*;
+
+import java.io.File;
+import java.net.InetSocketAddress;
+
+/**
+ * A command-line interface (CLI) tool that runs the {@link NodeCollector} of a host until it is terminated.
+ * The store is described by an agent configuration file, of which only logFilePath, logFormat and the
+ * rolling settings are used.
+ *
+ * @author asmishra
+ * @since 10/17/2026
+ */
+public class NodeCollectorCLI {
+    private static final String CONFIG_OPTION = "config";
+    private static final String PORT_OPTION = "port";
+    private static final String BIND_OPTION = "bind";
+    private static final String SUMMARY_INTERVAL_OPTION = "summary-interval-seconds";
+    private static final String MAX_SITES_OPTION = "max-sites";
+
+    public static void main(String[] args) {
+        Options options = buildOptions();
+        try {
+            CliArguments cliArguments = parseAndValidateArguments(args, options);
+            run(cliArguments);
+        } catch (ParseException e) {
+            System.err.println("Error parsing command-line arguments: " + e.getMessage());
+            printUsage(options);
+        } catch (Exception e) {
+            System.err.println("Error while starting the node collector: " + e.getMessage());
+        }
+    }
+
+    static Options buildOptions() {
+        Options options = new Options();
+
+        Option configOption = Option.builder()
+                .longOpt(CONFIG_OPTION)
+                .hasArg(true)
+                .required(true)
+                .desc("Path to a configuration file giving logFilePath, logFormat and rolling settings of the store")
+                .build();
+        Option portOption = Option.builder()
+                .longOpt(PORT_OPTION)
+                .hasArg(true)
+                .required(true)
+                .desc("UDP port to listen on, the agents' exportPort; 0 for any free port")
+                .build();
+        Option bindOption = Option.builder()
+                .longOpt(BIND_OPTION)
+                .hasArg(true)
+                .desc("Address to listen on, 127.0.0.1 when omitted")
+                .build();
+        Option summaryIntervalOption = Option.builder()
+                .longOpt(SUMMARY_INTERVAL_OPTION)
+                .hasArg(true)
+                .desc("Seconds between repeat records in the store, 10 when omitted")
+                .build();
+        Option maxSitesOption = Option.builder()
+                .longOpt(MAX_SITES_OPTION)
+                .hasArg(true)
+                .desc("Distinct exception fingerprints tracked, 100000 when omitted")
+                .build();
+        options.addOption(configOption);
+        options.addOption(portOption);
+        options.addOption(bindOption);
+        options.addOption(summaryIntervalOption);
+        options.addOption(maxSitesOption);
+        return options;
+    }
+
+    private static void printUsage(Options options) {
+        HelpFormatter formatter = new HelpFormatter();
+        formatter.printHelp("java -cp <agent-jar> com.asm.eb.export.NodeCollectorCLI --config <path> --port <port> [--bind <address>]", options);
+    }
+
+    static CliArguments parseAndValidateArguments(String[] args, Options options) throws ParseException {
+        CommandLineParser parser = new DefaultParser();
+        CommandLine cmd = parser.parse(options, args);
+
+        String configPath = cmd.getOptionValue(CONFIG_OPTION);
+        if (configPath == null || configPath.trim().isEmpty()) {
+            throw new ParseException("Option 'config' must be provided.");
+        }
+        File config = new File(configPath.trim());
+        if (!config.isFile() || !config.canRead()) {
+            throw new ParseException("Option 'config' must point to a readable file: " + config.getPath());
+        }
+        int port = (int) parseNumber(cmd.getOptionValue(PORT_OPTION), PORT_OPTION, -1);
+        if (port > 65535) {
+            throw new ParseException("Option 'port' must be between 0 and 65535.");
+        }
+        String bind = cmd.getOptionValue(BIND_OPTION);
+        bind = bind == null || bind.trim().isEmpty() ? "127.0.0.1" : bind.trim();
+        long summaryIntervalSeconds = parseNumber(cmd.getOptionValue(SUMMARY_INTERVAL_OPTION), SUMMARY_INTERVAL_OPTION, 10);
+        if (summaryIntervalSeconds == 0) {
+            throw new ParseException("Option '" + SUMMARY_INTERVAL_OPTION + "' must be positive.");
+        }
+        long maxSites = parseNumber(cmd.getOptionValue(MAX_SITES_OPTION), MAX_SITES_OPTION, 100_000);
+        if (maxSites == 0 || maxSites > Integer.MAX_VALUE) {
+            throw new ParseException("Option '" + MAX_SITES_OPTION + "' must be between 1 and " + Integer.MAX_VALUE + ".");
+        }
+        return new CliArguments(config.getAbsolutePath(), bind, port, summaryIntervalSeconds * 1000L, (int) maxSites);
+    }
+
+    private static long parseNumber(String value, String optionName, long defaultValue) throws ParseException {
+        if (value == null) {
+            if (defaultValue < 0) {
+                throw new ParseException("Option '" + optionName + "' must be provided.");
+            }
+            return defaultValue;
+        }
+        try {
+            long number = Long.parseLong(value.trim());
+            if (number < 0) {
+                throw new ParseException("Option '" + optionName + "' must not be negative: " + value.trim());
+            }
+            return number;
+        } catch (NumberFormatException e) {
+            throw new ParseException("Option '" + optionName + "' must be a number: " + value.trim());
+        }
+    }
+
+    /**
+     * Starts the collector and prints the address it listens on. It runs until the JVM is terminated, when a
+     * shutdown hook writes a last summary and closes the store.
+     *
+     * @param arguments The validated arguments.
+     * @return The running collector.
+     * @throws Exception If the configuration is invalid, or the store or socket cannot be opened.
+     */
+    static NodeCollector run(CliArguments arguments) throws Exception {
+        Configuration configuration = ConfigurationParser.parseConfigurationFile(arguments.configPath);
+        LogRecordWriter store = ExceptionLogger.openLogWriter(configuration);
+        NodeCollector collector;
+        try {
+            collector = new NodeCollector(new InetSocketAddress(arguments.bind, arguments.port), store,
+                    arguments.maxSites, arguments.summaryIntervalMillis);
+        } catch (Exception e) {
+            store.close();
+            throw e;
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            collector.shutdown();
+            store.close();
+        }, "eb-collector-shutdown"));
+        collector.start();
+        System.out.println("Node collector listening on " + arguments.bind + ":" + collector.getPort()
+                + ", writing to " + configuration.getLogFilePath());
+        System.out.flush();
+        return collector;
+    }
+
+    static final class CliArguments {
+        final String configPath;
+        final String bind;
+        final int port;
+        final long summaryIntervalMillis;
+        final int maxSites;
+
+        private CliArguments(String configPath, String bind, int port, long summaryIntervalMillis, int maxSites) {
+            this.configPath = configPath;
+            this.bind = bind;
+            this.port = port;
+            this.summaryIntervalMillis = summaryIntervalMillis;
+            this.maxSites = maxSites;
+        }
+    }
+}
@@ -0,0 +1,321 @@
+package com.asm.eb.export;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteOrder;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.attribute.BasicFileAttributes;
+
+import static com.asm.eb.export.SharedRingWriter.*;
+
+/**
+ * Tails the ring of a {@link SharedRingWriter} from another process. Events are handed over as a view of
+ * their slot in the mapping, so reading copies nothing; strings are {@link CharSequence} views of the slot.
+ * <p>
+ * A reader that falls more than a ring behind loses the events overwritten meanwhile: {@link #poll} reports
+ * them to {@link Handler#onOverrun} and continues with the oldest event still available. Not thread-safe.
+ *
+ * @author asmishra
+ * @since 10/17/2026
+ */
+public final class SharedRingReader implements Closeable {
+
+    /**
+     * Receives the events read by {@link #poll}.
+     */
+    public interface Handler {
+        /**
+         * @param event View of the event, only valid during the call.
+         */
+        void onEvent(RingEvent event);
+
+        /**
+         * Called when events were overwritten before they could be read. A call with {@code lostEvents} 1 right
+         * after {@link #onEvent} means that event was overwritten while the handler read it.
+         */
+        void onOverrun(long lostEvents);
+    }
+
+    private final File file;
+    private final Object fileKey;
+    private final MappedByteBuffer buffer;
+    private final int slotBytes;
+    private final int slotCount;
+    private final RingEvent event;
+    private long nextSequence;
+    private long overrunCount;
+    private volatile long fence;
+
+    private SharedRingReader(File file, Object fileKey, MappedByteBuffer buffer) {
+        this.file = file;
+        this.fileKey = fileKey;
+        this.buffer = buffer;
+        this.slotBytes = buffer.getInt(SLOT_BYTES_OFFSET);
+        this.slotCount = buffer.getInt(SLOT_COUNT_OFFSET);
+        this.event = new RingEvent(buffer, buffer.asCharBuffer(), slotBytes);
+        this.nextSequence = getCursor() + 1;
+    }
+
+    /**
+     * Maps a ring, positioned after its last published event.
+     *
+     * @throws IOException              If the file cannot be mapped.
+     * @throws IllegalArgumentException If the file is not a shared exception ring.
+     */
+    public static SharedRingReader open(File file) throws IOException {
+        Object fileKey = Files.readAttributes(file.toPath(), BasicFileAttributes.class).fileKey();
+        MappedByteBuffer buffer;
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            if (raf.length() < HEADER_BYTES) {
+                throw new IllegalArgumentException("Not a shared exception ring: " + file);
+            }
+            buffer = raf.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, raf.length());
+        }
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        if (buffer.getInt(0) != MAGIC) {
+            throw new IllegalArgumentException("Not a shared exception ring: " + file);
+        }
+        if (buffer.getInt(VERSION_OFFSET) != VERSION) {
+            throw new IllegalArgumentException("Unsupported shared exception ring version " + buffer.getInt(VERSION_OFFSET) + ": " + file);
+        }
+        long expectedLength = HEADER_BYTES + (long) buffer.getInt(SLOT_COUNT_OFFSET) * buffer.getInt(SLOT_BYTES_OFFSET);
+        if (buffer.capacity() != expectedLength) {
+            throw new IllegalArgumentException("Damaged shared exception ring: " + file);
+        }
+        return new SharedRingReader(file, fileKey, buffer);
+    }
+
+    /**
+     * Hands up to {@code limit} events to the handler, oldest first.
+     *
+     * @return The number of events handed over, 0 if the reader has caught up with the writer.
+     */
+    public int poll(Handler handler, int limit) {
+        int read = 0;
+        while (read < limit) {
+            long cursor = buffer.getLong(CURSOR_OFFSET);
+            loadFence();
+            if (nextSequence > cursor) {
+                break;
+            }
+            if (cursor - nextSequence >= slotCount) {
+                long lost = cursor - slotCount + 1 - nextSequence;
+                skip(handler, lost);
+                continue;
+            }
+            int slot = HEADER_BYTES + (int) ((nextSequence - 1) % slotCount) * slotBytes;
+            if (buffer.getLong(slot + SEQUENCE) != nextSequence) {
+                //Being overwritten by the writer's next lap
+                skip(handler, 1);
+                continue;
+            }
+            loadFence();
+            event.bind(slot, nextSequence);
+            handler.onEvent(event);
+            if (!event.isIntact()) {
+                overrunCount++;
+                handler.onOverrun(1);
+            }
+            nextSequence++;
+            read++;
+        }
+        return read;
+    }
+
+    private void skip(Handler handler, long lost) {
+        nextSequence += lost;
+        overrunCount += lost;
+        handler.onOverrun(lost);
+    }
+
+    //Keeps the loads before it ahead of the loads after it, see SharedRingWriter.storeFence
+    private void loadFence() {
+        fence = nextSequence;
+        if (fence != nextSequence) {
+            throw new IllegalStateException("Shared ring reader used concurrently");
+        }
+    }
+
+    /**
+     * Continues with the oldest event still in the ring.
+     */
+    public void seekToOldest() {
+        nextSequence = Math.max(1L, getCursor() - slotCount + 1);
+    }
+
+    /**
+     * @return Sequence of the last event published, 0 if none.
+     */
+    public long getCursor() {
+        return buffer.getLong(CURSOR_OFFSET);
+    }
+
+    public long getNextSequence() {
+        return nextSequence;
+    }
+
+    /**
+     * @return Events lost to overruns since the reader was opened.
+     */
+    public long getOverrunCount() {
+        return overrunCount;
+    }
+
+    public int getSlotCount() {
+        return slotCount;
+    }
+
+    /**
+     * @return true once the writer closed the ring; events published before remain readable.
+     */
+    public boolean isWriterClosed() {
+        return buffer.getLong(CLOSED_AT_OFFSET) != 0L;
+    }
+
+    /**
+     * @return true if a new writer, usually a restarted JVM, replaced the file with a new ring. Always false
+     * on file systems without file keys.
+     */
+    public boolean isReplaced() {
+        if (fileKey == null) {
+            return false;
+        }
+        try {
+            return !fileKey.equals(Files.readAttributes(file.toPath(), BasicFileAttributes.class).fileKey());
+        } catch (IOException e) {
+            //Deleted, or being replaced right now
+            return true;
+        }
+    }
+
+    /**
+     * Does nothing: the mapping is released when the reader is collected.
+     */
+    @Override
+    public void close() {
+    }
+
+    /**
+     * View of one slot of the ring. Strings are views of the slot and are truncated to the slot size.
+     */
+    public static final class RingEvent {
+        private final MappedByteBuffer buffer;
+        private final CharBuffer chars;
+        private final int slotBytes;
+        private int slot;
+        private long sequence;
+        private volatile long fence;
+
+        private RingEvent(MappedByteBuffer buffer, CharBuffer chars, int slotBytes) {
+            this.buffer = buffer;
+            this.chars = chars;
+            this.slotBytes = slotBytes;
+        }
+
+        private void bind(int slot, long sequence) {
+            this.slot = slot;
+            this.sequence = sequence;
+        }
+
+        public long getSequence() {
+            return sequence;
+        }
+
+        public long getTimestamp() {
+            return buffer.getLong(slot + TIMESTAMP);
+        }
+
+        /**
+         * @return Fingerprint of the exception class and frames, see {@code StackFingerprinter}.
+         */
+        public long getFingerprint() {
+            return buffer.getLong(slot + FINGERPRINT);
+        }
+
+        public int getFrameCount() {
+            return buffer.getInt(slot + FRAME_COUNT);
+        }
+
+        /**
+         * @return maxFrames if the captured frames were truncated, else 0.
+         */
+        public int getTruncatedAt() {
+            return buffer.getInt(slot + TRUNCATED_AT);
+        }
+
+        public CharSequence getClassName() {
+            return string(CLASS_NAME_CHARS, 0);
+        }
+
+        public CharSequence getThreadName() {
+            return string(THREAD_NAME_CHARS, 1);
+        }
+
+        /**
+         * @return The message, possibly truncated, or null.
+         */
+        public CharSequence getMessage() {
+            return string(MESSAGE_CHARS, 5);
+        }
+
+        /**
+         * @return Length of the whole message, -1 if null.
+         */
+        public int getMessageLength() {
+            return buffer.getInt(slot + MESSAGE_LENGTH);
+        }
+
+        /**
+         * @return Class of the top frame, null without frames.
+         */
+        public CharSequence getTopFrameClass() {
+            return string(TOP_FRAME_CLASS_CHARS, 2);
+        }
+
+        public CharSequence getTopFrameMethod() {
+            return string(TOP_FRAME_METHOD_CHARS, 3);
+        }
+
+        public CharSequence getTopFrameFile() {
+            return string(TOP_FRAME_FILE_CHARS, 4);
+        }
+
+        public int getTopFrameLine() {
+            return buffer.getInt(slot + TOP_FRAME_LINE);
+        }
+
+        /**
+         * @return false if the writer has started overwriting the slot, in which case anything read from this
+         * event may be torn.
+         */
+        public boolean isIntact() {
+            //Orders the loads of the fields read so far before the load of the sequence
+            fence = sequence;
+            return fence == sequence && buffer.getLong(slot + SEQUENCE) == sequence;
+        }
+
+        //Strings are stored back to back in this order, so the start of one is the end of those before it.
+        //Lengths are clamped to the slot, in case the slot is being overwritten.
+        private CharSequence string(int lengthOffset, int index) {
+            int length = buffer.getShort(slot + lengthOffset);
+            if (length < 0) {
+                return null;
+            }
+            int start = (slot + CHARS) >> 1;
+            for (int i = 0; i < index; i++) {
+                start += Math.max(0, buffer.getShort(slot + ORDER[i]));
+            }
+            int slotEnd = (slot + slotBytes) >> 1;
+            start = Math.min(start, slotEnd);
+            return chars.subSequence(start, Math.min(start + length, slotEnd));
+        }
+
+        private static final int[] ORDER = {CLASS_NAME_CHARS, THREAD_NAME_CHARS, TOP_FRAME_CLASS_CHARS,
+                TOP_FRAME_METHOD_CHARS, TOP_FRAME_FILE_CHARS, MESSAGE_CHARS};
+    }
+}
@@ -0,0 +1,261 @@
+package com.asm.eb.export;
+
+import com.asm.eb.logger.StackFingerprinter;
+import org.apache.commons.cli.*;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+
+/**
+ * A command-line interface (CLI) tool that tails the shared ring of an agent (sharedRingFile) and prints its
+ * events, one line each, or only the number of events read per second. It follows the file across agent
+ * restarts and reports events overwritten before they could be read.
+ *
+ * @author asmishra
+ * @since 10/17/2026
+ */
+public class SharedRingTailCLI {
+    private static final String FILE_OPTION = "file";
+    private static final String FROM_OLDEST_OPTION = "from-oldest";
+    private static final String LIMIT_OPTION = "limit";
+    private static final String NO_FOLLOW_OPTION = "no-follow";
+    private static final String RATE_OPTION = "rate";
+    private static final int BATCH = 4096;
+    private static final long IDLE_SLEEP_MILLIS = 1L;
+
+    public static void main(String[] args) {
+        Options options = buildOptions();
+        try {
+            CliArguments cliArguments = parseAndValidateArguments(args, options);
+            Writer out = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8), 1 << 16);
+            tail(cliArguments, out);
+            out.flush();
+        } catch (ParseException e) {
+            System.err.println("Error parsing command-line arguments: " + e.getMessage());
+            printUsage(options);
+        } catch (Exception e) {
+            System.err.println("Error while reading the shared ring: " + e.getMessage());
+        }
+    }
+
+    static Options buildOptions() {
+        Options options = new Options();
+
+        Option fileOption = Option.builder()
+                .longOpt(FILE_OPTION)
+                .hasArg(true)
+                .required(true)
+                .desc("Path to the shared ring file, the agent's sharedRingFile")
+                .build();
+        Option fromOldestOption = Option.builder()
+                .longOpt(FROM_OLDEST_OPTION)
+                .desc("Start with the oldest event still in the ring instead of the next one published")
+                .build();
+        Option limitOption = Option.builder()
+                .longOpt(LIMIT_OPTION)
+                .hasArg(true)
+                .desc("Stop after this many events")
+                .build();
+        Option noFollowOption = Option.builder()
+                .longOpt(NO_FOLLOW_OPTION)
+                .desc("Stop once all published events were read")
+                .build();
+        Option rateOption = Option.builder()
+                .longOpt(RATE_OPTION)
+                .desc("Print the number of events read and lost per second instead of the events")
+                .build();
+        options.addOption(fileOption);
+        options.addOption(fromOldestOption);
+        options.addOption(limitOption);
+        options.addOption(noFollowOption);
+        options.addOption(rateOption);
+        return options;
+    }
+
+    private static void printUsage(Options options) {
+        HelpFormatter formatter = new HelpFormatter();
+        formatter.printHelp("java -cp <agent-jar> com.asm.eb.export.SharedRingTailCLI --file <path> [--from-oldest] [--no-follow] [--rate]", options);
+    }
+
+    static CliArguments parseAndValidateArguments(String[] args, Options options) throws ParseException {
+        CommandLineParser parser = new DefaultParser();
+        CommandLine cmd = parser.parse(options, args);
+
+        String filePath = cmd.getOptionValue(FILE_OPTION);
+        if (filePath == null || filePath.trim().isEmpty()) {
+            throw new ParseException("Option 'file' must be provided.");
+        }
+        long limit = Long.MAX_VALUE;
+        String limitValue = cmd.getOptionValue(LIMIT_OPTION);
+        if (limitValue != null) {
+            try {
+                limit = Long.parseLong(limitValue.trim());
+            } catch (NumberFormatException e) {
+                throw new ParseException("Option 'limit' must be a number: " + limitValue.trim());
+            }
+            if (limit <= 0) {
+                throw new ParseException("Option 'limit' must be positive.");
+            }
+        }
+        return new CliArguments(new File(filePath.trim()).getAbsolutePath(), cmd.hasOption(FROM_OLDEST_OPTION), limit,
+                !cmd.hasOption(NO_FOLLOW_OPTION), cmd.hasOption(RATE_OPTION));
+    }
+
+    /**
+     * Reads events until the limit is reached, or until caught up when not following.
+     *
+     * @param arguments The validated arguments.
+     * @param out       Destination of the events, flushed whenever the reader catches up.
+     * @return The number of events read.
+     * @throws Exception If the file is not a shared ring or cannot be read.
+     */
+    static long tail(CliArguments arguments, Writer out) throws Exception {
+        File file = new File(arguments.filePath);
+        SharedRingReader reader = SharedRingReader.open(file);
+        if (arguments.fromOldest) {
+            reader.seekToOldest();
+        }
+        Printer printer = new Printer(out, arguments.rate);
+        long nextRateAt = System.currentTimeMillis() + 1000;
+        while (printer.read < arguments.limit) {
+            int read = reader.poll(printer, (int) Math.min(BATCH, arguments.limit - printer.read));
+            if (printer.failure != null) {
+                throw printer.failure;
+            }
+            long now = System.currentTimeMillis();
+            if (arguments.rate && now >= nextRateAt) {
+                printer.printRate(now);
+                nextRateAt = now + 1000;
+            }
+            if (read > 0) {
+                continue;
+            }
+            out.flush();
+            if (!arguments.follow) {
+                break;
+            }
+            if (reader.isReplaced()) {
+                //The agent restarted with a new ring, read it from its start
+                SharedRingReader replacement = openReplacement(file);
+                if (replacement != null) {
+                    reader = replacement;
+                    reader.seekToOldest();
+                    continue;
+                }
+            }
+            Thread.sleep(IDLE_SLEEP_MILLIS);
+        }
+        out.flush();
+        return printer.read;
+    }
+
+    private static SharedRingReader openReplacement(File file) {
+        try {
+            return SharedRingReader.open(file);
+        } catch (IOException | IllegalArgumentException e) {
+            //Not moved into place yet, retried on the next idle poll
+            return null;
+        }
+    }
+
+    private static final class Printer implements SharedRingReader.Handler {
+        private final Writer out;
+        private final boolean rate;
+        private final SimpleDateFormat timeFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss.SSS");
+        private final StringBuilder line = new StringBuilder(256);
+        private long read;
+        private long lost;
+        private long readAtLastRate;
+        private long lostAtLastRate;
+        private IOException failure;
+
+        private Printer(Writer out, boolean rate) {
+            this.out = out;
+            this.rate = rate;
+        }
+
+        @Override
+        public void onEvent(SharedRingReader.RingEvent event) {
+            read++;
+            if (rate || failure != null) {
+                return;
+            }
+            line.setLength(0);
+            line.append(timeFormat.format(new Date(event.getTimestamp())))
+                    .append(" #").append(event.getSequence())
+                    .append(" [").append(event.getThreadName()).append("] [fingerprint=")
+                    .append(StackFingerprinter.toHex(event.getFingerprint())).append("] ")
+                    .append(event.getClassName());
+            CharSequence message = event.getMessage();
+            if (message != null) {
+                line.append(": ").append(message);
+                if (message.length() < event.getMessageLength()) {
+                    line.append("...");
+                }
+            }
+            CharSequence topFrameClass = event.getTopFrameClass();
+            if (topFrameClass != null) {
+                CharSequence file = event.getTopFrameFile();
+                line.append(" at ").append(topFrameClass).append('.').append(event.getTopFrameMethod())
+                        .append('(').append(file == null ? "Unknown Source" : file);
+                if (event.getTopFrameLine() >= 0) {
+                    line.append(':').append(event.getTopFrameLine());
+                }
+                line.append(')');
+            }
+            line.append(System.lineSeparator());
+            if (!event.isIntact()) {
+                //Reported by onOverrun
+                return;
+            }
+            try {
+                out.append(line);
+            } catch (IOException e) {
+                failure = e;
+            }
+        }
+
+        @Override
+        public void onOverrun(long lostEvents) {
+            lost += lostEvents;
+            if (!rate) {
+                System.err.println("[ExceptionBuddy] " + lostEvents + " events were overwritten before they could be read");
+            }
+        }
+
+        private void printRate(long now) {
+            try {
+                out.append(new SimpleDateFormat("HH:mm:ss").format(new Date(now))).append(' ')
+                        .append(String.valueOf(read - readAtLastRate)).append(" events/s, lost ")
+                        .append(String.valueOf(lost - lostAtLastRate)).append(System.lineSeparator());
+                out.flush();
+            } catch (IOException e) {
+                failure = e;
+            }
+            readAtLastRate = read;
+            lostAtLastRate = lost;
+        }
+    }
+
+    static final class CliArguments {
+        final String filePath;
+        final boolean fromOldest;
+        final long limit;
+        final boolean follow;
+        final boolean rate;
+
+        private CliArguments(String filePath, boolean fromOldest, long limit, boolean follow, boolean rate) {
+            this.filePath = filePath;
+            this.fromOldest = fromOldest;
+            this.limit = limit;
+            this.follow = follow;
+            this.rate = rate;
+        }
+    }
+}
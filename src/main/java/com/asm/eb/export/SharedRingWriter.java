@@ -0,0 +1,206 @@
+package com.asm.eb.export;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.Buffer;
+import java.nio.ByteOrder;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Publishes exception events into a memory-mapped file used as a single-writer ring of fixed-size slots, so
+ * processes on the same host can read them live with a {@link SharedRingReader}. Publishing an event only
+ * stores into the mapping: nothing is allocated, copied to a buffer, flushed or synchronised with readers.
+ * <pre>
+ * header (4096 bytes): int magic, int version, int slotBytes, int slotCount, long createdAt,
+ *                      long cursor at 64 (last published sequence), long closedAt at 128
+ * slot:   long sequence, long timestamp, long fingerprint, int frameCount, int truncatedAt, int topFrameLine,
+ *         int messageLength, short lengths of className, threadName, message, topFrameClass, topFrameMethod,
+ *         topFrameFile (-1 for null), then from byte 56 the UTF-16 chars of className, threadName,
+ *         topFrameClass, topFrameMethod, topFrameFile and message, truncated to the slot
+ * </pre>
+ * All values are little-endian. Sequences start at 1 and event {@code s} lives in slot
+ * {@code (s - 1) % slotCount}. A slot's sequence is cleared before the slot is rewritten and set once it is
+ * complete, so a reader that sees the same sequence before and after reading a slot read it intact.
+ * Not thread-safe: the logger calls it with its lock held.
+ *
+ * @author asmishra
+ * @since 10/17/2026
+ */
+public final class SharedRingWriter {
+    static final int MAGIC = 0x45425231; //"EBR1"
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 4096;
+    static final int VERSION_OFFSET = 4;
+    static final int SLOT_BYTES_OFFSET = 8;
+    static final int SLOT_COUNT_OFFSET = 12;
+    static final int CREATED_AT_OFFSET = 16;
+    //Own cache lines, the only header fields written per event and at close
+    static final int CURSOR_OFFSET = 64;
+    static final int CLOSED_AT_OFFSET = 128;
+
+    static final int SEQUENCE = 0;
+    static final int TIMESTAMP = 8;
+    static final int FINGERPRINT = 16;
+    static final int FRAME_COUNT = 24;
+    static final int TRUNCATED_AT = 28;
+    static final int TOP_FRAME_LINE = 32;
+    static final int MESSAGE_LENGTH = 36;
+    static final int CLASS_NAME_CHARS = 40;
+    static final int THREAD_NAME_CHARS = 42;
+    static final int MESSAGE_CHARS = 44;
+    static final int TOP_FRAME_CLASS_CHARS = 46;
+    static final int TOP_FRAME_METHOD_CHARS = 48;
+    static final int TOP_FRAME_FILE_CHARS = 50;
+    static final int CHARS = 56;
+
+    public static final int MIN_SLOT_BYTES = 128;
+    public static final int MAX_SLOT_BYTES = 65536;
+    public static final long MAX_RING_BYTES = 1L << 30;
+
+    private final File file;
+    private final MappedByteBuffer buffer;
+    private final CharBuffer chars;
+    private final char[] scratch;
+    private final int slotBytes;
+    private final int mask;
+    private long sequence;
+    private volatile long fence;
+
+    private SharedRingWriter(File file, MappedByteBuffer buffer, int slotCount, int slotBytes) {
+        this.file = file;
+        this.buffer = buffer;
+        this.chars = buffer.asCharBuffer();
+        this.scratch = new char[(slotBytes - CHARS) >> 1];
+        this.slotBytes = slotBytes;
+        this.mask = slotCount - 1;
+    }
+
+    /**
+     * Creates a new ring and moves it over {@code file}. Readers of a previous ring keep their mapping of the
+     * replaced file and can tell it was replaced with {@link SharedRingReader#isReplaced()}.
+     *
+     * @param slotCount Number of slots, a power of two.
+     * @param slotBytes Bytes per slot, a multiple of 64 between {@link #MIN_SLOT_BYTES} and {@link #MAX_SLOT_BYTES}.
+     * @throws IOException If the file cannot be created or mapped.
+     */
+    public static SharedRingWriter create(File file, int slotCount, int slotBytes) throws IOException {
+        if (slotCount < 2 || Integer.bitCount(slotCount) != 1) {
+            throw new IllegalArgumentException("Slot count must be a power of two: " + slotCount);
+        }
+        if (slotBytes < MIN_SLOT_BYTES || slotBytes > MAX_SLOT_BYTES || slotBytes % 64 != 0) {
+            throw new IllegalArgumentException("Slot size must be a multiple of 64 between " + MIN_SLOT_BYTES + " and " + MAX_SLOT_BYTES + ": " + slotBytes);
+        }
+        if ((long) slotCount * slotBytes > MAX_RING_BYTES) {
+            throw new IllegalArgumentException("Ring must not exceed " + MAX_RING_BYTES + " bytes");
+        }
+        File parentDir = file.getAbsoluteFile().getParentFile();
+        if (parentDir != null && !parentDir.exists() && !parentDir.mkdirs() && !parentDir.exists()) {
+            throw new IOException("Failed to create directory: " + parentDir.getAbsolutePath());
+        }
+        File temp = new File(parentDir, file.getName() + ".tmp");
+        long length = HEADER_BYTES + (long) slotCount * slotBytes;
+        MappedByteBuffer buffer;
+        try (RandomAccessFile raf = new RandomAccessFile(temp, "rw")) {
+            raf.setLength(0);
+            raf.setLength(length);
+            //The mapping stays valid after the channel is closed
+            buffer = raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, length);
+        }
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(VERSION_OFFSET, VERSION);
+        buffer.putInt(SLOT_BYTES_OFFSET, slotBytes);
+        buffer.putInt(SLOT_COUNT_OFFSET, slotCount);
+        buffer.putLong(CREATED_AT_OFFSET, System.currentTimeMillis());
+        buffer.putInt(0, MAGIC);
+        try {
+            Files.move(temp.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+        return new SharedRingWriter(file, buffer, slotCount, slotBytes);
+    }
+
+    /**
+     * Publishes an event, overwriting the oldest one once the ring is full.
+     *
+     * @param frames Captured frames, of which only the top one is stored.
+     */
+    public void publish(long timestamp, String threadName, String className, String message,
+                        StackTraceElement[] frames, int truncatedAt, long fingerprint) {
+        long next = sequence + 1;
+        int slot = HEADER_BYTES + (int) ((next - 1) & mask) * slotBytes;
+        buffer.putLong(slot + SEQUENCE, 0L);
+        storeFence(next);
+        buffer.putLong(slot + TIMESTAMP, timestamp);
+        buffer.putLong(slot + FINGERPRINT, fingerprint);
+        buffer.putInt(slot + FRAME_COUNT, frames.length);
+        buffer.putInt(slot + TRUNCATED_AT, truncatedAt);
+        buffer.putInt(slot + MESSAGE_LENGTH, message == null ? -1 : message.length());
+        int position = slot + CHARS;
+        int end = slot + slotBytes;
+        position = putChars(slot + CLASS_NAME_CHARS, className, position, end);
+        position = putChars(slot + THREAD_NAME_CHARS, threadName, position, end);
+        StackTraceElement top = frames.length > 0 ? frames[0] : null;
+        buffer.putInt(slot + TOP_FRAME_LINE, top == null ? 0 : top.getLineNumber());
+        position = putChars(slot + TOP_FRAME_CLASS_CHARS, top == null ? null : top.getClassName(), position, end);
+        position = putChars(slot + TOP_FRAME_METHOD_CHARS, top == null ? null : top.getMethodName(), position, end);
+        position = putChars(slot + TOP_FRAME_FILE_CHARS, top == null ? null : top.getFileName(), position, end);
+        putChars(slot + MESSAGE_CHARS, message, position, end);
+        storeFence(next);
+        buffer.putLong(slot + SEQUENCE, next);
+        buffer.putLong(CURSOR_OFFSET, next);
+        sequence = next;
+    }
+
+    //Stores as many chars as fit before end and their count at lengthOffset; returns the next free position
+    private int putChars(int lengthOffset, String value, int position, int end) {
+        if (value == null) {
+            buffer.putShort(lengthOffset, (short) -1);
+            return position;
+        }
+        int length = Math.min(value.length(), (end - position) >> 1);
+        //A bulk copy, much cheaper than storing the chars one by one through the buffer
+        value.getChars(0, length, scratch, 0);
+        ((Buffer) chars).position(position >> 1);
+        chars.put(scratch, 0, length);
+        buffer.putShort(lengthOffset, (short) length);
+        return position + (length << 1);
+    }
+
+    /*
+     * Keeps the stores before it ahead of the stores after it, as other processes see them. A volatile store
+     * followed by a volatile load of the same field cannot be reordered with either; Java 8 has no public
+     * fence API.
+     */
+    private void storeFence(long value) {
+        fence = value;
+        if (fence != value) {
+            throw new IllegalStateException("Shared ring written concurrently");
+        }
+    }
+
+    /**
+     * Marks the ring closed for readers. The mapping is released when the writer is collected.
+     */
+    public void close() {
+        storeFence(sequence);
+        buffer.putLong(CLOSED_AT_OFFSET, System.currentTimeMillis());
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    /**
+     * @return Events published, including those since overwritten.
+     */
+    public long getPublishedCount() {
+        return buffer.getLong(CURSOR_OFFSET);
+    }
+}
@@ -0,0 +1,148 @@
+package com.asm.eb.hook;
+
+import com.asm.eb.logger.ExceptionLogger;
+import com.asm.eb.store.ExceptionCostProfiler;
+import com.asm.eb.store.StackSuppressor;
+import com.asm.eb.store.StatsStore;
+
+import java.lang.ref.WeakReference;
+
+/**
+ * Static entry point called from every instrumented java.lang.Throwable constructor and fillInStackTrace(), or in
+ * the throw-site mode from before every instrumented athrow.
+ * The agent jar is appended to the bootstrap class path, so this class is resolved by the bootstrap loader
+ * like Throwable itself. Dispatch is a single volatile read and a null check, small enough to be inlined
+ * into hot constructors; no monitor is taken before the logger decides what to do with the exception.
+ *
+ * @author asmishra
+ * @since 10/17/2026
+ */
+public final class ExceptionHook {
+    private static volatile ExceptionLogger exceptionLogger;
+    //The throwable last reported at a throw site on each thread, so rethrowing it is not reported again
+    private static final ThreadLocal<WeakReference<Throwable>> lastThrown = new ThreadLocal<>();
+
+    private ExceptionHook() {
+    }
+
+    /**
+     * Invoked on entry to every Throwable constructor, before the superclass constructor runs.
+     * Only does work while cost profiling is enabled.
+     * Must not let an exception escape, or constructing the application's exception would fail with it.
+     */
+    public static void onThrowableStart() {
+        ExceptionCostProfiler profiler = StatsStore.getCostProfiler();
+        if (profiler != null && exceptionLogger != null) {
+            try {
+                profiler.start();
+            } catch (Throwable ignored) {
+                //The constructor is then not measured
+            }
+        }
+    }
+
+    /**
+     * Invoked on entry to Throwable.fillInStackTrace(). Only does work while stack suppression is configured.
+     * Must not let an exception escape; when anything goes wrong the stack is captured as usual.
+     *
+     * @param throwable The throwable being filled in.
+     * @return true to let Throwable capture the stack, false if its stack trace has already been set.
+     */
+    public static boolean onFillInStackTrace(Throwable throwable) {
+        StackSuppressor suppressor = StatsStore.getStackSuppressor();
+        if (suppressor == null || exceptionLogger == null) {
+            return true;
+        }
+        try {
+            return suppressor.capture(throwable);
+        } catch (Throwable ignored) {
+            return true;
+        }
+    }
+
+    /**
+     * Invoked at the end of every Throwable constructor.
+     * Must not let an exception escape, or constructing the application's exception would fail with it.
+     *
+     * @param throwable The freshly constructed throwable.
+     */
+    public static void onThrowable(Throwable throwable) {
+        ExceptionLogger logger = exceptionLogger;
+        if (logger != null) {
+            long start = System.nanoTime();
+            try {
+                ExceptionCostProfiler profiler = StatsStore.getCostProfiler();
+                if (profiler != null) {
+                    profiler.end(throwable, start);
+                }
+                logger.logException(throwable);
+                StatsStore.recordHookTime(System.nanoTime() - start);
+            } catch (Throwable ignored) {
+                //Logging is best effort, the application's constructor must still complete, even after an Error
+                //such as a StackOverflowError when the exception is built near the stack limit
+            }
+        }
+    }
+
+    /**
+     * Invoked before every instrumented {@code athrow} in the throw-site instrumentation mode.
+     * Must never throw, or it would replace the exception the application is throwing.
+     *
+     * @param throwable The value about to be thrown, null if the throw is going to raise a NullPointerException.
+     */
+    public static void onThrow(Throwable throwable) {
+        ExceptionLogger logger = exceptionLogger;
+        if (logger != null && throwable != null) {
+            long start = System.nanoTime();
+            try {
+                lastThrown.set(new WeakReference<>(throwable));
+                logger.logThrow(throwable);
+                StatsStore.recordHookTime(System.nanoTime() - start);
+            } catch (Throwable ignored) {
+                //The application's exception takes precedence over a failure to log it
+            }
+        }
+    }
+
+    /**
+     * Invoked before an instrumented {@code athrow} that rethrows the value caught by a typed exception handler of
+     * the same method. Reports the throwable like {@link #onThrow} unless it is the one last reported on this
+     * thread, as when it was thrown by uninstrumented code. Must never throw.
+     *
+     * @param throwable The caught value about to be thrown again.
+     */
+    public static void onRethrow(Throwable throwable) {
+        if (exceptionLogger == null || throwable == null) {
+            return;
+        }
+        try {
+            WeakReference<Throwable> last = lastThrown.get();
+            if (last != null && last.get() == throwable) {
+                return;
+            }
+        } catch (Throwable ignored) {
+            //Reported again rather than lost
+        }
+        onThrow(throwable);
+    }
+
+    /**
+     * Routes constructor and throw-site events to the given logger.
+     *
+     * @param logger The logger to dispatch to.
+     */
+    public static void install(ExceptionLogger logger) {
+        exceptionLogger = logger;
+    }
+
+    /**
+     * Stops dispatching; constructors then only pay for the volatile read.
+     */
+    public static void uninstall() {
+        exceptionLogger = null;
+    }
+
+    public static boolean isEnabled() {
+        return exceptionLogger != null;
+    }
+}
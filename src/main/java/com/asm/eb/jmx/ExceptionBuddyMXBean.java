@@ -0,0 +1,49 @@
+package com.asm.eb.jmx;
+
+import java.util.Map;
+
+/**
+ * Live exception statistics and agent health, registered as {@code com.asm.eb:type=ExceptionBuddy}.
+ * Exception counts and rates are collected only when exceptionMonitoring is enabled.
+ *
+ * @author asmishra
+ * @since 10/17/2026
+ */
+public interface ExceptionBuddyMXBean {
+
+    long getTotalExceptionCount();
+
+    Map<String, Long> getExceptionCountsByType();
+
+    Map<String, Long> getCriticalExceptionCounts();
+
+    double getExceptionRate1s();
+
+    double getExceptionRate10s();
+
+    double getExceptionRate1m();
+
+    double getExceptionRate5m();
+
+    long getDroppedEventCount();
+
+    long getSampledOutEventCount();
+
+    long getRateLimitedEventCount();
+
+    int getQueueDepth();
+
+    int getQueueCapacity();
+
+    boolean isAsyncLogging();
+
+    boolean isSampling();
+
+    boolean isHookInstalled();
+
+    long getHookInvocationCount();
+
+    long getHookTimeNanos();
+
+    double getAverageHookTimeNanos();
+}
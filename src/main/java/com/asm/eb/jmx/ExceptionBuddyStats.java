@@ -0,0 +1,146 @@
+package com.asm.eb.jmx;
+
+import com.asm.eb.hook.ExceptionHook;
+import com.asm.eb.logger.ExceptionLogger;
+import com.asm.eb.store.StatsStore;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+
+/**
+ * {@link ExceptionBuddyMXBean} backed by StatsStore. Every attribute is read from adders, volatile fields or a
+ * copy of a concurrent map, so polling never takes a lock the exception path could be waiting on.
+ *
+ * @author asmishra
+ * @since 10/17/2026
+ */
+public class ExceptionBuddyStats implements ExceptionBuddyMXBean {
+    public static final String OBJECT_NAME = "com.asm.eb:type=ExceptionBuddy";
+
+    private final ExceptionLogger exceptionLogger;
+
+    ExceptionBuddyStats(ExceptionLogger exceptionLogger) {
+        this.exceptionLogger = exceptionLogger;
+    }
+
+    /**
+     * Registers the MBean in the platform MBeanServer, replacing one left behind by an earlier attach.
+     *
+     * @param exceptionLogger The logger whose queue is reported.
+     * @throws JMException If the MBean cannot be registered.
+     */
+    public static void register(ExceptionLogger exceptionLogger) throws JMException {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(OBJECT_NAME);
+        if (server.isRegistered(name)) {
+            server.unregisterMBean(name);
+        }
+        server.registerMBean(new ExceptionBuddyStats(exceptionLogger), name);
+    }
+
+    public static void unregister() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (server.isRegistered(name)) {
+                server.unregisterMBean(name);
+            }
+        } catch (JMException e) {
+            System.err.println("[ExceptionBuddy] Failed to unregister MBean " + OBJECT_NAME + ": " + e.getMessage());
+        }
+    }
+
+    @Override
+    public long getTotalExceptionCount() {
+        return StatsStore.getExceptionCount();
+    }
+
+    @Override
+    public Map<String, Long> getExceptionCountsByType() {
+        return StatsStore.getExceptionCountsByType();
+    }
+
+    @Override
+    public Map<String, Long> getCriticalExceptionCounts() {
+        return StatsStore.getCriticalExceptionStats();
+    }
+
+    @Override
+    public double getExceptionRate1s() {
+        return StatsStore.getExceptionRate(1);
+    }
+
+    @Override
+    public double getExceptionRate10s() {
+        return StatsStore.getExceptionRate(10);
+    }
+
+    @Override
+    public double getExceptionRate1m() {
+        return StatsStore.getExceptionRate(60);
+    }
+
+    @Override
+    public double getExceptionRate5m() {
+        return StatsStore.getExceptionRate(300);
+    }
+
+    @Override
+    public long getDroppedEventCount() {
+        return StatsStore.getDroppedEventCount();
+    }
+
+    @Override
+    public long getSampledOutEventCount() {
+        return StatsStore.getSampledOutEventCount();
+    }
+
+    @Override
+    public long getRateLimitedEventCount() {
+        return StatsStore.getRateLimitedEventCount();
+    }
+
+    @Override
+    public int getQueueDepth() {
+        return exceptionLogger.getQueueDepth();
+    }
+
+    @Override
+    public int getQueueCapacity() {
+        return exceptionLogger.getQueueCapacity();
+    }
+
+    @Override
+    public boolean isAsyncLogging() {
+        return exceptionLogger.isAsync();
+    }
+
+    @Override
+    public boolean isSampling() {
+        return exceptionLogger.isSampling();
+    }
+
+    @Override
+    public boolean isHookInstalled() {
+        return ExceptionHook.isEnabled();
+    }
+
+    @Override
+    public long getHookInvocationCount() {
+        return StatsStore.getHookInvocationCount();
+    }
+
+    @Override
+    public long getHookTimeNanos() {
+        return StatsStore.getHookTimeNanos();
+    }
+
+    @Override
+    public double getAverageHookTimeNanos() {
+        long invocations = StatsStore.getHookInvocationCount();
+        return invocations == 0 ? 0.0 : (double) StatsStore.getHookTimeNanos() / invocations;
+    }
+}
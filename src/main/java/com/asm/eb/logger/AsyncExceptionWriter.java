@@ -0,0 +1,69 @@
+package com.asm.eb.logger;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Single consumer of the exception event ring. Runs on the dedicated {@code eb-writer} thread and
+ * performs the filtering, formatting and file I/O that used to happen on the throwing thread.
+ *
+ * @author asmishra
+ * @since 10/17/2026
+ */
+final class AsyncExceptionWriter implements Runnable {
+    private static final String THREAD_NAME = "eb-writer";
+    private static final int BATCH_SIZE = 256;
+    private static final long IDLE_PARK_NANOS = 1_000_000L;
+
+    private final ExceptionLogger exceptionLogger;
+    private final ExceptionEventRing eventRing;
+    private volatile boolean running;
+    private volatile Thread thread;
+
+    AsyncExceptionWriter(ExceptionLogger exceptionLogger, ExceptionEventRing eventRing) {
+        this.exceptionLogger = exceptionLogger;
+        this.eventRing = eventRing;
+    }
+
+    void start() {
+        running = true;
+        thread = new Thread(this, THREAD_NAME);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public void run() {
+        // Exceptions raised while formatting must not be fed back into the ring.
+        ExceptionLogger.markInsideLogging();
+        while (running) {
+            if (exceptionLogger.drainEvents(BATCH_SIZE) == 0) {
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+            }
+        }
+        while (exceptionLogger.drainEvents(BATCH_SIZE) > 0) {
+            // Drain whatever was published before shutdown.
+        }
+    }
+
+    /**
+     * Stops the writer after it has drained the events already published.
+     */
+    void shutdown() {
+        running = false;
+        Thread writerThread = thread;
+        if (writerThread == null) {
+            return;
+        }
+        LockSupport.unpark(writerThread);
+        try {
+            writerThread.join(5000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        thread = null;
+    }
+}
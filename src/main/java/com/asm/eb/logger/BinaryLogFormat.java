@@ -0,0 +1,56 @@
+package com.asm.eb.logger;
+
+/**
+ * Layout of the binary exception log, shared by {@link BinaryLogWriter} and the decoder.
+ * <p>
+ * A file starts with {@link #MAGIC} followed by the {@link #VERSION} byte and is then a sequence of records:
+ * <pre>
+ *   record  := varint(length of type + payload) type payload
+ *   SEGMENT := varint(segment index) varlong(base timestamp)
+ *   STRING  := string                                    (next string id of the segment)
+ *   FRAME   := varint(class id) varint(method id) varint(file id + 1) zigzag(line)    (next frame id)
+ *   EXCEPTION := zigzag(timestamp delta) varint(thread id) varint(class id) string?(message)
+ *                flags [fixed64(fingerprint)] [varint(truncated at)] varint(frame count) varint(frame id)*
+ *   MESSAGE := zigzag(timestamp delta) varint(level id) varint(thread id) string?(message)
+ *   REPEAT  := zigzag(timestamp delta) varint(thread id) fixed64(fingerprint) varint(class id)
+ *              varlong(count) zigzag(since timestamp - timestamp)
+ *   CLT     := zigzag(timestamp delta) varint(thread id) string?(message)
+ *   string  := varint(UTF-8 length) bytes,   string? := varint(UTF-8 length + 1) bytes, 0 for null
+ * </pre>
+ * Every SEGMENT record resets the string and frame dictionaries and the timestamp base, so a segment can be decoded
+ * without the ones before it. Timestamp deltas are relative to the previous record of the segment.
+ *
+ * @author asmishra
+ * @since 10/17/2026
+ */
+public final class BinaryLogFormat {
+    public static final byte[] MAGIC = {'E', 'B', 'L', 'O', 'G'};
+    public static final byte VERSION = 1;
+
+    public static final byte SEGMENT = 1;
+    public static final byte STRING = 2;
+    public static final byte FRAME = 3;
+    public static final byte EXCEPTION = 4;
+    public static final byte MESSAGE = 5;
+    public static final byte REPEAT = 6;
+    public static final byte CLASS_LOADING = 7;
+
+    public static final int FLAG_FINGERPRINT = 1;
+    public static final int FLAG_TRUNCATED = 1 << 1;
+
+    /**
+     * Upper bound of a single record, anything larger is treated as corruption by the decoder.
+     */
+    public static final int MAX_RECORD_BYTES = 64 * 1024 * 1024;
+
+    private BinaryLogFormat() {
+    }
+
+    public static long zigZagEncode(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    public static long zigZagDecode(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
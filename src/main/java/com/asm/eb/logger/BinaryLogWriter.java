@@ -0,0 +1,437 @@
+package com.asm.eb.logger;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Writes records in the {@link BinaryLogFormat} through a {@link FileChannel}.
+ * Class names, thread names, levels and stack frames are written once per segment and referenced by id afterwards,
+ * so a trace that recurs costs a few bytes per frame instead of a full line. A new segment is started once the
+ * current one has grown past the configured size, which bounds the dictionaries the decoder has to keep.
+ *
+ * @author asmishra
+ * @since 10/17/2026
+ */
+public final class BinaryLogWriter implements LogRecordWriter {
+    private static final int OUTPUT_BUFFER_BYTES = 64 * 1024;
+
+    private final File file;
+    private final FileChannel channel;
+    private final long segmentBytes;
+    private final ByteBuffer output = ByteBuffer.allocate(OUTPUT_BUFFER_BYTES);
+    private final Map<String, Integer> strings = new HashMap<>();
+    private final Map<StackTraceElement, Integer> frames = new HashMap<>();
+
+    //Payload of the record being encoded
+    private byte[] record = new byte[256];
+    private int recordLength;
+    private int[] frameIds = new int[64];
+
+    private int segmentIndex = -1;
+    private long segmentWritten;
+    private long lastTimestamp;
+    private long bytesWritten;
+    private boolean failed;
+
+    /**
+     * Opens the log for appending, writing the file header if the file is new. A record left incomplete at the end
+     * of an existing file, as by a crash, is cut off first, since readers stop at it and would never see the records
+     * appended after it.
+     *
+     * @param file         The log file.
+     * @param segmentBytes Size after which a new segment with fresh dictionaries is started.
+     * @throws IOException              If the file cannot be opened.
+     * @throws IllegalArgumentException If the file exists but is not a binary exception log.
+     */
+    public BinaryLogWriter(File file, long segmentBytes) throws IOException {
+        this.file = file;
+        this.segmentBytes = segmentBytes;
+        long completeLength = file.length() > 0 ? completeLength() : 0L;
+        this.channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        long size = channel.size();
+        if (completeLength < size) {
+            channel.truncate(completeLength);
+            System.err.println("[ExceptionBuddy] Cut " + (size - completeLength) + " bytes of an incomplete record off the end of "
+                    + file.getPath() + ".");
+        }
+        channel.position(completeLength);
+        this.bytesWritten = completeLength;
+        if (bytesWritten == 0) {
+            output.put(BinaryLogFormat.MAGIC).put(BinaryLogFormat.VERSION);
+            bytesWritten = output.position();
+        }
+    }
+
+    /*
+     * Verifies the header and returns the length of the file up to the end of its last complete record, skipping
+     * over the records by their length prefix.
+     */
+    private long completeLength() throws IOException {
+        try (FileChannel reader = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long size = reader.size();
+            DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(reader), OUTPUT_BUFFER_BYTES));
+            byte[] header = new byte[BinaryLogFormat.MAGIC.length + 1];
+            try {
+                in.readFully(header);
+            } catch (EOFException e) {
+                throw new IllegalArgumentException("File " + file.getPath() + " exists and is not a binary exception log.");
+            }
+            if (!Arrays.equals(Arrays.copyOf(header, BinaryLogFormat.MAGIC.length), BinaryLogFormat.MAGIC)) {
+                throw new IllegalArgumentException("File " + file.getPath() + " exists and is not a binary exception log.");
+            }
+            if (header[BinaryLogFormat.MAGIC.length] != BinaryLogFormat.VERSION) {
+                throw new IllegalArgumentException("File " + file.getPath() + " uses unsupported binary log version "
+                        + header[BinaryLogFormat.MAGIC.length] + ".");
+            }
+            long complete = header.length;
+            while (complete < size) {
+                long position = complete;
+                long length = 0;
+                int shift = 0;
+                int b;
+                do {
+                    b = in.read();
+                    if (b < 0 || shift > 63) {
+                        return complete;
+                    }
+                    length |= (long) (b & 0x7F) << shift;
+                    shift += 7;
+                    position++;
+                } while ((b & 0x80) != 0);
+                if (length <= 0 || length > BinaryLogFormat.MAX_RECORD_BYTES || position + length > size) {
+                    return complete;
+                }
+                skipFully(in, length);
+                complete = position + length;
+            }
+            return complete;
+        }
+    }
+
+    private static void skipFully(DataInputStream in, long length) throws IOException {
+        while (length > 0) {
+            int skipped = in.skipBytes((int) Math.min(length, Integer.MAX_VALUE));
+            if (skipped <= 0) {
+                throw new EOFException();
+            }
+            length -= skipped;
+        }
+    }
+
+    @Override
+    public void writeMessage(long timestamp, String level, String threadName, String message) {
+        ensureSegment(timestamp);
+        int levelId = stringId(level);
+        int threadId = stringId(threadName);
+        startRecord();
+        putTimestamp(timestamp);
+        putVarLong(levelId);
+        putVarLong(threadId);
+        putNullableString(message);
+        emit(BinaryLogFormat.MESSAGE);
+    }
+
+    @Override
+    public void writeClassLoading(long timestamp, String threadName, String message) {
+        ensureSegment(timestamp);
+        int threadId = stringId(threadName);
+        startRecord();
+        putTimestamp(timestamp);
+        putVarLong(threadId);
+        putNullableString(message);
+        emit(BinaryLogFormat.CLASS_LOADING);
+    }
+
+    @Override
+    public void writeException(long timestamp, String threadName, String className, String message,
+                               StackTraceElement[] stackFrames, int truncatedAt, boolean hasFingerprint, long fingerprint) {
+        ensureSegment(timestamp);
+        int threadId = stringId(threadName);
+        int classId = stringId(className);
+        if (frameIds.length < stackFrames.length) {
+            frameIds = new int[Math.max(stackFrames.length, frameIds.length * 2)];
+        }
+        for (int i = 0; i < stackFrames.length; i++) {
+            frameIds[i] = frameId(stackFrames[i]);
+        }
+        startRecord();
+        putTimestamp(timestamp);
+        putVarLong(threadId);
+        putVarLong(classId);
+        putNullableString(message);
+        int flags = (hasFingerprint ? BinaryLogFormat.FLAG_FINGERPRINT : 0) | (truncatedAt > 0 ? BinaryLogFormat.FLAG_TRUNCATED : 0);
+        putByte(flags);
+        if (hasFingerprint) {
+            putFixedLong(fingerprint);
+        }
+        if (truncatedAt > 0) {
+            putVarLong(truncatedAt);
+        }
+        putVarLong(stackFrames.length);
+        for (int i = 0; i < stackFrames.length; i++) {
+            putVarLong(frameIds[i]);
+        }
+        emit(BinaryLogFormat.EXCEPTION);
+    }
+
+    @Override
+    public void writeRepeat(long timestamp, String threadName, long fingerprint, String className, long count, long sinceTimestamp) {
+        ensureSegment(timestamp);
+        int threadId = stringId(threadName);
+        int classId = stringId(className);
+        startRecord();
+        putTimestamp(timestamp);
+        putVarLong(threadId);
+        putFixedLong(fingerprint);
+        putVarLong(classId);
+        putVarLong(count);
+        putVarLong(BinaryLogFormat.zigZagEncode(sinceTimestamp - timestamp));
+        emit(BinaryLogFormat.REPEAT);
+    }
+
+    @Override
+    public long bytesWritten() {
+        return bytesWritten;
+    }
+
+    @Override
+    public void flush() {
+        if (failed) {
+            return;
+        }
+        try {
+            output.flip();
+            while (output.hasRemaining()) {
+                channel.write(output);
+            }
+        } catch (IOException e) {
+            fail(e);
+        } finally {
+            output.clear();
+        }
+    }
+
+    @Override
+    public void close() {
+        flush();
+        try {
+            channel.close();
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    private void ensureSegment(long timestamp) {
+        if (segmentIndex >= 0 && segmentWritten < segmentBytes) {
+            return;
+        }
+        segmentIndex++;
+        segmentWritten = 0;
+        strings.clear();
+        frames.clear();
+        startRecord();
+        putVarLong(segmentIndex);
+        putVarLong(timestamp);
+        emit(BinaryLogFormat.SEGMENT);
+        lastTimestamp = timestamp;
+    }
+
+    private int stringId(String value) {
+        String key = value == null ? "null" : value;
+        Integer id = strings.get(key);
+        if (id != null) {
+            return id;
+        }
+        int newId = strings.size();
+        strings.put(key, newId);
+        startRecord();
+        putString(key);
+        emit(BinaryLogFormat.STRING);
+        return newId;
+    }
+
+    private int frameId(StackTraceElement frame) {
+        Integer id = frames.get(frame);
+        if (id != null) {
+            return id;
+        }
+        int classId = stringId(frame.getClassName());
+        int methodId = stringId(frame.getMethodName());
+        int fileId = frame.getFileName() == null ? 0 : stringId(frame.getFileName()) + 1;
+        int newId = frames.size();
+        frames.put(frame, newId);
+        startRecord();
+        putVarLong(classId);
+        putVarLong(methodId);
+        putVarLong(fileId);
+        putVarLong(BinaryLogFormat.zigZagEncode(frame.getLineNumber()));
+        emit(BinaryLogFormat.FRAME);
+        return newId;
+    }
+
+    private void startRecord() {
+        recordLength = 0;
+    }
+
+    private void putTimestamp(long timestamp) {
+        putVarLong(BinaryLogFormat.zigZagEncode(timestamp - lastTimestamp));
+        lastTimestamp = timestamp;
+    }
+
+    private void putByte(int value) {
+        ensureRecordCapacity(1);
+        record[recordLength++] = (byte) value;
+    }
+
+    private void putVarLong(long value) {
+        ensureRecordCapacity(10);
+        while ((value & ~0x7FL) != 0) {
+            record[recordLength++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        record[recordLength++] = (byte) value;
+    }
+
+    private void putFixedLong(long value) {
+        ensureRecordCapacity(8);
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            record[recordLength++] = (byte) (value >>> shift);
+        }
+    }
+
+    private void putString(String value) {
+        putVarLong(utf8Length(value));
+        putUtf8(value);
+    }
+
+    private void putNullableString(String value) {
+        if (value == null) {
+            putVarLong(0);
+            return;
+        }
+        putVarLong(utf8Length(value) + 1L);
+        putUtf8(value);
+    }
+
+    //Encodes without String.getBytes() so that writing a message does not allocate
+    private void putUtf8(String value) {
+        ensureRecordCapacity(value.length() * 3);
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                record[recordLength++] = (byte) c;
+            } else if (c < 0x800) {
+                record[recordLength++] = (byte) (0xC0 | (c >> 6));
+                record[recordLength++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < value.length() && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                record[recordLength++] = (byte) (0xF0 | (codePoint >> 18));
+                record[recordLength++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                record[recordLength++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                record[recordLength++] = (byte) (0x80 | (codePoint & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                record[recordLength++] = '?';
+            } else {
+                record[recordLength++] = (byte) (0xE0 | (c >> 12));
+                record[recordLength++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                record[recordLength++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+    }
+
+    private static int utf8Length(String value) {
+        int length = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                length++;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < value.length() && Character.isLowSurrogate(value.charAt(i + 1))) {
+                length += 4;
+                i++;
+            } else if (Character.isSurrogate(c)) {
+                length++;
+            } else {
+                length += 3;
+            }
+        }
+        return length;
+    }
+
+    private void ensureRecordCapacity(int additional) {
+        if (recordLength + additional > record.length) {
+            record = Arrays.copyOf(record, Math.max(recordLength + additional, record.length * 2));
+        }
+    }
+
+    private void emit(byte type) {
+        long length = recordLength + 1L;
+        int total = varLongSize(length) + (int) length;
+        if (output.remaining() < total) {
+            flush();
+        }
+        if (output.remaining() < total) {
+            emitUnbuffered(type, length);
+        } else {
+            long value = length;
+            while ((value & ~0x7FL) != 0) {
+                output.put((byte) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            output.put((byte) value);
+            output.put(type);
+            output.put(record, 0, recordLength);
+        }
+        segmentWritten += total;
+        bytesWritten += total;
+    }
+
+    //Records larger than the output buffer, e.g. a huge class loading trace, bypass it
+    private void emitUnbuffered(byte type, long length) {
+        ByteBuffer large = ByteBuffer.allocate(varLongSize(length) + (int) length);
+        long value = length;
+        while ((value & ~0x7FL) != 0) {
+            large.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        large.put((byte) value).put(type).put(record, 0, recordLength);
+        large.flip();
+        if (failed) {
+            return;
+        }
+        try {
+            while (large.hasRemaining()) {
+                channel.write(large);
+            }
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    private static int varLongSize(long value) {
+        int size = 1;
+        while ((value & ~0x7FL) != 0) {
+            value >>>= 7;
+            size++;
+        }
+        return size;
+    }
+
+    private void fail(IOException e) {
+        if (!failed) {
+            failed = true;
+            System.err.println("[ExceptionBuddy] Failed to write binary log " + file.getPath() + ": " + e.getMessage());
+        }
+    }
+}
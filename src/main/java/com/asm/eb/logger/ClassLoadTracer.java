@@ -0,0 +1,178 @@
+package com.asm.eb.logger;
+
+import java.net.URL;
+import java.security.CodeSource;
+import java.security.ProtectionDomain;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Class-loading trace pipeline. The loading thread only queues the class name, its loader and protection domain;
+ * the {@code eb-class-tracer} thread describes the loader hierarchy and code location and writes the records in
+ * batches. Descriptions are cached per ClassLoader and per ProtectionDomain in weakly keyed maps that only the tracer
+ * thread touches, so a loader that is unloaded is not kept alive and the cache needs no locking.
+ *
+ * @author asmishra
+ * @since 10/17/2026
+ */
+final class ClassLoadTracer implements Runnable {
+    private static final String THREAD_NAME = "eb-class-tracer";
+    private static final int QUEUE_CAPACITY = 16384;
+    private static final int BATCH_SIZE = 256;
+    private static final long IDLE_POLL_MILLIS = 100L;
+    private static final String NO_LOCATION = "";
+
+    private final ExceptionLogger exceptionLogger;
+    private final BlockingQueue<Record> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private final LongAdder droppedCount = new LongAdder();
+    //Only touched by the tracer thread
+    private final Map<ClassLoader, String> hierarchies = new WeakHashMap<>();
+    private final Map<ProtectionDomain, String> locations = new WeakHashMap<>();
+    private long reportedDropCount;
+    private volatile boolean running;
+    private volatile Thread thread;
+
+    ClassLoadTracer(ExceptionLogger exceptionLogger) {
+        this.exceptionLogger = exceptionLogger;
+    }
+
+    void start() {
+        running = true;
+        thread = new Thread(this, THREAD_NAME);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Queues a class load. Never blocks: the loading thread may hold locks the writer needs, so a full queue drops
+     * the record and the tracer reports how many were dropped.
+     */
+    void enqueue(ClassLoader loader, String className, ProtectionDomain protectionDomain) {
+        if (!running || !queue.offer(new Record(System.currentTimeMillis(), Thread.currentThread().getName(),
+                className, loader, protectionDomain))) {
+            droppedCount.increment();
+        }
+    }
+
+    @Override
+    public void run() {
+        // Exceptions raised and classes loaded while formatting must not be traced again.
+        ExceptionLogger.markInsideLogging();
+        List<Record> batch = new ArrayList<>(BATCH_SIZE);
+        while (running) {
+            Record first;
+            try {
+                first = queue.poll(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                break;
+            }
+            if (first != null) {
+                batch.add(first);
+                queue.drainTo(batch, BATCH_SIZE - 1);
+                writeBatch(batch);
+            }
+        }
+        while (queue.drainTo(batch, BATCH_SIZE) > 0) {
+            // Write whatever was queued before shutdown.
+            writeBatch(batch);
+        }
+    }
+
+    private void writeBatch(List<Record> batch) {
+        for (Record record : batch) {
+            record.message = describe(record);
+            record.loader = null;
+            record.protectionDomain = null;
+        }
+        exceptionLogger.writeClassLoads(batch);
+        batch.clear();
+        long dropped = droppedCount.sum();
+        if (dropped != reportedDropCount) {
+            exceptionLogger.logWarn((dropped - reportedDropCount) + " class loading events were not traced because the tracing queue was full");
+            reportedDropCount = dropped;
+        }
+    }
+
+    String describe(Record record) {
+        StringBuilder traceInfo = new StringBuilder();
+        traceInfo.append("Class: ").append(record.className).append('\n');
+        traceInfo.append("ClassLoader Hierarchy: ").append(hierarchy(record.loader));
+        String location = location(record.protectionDomain);
+        if (!location.isEmpty()) {
+            traceInfo.append('\n').append("Loaded from: ").append(location);
+        }
+        return traceInfo.toString();
+    }
+
+    private String hierarchy(ClassLoader loader) {
+        if (loader == null) {
+            return "Bootstrap";
+        }
+        String hierarchy = hierarchies.get(loader);
+        if (hierarchy == null) {
+            StringBuilder builder = new StringBuilder();
+            for (ClassLoader current = loader; current != null; current = current.getParent()) {
+                builder.append(current.getClass().getName()).append(" -> ");
+            }
+            // Always include the Bootstrap class loader at the end
+            hierarchy = builder.append("Bootstrap").toString();
+            hierarchies.put(loader, hierarchy);
+        }
+        return hierarchy;
+    }
+
+    private String location(ProtectionDomain protectionDomain) {
+        if (protectionDomain == null) {
+            return NO_LOCATION;
+        }
+        String location = locations.get(protectionDomain);
+        if (location == null) {
+            CodeSource codeSource = protectionDomain.getCodeSource();
+            URL url = codeSource == null ? null : codeSource.getLocation();
+            location = url == null ? NO_LOCATION : url.getPath();
+            locations.put(protectionDomain, location);
+        }
+        return location;
+    }
+
+    /**
+     * Stops the tracer after it has written the records already queued.
+     */
+    void shutdown() {
+        running = false;
+        Thread tracerThread = thread;
+        if (tracerThread == null) {
+            return;
+        }
+        //Not interrupted: an interrupt during a write would close a binary log's FileChannel
+        try {
+            tracerThread.join(5000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        thread = null;
+    }
+
+    static final class Record {
+        final long timestamp;
+        final String threadName;
+        final String className;
+        ClassLoader loader;
+        ProtectionDomain protectionDomain;
+        String message;
+
+        Record(long timestamp, String threadName, String className, ClassLoader loader, ProtectionDomain protectionDomain) {
+            this.timestamp = timestamp;
+            this.threadName = threadName;
+            this.className = className;
+            this.loader = loader;
+            this.protectionDomain = protectionDomain;
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.asm.eb.logger;
+
+import com.asm.eb.config.CompiledConfiguration;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded multi-producer/single-consumer ring of preallocated exception event slots.
+ * Producers claim a slot with a single CAS on the tail and publish it through a per-slot sequence number,
+ * so publishing never takes a lock and never allocates. Only the writer thread consumes.
+ * <p>
+ * Events are published from inside {@code Throwable.<init>}, before subclass constructors have run, and the writer
+ * thread must not call into the throwable while its owner is still building it. The class name and message are
+ * therefore copied into the slot by the publishing thread. The throwable is kept only for its stack trace, which
+ * {@code Throwable}'s own constructor has filled in by then: turning it into frames is the costly part the writer
+ * thread takes off the throwing one. Its slot is cleared as soon as it is drained, so the ring holds on to at most
+ * {@link #capacity()} throwables and what they reference.
+ *
+ * @author asmishra
+ * @since 10/17/2026
+ */
+final class ExceptionEventRing {
+
+    /**
+     * Callback used by the consumer to process a published event.
+     */
+    interface EventHandler {
+        /**
+         * @param throwable     Only to be read for its stack trace.
+         * @param className     Class name of the throwable, read when it was published.
+         * @param message       Message of the throwable, read when it was published.
+         * @param configuration The configuration the event was published under.
+         */
+        void onEvent(Throwable throwable, String className, String message, String threadName, long timestamp,
+                     CompiledConfiguration configuration);
+    }
+
+    private final Throwable[] throwables;
+    private final String[] classNames;
+    private final String[] messages;
+    private final String[] threadNames;
+    private final long[] timestamps;
+    private final CompiledConfiguration[] configurations;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong(0);
+    private final AtomicLong head = new AtomicLong(0);
+
+    ExceptionEventRing(int requestedCapacity) {
+        int capacity = roundUpToPowerOfTwo(requestedCapacity);
+        this.mask = capacity - 1;
+        this.throwables = new Throwable[capacity];
+        this.classNames = new String[capacity];
+        this.messages = new String[capacity];
+        this.threadNames = new String[capacity];
+        this.timestamps = new long[capacity];
+        this.configurations = new CompiledConfiguration[capacity];
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Publishes an event if a slot is free.
+     *
+     * @param className Class name of the throwable, read by the publishing thread.
+     * @param message   Message of the throwable, read by the publishing thread.
+     * @return true if the event was published, false if the ring is full.
+     */
+    boolean offer(Throwable throwable, String className, String message, String threadName, long timestamp,
+                  CompiledConfiguration configuration) {
+        long position = tail.get();
+        while (true) {
+            int index = (int) (position & mask);
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    throwables[index] = throwable;
+                    classNames[index] = className;
+                    messages[index] = message;
+                    threadNames[index] = threadName;
+                    timestamps[index] = timestamp;
+                    configurations[index] = configuration;
+                    sequences.lazySet(index, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    /**
+     * Hands up to {@code limit} published events to the handler, in publication order.
+     * Must only be called from the single consumer thread.
+     *
+     * @return The number of events consumed.
+     */
+    int drain(EventHandler handler, int limit) {
+        long position = head.get();
+        int consumed = 0;
+        while (consumed < limit) {
+            int index = (int) (position & mask);
+            if (sequences.get(index) != position + 1) {
+                break;
+            }
+            Throwable throwable = throwables[index];
+            String className = classNames[index];
+            String message = messages[index];
+            String threadName = threadNames[index];
+            long timestamp = timestamps[index];
+            CompiledConfiguration configuration = configurations[index];
+            throwables[index] = null;
+            classNames[index] = null;
+            messages[index] = null;
+            threadNames[index] = null;
+            configurations[index] = null;
+            sequences.lazySet(index, position + mask + 1);
+            position++;
+            consumed++;
+            head.lazySet(position);
+            handler.onEvent(throwable, className, message, threadName, timestamp, configuration);
+        }
+        return consumed;
+    }
+
+    int capacity() {
+        return mask + 1;
+    }
+
+    /**
+     * Approximate number of claimed but not yet consumed slots.
+     */
+    int size() {
+        long size = tail.get() - head.get();
+        if (size < 0) {
+            return 0;
+        }
+        return (int) Math.min(size, capacity());
+    }
+
+    boolean isEmpty() {
+        return size() == 0;
+    }
+
+    private static int roundUpToPowerOfTwo(int value) {
+        if (value <= 1) {
+            return 2;
+        }
+        if (value > (1 << 30)) {
+            return 1 << 30;
+        }
+        return Integer.highestOneBit(value - 1) << 1;
+    }
+}
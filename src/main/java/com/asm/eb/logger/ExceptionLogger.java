@@ -1,15 +1,28 @@
 package com.asm.eb.logger;
 
+import com.asm.eb.capture.StackCapture;
+import com.asm.eb.config.CompiledConfiguration;
+import com.asm.eb.config.ConfigurationParser;
+import com.asm.eb.export.EventExporter;
+import com.asm.eb.export.SharedRingWriter;
+import com.asm.eb.model.Configuration;
+import com.asm.eb.sampling.ExceptionSampler;
 import com.asm.eb.store.StatsStore;
 
+import java.io.BufferedWriter;
 import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
-import java.io.PrintWriter;
-import java.text.SimpleDateFormat;
-import java.util.Date;
+import java.io.OutputStreamWriter;
+import java.lang.management.ManagementFactory;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.security.ProtectionDomain;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.LockSupport;
 import java.util.concurrent.locks.ReentrantLock;
 
 /**
@@ -18,174 +31,621 @@ import java.util.concurrent.locks.ReentrantLock;
  */
 public class ExceptionLogger {
     private volatile static ExceptionLogger instance;
-    private PrintWriter writer;
-    private final List<String> filters; //Make it non-final if runtime config file changes has to be taken up
-    private static final SimpleDateFormat TIMESTAMP_FORMAT = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss.SSS");
+    private LogRecordWriter writer;
     private final boolean monitorException;
-    private final String cnfSkipString;
-    private static final String defaultCnfSkipString = "java.lang.ClassLoader.loadClass";
+    //Filters, sampling and maxFrames; replaced as a whole on reload, read once per event
+    private volatile CompiledConfiguration compiledConfiguration;
     private static boolean isJdk9OrLater = Integer.parseInt(System.getProperty("java.version").split("\\.")[0]) >= 9;
     //To help avoid ClassCircularityError
     private static final ThreadLocal<Boolean> isInsideLogging = ThreadLocal.withInitial(() -> false);
+    private static final long BLOCK_PARK_NANOS = 50_000L;
 
     private final Lock lock = new ReentrantLock();
+    private long bytesAtLastFlush; //Guarded by lock
 
-    private ExceptionLogger(String logFilePath, List<String> filters, boolean monitorException, String cnfSkipString) {
-        this.filters = filters;
-        this.monitorException = monitorException;
-        this.cnfSkipString = cnfSkipString;
-        if (logFilePath == null || logFilePath.trim().isEmpty()) {
-            throw new IllegalArgumentException("Configuration property 'logFilePath' is required and cannot be blank.");
+    //Asynchronous mode, eventRing is null when exceptions are written on the throwing thread
+    private final ExceptionEventRing eventRing;
+    private final OverflowPolicy overflowPolicy;
+    private final int overflowSampleRate;
+    private final AtomicLong overflowSampleCounter = new AtomicLong(0);
+    private final ExceptionEventRing.EventHandler eventWriter = (ex, className, message, threadName, timestamp, configuration) -> {
+        if (shouldWrite(ex, false, configuration))
+            writeException(ex, className, message, threadName, timestamp, false, configuration);
+    };
+    private AsyncExceptionWriter asyncWriter;
+    private final ClassLoadTracer classLoadTracer; //null unless classLoaderTracing is enabled
+
+    //Deduplication, fingerprintTable is null when every trace is written in full
+    private final FingerprintTable fingerprintTable;
+    private final long repeatSummaryIntervalMillis;
+
+    //Node collector export, exporter is null unless exportPort is set or after it failed to start
+    private volatile EventExporter exporter;
+    private final boolean exportOnly;
+    private final String exportDestination;
+    //Shared ring for local consumers, null unless sharedRingFile is set or after it failed to open
+    private volatile SharedRingWriter sharedRing;
+
+    private ExceptionLogger(Configuration configuration) {
+        String logFilePath = configuration.getLogFilePath();
+        this.monitorException = configuration.isExceptionMonitoring();
+        this.compiledConfiguration = CompiledConfiguration.compile(configuration, null);
+        this.classLoadTracer = configuration.isClassLoaderTracing() ? new ClassLoadTracer(this) : null;
+        if (configuration.isAsyncLogging()) {
+            this.eventRing = new ExceptionEventRing(configuration.getAsyncQueueCapacity());
+            this.overflowPolicy = OverflowPolicy.fromConfig(configuration.getAsyncOverflowPolicy());
+            this.overflowSampleRate = Math.max(1, configuration.getAsyncSampleRate());
+        } else {
+            this.eventRing = null;
+            this.overflowPolicy = OverflowPolicy.DROP;
+            this.overflowSampleRate = 1;
+        }
+        if (configuration.isDeduplicateTraces()) {
+            this.fingerprintTable = new FingerprintTable(configuration.getFingerprintCacheSize(),
+                    entry -> writeRepeatSummary(entry, Thread.currentThread().getName(), System.currentTimeMillis()));
+            this.repeatSummaryIntervalMillis = configuration.getRepeatSummaryIntervalSeconds() * 1000L;
+        } else {
+            this.fingerprintTable = null;
+            this.repeatSummaryIntervalMillis = 0L;
+        }
+        if (configuration.getExportPort() > 0) {
+            String jvmId = configuration.getExportJvmName() != null ? configuration.getExportJvmName() : ManagementFactory.getRuntimeMXBean().getName();
+            this.exporter = new EventExporter(new InetSocketAddress(configuration.getExportHost(), configuration.getExportPort()),
+                    jvmId, configuration.getExportQueueCapacity(), configuration.getExportFlushIntervalMillis());
+            this.exportOnly = configuration.isExportOnly();
+            this.exportDestination = configuration.getExportHost() + ":" + configuration.getExportPort();
+        } else {
+            this.exporter = null;
+            this.exportOnly = false;
+            this.exportDestination = null;
         }
         try {
-            File logFile = new File(logFilePath.trim());
-            File parentDir = logFile.getParentFile();
-            if (parentDir != null && !parentDir.exists() && !parentDir.mkdirs() && !parentDir.exists()) {
-                throw new IllegalArgumentException("Failed to create log directory: " + parentDir.getAbsolutePath());
-            }
-            writer = new PrintWriter(new FileWriter(logFile, true), true);
+            writer = openLogWriter(configuration, fingerprintTable == null ? null : this::beforeRoll);
+            bytesAtLastFlush = writer.bytesWritten();
         } catch (IOException e) {
             throw new IllegalArgumentException("Failed to initialize logger with file " + logFilePath + ": " + e.getMessage(), e);
         }
     }
 
+    /**
+     * Opens {@code logFilePath} in the configured log format, rolling it over if rolling is configured.
+     * Also used by the node collector for its store.
+     *
+     * @param configuration The configuration providing logFilePath, the log format and the rolling settings.
+     * @return The writer, not thread-safe.
+     * @throws IOException If the file cannot be opened.
+     */
+    public static LogRecordWriter openLogWriter(Configuration configuration) throws IOException {
+        return openLogWriter(configuration, null);
+    }
+
+    /**
+     * @param beforeRoll Run inside the writer's flush just before a rolled log switches to its new file, while
+     *                   records still go to the rolled one; null if nothing is to be done.
+     */
+    private static LogRecordWriter openLogWriter(Configuration configuration, Runnable beforeRoll) throws IOException {
+        String logFilePath = configuration.getLogFilePath();
+        if (logFilePath == null || logFilePath.trim().isEmpty()) {
+            throw new IllegalArgumentException("Configuration property 'logFilePath' is required and cannot be blank.");
+        }
+        File logFile = new File(logFilePath.trim());
+        File parentDir = logFile.getParentFile();
+        if (parentDir != null && !parentDir.exists() && !parentDir.mkdirs() && !parentDir.exists()) {
+            throw new IllegalArgumentException("Failed to create log directory: " + parentDir.getAbsolutePath());
+        }
+        RollingLogWriter.Opener opener = openerFor(configuration);
+        if (configuration.getRollMaxBytes() > 0 || configuration.getRollIntervalMinutes() > 0) {
+            return new RollingLogWriter(logFile, opener, beforeRoll, configuration.getRollMaxBytes(),
+                    configuration.getRollIntervalMinutes() * 60_000L, configuration.getRollRetention(), configuration.isRollCompress());
+        }
+        return opener.open(logFile);
+    }
+
+    private static RollingLogWriter.Opener openerFor(Configuration configuration) {
+        if (LogFormat.fromConfig(configuration.getLogFormat()) == LogFormat.BINARY) {
+            long segmentBytes = configuration.getBinarySegmentBytes();
+            return file -> new BinaryLogWriter(file, segmentBytes);
+        }
+        return file -> new TextLogWriter(new BufferedWriter(new OutputStreamWriter(
+                Files.newOutputStream(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.APPEND), StandardCharsets.UTF_8)), file.length());
+    }
+
     public static synchronized ExceptionLogger getInstance(String logFilePath, List<String> filters, boolean monitorException, String cnfSkipString) {
+        Configuration configuration = new Configuration();
+        configuration.setLogFilePath(logFilePath);
+        configuration.setUseFilters(filters != null);
+        configuration.setFilters(filters);
+        configuration.setExceptionMonitoring(monitorException);
+        configuration.setCnfSkipString(cnfSkipString);
+        ConfigurationParser.compileFrameMatchers(configuration);
+        return getInstance(configuration);
+    }
+
+    public static synchronized ExceptionLogger getInstance(Configuration configuration) {
         if (instance == null) {
             synchronized (ExceptionLogger.class) {
                 if (instance == null) {
-                    instance = new ExceptionLogger(logFilePath, filters, monitorException, cnfSkipString);
+                    ExceptionLogger exceptionLogger = new ExceptionLogger(configuration);
+                    exceptionLogger.startAsyncWriter();
+                    exceptionLogger.startExporter();
+                    exceptionLogger.openSharedRing(configuration);
+                    if (exceptionLogger.classLoadTracer != null)
+                        exceptionLogger.classLoadTracer.start();
+                    instance = exceptionLogger;
                 }
             }
         }
         return instance;
     }
 
-    public static synchronized ExceptionLogger getInstance() {
+    public static ExceptionLogger getInstance() {
         if (instance == null) {
             System.err.println("[ExceptionBuddy] Logger not initialized with log file path. Call getInstance(logFilePath, filters) first.");
         }
         return instance;
     }
 
+    /**
+     * Logs a throwable from inside its constructor, where traces are walked from the current stack.
+     */
     public void logException(Throwable ex) {
+        log(ex, true);
+    }
+
+    /**
+     * Logs a throwable at an instrumented throw site. The trace is the one recorded when the throwable was created.
+     */
+    public void logThrow(Throwable ex) {
+        log(ex, false);
+    }
+
+    private void log(Throwable ex, boolean insideConstructor) {
         if (isInsideLogging.get()) {
             return;
         }
-        lock.lock();
         isInsideLogging.set(true);
         try {
+            CompiledConfiguration compiled = compiledConfiguration;
             if(!isJdk9OrLater) {
                 if(ex instanceof ClassNotFoundException) {
-                    if(shouldSkip(ex))
+                    if(shouldSkip(ex, insideConstructor, compiled))
                         return;
                 }
             }
             if(monitorException) {
                 StatsStore.incrementExceptionCount();
+                StatsStore.incrementExceptionTypeCount(ex.getClass().getName());
+                StatsStore.recordThrowSite(ex, insideConstructor);
                 if (isCriticalJVMException(ex)) {
                     StatsStore.incrementCriticalExceptionCount(ex.getClass().getSimpleName());
                 }
             }
-            if (writer == null || !shouldLog(ex))
+            if (eventRing != null) {
+                publish(ex, compiled);
                 return;
-
-            writer.println(getTimestamp() + " [EXCEPTION] " + " [" + Thread.currentThread().getName() + "] " + ex.getClass().getName() + ": " + ex.getMessage());
-            for (StackTraceElement element : ex.getStackTrace()) {
-                writer.println("\tat " + element);
             }
-            writer.println();
-            writer.flush();
+            acquireLock();
+            try {
+                if (shouldWrite(ex, insideConstructor, compiled))
+                    writeException(ex, ex.getClass().getName(), ex.getMessage(), Thread.currentThread().getName(),
+                            System.currentTimeMillis(), insideConstructor, compiled);
+                if (writer != null)
+                    flushWriter();
+            } finally {
+                lock.unlock();
+            }
         } finally {
             isInsideLogging.set(false);
+        }
+    }
+
+    /*
+     * Must be called with the lock held, onThrowingThread is true when called from inside the Throwable constructor.
+     * compiled is the configuration read once when the exception was logged, so a reload never splits an event.
+     */
+    private boolean shouldWrite(Throwable ex, boolean onThrowingThread, CompiledConfiguration compiled) {
+        if (writer == null || !shouldLog(ex, onThrowingThread, compiled))
+            return false;
+        //Sampled after the filters, so exceptions that are filtered out never use up a type's budget
+        ExceptionSampler sampler = compiled.getSampler();
+        if (sampler != null && !sampler.shouldKeep(ex, onThrowingThread)) {
+            StatsStore.incrementRateLimitedEventCount();
+            return false;
+        }
+        return true;
+    }
+
+    /*
+     * Must be called with the lock held, after shouldWrite. Only the stack trace is read from ex; its class name and
+     * message are passed in, as the writer thread must not call into a throwable that may still be under construction.
+     */
+    private void writeException(Throwable ex, String className, String message, String threadName, long timestamp,
+                                boolean onThrowingThread, CompiledConfiguration compiled) {
+        int maxFrames = compiled.getMaxFrames();
+        StackTraceElement[] frames = StackCapture.capture(ex, onThrowingThread, maxFrames);
+        int truncatedAt = maxFrames > 0 && frames.length == maxFrames ? maxFrames : 0;
+        EventExporter currentExporter = exporter;
+        SharedRingWriter currentRing = sharedRing;
+        long fingerprint = 0L;
+        if (fingerprintTable != null || currentExporter != null || currentRing != null) {
+            fingerprint = StackFingerprinter.fingerprint(className, frames);
+        }
+        if (currentRing != null) {
+            currentRing.publish(timestamp, threadName, className, message, frames, truncatedAt, fingerprint);
+        }
+        if (currentExporter != null) {
+            currentExporter.export(timestamp, threadName, className, message, frames, truncatedAt, fingerprint);
+            if (exportOnly) {
+                return;
+            }
+        }
+        if (fingerprintTable != null) {
+            FingerprintTable.Entry entry = fingerprintTable.get(fingerprint);
+            if (entry != null) {
+                entry.pendingCount++;
+                if (timestamp - entry.lastReportedAt >= repeatSummaryIntervalMillis) {
+                    writeRepeatSummary(entry, threadName, timestamp);
+                }
+                return;
+            }
+            fingerprintTable.add(fingerprint, className, timestamp);
+        }
+
+        writer.writeException(timestamp, threadName, className, message, frames, truncatedAt,
+                fingerprintTable != null, fingerprint);
+    }
+
+    //Must be called with the lock held
+    private void writeRepeatSummary(FingerprintTable.Entry entry, String threadName, long timestamp) {
+        if (writer == null || entry.pendingCount == 0)
+            return;
+        writer.writeRepeat(timestamp, threadName, entry.fingerprint, entry.exceptionClassName, entry.pendingCount, entry.lastReportedAt);
+        entry.pendingCount = 0;
+        entry.lastReportedAt = timestamp;
+    }
+
+    /*
+     * Called by the rolling writer with the lock held, before it switches to a new file. The pending repeat counts
+     * go into the file that holds their traces, and the table is cleared so that every trace is written in full
+     * again in the new file, which would otherwise only get repeat records for traces retention later deletes.
+     */
+    private void beforeRoll() {
+        String threadName = Thread.currentThread().getName();
+        long now = System.currentTimeMillis();
+        for (FingerprintTable.Entry entry : fingerprintTable.entriesWithPendingRepeats()) {
+            writeRepeatSummary(entry, threadName, now);
+        }
+        fingerprintTable.clear();
+    }
+
+    /**
+     * Writes a repeat summary for every deduplicated trace seen again since its last report.
+     * Called periodically by the monitor and on close so that counts of traces that stopped recurring are not lost.
+     */
+    public void flushRepeatSummaries() {
+        if (fingerprintTable == null)
+            return;
+        acquireLock();
+        try {
+            String threadName = Thread.currentThread().getName();
+            long now = System.currentTimeMillis();
+            for (FingerprintTable.Entry entry : fingerprintTable.entriesWithPendingRepeats()) {
+                writeRepeatSummary(entry, threadName, now);
+            }
+            if (writer != null)
+                flushWriter();
+        } finally {
             lock.unlock();
         }
     }
 
+    private void publish(Throwable ex, CompiledConfiguration compiled) {
+        String className = ex.getClass().getName();
+        String message = ex.getMessage();
+        String threadName = Thread.currentThread().getName();
+        long timestamp = System.currentTimeMillis();
+        switch (overflowPolicy) {
+            case BLOCK:
+                while (!eventRing.offer(ex, className, message, threadName, timestamp, compiled)) {
+                    if (asyncWriter == null || !asyncWriter.isRunning()) {
+                        StatsStore.incrementDroppedEventCount();
+                        return;
+                    }
+                    LockSupport.parkNanos(BLOCK_PARK_NANOS);
+                }
+                return;
+            case SAMPLE:
+                if (eventRing.size() >= eventRing.capacity() / 2
+                        && overflowSampleCounter.getAndIncrement() % overflowSampleRate != 0) {
+                    StatsStore.incrementSampledOutEventCount();
+                    return;
+                }
+                if (!eventRing.offer(ex, className, message, threadName, timestamp, compiled)) {
+                    StatsStore.incrementDroppedEventCount();
+                }
+                return;
+            default:
+                if (!eventRing.offer(ex, className, message, threadName, timestamp, compiled)) {
+                    StatsStore.incrementDroppedEventCount();
+                }
+        }
+    }
+
+    /**
+     * Writes up to {@code limit} queued exception events and flushes once for the whole batch.
+     * Called by the writer thread only.
+     *
+     * @return The number of events taken off the ring.
+     */
+    int drainEvents(int limit) {
+        acquireLock();
+        try {
+            int drained = eventRing.drain(eventWriter, limit);
+            if (drained > 0 && writer != null)
+                flushWriter();
+            return drained;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void startAsyncWriter() {
+        if (eventRing == null)
+            return;
+        asyncWriter = new AsyncExceptionWriter(this, eventRing);
+        asyncWriter.start();
+    }
+
+    private void startExporter() {
+        if (exporter == null)
+            return;
+        try {
+            exporter.start();
+            logInfo("Exporting exceptions to the node collector at " + exportDestination + (exportOnly ? " instead of the log" : ""));
+        } catch (IOException | RuntimeException e) {
+            logError("Failed to start exporting to the node collector at " + exportDestination + ": " + e.getMessage());
+            acquireLock();
+            try {
+                exporter = null;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private void openSharedRing(Configuration configuration) {
+        if (configuration.getSharedRingFile() == null)
+            return;
+        try {
+            SharedRingWriter ring = SharedRingWriter.create(new File(configuration.getSharedRingFile()),
+                    configuration.getSharedRingSlots(), configuration.getSharedRingSlotBytes());
+            acquireLock();
+            try {
+                sharedRing = ring;
+            } finally {
+                lock.unlock();
+            }
+            logInfo("Publishing exceptions to the shared ring " + ring.getFile().getAbsolutePath());
+        } catch (IOException | RuntimeException e) {
+            logError("Failed to create the shared ring " + configuration.getSharedRingFile() + ": " + e.getMessage());
+        }
+    }
+
+    public boolean isSharingRing() {
+        return sharedRing != null;
+    }
+
+    /**
+     * @return Path of the shared ring, null unless it is open.
+     */
+    public String getSharedRingFile() {
+        SharedRingWriter current = sharedRing;
+        return current == null ? null : current.getFile().getAbsolutePath();
+    }
+
+    /**
+     * @return Events published to the shared ring, 0 unless it is open.
+     */
+    public long getSharedRingPublishedCount() {
+        SharedRingWriter current = sharedRing;
+        return current == null ? 0L : current.getPublishedCount();
+    }
+
+    public boolean isExporting() {
+        return exporter != null;
+    }
+
+    /**
+     * @return Address of the node collector, null unless exporting.
+     */
+    public String getExportDestination() {
+        return exportDestination;
+    }
+
+    /**
+     * @return Number of events waiting for the exporter thread, 0 unless exporting.
+     */
+    public int getExportQueueDepth() {
+        EventExporter current = exporter;
+        return current == null ? 0 : current.getQueueDepth();
+    }
+
+    /**
+     * Excludes exceptions constructed on the current thread from logging. For threads owned by the agent.
+     */
+    public static void markInsideLogging() {
+        isInsideLogging.set(true);
+    }
+
+    public boolean isSampling() {
+        return compiledConfiguration.getSampler() != null;
+    }
+
+    public CompiledConfiguration getCompiledConfiguration() {
+        return compiledConfiguration;
+    }
+
+    /**
+     * Replaces filters, sampling and maxFrames. Events already in the async ring are written with the new settings.
+     *
+     * @param configuration The settings to apply from now on.
+     */
+    public void applyConfiguration(CompiledConfiguration configuration) {
+        compiledConfiguration = configuration;
+    }
+
+    public boolean isAsync() {
+        return eventRing != null;
+    }
+
+    /**
+     * @return Capacity of the async event ring, 0 in synchronous mode.
+     */
+    public int getQueueCapacity() {
+        return eventRing == null ? 0 : eventRing.capacity();
+    }
+
+    /**
+     * @return Number of exception events waiting for the writer thread, 0 in synchronous mode.
+     */
+    public int getQueueDepth() {
+        return eventRing == null ? 0 : eventRing.size();
+    }
+
     //Hacky solution to avoid misleading ClassNotFoundException (Dependent on user's knowledge on ClassNotFoundException stack frames in false positive scenarios)
-    private boolean shouldSkip(Throwable ex) {
-        if(cnfSkipString == null || !cnfSkipString.startsWith(defaultCnfSkipString))
+    private boolean shouldSkip(Throwable ex, boolean insideConstructor, CompiledConfiguration compiled) {
+        if(compiled.getCnfSkipMatcher() == null)
             return false;
-        for (StackTraceElement element : ex.getStackTrace()) {
-            if(element.toString().equals(cnfSkipString))
-                return true;
-        }
-        return false;
+        return StackCapture.anyFrameMatches(ex, insideConstructor, compiled.getMaxFrames(), compiled.getCnfSkipMatcher());
     }
 
     public void logInfo(String message) {
-        lock.lock();
+        acquireLock();
         try {
             if (writer == null) return;
-            writer.println(getMessage(message, "INFO"));
-            writer.flush();
+            writer.writeMessage(System.currentTimeMillis(), "INFO", Thread.currentThread().getName(), message);
+            flushWriter();
         } finally {
             lock.unlock();
         }
     }
 
     public void logWarn(String message) {
-        lock.lock();
+        acquireLock();
         try {
             if (writer == null) return;
-            writer.println(getMessage(message, "WARN"));
-            writer.flush();
+            writer.writeMessage(System.currentTimeMillis(), "WARN", Thread.currentThread().getName(), message);
+            flushWriter();
         } finally {
             lock.unlock();
         }
     }
 
     public void logError(String message) {
-        lock.lock();
+        acquireLock();
         try {
             if (writer == null) return;
-            writer.println(getMessage(message, "ERROR"));
-            writer.flush();
+            writer.writeMessage(System.currentTimeMillis(), "ERROR", Thread.currentThread().getName(), message);
+            flushWriter();
         } finally {
             lock.unlock();
         }
     }
 
-    private String getMessage(String message, String level) {
-        return getTimestamp() + " [" + level + "] " + "[" + Thread.currentThread().getName() + "] " + message;
+    /**
+     * Queues a class load for the {@code eb-class-tracer} thread, which describes and writes it. Does nothing unless
+     * classLoaderTracing is enabled.
+     *
+     * @param loader           The defining loader, null for the bootstrap loader.
+     * @param className        The class name in internal form.
+     * @param protectionDomain The protection domain of the class, may be null.
+     */
+    public void traceClassLoad(ClassLoader loader, String className, ProtectionDomain protectionDomain) {
+        if (classLoadTracer == null || isInsideLogging.get()) {
+            return;
+        }
+        long start = System.nanoTime();
+        classLoadTracer.enqueue(loader, className, protectionDomain);
+        StatsStore.recordClassLoadingTime(System.nanoTime() - start);
+    }
+
+    /**
+     * Writes class-loading records formatted by the tracer thread and flushes once for the batch.
+     */
+    void writeClassLoads(List<ClassLoadTracer.Record> records) {
+        acquireLock();
+        try {
+            if (writer == null) return;
+            for (ClassLoadTracer.Record record : records) {
+                writer.writeClassLoading(record.timestamp, record.threadName, record.message);
+            }
+            flushWriter();
+        } finally {
+            lock.unlock();
+        }
     }
 
     public void logClassLoading(String message) {
         if (isInsideLogging.get()) {
             return;
         }
-        lock.lock();
+        long start = System.nanoTime();
+        acquireLock();
         isInsideLogging.set(true);
         try {
             if (writer == null) return;
-            writer.println(getTimestamp() + " [CLT]" + " [" + Thread.currentThread().getName() + "]\n" + message + "\n");
-            writer.flush();
+            writer.writeClassLoading(System.currentTimeMillis(), Thread.currentThread().getName(), message);
+            flushWriter();
         } finally {
             isInsideLogging.set(false);
             lock.unlock();
+            StatsStore.recordClassLoadingTime(System.nanoTime() - start);
+        }
+    }
+
+    //Only a contended lock is timed, taking a free one costs no clock reads
+    private void acquireLock() {
+        if (lock.tryLock()) {
+            StatsStore.recordLockWait(0L);
+            return;
         }
+        long start = System.nanoTime();
+        lock.lock();
+        StatsStore.recordLockWait(System.nanoTime() - start);
     }
 
-    private String getTimestamp() {
-        return TIMESTAMP_FORMAT.format(new Date());
+    //Must be called with the lock held. A roll inside flush restarts the writer's byte count, hence the re-read after it
+    private void flushWriter() {
+        long written = writer.bytesWritten() - bytesAtLastFlush;
+        writer.flush();
+        bytesAtLastFlush = writer.bytesWritten();
+        StatsStore.recordFlush(Math.max(0L, written));
     }
 
-    private boolean shouldLog(Throwable ex) {
-        if(filters == null || filters.isEmpty())
+    private boolean shouldLog(Throwable ex, boolean onThrowingThread, CompiledConfiguration compiled) {
+        if(compiled.getFilterMatcher() == null)
             return true;
-        for (StackTraceElement element : ex.getStackTrace()) {
-            for (String filter : filters) {
-                if (element.toString().startsWith(filter)) {
-                    return true;
-                }
-            }
-        }
-        return false;
+        return StackCapture.anyFrameMatches(ex, onThrowingThread, compiled.getMaxFrames(), compiled.getFilterMatcher());
     }
 
     public void close() {
-        lock.lock();
+        if (classLoadTracer != null) {
+            classLoadTracer.shutdown();
+        }
+        if (asyncWriter != null) {
+            asyncWriter.shutdown();
+        }
+        if (exporter != null) {
+            exporter.shutdown();
+        }
+        flushRepeatSummaries();
+        acquireLock();
         try {
+            if (sharedRing != null) {
+                sharedRing.close();
+            }
             if (writer != null) {
+                flushWriter();
                 writer.close();
             }
         } finally {
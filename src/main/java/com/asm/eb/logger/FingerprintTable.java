@@ -0,0 +1,82 @@
+package com.asm.eb.logger;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bounded table of stack-trace fingerprints already written to the log, evicting the least recently seen one.
+ * Not thread-safe; the logger only touches it while holding its write lock.
+ *
+ * @author asmishra
+ * @since 10/17/2026
+ */
+final class FingerprintTable {
+
+    /**
+     * Notified before an entry is evicted, so that pending repeat counts can still be reported.
+     */
+    interface EvictionListener {
+        void onEvict(Entry entry);
+    }
+
+    static final class Entry {
+        final long fingerprint;
+        final String exceptionClassName;
+        long lastReportedAt;
+        long pendingCount;
+
+        private Entry(long fingerprint, String exceptionClassName, long firstSeenAt) {
+            this.fingerprint = fingerprint;
+            this.exceptionClassName = exceptionClassName;
+            this.lastReportedAt = firstSeenAt;
+        }
+    }
+
+    private final Map<Long, Entry> entries;
+
+    FingerprintTable(final int maxEntries, final EvictionListener evictionListener) {
+        this.entries = new LinkedHashMap<Long, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                if (size() > maxEntries) {
+                    evictionListener.onEvict(eldest.getValue());
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    Entry get(long fingerprint) {
+        return entries.get(fingerprint);
+    }
+
+    Entry add(long fingerprint, String exceptionClassName, long firstSeenAt) {
+        Entry entry = new Entry(fingerprint, exceptionClassName, firstSeenAt);
+        entries.put(fingerprint, entry);
+        return entry;
+    }
+
+    /**
+     * Forgets every fingerprint without notifying the eviction listener.
+     */
+    void clear() {
+        entries.clear();
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    List<Entry> entriesWithPendingRepeats() {
+        List<Entry> pending = new ArrayList<>();
+        for (Entry entry : entries.values()) {
+            if (entry.pendingCount > 0) {
+                pending.add(entry);
+            }
+        }
+        return pending;
+    }
+}
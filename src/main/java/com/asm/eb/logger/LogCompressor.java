@@ -0,0 +1,213 @@
+package com.asm.eb.logger;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Compresses rolled log files and enforces the retention count on a low-priority daemon thread. The thread also
+ * runs the file work of a roll-over for {@link RollingLogWriter}, so the writing thread never waits for it.
+ *
+ * @author asmishra
+ * @since 10/17/2026
+ */
+final class LogCompressor implements Runnable {
+    private static final String THREAD_NAME = "eb-log-compressor";
+    private static final String GZIP_SUFFIX = ".gz";
+    private static final File STOP = new File("");
+    private static final File ROLL = new File("");
+    //Length of the yyyyMMdd-HHmmss-SSS roll suffix, a second roll in the same millisecond appends -1, -2, ...
+    private static final int TIMESTAMP_LENGTH = 19;
+
+    private final File logFile;
+    private final int retention;
+    private final boolean compress;
+    private final BlockingQueue<File> rolledFiles = new LinkedBlockingQueue<>();
+    private final Runnable roller; //null if rolls are done elsewhere
+    private volatile Thread thread;
+
+    /**
+     * @param logFile   The active log file, rolled files live next to it as {@code <name>.<suffix>[.gz]}.
+     * @param retention Number of rolled files to keep.
+     * @param compress  true to gzip rolled files.
+     */
+    LogCompressor(File logFile, int retention, boolean compress) {
+        this(logFile, retention, compress, null);
+    }
+
+    /**
+     * @param roller Run on the compressor thread for every {@link #requestRoll()}.
+     */
+    LogCompressor(File logFile, int retention, boolean compress, Runnable roller) {
+        this.logFile = logFile;
+        this.retention = retention;
+        this.compress = compress;
+        this.roller = roller;
+    }
+
+    void start() {
+        thread = new Thread(this, THREAD_NAME);
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        thread.start();
+    }
+
+    /**
+     * Queues a freshly rolled file; never blocks.
+     */
+    void submit(File rolledFile) {
+        rolledFiles.offer(rolledFile);
+    }
+
+    /**
+     * Has the roller run on the compressor thread; never blocks.
+     */
+    void requestRoll() {
+        rolledFiles.offer(ROLL);
+    }
+
+    @Override
+    public void run() {
+        // Failures while compressing must not be written into the log being rolled.
+        ExceptionLogger.markInsideLogging();
+        while (true) {
+            File rolledFile;
+            try {
+                rolledFile = rolledFiles.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+            if (rolledFile == STOP) {
+                return;
+            }
+            if (rolledFile == ROLL) {
+                if (roller != null) {
+                    try {
+                        roller.run();
+                    } catch (RuntimeException e) {
+                        System.err.println("[ExceptionBuddy] Failed to roll log " + logFile.getPath() + ": " + e.getMessage());
+                    }
+                }
+                continue;
+            }
+            if (compress) {
+                compress(rolledFile);
+            }
+            deleteExpired();
+        }
+    }
+
+    /**
+     * Finishes the files already queued, waiting at most {@code timeoutMillis}.
+     */
+    void shutdown(long timeoutMillis) {
+        Thread compressorThread = thread;
+        if (compressorThread == null) {
+            return;
+        }
+        rolledFiles.offer(STOP);
+        try {
+            compressorThread.join(timeoutMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        thread = null;
+    }
+
+    private void compress(File rolledFile) {
+        File compressed = new File(rolledFile.getPath() + GZIP_SUFFIX);
+        byte[] buffer = new byte[64 * 1024];
+        try (InputStream in = new FileInputStream(rolledFile);
+             OutputStream out = new GZIPOutputStream(new FileOutputStream(compressed), buffer.length)) {
+            int read;
+            while ((read = in.read(buffer)) > 0) {
+                out.write(buffer, 0, read);
+            }
+        } catch (IOException e) {
+            System.err.println("[ExceptionBuddy] Failed to compress rolled log " + rolledFile.getPath() + ": " + e.getMessage());
+            if (!compressed.delete()) {
+                compressed.deleteOnExit();
+            }
+            return;
+        }
+        if (!rolledFile.delete()) {
+            System.err.println("[ExceptionBuddy] Failed to delete rolled log " + rolledFile.getPath() + " after compressing it.");
+        }
+    }
+
+    //Files still queued for compression are kept, they are the newest and would otherwise vanish under compress
+    private void deleteExpired() {
+        Set<String> pending = new HashSet<>();
+        for (File queued : rolledFiles) {
+            pending.add(queued.getName());
+        }
+        File[] rolled = rolledFiles(logFile);
+        int excess = rolled.length - retention;
+        for (int i = 0; i < rolled.length && excess > 0; i++) {
+            if (pending.contains(rolled[i].getName())) {
+                continue;
+            }
+            excess--;
+            if (!rolled[i].delete()) {
+                System.err.println("[ExceptionBuddy] Failed to delete expired log " + rolled[i].getPath());
+            }
+        }
+    }
+
+    /**
+     * Lists the rolled files of a log, oldest first: by the timestamp of their suffix, then by the number a
+     * second roll in the same millisecond appends to it.
+     */
+    static File[] rolledFiles(File logFile) {
+        File directory = logFile.getAbsoluteFile().getParentFile();
+        String prefix = logFile.getName() + ".";
+        File[] rolled = directory == null ? null : directory.listFiles((dir, name) -> name.startsWith(prefix)
+                && name.length() > prefix.length() && Character.isDigit(name.charAt(prefix.length())));
+        if (rolled == null) {
+            return new File[0];
+        }
+        Arrays.sort(rolled, (first, second) -> compareSuffixes(stripGzip(first.getName()).substring(prefix.length()),
+                stripGzip(second.getName()).substring(prefix.length())));
+        return rolled;
+    }
+
+    static int compareSuffixes(String first, String second) {
+        String firstTimestamp = first.substring(0, Math.min(TIMESTAMP_LENGTH, first.length()));
+        String secondTimestamp = second.substring(0, Math.min(TIMESTAMP_LENGTH, second.length()));
+        int byTimestamp = firstTimestamp.compareTo(secondTimestamp);
+        if (byTimestamp != 0) {
+            return byTimestamp;
+        }
+        long firstAttempt = attempt(first);
+        long secondAttempt = attempt(second);
+        return firstAttempt != secondAttempt ? Long.compare(firstAttempt, secondAttempt) : first.compareTo(second);
+    }
+
+    //0 for the first roll in a millisecond, N for the suffix -N, -1 if the rest is not a number
+    private static long attempt(String suffix) {
+        if (suffix.length() <= TIMESTAMP_LENGTH) {
+            return 0L;
+        }
+        if (suffix.charAt(TIMESTAMP_LENGTH) != '-') {
+            return -1L;
+        }
+        try {
+            return Long.parseLong(suffix.substring(TIMESTAMP_LENGTH + 1));
+        } catch (NumberFormatException e) {
+            return -1L;
+        }
+    }
+
+    private static String stripGzip(String name) {
+        return name.endsWith(GZIP_SUFFIX) ? name.substring(0, name.length() - GZIP_SUFFIX.length()) : name;
+    }
+}
@@ -0,0 +1,36 @@
+package com.asm.eb.logger;
+
+/**
+ * On-disk layout of the exception log.
+ *
+ * @author asmishra
+ * @since 10/17/2026
+ */
+public enum LogFormat {
+    /**
+     * Human readable lines, one stack frame per line.
+     */
+    TEXT,
+    /**
+     * Compact length-prefixed records with per-segment dictionaries, rendered back to text by BinaryLogDecoderCLI.
+     */
+    BINARY;
+
+    /**
+     * Resolves a format from its configuration value, ignoring case and surrounding whitespace.
+     *
+     * @param value The configured value, may be null.
+     * @return The matching format, or {@link #TEXT} when no value is configured.
+     * @throws IllegalArgumentException If the value does not name a format.
+     */
+    public static LogFormat fromConfig(String value) {
+        if (value == null || value.trim().isEmpty()) {
+            return TEXT;
+        }
+        try {
+            return LogFormat.valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Configuration property 'logFormat' must be one of TEXT, BINARY.");
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.asm.eb.logger;
+
+/**
+ * Output side of the logger: turns log records into bytes in one of the supported {@link LogFormat}s.
+ * Implementations are not thread-safe; ExceptionLogger calls them with its lock held.
+ * Like {@link java.io.PrintWriter}, they never throw on I/O failures.
+ *
+ * @author asmishra
+ * @since 10/17/2026
+ */
+public interface LogRecordWriter {
+
+    /**
+     * Writes an INFO, WARN or ERROR message.
+     */
+    void writeMessage(long timestamp, String level, String threadName, String message);
+
+    /**
+     * Writes a class-loading trace record.
+     */
+    void writeClassLoading(long timestamp, String threadName, String message);
+
+    /**
+     * Writes an exception with its captured frames.
+     *
+     * @param truncatedAt    The maxFrames limit the frames were truncated at, 0 if they were not truncated.
+     * @param hasFingerprint true if the trace was fingerprinted for deduplication.
+     */
+    void writeException(long timestamp, String threadName, String className, String message,
+                        StackTraceElement[] frames, int truncatedAt, boolean hasFingerprint, long fingerprint);
+
+    /**
+     * Writes a summary for a deduplicated trace seen {@code count} more times since {@code sinceTimestamp}.
+     */
+    void writeRepeat(long timestamp, String threadName, long fingerprint, String className, long count, long sinceTimestamp);
+
+    /**
+     * @return Bytes written to the destination so far, including content it held when it was opened.
+     */
+    long bytesWritten();
+
+    void flush();
+
+    void close();
+}
@@ -0,0 +1,40 @@
+package com.asm.eb.logger;
+
+/**
+ * Decides what the instrumented thread does when the asynchronous event ring is saturated.
+ *
+ * @author asmishra
+ * @since 10/17/2026
+ */
+public enum OverflowPolicy {
+    /**
+     * Drop the event and count it. The throwing thread never waits.
+     */
+    DROP,
+    /**
+     * Wait until the writer thread frees a slot. No event is lost but the throwing thread is slowed down.
+     */
+    BLOCK,
+    /**
+     * Once the ring is half full, admit only one in every {@code asyncSampleRate} events. Drop when full.
+     */
+    SAMPLE;
+
+    /**
+     * Resolves a policy from its configuration value, ignoring case and surrounding whitespace.
+     *
+     * @param value The configured value, may be null.
+     * @return The matching policy, or {@link #DROP} when no value is configured.
+     * @throws IllegalArgumentException If the value does not name a policy.
+     */
+    public static OverflowPolicy fromConfig(String value) {
+        if (value == null || value.trim().isEmpty()) {
+            return DROP;
+        }
+        try {
+            return OverflowPolicy.valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Configuration property 'asyncOverflowPolicy' must be one of DROP, BLOCK, SAMPLE.");
+        }
+    }
+}
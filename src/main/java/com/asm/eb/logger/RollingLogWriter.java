@@ -0,0 +1,228 @@
+package com.asm.eb.logger;
+
+import java.io.File;
+import java.io.IOException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Rolls the log file over once it reaches a size or a time boundary. Rolling renames the active file to
+ * {@code <name>.<yyyyMMdd-HHmmss-SSS>} and opens a fresh one. Both happen on the {@link LogCompressor} thread while
+ * records keep going to the open, renamed file; a later flush switches to the new file, and the compressor then
+ * closes the old one, compresses it and applies retention. The thread that flushes, which may be one throwing an
+ * exception, only swaps a reference. This relies on the file being renamed while open, which the openers allow.
+ *
+ * @author asmishra
+ * @since 10/17/2026
+ */
+final class RollingLogWriter implements LogRecordWriter {
+    private static final long COMPRESSOR_SHUTDOWN_MILLIS = 30_000L;
+    private static final long RETRY_MILLIS = 60_000L;
+
+    /**
+     * Opens the underlying writer for the active log file, appending to it if it exists.
+     */
+    interface Opener {
+        LogRecordWriter open(File file) throws IOException;
+    }
+
+    //A writer and the file it writes to under its rolled name
+    private static final class Rolled {
+        final LogRecordWriter writer;
+        final File file;
+
+        Rolled(LogRecordWriter writer, File file) {
+            this.writer = writer;
+            this.file = file;
+        }
+    }
+
+    private final SimpleDateFormat suffixFormat = new SimpleDateFormat("yyyyMMdd-HHmmss-SSS");
+    private final File file;
+    private final Opener opener;
+    private final Runnable beforeRoll; //null if nobody needs to know
+    private final long maxBytes;
+    private final long intervalMillis;
+    private final LogCompressor compressor;
+    //Used by the flushing thread only
+    private LogRecordWriter current;
+    private long nextRollAt;
+    //Handed between the flushing thread and the compressor thread
+    private volatile boolean rollRequested;
+    private volatile Rolled next; //Opened on the new file, with the rolled name of the current one
+    private volatile long retryAt;
+    private final Queue<Rolled> retired = new ConcurrentLinkedQueue<>();
+    //Used by the compressor thread, guarded by rollLock
+    private final Object rollLock = new Object();
+    private File renamed; //Rolled name of the active file if opening the new one failed
+    private boolean closed;
+
+    /**
+     * @param maxBytes       Size that triggers a roll, 0 to disable size-based rolling.
+     * @param intervalMillis Length of a time period, 0 to disable time-based rolling. Periods are aligned to
+     *                       multiples of the interval since the epoch, so a 1440 minute interval rolls at midnight UTC.
+     * @param retention      Number of rolled files to keep.
+     * @param compress       true to gzip rolled files.
+     */
+    RollingLogWriter(File file, Opener opener, long maxBytes, long intervalMillis, int retention, boolean compress) throws IOException {
+        this(file, opener, null, maxBytes, intervalMillis, retention, compress);
+    }
+
+    /**
+     * @param beforeRoll Run by the flushing thread just before it switches to the new file, while records still
+     *                   go to the rolled one. May write records.
+     */
+    RollingLogWriter(File file, Opener opener, Runnable beforeRoll, long maxBytes, long intervalMillis, int retention,
+                     boolean compress) throws IOException {
+        this.file = file;
+        this.opener = opener;
+        this.beforeRoll = beforeRoll;
+        this.maxBytes = maxBytes;
+        this.intervalMillis = intervalMillis;
+        this.current = opener.open(file);
+        this.nextRollAt = nextBoundary(System.currentTimeMillis());
+        this.compressor = new LogCompressor(file, retention, compress, this::prepareRoll);
+        compressor.start();
+    }
+
+    @Override
+    public void writeMessage(long timestamp, String level, String threadName, String message) {
+        current.writeMessage(timestamp, level, threadName, message);
+    }
+
+    @Override
+    public void writeClassLoading(long timestamp, String threadName, String message) {
+        current.writeClassLoading(timestamp, threadName, message);
+    }
+
+    @Override
+    public void writeException(long timestamp, String threadName, String className, String message,
+                               StackTraceElement[] frames, int truncatedAt, boolean hasFingerprint, long fingerprint) {
+        current.writeException(timestamp, threadName, className, message, frames, truncatedAt, hasFingerprint, fingerprint);
+    }
+
+    @Override
+    public void writeRepeat(long timestamp, String threadName, long fingerprint, String className, long count, long sinceTimestamp) {
+        current.writeRepeat(timestamp, threadName, fingerprint, className, count, sinceTimestamp);
+    }
+
+    @Override
+    public long bytesWritten() {
+        return current.bytesWritten();
+    }
+
+    /**
+     * Flushes the active file. Once the file has crossed a boundary, asks the compressor thread to roll it and,
+     * on a later flush, switches to the file it opened. Switching on flush keeps records whole and, in
+     * asynchronous mode, leaves it to the writer thread.
+     */
+    @Override
+    public void flush() {
+        current.flush();
+        Rolled opened = next;
+        if (opened != null) {
+            if (beforeRoll != null) {
+                beforeRoll.run();
+                current.flush();
+            }
+            next = null;
+            retired.offer(new Rolled(current, opened.file));
+            current = opened.writer;
+            nextRollAt = nextBoundary(System.currentTimeMillis());
+            rollRequested = false;
+            compressor.requestRoll();
+            return;
+        }
+        long now = System.currentTimeMillis();
+        if (!rollRequested && now >= retryAt
+                && ((maxBytes > 0 && current.bytesWritten() >= maxBytes) || (intervalMillis > 0 && now >= nextRollAt))) {
+            rollRequested = true;
+            compressor.requestRoll();
+        }
+    }
+
+    @Override
+    public void close() {
+        Rolled opened;
+        File renamedFile;
+        synchronized (rollLock) {
+            closed = true;
+            opened = next;
+            next = null;
+            renamedFile = renamed;
+            retireAll();
+        }
+        current.close();
+        if (opened != null) {
+            //The file current wrote to was renamed, the new one stays the active file
+            opened.writer.close();
+            compressor.submit(opened.file);
+        } else if (renamedFile != null) {
+            compressor.submit(renamedFile);
+        }
+        compressor.shutdown(COMPRESSOR_SHUTDOWN_MILLIS);
+    }
+
+    /*
+     * Run on the compressor thread whenever a roll was requested or a file switched: closes and queues the files
+     * switched away from, then renames the active file and opens a new one if a roll is due. A failure is
+     * reported and retried after RETRY_MILLIS, records meanwhile keep going to the file that is open.
+     */
+    private void prepareRoll() {
+        synchronized (rollLock) {
+            retireAll();
+            if (closed || !rollRequested || next != null) {
+                return;
+            }
+            long now = System.currentTimeMillis();
+            if (renamed == null) {
+                File rolled = rolledFile(now);
+                if (!file.renameTo(rolled)) {
+                    System.err.println("[ExceptionBuddy] Failed to roll log " + file.getPath() + " to " + rolled.getPath() + ", continuing in the same file.");
+                    retry(now);
+                    return;
+                }
+                renamed = rolled;
+            }
+            try {
+                next = new Rolled(opener.open(file), renamed);
+                renamed = null;
+            } catch (IOException | RuntimeException e) {
+                System.err.println("[ExceptionBuddy] Failed to open log " + file.getPath() + " after rolling, continuing in "
+                        + renamed.getPath() + ": " + e.getMessage());
+                retry(now);
+            }
+        }
+    }
+
+    private void retry(long now) {
+        retryAt = now + RETRY_MILLIS;
+        rollRequested = false;
+    }
+
+    //Must be called with rollLock held
+    private void retireAll() {
+        Rolled old;
+        while ((old = retired.poll()) != null) {
+            old.writer.close();
+            compressor.submit(old.file);
+        }
+    }
+
+    private File rolledFile(long now) {
+        String base = file.getPath() + "." + suffixFormat.format(new Date(now));
+        File rolled = new File(base);
+        for (int attempt = 1; rolled.exists() || new File(rolled.getPath() + ".gz").exists(); attempt++) {
+            rolled = new File(base + "-" + attempt);
+        }
+        return rolled;
+    }
+
+    private long nextBoundary(long now) {
+        if (intervalMillis <= 0)
+            return Long.MAX_VALUE;
+        return (now / intervalMillis + 1) * intervalMillis;
+    }
+}
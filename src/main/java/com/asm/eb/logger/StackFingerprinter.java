@@ -0,0 +1,102 @@
+package com.asm.eb.logger;
+
+/**
+ * Computes a stable 64-bit fingerprint for an exception from its class name and its normalized stack frames.
+ * Names of runtime-generated classes carry counters that differ between JVMs and even between reflective
+ * inflations ({@code $$Lambda$123}, {@code GeneratedMethodAccessor42}, {@code $Proxy17}), so the counters
+ * are left out of the hash. Hashing walks the names in place and does not build intermediate strings.
+ *
+ * @author asmishra
+ * @since 10/17/2026
+ */
+public final class StackFingerprinter {
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+    private static final String LAMBDA_MARKER = "$$Lambda";
+    private static final String[] NUMBERED_MARKERS = {
+            "GeneratedSerializationConstructorAccessor",
+            "GeneratedConstructorAccessor",
+            "GeneratedMethodAccessor",
+            "$Proxy"
+    };
+
+    private StackFingerprinter() {
+    }
+
+    public static long fingerprint(String exceptionClassName, StackTraceElement[] frames) {
+        long hash = hashClassName(FNV_OFFSET_BASIS, exceptionClassName);
+        for (StackTraceElement frame : frames) {
+            hash = mix(hash, '|');
+            hash = hashClassName(hash, frame.getClassName());
+            hash = mix(hash, '.');
+            hash = hash(hash, frame.getMethodName(), 0, frame.getMethodName().length());
+            hash = mix(hash, ':');
+            hash = mix(hash, frame.getLineNumber());
+        }
+        return hash;
+    }
+
+    /**
+     * Returns the class name with runtime-generated counters removed, e.g.
+     * {@code com.foo.Bar$$Lambda$123/0x0000000800c03000} becomes {@code com.foo.Bar$$Lambda}.
+     */
+    public static String normalizeClassName(String className) {
+        int lambda = className.indexOf(LAMBDA_MARKER);
+        if (lambda >= 0) {
+            return className.substring(0, lambda + LAMBDA_MARKER.length());
+        }
+        for (String marker : NUMBERED_MARKERS) {
+            int markerIndex = className.indexOf(marker);
+            if (markerIndex >= 0) {
+                int end = markerIndex + marker.length();
+                int digitsEnd = skipDigits(className, end);
+                return className.substring(0, end) + className.substring(digitsEnd);
+            }
+        }
+        return className;
+    }
+
+    public static String toHex(long fingerprint) {
+        String hex = Long.toHexString(fingerprint);
+        StringBuilder padded = new StringBuilder(16);
+        for (int i = hex.length(); i < 16; i++) {
+            padded.append('0');
+        }
+        return padded.append(hex).toString();
+    }
+
+    private static long hashClassName(long hash, String className) {
+        int lambda = className.indexOf(LAMBDA_MARKER);
+        if (lambda >= 0) {
+            return hash(hash, className, 0, lambda + LAMBDA_MARKER.length());
+        }
+        for (String marker : NUMBERED_MARKERS) {
+            int markerIndex = className.indexOf(marker);
+            if (markerIndex >= 0) {
+                int end = markerIndex + marker.length();
+                hash = hash(hash, className, 0, end);
+                return hash(hash, className, skipDigits(className, end), className.length());
+            }
+        }
+        return hash(hash, className, 0, className.length());
+    }
+
+    private static int skipDigits(String value, int from) {
+        int index = from;
+        while (index < value.length() && Character.isDigit(value.charAt(index))) {
+            index++;
+        }
+        return index;
+    }
+
+    private static long hash(long hash, String value, int from, int to) {
+        for (int i = from; i < to; i++) {
+            hash = mix(hash, value.charAt(i));
+        }
+        return hash;
+    }
+
+    private static long mix(long hash, int value) {
+        return (hash ^ value) * FNV_PRIME;
+    }
+}
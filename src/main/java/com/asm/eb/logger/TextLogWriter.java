@@ -0,0 +1,241 @@
+package com.asm.eb.logger;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Writes records in the human readable layout of eb.log.
+ * A record is assembled in a reusable char buffer and handed to the underlying writer in one call. Timestamps reuse a
+ * prefix formatted once per second and frame text is cached per distinct frame, so this writer allocates nothing for
+ * a record whose frames were seen before. The caller's strings and frame array are not covered by this.
+ * {@link #bytesWritten()} counts UTF-8 bytes, so the underlying writer should encode UTF-8.
+ *
+ * @author asmishra
+ * @since 10/17/2026
+ */
+public final class TextLogWriter implements LogRecordWriter {
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+    private static final String LINE_SEPARATOR = System.lineSeparator();
+    private static final int FRAME_CACHE_SIZE = 4096;
+
+    private final SimpleDateFormat secondFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss.");
+    private final Writer out;
+    private final Map<StackTraceElement, char[]> frameText = new HashMap<>();
+
+    private char[] record = new char[1024];
+    private int recordLength;
+    private long cachedSecond = Long.MIN_VALUE;
+    private String secondPrefix;
+    private long bytesWritten;
+    private boolean failed;
+
+    public TextLogWriter(Writer out) {
+        this(out, 0L);
+    }
+
+    /**
+     * @param out          The destination.
+     * @param initialBytes Size of the destination before this writer appends to it.
+     */
+    public TextLogWriter(Writer out, long initialBytes) {
+        this.out = out;
+        this.bytesWritten = initialBytes;
+    }
+
+    @Override
+    public void writeMessage(long timestamp, String level, String threadName, String message) {
+        recordLength = 0;
+        appendTimestamp(timestamp);
+        append(" [").append(level).append("] [").append(threadName).append("] ").append(message).append(LINE_SEPARATOR);
+        emit();
+    }
+
+    @Override
+    public void writeClassLoading(long timestamp, String threadName, String message) {
+        recordLength = 0;
+        appendTimestamp(timestamp);
+        append(" [CLT] [").append(threadName).append("]\n").append(message).append("\n").append(LINE_SEPARATOR);
+        emit();
+    }
+
+    @Override
+    public void writeException(long timestamp, String threadName, String className, String message,
+                               StackTraceElement[] frames, int truncatedAt, boolean hasFingerprint, long fingerprint) {
+        recordLength = 0;
+        appendTimestamp(timestamp);
+        append(" [EXCEPTION]  [").append(threadName).append("] ");
+        if (hasFingerprint) {
+            append("[fingerprint=").appendHex(fingerprint).append("] ");
+        }
+        append(className).append(": ").append(message).append(LINE_SEPARATOR);
+        for (StackTraceElement frame : frames) {
+            append("\tat ").append(frameText(frame)).append(LINE_SEPARATOR);
+        }
+        if (truncatedAt > 0) {
+            append("\t... (truncated at maxFrames=").append(truncatedAt).append(")").append(LINE_SEPARATOR);
+        }
+        append(LINE_SEPARATOR);
+        emit();
+    }
+
+    @Override
+    public void writeRepeat(long timestamp, String threadName, long fingerprint, String className, long count, long sinceTimestamp) {
+        recordLength = 0;
+        appendTimestamp(timestamp);
+        append(" [REPEAT]  [").append(threadName).append("] [fingerprint=").appendHex(fingerprint).append("] ")
+                .append(className).append(" seen ").append(count).append(" more times since ");
+        appendTimestamp(sinceTimestamp);
+        append(LINE_SEPARATOR);
+        emit();
+    }
+
+    @Override
+    public long bytesWritten() {
+        return bytesWritten;
+    }
+
+    @Override
+    public void flush() {
+        if (failed) {
+            return;
+        }
+        try {
+            out.flush();
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            out.close();
+        } catch (IOException e) {
+            fail(e);
+        }
+        //Like PrintWriter, records written after close are discarded silently
+        failed = true;
+    }
+
+    private void emit() {
+        if (failed) {
+            return;
+        }
+        try {
+            out.write(record, 0, recordLength);
+            bytesWritten += utf8Length(record, recordLength);
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    //Bytes the record takes in UTF-8, counted without encoding it; a lone surrogate is written as '?'
+    static long utf8Length(char[] chars, int length) {
+        long bytes = length;
+        for (int i = 0; i < length; i++) {
+            char c = chars[i];
+            if (c >= 0x80) {
+                if (c < 0x800) {
+                    bytes += 1;
+                } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(chars[i + 1])) {
+                    bytes += 2;
+                    i++;
+                } else if (!Character.isSurrogate(c)) {
+                    bytes += 2;
+                }
+            }
+        }
+        return bytes;
+    }
+
+    //StackTraceElement.toString() differs between JDK versions, rendering it once per distinct frame keeps the exact layout
+    private char[] frameText(StackTraceElement frame) {
+        char[] text = frameText.get(frame);
+        if (text == null) {
+            if (frameText.size() >= FRAME_CACHE_SIZE) {
+                frameText.clear();
+            }
+            text = frame.toString().toCharArray();
+            frameText.put(frame, text);
+        }
+        return text;
+    }
+
+    private void appendTimestamp(long timestamp) {
+        long second = Math.floorDiv(timestamp, 1000L);
+        if (second != cachedSecond) {
+            secondPrefix = secondFormat.format(new Date(second * 1000L));
+            cachedSecond = second;
+        }
+        append(secondPrefix);
+        int millis = (int) Math.floorMod(timestamp, 1000L);
+        ensureCapacity(3);
+        record[recordLength++] = (char) ('0' + millis / 100);
+        record[recordLength++] = (char) ('0' + millis / 10 % 10);
+        record[recordLength++] = (char) ('0' + millis % 10);
+    }
+
+    private TextLogWriter append(String value) {
+        if (value == null) {
+            value = "null";
+        }
+        ensureCapacity(value.length());
+        value.getChars(0, value.length(), record, recordLength);
+        recordLength += value.length();
+        return this;
+    }
+
+    private TextLogWriter append(char[] value) {
+        ensureCapacity(value.length);
+        System.arraycopy(value, 0, record, recordLength, value.length);
+        recordLength += value.length;
+        return this;
+    }
+
+    private TextLogWriter append(long value) {
+        ensureCapacity(20);
+        if (value < 0) {
+            if (value == Long.MIN_VALUE) {
+                return append("-9223372036854775808");
+            }
+            record[recordLength++] = '-';
+            value = -value;
+        }
+        long divisor = 1;
+        while (value / divisor >= 10) {
+            divisor *= 10;
+        }
+        while (divisor > 0) {
+            record[recordLength++] = (char) ('0' + value / divisor % 10);
+            divisor /= 10;
+        }
+        return this;
+    }
+
+    private TextLogWriter appendHex(long value) {
+        ensureCapacity(16);
+        for (int shift = 60; shift >= 0; shift -= 4) {
+            record[recordLength++] = HEX_DIGITS[(int) (value >>> shift) & 0xF];
+        }
+        return this;
+    }
+
+    private void ensureCapacity(int additional) {
+        if (recordLength + additional > record.length) {
+            char[] grown = new char[Math.max(recordLength + additional, record.length * 2)];
+            System.arraycopy(record, 0, grown, 0, recordLength);
+            record = grown;
+        }
+    }
+
+    private void fail(IOException e) {
+        if (!failed) {
+            failed = true;
+            System.err.println("[ExceptionBuddy] Failed to write log: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.asm.eb.metrics;
+
+import java.io.File;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+
+/**
+ * Loads the classes of one package child-first from the agent jar and delegates everything else.
+ * The agent jar sits on the bootstrap class path, and on JDK 9+ the bootstrap loader cannot see modules such as
+ * jdk.httpserver that belong to the platform loader. Classes loaded here can, while StatsStore and the logger they use
+ * still resolve to the bootstrap copies the agent writes to.
+ *
+ * @author asmishra
+ * @since 10/17/2026
+ */
+final class AgentJarClassLoader extends URLClassLoader {
+    static {
+        registerAsParallelCapable();
+    }
+
+    private final String isolatedPackage;
+
+    AgentJarClassLoader(String agentJarPath, String isolatedPackage) throws MalformedURLException {
+        super(new URL[]{new File(agentJarPath).toURI().toURL()}, ClassLoader.getSystemClassLoader().getParent());
+        this.isolatedPackage = isolatedPackage;
+    }
+
+    @Override
+    protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+        if (!name.startsWith(isolatedPackage)) {
+            return super.loadClass(name, resolve);
+        }
+        synchronized (getClassLoadingLock(name)) {
+            Class<?> loaded = findLoadedClass(name);
+            if (loaded == null) {
+                loaded = findClass(name);
+            }
+            if (resolve) {
+                resolveClass(loaded);
+            }
+            return loaded;
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.asm.eb.metrics;
+
+/**
+ * A running scrape endpoint.
+ *
+ * @author asmishra
+ * @since 10/17/2026
+ */
+public interface MetricsEndpoint {
+
+    int getPort();
+
+    void stop();
+}
@@ -0,0 +1,60 @@
+package com.asm.eb.metrics;
+
+import com.asm.eb.logger.ExceptionLogger;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+
+/**
+ * Starts and stops the {@code /metrics} endpoint served by the JDK's built-in HTTP server.
+ * The server itself lives in {@code com.asm.eb.metrics.http}, which is loaded from the agent jar through an
+ * {@link AgentJarClassLoader} when the agent runs from the bootstrap class path.
+ *
+ * @author asmishra
+ * @since 10/17/2026
+ */
+public final class MetricsServer {
+    private static final String ENDPOINT_PACKAGE = "com.asm.eb.metrics.http.";
+    private static final String ENDPOINT_CLASS_NAME = ENDPOINT_PACKAGE + "JdkHttpMetricsEndpoint";
+    private static MetricsEndpoint endpoint;
+
+    private MetricsServer() {
+    }
+
+    /**
+     * Starts the endpoint, replacing one started by an earlier attach.
+     *
+     * @param bindAddress     Address to listen on.
+     * @param port            Port to listen on, 0 for an ephemeral port.
+     * @param exceptionLogger The logger whose queue is reported.
+     * @param agentJarPath    The agent jar, or null to load the server from this class's own loader.
+     * @return The running endpoint.
+     * @throws IOException If the port cannot be bound.
+     */
+    public static synchronized MetricsEndpoint start(String bindAddress, int port, ExceptionLogger exceptionLogger,
+                                                     String agentJarPath) throws IOException {
+        stop();
+        ClassLoader loader = agentJarPath == null ? MetricsServer.class.getClassLoader()
+                : new AgentJarClassLoader(agentJarPath, ENDPOINT_PACKAGE);
+        try {
+            Class<?> endpointClass = Class.forName(ENDPOINT_CLASS_NAME, true, loader);
+            endpoint = (MetricsEndpoint) endpointClass.getConstructor(String.class, int.class, ExceptionLogger.class)
+                    .newInstance(bindAddress, port, exceptionLogger);
+            return endpoint;
+        } catch (InvocationTargetException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IllegalStateException("Failed to start metrics endpoint", e.getCause());
+        } catch (ReflectiveOperationException | LinkageError e) {
+            throw new IllegalStateException("JDK HTTP server is not available: " + e, e);
+        }
+    }
+
+    public static synchronized void stop() {
+        if (endpoint != null) {
+            endpoint.stop();
+            endpoint = null;
+        }
+    }
+}
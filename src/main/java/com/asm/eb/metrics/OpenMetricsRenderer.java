@@ -0,0 +1,170 @@
+package com.asm.eb.metrics;
+
+import com.asm.eb.logger.ExceptionLogger;
+import com.asm.eb.store.StatsStore;
+import com.asm.eb.store.ThrowSite;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Renders StatsStore counters in the OpenMetrics text format, or in the Prometheus 0.0.4 text format for scrapers
+ * that do not ask for OpenMetrics. An instance reuses its buffers between scrapes and is not thread-safe.
+ *
+ * @author asmishra
+ * @since 10/17/2026
+ */
+public final class OpenMetricsRenderer {
+    public static final String OPENMETRICS_CONTENT_TYPE = "application/openmetrics-text; version=1.0.0; charset=utf-8";
+    public static final String PROMETHEUS_CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+    private static final String PREFIX = "exceptionbuddy_";
+    private static final int[] RATE_WINDOWS = {1, 10, 60, 300};
+    private static final String[] RATE_WINDOW_LABELS = {"1s", "10s", "1m", "5m"};
+
+    private final ExceptionLogger exceptionLogger;
+    private final StringBuilder text = new StringBuilder(8192);
+    private byte[] bytes = new byte[8192];
+    private int length;
+    private boolean openMetrics;
+
+    public OpenMetricsRenderer(ExceptionLogger exceptionLogger) {
+        this.exceptionLogger = exceptionLogger;
+    }
+
+    /**
+     * Renders the current values; the result stays in {@link #bytes()} until the next call.
+     *
+     * @param openMetrics true for OpenMetrics, false for the Prometheus text format.
+     * @return The number of bytes rendered.
+     */
+    public int render(boolean openMetrics) {
+        this.openMetrics = openMetrics;
+        text.setLength(0);
+
+        counter("exceptions", "Exceptions constructed since the agent started.");
+        sample("exceptions", null, null, StatsStore.getExceptionCount());
+
+        counter("exceptions_by_type", "Exceptions constructed by exception class.");
+        for (Map.Entry<String, Long> entry : StatsStore.getExceptionCountsByType().entrySet()) {
+            sample("exceptions_by_type", "type", entry.getKey(), entry.getValue());
+        }
+
+        counter("critical_exceptions", "Critical JVM errors by simple class name.");
+        for (Map.Entry<String, Long> entry : StatsStore.getCriticalExceptionStats().entrySet()) {
+            sample("critical_exceptions", "type", entry.getKey(), entry.getValue());
+        }
+
+        if (StatsStore.isThrowSiteTrackingEnabled()) {
+            counter("throw_site_exceptions", "Approximate exceptions per heavy-hitter throw site.");
+            for (ThrowSite site : StatsStore.getTopThrowSites()) {
+                text.append(PREFIX).append("throw_site_exceptions_total{type=\"");
+                escape(site.getExceptionClassName());
+                text.append("\",site=\"");
+                escape(site.getFrame() == null ? "" : site.getFrame().toString());
+                text.append("\"} ").append(site.getCount()).append('\n');
+            }
+        }
+
+        gauge("exception_rate", "Exceptions per second over a sliding window.");
+        for (int i = 0; i < RATE_WINDOWS.length; i++) {
+            text.append(PREFIX).append("exception_rate{window=\"").append(RATE_WINDOW_LABELS[i]).append("\"} ")
+                    .append(StatsStore.getExceptionRate(RATE_WINDOWS[i])).append('\n');
+        }
+
+        counter("dropped_events", "Exception events dropped because the async queue was full.");
+        sample("dropped_events", null, null, StatsStore.getDroppedEventCount());
+        counter("sampled_out_events", "Exception events sampled out by the async overflow policy.");
+        sample("sampled_out_events", null, null, StatsStore.getSampledOutEventCount());
+        counter("rate_limited_events", "Traces not written because of sampling rate limits.");
+        sample("rate_limited_events", null, null, StatsStore.getRateLimitedEventCount());
+
+        gauge("queue_depth", "Exception events waiting for the async writer.");
+        text.append(PREFIX).append("queue_depth ").append(exceptionLogger.getQueueDepth()).append('\n');
+        gauge("queue_capacity", "Capacity of the async event queue.");
+        text.append(PREFIX).append("queue_capacity ").append(exceptionLogger.getQueueCapacity()).append('\n');
+
+        counter("hook_invocations", "Throwable constructors dispatched to the agent.");
+        sample("hook_invocations", null, null, StatsStore.getHookInvocationCount());
+        counter("hook_seconds", "Time spent inside the agent by Throwable constructors.");
+        text.append(PREFIX).append("hook_seconds_total ").append(StatsStore.getHookTimeNanos() / 1e9).append('\n');
+
+        if (openMetrics) {
+            text.append("# EOF\n");
+        }
+        return encode();
+    }
+
+    public byte[] bytes() {
+        return bytes;
+    }
+
+    public int length() {
+        return length;
+    }
+
+    //OpenMetrics names the family without _total, the Prometheus text format names it like the sample
+    private void counter(String name, String help) {
+        String family = openMetrics ? name : name + "_total";
+        text.append("# HELP ").append(PREFIX).append(family).append(' ').append(help).append('\n');
+        text.append("# TYPE ").append(PREFIX).append(family).append(" counter\n");
+    }
+
+    private void gauge(String name, String help) {
+        text.append("# HELP ").append(PREFIX).append(name).append(' ').append(help).append('\n');
+        text.append("# TYPE ").append(PREFIX).append(name).append(" gauge\n");
+    }
+
+    private void sample(String name, String labelName, String labelValue, long value) {
+        text.append(PREFIX).append(name).append("_total");
+        if (labelName != null) {
+            text.append('{').append(labelName).append("=\"");
+            escape(labelValue);
+            text.append("\"}");
+        }
+        text.append(' ').append(value).append('\n');
+    }
+
+    private void escape(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\' || c == '"') {
+                text.append('\\').append(c);
+            } else if (c == '\n') {
+                text.append("\\n");
+            } else {
+                text.append(c);
+            }
+        }
+    }
+
+    //UTF-8 into the reused byte buffer, class names and frames are almost always ASCII
+    private int encode() {
+        if (bytes.length < text.length() * 3) {
+            bytes = Arrays.copyOf(bytes, Math.max(text.length() * 3, bytes.length * 2));
+        }
+        int position = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                bytes[position++] = (byte) c;
+            } else if (c < 0x800) {
+                bytes[position++] = (byte) (0xC0 | (c >> 6));
+                bytes[position++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < text.length() && Character.isLowSurrogate(text.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, text.charAt(++i));
+                bytes[position++] = (byte) (0xF0 | (codePoint >> 18));
+                bytes[position++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                bytes[position++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                bytes[position++] = (byte) (0x80 | (codePoint & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                bytes[position++] = '?';
+            } else {
+                bytes[position++] = (byte) (0xE0 | (c >> 12));
+                bytes[position++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                bytes[position++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+        length = position;
+        return position;
+    }
+}
@@ -0,0 +1,108 @@
+package com.asm.eb.metrics.http;
+
+import com.asm.eb.logger.ExceptionLogger;
+import com.asm.eb.metrics.MetricsEndpoint;
+import com.asm.eb.metrics.OpenMetricsRenderer;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Serves {@code /metrics} for Prometheus from {@link HttpServer}.
+ * Requests are handled on the endpoint's own two daemon threads, each rendering into its own reused buffers,
+ * and only read StatsStore snapshots, so a scrape never touches the Throwable path.
+ *
+ * @author asmishra
+ * @since 10/17/2026
+ */
+public final class JdkHttpMetricsEndpoint implements MetricsEndpoint {
+    private static final String PATH = "/metrics";
+    private static final int THREADS = 2;
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    public JdkHttpMetricsEndpoint(String bindAddress, int port, ExceptionLogger exceptionLogger) throws IOException {
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(THREADS, runnable -> {
+            Thread thread = new Thread(() -> {
+                // Socket errors of scrapers must not end up in the exception log.
+                ExceptionLogger.markInsideLogging();
+                runnable.run();
+            }, "eb-metrics-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        ThreadLocal<OpenMetricsRenderer> renderers = ThreadLocal.withInitial(() -> new OpenMetricsRenderer(exceptionLogger));
+        try {
+            server = HttpServer.create(new InetSocketAddress(bindAddress, port), 0);
+        } catch (IOException e) {
+            executor.shutdown();
+            throw e;
+        }
+        server.createContext(PATH, exchange -> handle(exchange, renderers.get()));
+        server.setExecutor(executor);
+        startDispatcher();
+    }
+
+    //HttpServer's dispatcher thread inherits the daemon flag of the thread calling start(), and a non-daemon one would
+    //keep the JVM from exiting before the shutdown hook gets a chance to stop it
+    private void startDispatcher() {
+        Thread starter = new Thread(server::start, "eb-metrics-starter");
+        starter.setDaemon(true);
+        starter.start();
+        try {
+            starter.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    @Override
+    public void stop() {
+        server.stop(0);
+        executor.shutdown();
+        try {
+            executor.awaitTermination(2, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void handle(HttpExchange exchange, OpenMetricsRenderer renderer) throws IOException {
+        try {
+            String method = exchange.getRequestMethod();
+            if (!PATH.equals(exchange.getRequestURI().getPath()) || !("GET".equals(method) || "HEAD".equals(method))) {
+                exchange.sendResponseHeaders(404, -1);
+                return;
+            }
+            String accept = exchange.getRequestHeaders().getFirst("Accept");
+            boolean openMetrics = accept != null && accept.contains("application/openmetrics-text");
+            int length = renderer.render(openMetrics);
+            exchange.getResponseHeaders().set("Content-Type",
+                    openMetrics ? OpenMetricsRenderer.OPENMETRICS_CONTENT_TYPE : OpenMetricsRenderer.PROMETHEUS_CONTENT_TYPE);
+            if ("HEAD".equals(method)) {
+                exchange.sendResponseHeaders(200, -1);
+                return;
+            }
+            exchange.sendResponseHeaders(200, length);
+            try (OutputStream body = exchange.getResponseBody()) {
+                body.write(renderer.bytes(), 0, length);
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+}
@@ -1,5 +1,8 @@
 package com.asm.eb.model;
 
+import com.asm.eb.capture.FrameMatcher;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import java.util.List;
 
 /**
@@ -15,6 +18,60 @@ public class Configuration {
     private String cnfSkipString;
     private boolean printJVMSysProps;
     private boolean printEnvironmentVariables;
+    private boolean asyncLogging;
+    private int asyncQueueCapacity = 8192;
+    private String asyncOverflowPolicy = "DROP";
+    private int asyncSampleRate = 10;
+    private boolean deduplicateTraces;
+    private int fingerprintCacheSize = 4096;
+    private int repeatSummaryIntervalSeconds = 60;
+    private int maxFrames;
+    private boolean samplingEnabled;
+    private double samplingPerTypeRate = 100;
+    private double samplingGlobalRate = 1000;
+    private int samplingKeepOneIn = 1000;
+    private int samplingSiteCapacity = 4096;
+    private String logFormat = "TEXT";
+    private long binarySegmentBytes = 8L * 1024 * 1024;
+    private long rollMaxBytes;
+    private int rollIntervalMinutes;
+    private int rollRetention = 10;
+    private boolean rollCompress = true;
+    private boolean throwSiteTracking;
+    private int throwSiteTopK = 10;
+    private int throwSiteSketchWidth = 4096;
+    private List<String> throwSiteSkipPrefixes;
+    private int monitorIntervalSeconds = 60;
+    private double spikeFactor = 5;
+    private double spikeMinRate = 10;
+    private boolean jmxEnabled;
+    private int metricsPort = -1;
+    private String metricsBindAddress = "127.0.0.1";
+    private boolean configurationReload;
+    private String instrumentationMode = "CONSTRUCTOR";
+    private List<String> throwInstrumentationPackages;
+    private boolean bytecodeCache;
+    private String bytecodeCacheDir;
+    private boolean costProfiling;
+    private int costProfilingTopN = 10;
+    private int costProfilingSiteCapacity = 1024;
+    private List<String> stackSuppressionClasses;
+    private List<String> stackSuppressionSitePrefixes;
+    private int stackSuppressionMaxFrames;
+    private int exportPort = -1;
+    private String exportHost = "127.0.0.1";
+    private int exportQueueCapacity = 8192;
+    private long exportFlushIntervalMillis = 1000;
+    private String exportJvmName;
+    private boolean exportOnly;
+    private String sharedRingFile;
+    private int sharedRingSlots = 16384;
+    private int sharedRingSlotBytes = 512;
+    //Compiled by ConfigurationParser from filters and cnfSkipString
+    @JsonIgnore
+    private FrameMatcher filterMatcher;
+    @JsonIgnore
+    private FrameMatcher cnfSkipMatcher;
     public List<String> getFilters() {
         return filters;
     }
@@ -78,4 +135,425 @@ public class Configuration {
     public void setPrintEnvironmentVariables(boolean printEnvironmentVariables) {
         this.printEnvironmentVariables = printEnvironmentVariables;
     }
+
+    public boolean isAsyncLogging() {
+        return asyncLogging;
+    }
+
+    public void setAsyncLogging(boolean asyncLogging) {
+        this.asyncLogging = asyncLogging;
+    }
+
+    public int getAsyncQueueCapacity() {
+        return asyncQueueCapacity;
+    }
+
+    public void setAsyncQueueCapacity(int asyncQueueCapacity) {
+        this.asyncQueueCapacity = asyncQueueCapacity;
+    }
+
+    public String getAsyncOverflowPolicy() {
+        return asyncOverflowPolicy;
+    }
+
+    public void setAsyncOverflowPolicy(String asyncOverflowPolicy) {
+        this.asyncOverflowPolicy = asyncOverflowPolicy;
+    }
+
+    public int getAsyncSampleRate() {
+        return asyncSampleRate;
+    }
+
+    public void setAsyncSampleRate(int asyncSampleRate) {
+        this.asyncSampleRate = asyncSampleRate;
+    }
+
+    public boolean isDeduplicateTraces() {
+        return deduplicateTraces;
+    }
+
+    public void setDeduplicateTraces(boolean deduplicateTraces) {
+        this.deduplicateTraces = deduplicateTraces;
+    }
+
+    public int getFingerprintCacheSize() {
+        return fingerprintCacheSize;
+    }
+
+    public void setFingerprintCacheSize(int fingerprintCacheSize) {
+        this.fingerprintCacheSize = fingerprintCacheSize;
+    }
+
+    public int getRepeatSummaryIntervalSeconds() {
+        return repeatSummaryIntervalSeconds;
+    }
+
+    public void setRepeatSummaryIntervalSeconds(int repeatSummaryIntervalSeconds) {
+        this.repeatSummaryIntervalSeconds = repeatSummaryIntervalSeconds;
+    }
+
+    public int getMaxFrames() {
+        return maxFrames;
+    }
+
+    public void setMaxFrames(int maxFrames) {
+        this.maxFrames = maxFrames;
+    }
+
+    @JsonIgnore
+    public FrameMatcher getFilterMatcher() {
+        return filterMatcher;
+    }
+
+    @JsonIgnore
+    public void setFilterMatcher(FrameMatcher filterMatcher) {
+        this.filterMatcher = filterMatcher;
+    }
+
+    @JsonIgnore
+    public FrameMatcher getCnfSkipMatcher() {
+        return cnfSkipMatcher;
+    }
+
+    @JsonIgnore
+    public void setCnfSkipMatcher(FrameMatcher cnfSkipMatcher) {
+        this.cnfSkipMatcher = cnfSkipMatcher;
+    }
+
+    public boolean isSamplingEnabled() {
+        return samplingEnabled;
+    }
+
+    public void setSamplingEnabled(boolean samplingEnabled) {
+        this.samplingEnabled = samplingEnabled;
+    }
+
+    public double getSamplingPerTypeRate() {
+        return samplingPerTypeRate;
+    }
+
+    public void setSamplingPerTypeRate(double samplingPerTypeRate) {
+        this.samplingPerTypeRate = samplingPerTypeRate;
+    }
+
+    public double getSamplingGlobalRate() {
+        return samplingGlobalRate;
+    }
+
+    public void setSamplingGlobalRate(double samplingGlobalRate) {
+        this.samplingGlobalRate = samplingGlobalRate;
+    }
+
+    public int getSamplingKeepOneIn() {
+        return samplingKeepOneIn;
+    }
+
+    public void setSamplingKeepOneIn(int samplingKeepOneIn) {
+        this.samplingKeepOneIn = samplingKeepOneIn;
+    }
+
+    public int getSamplingSiteCapacity() {
+        return samplingSiteCapacity;
+    }
+
+    public void setSamplingSiteCapacity(int samplingSiteCapacity) {
+        this.samplingSiteCapacity = samplingSiteCapacity;
+    }
+
+    public String getLogFormat() {
+        return logFormat;
+    }
+
+    public void setLogFormat(String logFormat) {
+        this.logFormat = logFormat;
+    }
+
+    public long getBinarySegmentBytes() {
+        return binarySegmentBytes;
+    }
+
+    public void setBinarySegmentBytes(long binarySegmentBytes) {
+        this.binarySegmentBytes = binarySegmentBytes;
+    }
+
+    public long getRollMaxBytes() {
+        return rollMaxBytes;
+    }
+
+    public void setRollMaxBytes(long rollMaxBytes) {
+        this.rollMaxBytes = rollMaxBytes;
+    }
+
+    public int getRollIntervalMinutes() {
+        return rollIntervalMinutes;
+    }
+
+    public void setRollIntervalMinutes(int rollIntervalMinutes) {
+        this.rollIntervalMinutes = rollIntervalMinutes;
+    }
+
+    public int getRollRetention() {
+        return rollRetention;
+    }
+
+    public void setRollRetention(int rollRetention) {
+        this.rollRetention = rollRetention;
+    }
+
+    public boolean isRollCompress() {
+        return rollCompress;
+    }
+
+    public void setRollCompress(boolean rollCompress) {
+        this.rollCompress = rollCompress;
+    }
+
+    public boolean isThrowSiteTracking() {
+        return throwSiteTracking;
+    }
+
+    public void setThrowSiteTracking(boolean throwSiteTracking) {
+        this.throwSiteTracking = throwSiteTracking;
+    }
+
+    public int getThrowSiteTopK() {
+        return throwSiteTopK;
+    }
+
+    public void setThrowSiteTopK(int throwSiteTopK) {
+        this.throwSiteTopK = throwSiteTopK;
+    }
+
+    public int getThrowSiteSketchWidth() {
+        return throwSiteSketchWidth;
+    }
+
+    public void setThrowSiteSketchWidth(int throwSiteSketchWidth) {
+        this.throwSiteSketchWidth = throwSiteSketchWidth;
+    }
+
+    public List<String> getThrowSiteSkipPrefixes() {
+        return throwSiteSkipPrefixes;
+    }
+
+    public void setThrowSiteSkipPrefixes(List<String> throwSiteSkipPrefixes) {
+        this.throwSiteSkipPrefixes = throwSiteSkipPrefixes;
+    }
+
+    public int getMonitorIntervalSeconds() {
+        return monitorIntervalSeconds;
+    }
+
+    public void setMonitorIntervalSeconds(int monitorIntervalSeconds) {
+        this.monitorIntervalSeconds = monitorIntervalSeconds;
+    }
+
+    public double getSpikeFactor() {
+        return spikeFactor;
+    }
+
+    public void setSpikeFactor(double spikeFactor) {
+        this.spikeFactor = spikeFactor;
+    }
+
+    public double getSpikeMinRate() {
+        return spikeMinRate;
+    }
+
+    public void setSpikeMinRate(double spikeMinRate) {
+        this.spikeMinRate = spikeMinRate;
+    }
+
+    public boolean isJmxEnabled() {
+        return jmxEnabled;
+    }
+
+    public void setJmxEnabled(boolean jmxEnabled) {
+        this.jmxEnabled = jmxEnabled;
+    }
+
+    public int getMetricsPort() {
+        return metricsPort;
+    }
+
+    public void setMetricsPort(int metricsPort) {
+        this.metricsPort = metricsPort;
+    }
+
+    public String getMetricsBindAddress() {
+        return metricsBindAddress;
+    }
+
+    public void setMetricsBindAddress(String metricsBindAddress) {
+        this.metricsBindAddress = metricsBindAddress;
+    }
+
+    public boolean isConfigurationReload() {
+        return configurationReload;
+    }
+
+    public void setConfigurationReload(boolean configurationReload) {
+        this.configurationReload = configurationReload;
+    }
+
+    public String getInstrumentationMode() {
+        return instrumentationMode;
+    }
+
+    public void setInstrumentationMode(String instrumentationMode) {
+        this.instrumentationMode = instrumentationMode;
+    }
+
+    public List<String> getThrowInstrumentationPackages() {
+        return throwInstrumentationPackages;
+    }
+
+    public void setThrowInstrumentationPackages(List<String> throwInstrumentationPackages) {
+        this.throwInstrumentationPackages = throwInstrumentationPackages;
+    }
+
+    public boolean isBytecodeCache() {
+        return bytecodeCache;
+    }
+
+    public void setBytecodeCache(boolean bytecodeCache) {
+        this.bytecodeCache = bytecodeCache;
+    }
+
+    public String getBytecodeCacheDir() {
+        return bytecodeCacheDir;
+    }
+
+    public void setBytecodeCacheDir(String bytecodeCacheDir) {
+        this.bytecodeCacheDir = bytecodeCacheDir;
+    }
+
+    public boolean isCostProfiling() {
+        return costProfiling;
+    }
+
+    public void setCostProfiling(boolean costProfiling) {
+        this.costProfiling = costProfiling;
+    }
+
+    public int getCostProfilingTopN() {
+        return costProfilingTopN;
+    }
+
+    public void setCostProfilingTopN(int costProfilingTopN) {
+        this.costProfilingTopN = costProfilingTopN;
+    }
+
+    public int getCostProfilingSiteCapacity() {
+        return costProfilingSiteCapacity;
+    }
+
+    public void setCostProfilingSiteCapacity(int costProfilingSiteCapacity) {
+        this.costProfilingSiteCapacity = costProfilingSiteCapacity;
+    }
+
+    public List<String> getStackSuppressionClasses() {
+        return stackSuppressionClasses;
+    }
+
+    public void setStackSuppressionClasses(List<String> stackSuppressionClasses) {
+        this.stackSuppressionClasses = stackSuppressionClasses;
+    }
+
+    public List<String> getStackSuppressionSitePrefixes() {
+        return stackSuppressionSitePrefixes;
+    }
+
+    public void setStackSuppressionSitePrefixes(List<String> stackSuppressionSitePrefixes) {
+        this.stackSuppressionSitePrefixes = stackSuppressionSitePrefixes;
+    }
+
+    public int getStackSuppressionMaxFrames() {
+        return stackSuppressionMaxFrames;
+    }
+
+    public void setStackSuppressionMaxFrames(int stackSuppressionMaxFrames) {
+        this.stackSuppressionMaxFrames = stackSuppressionMaxFrames;
+    }
+
+    /**
+     * @return true if any exception class or throw-site prefix is configured for stack suppression.
+     */
+    @JsonIgnore
+    public boolean isStackSuppression() {
+        return (stackSuppressionClasses != null && !stackSuppressionClasses.isEmpty())
+                || (stackSuppressionSitePrefixes != null && !stackSuppressionSitePrefixes.isEmpty());
+    }
+
+    public int getExportPort() {
+        return exportPort;
+    }
+
+    public void setExportPort(int exportPort) {
+        this.exportPort = exportPort;
+    }
+
+    public String getExportHost() {
+        return exportHost;
+    }
+
+    public void setExportHost(String exportHost) {
+        this.exportHost = exportHost;
+    }
+
+    public int getExportQueueCapacity() {
+        return exportQueueCapacity;
+    }
+
+    public void setExportQueueCapacity(int exportQueueCapacity) {
+        this.exportQueueCapacity = exportQueueCapacity;
+    }
+
+    public long getExportFlushIntervalMillis() {
+        return exportFlushIntervalMillis;
+    }
+
+    public void setExportFlushIntervalMillis(long exportFlushIntervalMillis) {
+        this.exportFlushIntervalMillis = exportFlushIntervalMillis;
+    }
+
+    public String getExportJvmName() {
+        return exportJvmName;
+    }
+
+    public void setExportJvmName(String exportJvmName) {
+        this.exportJvmName = exportJvmName;
+    }
+
+    public boolean isExportOnly() {
+        return exportOnly;
+    }
+
+    public void setExportOnly(boolean exportOnly) {
+        this.exportOnly = exportOnly;
+    }
+
+    public String getSharedRingFile() {
+        return sharedRingFile;
+    }
+
+    public void setSharedRingFile(String sharedRingFile) {
+        this.sharedRingFile = sharedRingFile;
+    }
+
+    public int getSharedRingSlots() {
+        return sharedRingSlots;
+    }
+
+    public void setSharedRingSlots(int sharedRingSlots) {
+        this.sharedRingSlots = sharedRingSlots;
+    }
+
+    public int getSharedRingSlotBytes() {
+        return sharedRingSlotBytes;
+    }
+
+    public void setSharedRingSlotBytes(int sharedRingSlotBytes) {
+        this.sharedRingSlotBytes = sharedRingSlotBytes;
+    }
 }
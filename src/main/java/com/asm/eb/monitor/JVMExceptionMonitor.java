@@ -1,10 +1,17 @@
 package com.asm.eb.monitor;
 
+import com.asm.eb.config.CompiledConfiguration;
 import com.asm.eb.logger.ExceptionLogger;
+import com.asm.eb.store.ExceptionCostProfiler;
+import com.asm.eb.store.LatencyHistogram;
+import com.asm.eb.store.StackSuppressor;
 import com.asm.eb.store.StatsStore;
+import com.asm.eb.store.SuppressionSavings;
+
+import java.util.List;
 
 /**
- * Monitors JVM exceptions and periodically logs the exception count.
+ * Monitors JVM exceptions, periodically logs counts and rates, and warns when the exception rate spikes.
  * Uses a singleton pattern to ensure a single instance across the application.
  *
  * @author asmishra
@@ -12,9 +19,21 @@ import com.asm.eb.store.StatsStore;
  */
 public class JVMExceptionMonitor implements Runnable {
 
+    private static final long TICK_MILLIS = 1000L;
+    private static final int SPIKE_WINDOW_SECONDS = 10;
+    private static final int BASELINE_WINDOW_SECONDS = 300;
+
     private volatile Thread thread = null;
     private final ExceptionLogger exceptionLogger;
     private static volatile JVMExceptionMonitor instance;
+    //Only touched by the monitor thread
+    private long lastReportedCount;
+    private LatencyHistogram.Snapshot lastLogExceptionLatency = StatsStore.getLogExceptionLatency();
+    private LatencyHistogram.Snapshot lastLogClassLoadingLatency = StatsStore.getLogClassLoadingLatency();
+    private LatencyHistogram.Snapshot lastLockWaitLatency = StatsStore.getLockWaitLatency();
+    private long lastBytesWritten = StatsStore.getBytesWritten();
+    private long lastFlushCount = StatsStore.getFlushCount();
+    private boolean inSpike;
 
 
     private JVMExceptionMonitor(ExceptionLogger exceptionLogger) {
@@ -24,6 +43,9 @@ public class JVMExceptionMonitor implements Runnable {
     /**
      * Returns the singleton instance of JVMExceptionMonitor, initializing it if necessary.
      *
+     * The report interval and spike thresholds are read from the logger's current configuration on every tick,
+     * so they follow configuration reloads.
+     *
      * @param exceptionLogger The logger instance for recording exceptions.
      * @return The singleton instance of JVMExceptionMonitor.
      */
@@ -51,13 +73,22 @@ public class JVMExceptionMonitor implements Runnable {
         return instance;
     }
 
+    /**
+     * Checks for spikes every second and writes the full report every monitor interval.
+     */
     @Override
     public void run() {
+        long nextReportAt = System.currentTimeMillis();
         while(!Thread.interrupted()) {
             try {
-                exceptionLogger.logInfo("Exceptions encountered so far: " + StatsStore.getExceptionCount());
-                exceptionLogger.logInfo("Critical exception count by category: " + StatsStore.getCriticalExceptionStats());
-                Thread.sleep(60 * 1000L);
+                CompiledConfiguration compiled = exceptionLogger.getCompiledConfiguration();
+                checkForSpike(compiled.getSpikeFactor(), compiled.getSpikeMinRate());
+                long now = System.currentTimeMillis();
+                if (now >= nextReportAt) {
+                    report();
+                    nextReportAt = now + compiled.getMonitorIntervalMillis();
+                }
+                Thread.sleep(TICK_MILLIS);
             } catch (InterruptedException e) {
                 exceptionLogger.logInfo("Interrupted. Exiting gracefully.");
                 Thread.currentThread().interrupt();
@@ -66,6 +97,105 @@ public class JVMExceptionMonitor implements Runnable {
         }
     }
 
+    private void report() {
+        long count = StatsStore.getExceptionCount();
+        exceptionLogger.logInfo("Exceptions encountered so far: " + count + " (+" + (count - lastReportedCount) + " since last report)");
+        lastReportedCount = count;
+        exceptionLogger.logInfo(String.format("Exception rate per second: 1s=%.1f, 10s=%.1f, 1m=%.1f, 5m=%.1f",
+                StatsStore.getExceptionRate(1), StatsStore.getExceptionRate(10),
+                StatsStore.getExceptionRate(60), StatsStore.getExceptionRate(300)));
+        exceptionLogger.logInfo("Critical exception count by category: " + StatsStore.getCriticalExceptionStats());
+        if (exceptionLogger.isAsync()) {
+            exceptionLogger.logInfo("Async writer queue depth: " + exceptionLogger.getQueueDepth()
+                    + ", dropped events: " + StatsStore.getDroppedEventCount()
+                    + ", sampled out events: " + StatsStore.getSampledOutEventCount());
+        }
+        if (exceptionLogger.isExporting()) {
+            exceptionLogger.logInfo("Exported to " + exceptionLogger.getExportDestination() + ": " + StatsStore.getExportedRecordCount()
+                    + " records in " + StatsStore.getExportDatagramCount() + " datagrams, dropped " + StatsStore.getExportDroppedCount()
+                    + ", queue depth " + exceptionLogger.getExportQueueDepth());
+        }
+        if (exceptionLogger.isSharingRing()) {
+            exceptionLogger.logInfo("Published to the shared ring " + exceptionLogger.getSharedRingFile() + ": "
+                    + exceptionLogger.getSharedRingPublishedCount() + " events");
+        }
+        if (exceptionLogger.isSampling()) {
+            exceptionLogger.logInfo("Traces sampled out by rate limits: " + StatsStore.getRateLimitedEventCount());
+        }
+        if (StatsStore.isThrowSiteTrackingEnabled()) {
+            exceptionLogger.logInfo("Top throw sites (approximate count, +since last report):" + formatRanked(StatsStore.reportTopThrowSites()));
+        }
+        ExceptionCostProfiler costProfiler = StatsStore.getCostProfiler();
+        if (costProfiler != null) {
+            exceptionLogger.logInfo("Top exceptions by construction cost since last report:" + formatRanked(costProfiler.report()));
+        }
+        StackSuppressor stackSuppressor = StatsStore.getStackSuppressor();
+        if (stackSuppressor != null) {
+            List<SuppressionSavings> savings = stackSuppressor.report();
+            long savedNanos = 0;
+            for (SuppressionSavings rule : savings) {
+                savedNanos += rule.getSavedNanos();
+            }
+            exceptionLogger.logInfo(String.format("Stack capture suppression since last report, ~%.1fms saved:%s",
+                    savedNanos / 1_000_000.0, formatRanked(savings)));
+        }
+        reportOverhead();
+        exceptionLogger.flushRepeatSummaries();
+    }
+
+    //Reports what the agent itself cost since the previous report
+    private void reportOverhead() {
+        LatencyHistogram.Snapshot logExceptionLatency = StatsStore.getLogExceptionLatency();
+        LatencyHistogram.Snapshot logClassLoadingLatency = StatsStore.getLogClassLoadingLatency();
+        LatencyHistogram.Snapshot lockWaitLatency = StatsStore.getLockWaitLatency();
+        long bytesWritten = StatsStore.getBytesWritten();
+        long flushCount = StatsStore.getFlushCount();
+        StringBuilder builder = new StringBuilder("Agent overhead since last report:");
+        builder.append("\n\tlogException: ").append(logExceptionLatency.since(lastLogExceptionLatency));
+        if (logClassLoadingLatency.getCount() > 0) {
+            builder.append("\n\tlogClassLoading: ").append(logClassLoadingLatency.since(lastLogClassLoadingLatency));
+        }
+        builder.append("\n\tlock wait: ").append(lockWaitLatency.since(lastLockWaitLatency));
+        builder.append("\n\tbytes written: ").append(bytesWritten - lastBytesWritten)
+                .append(", flushes: ").append(flushCount - lastFlushCount);
+        lastLogExceptionLatency = logExceptionLatency;
+        lastLogClassLoadingLatency = logClassLoadingLatency;
+        lastLockWaitLatency = lockWaitLatency;
+        lastBytesWritten = bytesWritten;
+        lastFlushCount = flushCount;
+        exceptionLogger.logInfo(builder.toString());
+    }
+
+    //Logs once when a spike starts and once when it ends, not on every tick in between
+    private void checkForSpike(double spikeFactor, double spikeMinRate) {
+        if (spikeFactor <= 0)
+            return;
+        double shortRate = StatsStore.getExceptionRate(SPIKE_WINDOW_SECONDS);
+        double baselineRate = StatsStore.getExceptionRate(BASELINE_WINDOW_SECONDS);
+        boolean spike = isSpike(shortRate, baselineRate, spikeFactor, spikeMinRate);
+        if (spike && !inSpike) {
+            exceptionLogger.logWarn(String.format("Exception spike: %.1f/s over the last %ds is above %.1f times the %ds baseline of %.1f/s",
+                    shortRate, SPIKE_WINDOW_SECONDS, spikeFactor, BASELINE_WINDOW_SECONDS, baselineRate));
+        } else if (!spike && inSpike) {
+            exceptionLogger.logInfo(String.format("Exception spike over: %.1f/s over the last %ds, baseline %.1f/s",
+                    shortRate, SPIKE_WINDOW_SECONDS, baselineRate));
+        }
+        inSpike = spike;
+    }
+
+    static boolean isSpike(double shortRate, double baselineRate, double factor, double minRate) {
+        return factor > 0 && shortRate >= minRate && shortRate > factor * baselineRate;
+    }
+
+    private static String formatRanked(List<?> entries) {
+        StringBuilder builder = new StringBuilder();
+        int rank = 1;
+        for (Object entry : entries) {
+            builder.append("\n\t").append(rank++).append(". ").append(entry);
+        }
+        return builder.toString();
+    }
+
     /**
      * Starts the JVM exception monitor if it's not already running.
      */
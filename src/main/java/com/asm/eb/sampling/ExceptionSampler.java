@@ -0,0 +1,98 @@
+package com.asm.eb.sampling;
+
+import com.asm.eb.capture.StackCapture;
+import com.asm.eb.logger.StackFingerprinter;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Decides whether the trace of an exception that passed the filters is written or sampled out.
+ * Each exception class has its own token bucket and all of them share a global ceiling. The first occurrence of
+ * every exception class, and optionally of every throw site, is always kept, and a random one-in-N sample keeps
+ * flowing while a storm is being rate limited. Every decision is lock-free.
+ * Sampling only affects what is written; StatsStore counting happens before it.
+ *
+ * @author asmishra
+ * @since 10/17/2026
+ */
+public class ExceptionSampler {
+    private final double perTypeRate;
+    private final TokenBucket globalBucket;
+    private final int keepOneIn;
+    private final SiteTable siteTable;
+
+    private final ClassValue<TypeState> typeStates = new ClassValue<TypeState>() {
+        @Override
+        protected TypeState computeValue(Class<?> type) {
+            return new TypeState(perTypeRate > 0 ? new TokenBucket(perTypeRate, System.nanoTime()) : null);
+        }
+    };
+
+    /**
+     * @param perTypeRate  Traces per second written for each exception class, 0 for no per-class limit.
+     * @param globalRate   Traces per second written across all classes, 0 for no global limit.
+     * @param keepOneIn    Keep one in this many rate-limited exceptions at random, 0 to drop them all.
+     * @param siteCapacity Number of throw sites remembered to keep their first occurrence, 0 to disable site tracking.
+     */
+    public ExceptionSampler(double perTypeRate, double globalRate, int keepOneIn, int siteCapacity) {
+        this.perTypeRate = perTypeRate;
+        this.globalBucket = globalRate > 0 ? new TokenBucket(globalRate, System.nanoTime()) : null;
+        this.keepOneIn = keepOneIn;
+        this.siteTable = siteCapacity > 0 ? new SiteTable(siteCapacity) : null;
+    }
+
+    /**
+     * Must be called on the thread constructing the throwable, from inside its constructor.
+     *
+     * @param throwable The freshly constructed throwable.
+     * @return true if its trace should be written.
+     */
+    public boolean shouldKeep(Throwable throwable) {
+        return shouldKeep(throwable, true);
+    }
+
+    /**
+     * @param throwable          The throwable being constructed or thrown.
+     * @param constructingThread true when called from inside the throwable's constructor, false at a throw site.
+     * @return true if its trace should be written.
+     */
+    public boolean shouldKeep(Throwable throwable, boolean constructingThread) {
+        TypeState state = typeStates.get(throwable.getClass());
+        if (!state.seen.get() && state.seen.compareAndSet(false, true)) {
+            return true;
+        }
+        long now = System.nanoTime();
+        if (state.bucket == null || state.bucket.tryAcquire(now)) {
+            if (globalBucket == null || globalBucket.tryAcquire(now)) {
+                return true;
+            }
+            //The global ceiling denied it, the class's permit goes back for a later exception of the class
+            if (state.bucket != null) {
+                state.bucket.release();
+            }
+        }
+        if (siteTable != null && isNewSite(throwable, constructingThread)) {
+            return true;
+        }
+        return keepOneIn > 0 && ThreadLocalRandom.current().nextInt(keepOneIn) == 0;
+    }
+
+    private boolean isNewSite(Throwable throwable, boolean constructingThread) {
+        // Only rate-limited exceptions get here; the walk stops after the top frame.
+        StackTraceElement[] top = StackCapture.capture(throwable, constructingThread, 1);
+        if (top.length == 0) {
+            return false;
+        }
+        return siteTable.add(StackFingerprinter.fingerprint(throwable.getClass().getName(), top));
+    }
+
+    private static final class TypeState {
+        private final TokenBucket bucket;
+        private final AtomicBoolean seen = new AtomicBoolean(false);
+
+        private TypeState(TokenBucket bucket) {
+            this.bucket = bucket;
+        }
+    }
+}
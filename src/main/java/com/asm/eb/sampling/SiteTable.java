@@ -0,0 +1,48 @@
+package com.asm.eb.sampling;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-size, insert-only, lock-free set of throw-site hashes.
+ * Once the table is full, new sites are no longer recognized as new.
+ *
+ * @author asmishra
+ * @since 10/17/2026
+ */
+final class SiteTable {
+    private static final int MAX_PROBES = 16;
+    private static final long EMPTY = 0L;
+
+    private final AtomicLongArray slots;
+    private final int mask;
+
+    SiteTable(int requestedCapacity) {
+        int capacity = Integer.highestOneBit(Math.max(2, requestedCapacity - 1)) << 1;
+        this.slots = new AtomicLongArray(capacity);
+        this.mask = capacity - 1;
+    }
+
+    /**
+     * @return true if the site was not present and has been added.
+     */
+    boolean add(long siteHash) {
+        long key = siteHash == EMPTY ? 1L : siteHash;
+        int index = (int) (key ^ (key >>> 32)) & mask;
+        for (int probe = 0; probe < MAX_PROBES; probe++) {
+            int slot = (index + probe) & mask;
+            long current = slots.get(slot);
+            if (current == key) {
+                return false;
+            }
+            if (current == EMPTY) {
+                if (slots.compareAndSet(slot, EMPTY, key)) {
+                    return true;
+                }
+                if (slots.get(slot) == key) {
+                    return false;
+                }
+            }
+        }
+        return false;
+    }
+}
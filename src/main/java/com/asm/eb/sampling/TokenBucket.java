@@ -0,0 +1,46 @@
+package com.asm.eb.sampling;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free rate limiter in the form of the generic cell rate algorithm: a single atomic "theoretical arrival time"
+ * replaces the token count and refill timestamp, so acquiring a permit is one CAS.
+ * The bucket holds one second worth of permits, i.e. bursts of up to {@code ratePerSecond} are allowed.
+ *
+ * @author asmishra
+ * @since 10/17/2026
+ */
+final class TokenBucket {
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private final long intervalNanos;
+    private final long capacityNanos;
+    private final AtomicLong theoreticalArrival;
+
+    TokenBucket(double ratePerSecond, long nowNanos) {
+        this.intervalNanos = Math.max(1L, (long) (NANOS_PER_SECOND / ratePerSecond));
+        this.capacityNanos = Math.max(intervalNanos, (long) Math.ceil(ratePerSecond) * intervalNanos);
+        this.theoreticalArrival = new AtomicLong(nowNanos);
+    }
+
+    boolean tryAcquire(long nowNanos) {
+        while (true) {
+            long arrival = theoreticalArrival.get();
+            long base = arrival - nowNanos > 0 ? arrival : nowNanos;
+            long next = base + intervalNanos;
+            if (next - nowNanos > capacityNanos) {
+                return false;
+            }
+            if (theoreticalArrival.compareAndSet(arrival, next)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Gives back a permit taken by {@link #tryAcquire(long)} that ended up unused.
+     */
+    void release() {
+        theoreticalArrival.addAndGet(-intervalNanos);
+    }
+}
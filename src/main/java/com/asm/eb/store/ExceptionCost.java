@@ -0,0 +1,64 @@
+package com.asm.eb.store;
+
+/**
+ * Snapshot of the stack capture cost of one exception type at one throw site, as reported by
+ * {@link ExceptionCostProfiler#report(int)}.
+ *
+ * @author asmishra
+ * @since 10/17/2026
+ */
+public final class ExceptionCost {
+    private final String exceptionClassName;
+    private final StackTraceElement frame;
+    private final long count;
+    private final long totalNanos;
+    private final long allocatedBytes;
+
+    ExceptionCost(String exceptionClassName, StackTraceElement frame, long count, long totalNanos, long allocatedBytes) {
+        this.exceptionClassName = exceptionClassName;
+        this.frame = frame;
+        this.count = count;
+        this.totalNanos = totalNanos;
+        this.allocatedBytes = allocatedBytes;
+    }
+
+    public String getExceptionClassName() {
+        return exceptionClassName;
+    }
+
+    /**
+     * @return The top application frame, or null if none was found within the inspected frames or for the
+     * entry collecting sites beyond the profiler's capacity.
+     */
+    public StackTraceElement getFrame() {
+        return frame;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * @return Wall time spent constructing java.lang.Throwable, which is dominated by filling in the stack trace.
+     */
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    /**
+     * @return Bytes allocated by the constructing threads meanwhile, -1 if the JVM cannot measure them.
+     */
+    public long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    @Override
+    public String toString() {
+        String cost = String.format(" n=%d total=%.1fms mean=%.1fus", count, totalNanos / 1_000_000.0,
+                count == 0 ? 0.0 : totalNanos / 1000.0 / count);
+        if (allocatedBytes >= 0) {
+            cost += " alloc=" + allocatedBytes + "B (" + (count == 0 ? 0 : allocatedBytes / count) + "B each)";
+        }
+        return exceptionClassName + " at " + (frame == null ? "<no application frame>" : frame) + cost;
+    }
+}
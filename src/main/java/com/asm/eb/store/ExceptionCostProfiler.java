@@ -0,0 +1,224 @@
+package com.asm.eb.store;
+
+import com.asm.eb.capture.FrameMatcher;
+import com.asm.eb.capture.StackCapture;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Measures what constructing each java.lang.Throwable costs, wall time and bytes allocated by the constructing
+ * thread, and aggregates it per exception type and throw site. The Throwable constructor calls {@link #start()} on
+ * entry and {@link #end(Throwable, long)} once it is done; in between it does little more than fill in the stack
+ * trace, which is why exceptions used for control flow are expensive.
+ * <p>
+ * A site is the exception class plus its top application frame, as for {@link ThrowSiteTracker}, but costs are
+ * summed exactly in a map bounded to {@code siteCapacity} sites; later sites are added up in one {@code <other>}
+ * entry. Allocation comes from the HotSpot {@code com.sun.management.ThreadMXBean} and is reported as -1 where
+ * that is not available.
+ *
+ * @author asmishra
+ * @since 10/17/2026
+ */
+public final class ExceptionCostProfiler {
+    private static final String OTHER_SITES = "<other>";
+
+    private final int topN;
+    private final int siteCapacity;
+    private final FrameMatcher skipMatcher;
+    private final com.sun.management.ThreadMXBean allocationBean; //null when allocation cannot be measured
+    private final Map<Long, SiteCost> sites = new ConcurrentHashMap<>();
+    private final SiteCost otherSites = new SiteCost(OTHER_SITES, null);
+    //Not withInitial: linking a lambda constructs throwables, which would call back into start() before it exists
+    private final ThreadLocal<Probe> probes = new ThreadLocal<Probe>() {
+        @Override
+        protected Probe initialValue() {
+            return new Probe();
+        }
+    };
+
+    /**
+     * @param topN         Number of entries reported.
+     * @param siteCapacity Number of distinct sites tracked individually.
+     * @param skipPrefixes Additional frame prefixes (e.g. framework packages) that are not application frames.
+     */
+    public ExceptionCostProfiler(int topN, int siteCapacity, Collection<String> skipPrefixes) {
+        this.topN = topN;
+        this.siteCapacity = siteCapacity;
+        this.skipMatcher = ThrowSiteTracker.skipMatcher(skipPrefixes);
+        this.allocationBean = allocationBean();
+    }
+
+    private static com.sun.management.ThreadMXBean allocationBean() {
+        try {
+            ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+            if (!(threadMXBean instanceof com.sun.management.ThreadMXBean)) {
+                return null;
+            }
+            com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) threadMXBean;
+            if (!bean.isThreadAllocatedMemorySupported()) {
+                return null;
+            }
+            if (!bean.isThreadAllocatedMemoryEnabled()) {
+                bean.setThreadAllocatedMemoryEnabled(true);
+            }
+            return bean;
+        } catch (RuntimeException | LinkageError e) {
+            //Not a HotSpot-derived JVM, or management is restricted
+            return null;
+        }
+    }
+
+    public boolean isMeasuringAllocation() {
+        return allocationBean != null;
+    }
+
+    /**
+     * Called on entry to a Throwable constructor, on the constructing thread.
+     */
+    public void start() {
+        Probe probe = probes.get();
+        if (probe.busy) {
+            return;
+        }
+        probe.busy = true;
+        try {
+            probe.active = true;
+            probe.startBytes = allocatedBytes();
+            probe.startNanos = System.nanoTime();
+        } finally {
+            probe.busy = false;
+        }
+    }
+
+    /**
+     * Called when the Throwable constructor is done, on the constructing thread.
+     *
+     * @param throwable The constructed throwable.
+     * @param endNanos  {@link System#nanoTime()} taken when the constructor finished.
+     */
+    public void end(Throwable throwable, long endNanos) {
+        Probe probe = probes.get();
+        if (probe.busy || !probe.active) {
+            //Created by the profiler itself, or started before profiling was enabled
+            return;
+        }
+        probe.busy = true;
+        try {
+            long bytes = allocationBean == null ? 0L : Math.max(0L, allocatedBytes() - probe.startBytes);
+            probe.active = false;
+            ThrowSiteTracker.SiteFinder finder = probe.siteFinder;
+            finder.reset(skipMatcher);
+            StackCapture.anyFrameMatches(throwable, true, ThrowSiteTracker.SEARCH_DEPTH, finder);
+            record(throwable.getClass().getName(), finder.className, finder.methodName, finder.fileName, finder.lineNumber,
+                    endNanos - probe.startNanos, bytes);
+        } finally {
+            probe.busy = false;
+        }
+    }
+
+    void record(String exceptionClassName, String className, String methodName, String fileName, int lineNumber,
+                long nanos, long bytes) {
+        long key = ThrowSiteTracker.siteKey(exceptionClassName, className, methodName, lineNumber);
+        SiteCost cost = sites.get(key);
+        if (cost == null) {
+            if (sites.size() < siteCapacity) {
+                StackTraceElement frame = className == null ? null : new StackTraceElement(className, methodName, fileName, lineNumber);
+                cost = sites.computeIfAbsent(key, k -> new SiteCost(exceptionClassName, frame));
+            } else {
+                cost = otherSites;
+            }
+        }
+        cost.count.increment();
+        cost.nanos.add(nanos);
+        cost.bytes.add(bytes);
+    }
+
+    private long allocatedBytes() {
+        return allocationBean == null ? 0L : allocationBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    /**
+     * Returns the costliest entries since the previous call, costliest first, and starts a new interval.
+     * Intended for a single periodic reporter.
+     */
+    public synchronized List<ExceptionCost> report() {
+        List<ExceptionCost> costs = new ArrayList<>();
+        for (SiteCost cost : allSites()) {
+            long count = cost.count.sum();
+            long nanos = cost.nanos.sum();
+            long bytes = cost.bytes.sum();
+            if (count > cost.lastCount) {
+                costs.add(cost.toCost(count - cost.lastCount, nanos - cost.lastNanos, bytes - cost.lastBytes));
+            }
+            cost.lastCount = count;
+            cost.lastNanos = nanos;
+            cost.lastBytes = bytes;
+        }
+        return top(costs);
+    }
+
+    /**
+     * Returns the costliest entries since profiling started, costliest first, without starting a new interval.
+     */
+    public List<ExceptionCost> snapshot() {
+        List<ExceptionCost> costs = new ArrayList<>();
+        for (SiteCost cost : allSites()) {
+            long count = cost.count.sum();
+            if (count > 0) {
+                costs.add(cost.toCost(count, cost.nanos.sum(), cost.bytes.sum()));
+            }
+        }
+        return top(costs);
+    }
+
+    private List<SiteCost> allSites() {
+        List<SiteCost> all = new ArrayList<>(sites.values());
+        all.add(otherSites);
+        return all;
+    }
+
+    private List<ExceptionCost> top(List<ExceptionCost> costs) {
+        costs.sort((first, second) -> Long.compare(second.getTotalNanos(), first.getTotalNanos()));
+        return costs.size() > topN ? new ArrayList<>(costs.subList(0, topN)) : costs;
+    }
+
+    private final class SiteCost {
+        private final String exceptionClassName;
+        private final StackTraceElement frame;
+        private final LongAdder count = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+        private final LongAdder bytes = new LongAdder();
+        //Only touched by the reporter, which is serialized
+        private long lastCount;
+        private long lastNanos;
+        private long lastBytes;
+
+        private SiteCost(String exceptionClassName, StackTraceElement frame) {
+            this.exceptionClassName = exceptionClassName;
+            this.frame = frame;
+        }
+
+        private ExceptionCost toCost(long count, long nanos, long bytes) {
+            return new ExceptionCost(exceptionClassName, frame, count, nanos, allocationBean == null ? -1L : bytes);
+        }
+    }
+
+    /**
+     * Start of the constructor running on this thread. Reused per thread.
+     */
+    private static final class Probe {
+        private final ThrowSiteTracker.SiteFinder siteFinder = new ThrowSiteTracker.SiteFinder();
+        //Set while the profiler runs, so throwables it constructs itself are not profiled
+        private boolean busy;
+        private boolean active;
+        private long startNanos;
+        private long startBytes;
+    }
+}
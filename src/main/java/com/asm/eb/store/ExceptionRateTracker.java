@@ -0,0 +1,101 @@
+package com.asm.eb.store;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Per-second exception counts over the last few minutes, for rates over sliding windows.
+ * Each stripe holds a ring of one-second buckets; a bucket packs the second it belongs to with its count in a single
+ * long, so moving a bucket to a new second and counting into it is one CAS and a stale count can never leak into the
+ * new second. Threads are spread over stripes to keep them off each other's cache lines, and readers only read.
+ *
+ * @author asmishra
+ * @since 10/17/2026
+ */
+public final class ExceptionRateTracker {
+    /**
+     * Longest window that can be queried, in seconds.
+     */
+    public static final int MAX_WINDOW_SECONDS = 300;
+
+    private static final int BUCKETS = 512;
+    private static final int BUCKET_MASK = BUCKETS - 1;
+    private static final int SECOND_BITS = 24;
+    private static final int COUNT_BITS = 64 - SECOND_BITS;
+    private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+    private static final long SECOND_MASK = (1L << SECOND_BITS) - 1;
+
+    private final AtomicLongArray buckets;
+    private final int stripeMask;
+    private final long startSecond;
+
+    public ExceptionRateTracker() {
+        this(System.currentTimeMillis());
+    }
+
+    ExceptionRateTracker(long startMillis) {
+        int stripes = Integer.highestOneBit(Math.max(1, Math.min(16, Runtime.getRuntime().availableProcessors() - 1))) << 1;
+        this.buckets = new AtomicLongArray(stripes * BUCKETS);
+        this.stripeMask = stripes - 1;
+        this.startSecond = startMillis / 1000L;
+    }
+
+    public void record() {
+        record(System.currentTimeMillis());
+    }
+
+    void record(long nowMillis) {
+        long second = nowMillis / 1000L;
+        int stripe = (int) mix(Thread.currentThread().getId()) & stripeMask;
+        int index = stripe * BUCKETS + (int) (second & BUCKET_MASK);
+        long stamp = second & SECOND_MASK;
+        while (true) {
+            long current = buckets.get(index);
+            long next = (current >>> COUNT_BITS) == stamp ? current + 1 : (stamp << COUNT_BITS) | 1L;
+            if (buckets.compareAndSet(index, current, next)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Average rate over the last {@code windowSeconds} complete seconds. The second in progress is excluded, and
+     * so is any time before tracking started, so a young JVM is not compared against seconds it never lived.
+     *
+     * @param windowSeconds Window length, between 1 and {@link #MAX_WINDOW_SECONDS}.
+     * @return Exceptions per second.
+     */
+    public double ratePerSecond(int windowSeconds) {
+        return ratePerSecond(windowSeconds, System.currentTimeMillis());
+    }
+
+    double ratePerSecond(int windowSeconds, long nowMillis) {
+        if (windowSeconds < 1 || windowSeconds > MAX_WINDOW_SECONDS) {
+            throw new IllegalArgumentException("Window must be between 1 and " + MAX_WINDOW_SECONDS + " seconds: " + windowSeconds);
+        }
+        long lastComplete = nowMillis / 1000L - 1;
+        long seconds = Math.min(windowSeconds, lastComplete - startSecond + 1);
+        if (seconds <= 0) {
+            return 0.0;
+        }
+        return (double) count(lastComplete - seconds + 1, lastComplete) / seconds;
+    }
+
+    private long count(long fromSecond, long toSecond) {
+        long total = 0;
+        for (long second = fromSecond; second <= toSecond; second++) {
+            long stamp = second & SECOND_MASK;
+            for (int stripe = 0; stripe <= stripeMask; stripe++) {
+                long bucket = buckets.get(stripe * BUCKETS + (int) (second & BUCKET_MASK));
+                if ((bucket >>> COUNT_BITS) == stamp) {
+                    total += bucket & COUNT_MASK;
+                }
+            }
+        }
+        return total;
+    }
+
+    private static long mix(long value) {
+        value = (value ^ (value >>> 33)) * 0xff51afd7ed558ccdL;
+        return value ^ (value >>> 33);
+    }
+}
@@ -0,0 +1,154 @@
+package com.asm.eb.store;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Log-linear histogram of durations in nanoseconds, in the style of HdrHistogram: each power of two is split into
+ * 8 linear sub-buckets, so a recorded value is off by at most 12.5% and the whole range up to about a minute fits in
+ * 272 counters. Recording is a single atomic increment in the recording thread's stripe and never locks; readers sum
+ * the stripes into a {@link Snapshot}.
+ *
+ * @author asmishra
+ * @since 10/17/2026
+ */
+public final class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_MAGNITUDE = 35;
+    private static final long MAX_VALUE = (1L << (MAX_MAGNITUDE + 1)) - 1;
+    static final int BUCKETS = (MAX_MAGNITUDE - SUB_BUCKET_BITS + 2) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts;
+    private final LongAdder totalNanos = new LongAdder();
+    private final int stripeMask;
+
+    public LatencyHistogram() {
+        int stripes = Integer.highestOneBit(Math.max(1, Math.min(16, Runtime.getRuntime().availableProcessors() - 1))) << 1;
+        this.counts = new AtomicLongArray(stripes * BUCKETS);
+        this.stripeMask = stripes - 1;
+    }
+
+    /**
+     * @param nanos The duration; negative values count as 0 and values above about a minute as the largest bucket.
+     */
+    public void record(long nanos) {
+        int stripe = (int) mix(Thread.currentThread().getId()) & stripeMask;
+        counts.getAndIncrement(stripe * BUCKETS + bucketIndex(nanos));
+        totalNanos.add(Math.max(0L, nanos));
+    }
+
+    public Snapshot snapshot() {
+        long[] merged = new long[BUCKETS];
+        for (int stripe = 0; stripe <= stripeMask; stripe++) {
+            int offset = stripe * BUCKETS;
+            for (int bucket = 0; bucket < BUCKETS; bucket++) {
+                merged[bucket] += counts.get(offset + bucket);
+            }
+        }
+        return new Snapshot(merged, totalNanos.sum());
+    }
+
+    static int bucketIndex(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) Math.max(0L, value);
+        }
+        value = Math.min(value, MAX_VALUE);
+        int magnitude = 63 - Long.numberOfLeadingZeros(value);
+        return (magnitude - SUB_BUCKET_BITS + 1) * SUB_BUCKETS
+                + (int) ((value >>> (magnitude - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1));
+    }
+
+    //Highest value that falls into the bucket, reported for percentiles so they never understate
+    static long highestValue(int index) {
+        int group = index >>> SUB_BUCKET_BITS;
+        if (group == 0) {
+            return index;
+        }
+        long lowest = (long) (SUB_BUCKETS + (index & (SUB_BUCKETS - 1))) << (group - 1);
+        return lowest + (1L << (group - 1)) - 1;
+    }
+
+    private static long mix(long value) {
+        value = (value ^ (value >>> 33)) * 0xff51afd7ed558ccdL;
+        return value ^ (value >>> 33);
+    }
+
+    /**
+     * Immutable bucket counts at one point in time.
+     */
+    public static final class Snapshot {
+        private final long[] counts;
+        private final long count;
+        private final long totalNanos;
+
+        private Snapshot(long[] counts, long totalNanos) {
+            this.counts = counts;
+            long sum = 0;
+            for (long bucket : counts) {
+                sum += bucket;
+            }
+            this.count = sum;
+            this.totalNanos = totalNanos;
+        }
+
+        /**
+         * @param earlier A snapshot of the same histogram taken before this one.
+         * @return What was recorded between the two snapshots.
+         */
+        public Snapshot since(Snapshot earlier) {
+            long[] delta = new long[BUCKETS];
+            for (int i = 0; i < BUCKETS; i++) {
+                delta[i] = Math.max(0L, counts[i] - earlier.counts[i]);
+            }
+            return new Snapshot(delta, Math.max(0L, totalNanos - earlier.totalNanos));
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getTotalNanos() {
+            return totalNanos;
+        }
+
+        public double getMeanNanos() {
+            return count == 0 ? 0.0 : (double) totalNanos / count;
+        }
+
+        /**
+         * @param percentile Between 0 and 100.
+         * @return The smallest bucket bound that at least {@code percentile}% of the values are at or below, 0 when empty.
+         */
+        public long valueAtPercentile(double percentile) {
+            if (count == 0) {
+                return 0L;
+            }
+            long rank = Math.max(1L, (long) Math.ceil(Math.min(100.0, Math.max(0.0, percentile)) / 100.0 * count));
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return highestValue(i);
+                }
+            }
+            return highestValue(BUCKETS - 1);
+        }
+
+        public long getMaxNanos() {
+            for (int i = BUCKETS - 1; i >= 0; i--) {
+                if (counts[i] > 0) {
+                    return highestValue(i);
+                }
+            }
+            return 0L;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("n=%d mean=%.1fus p50=%.1fus p99=%.1fus p99.9=%.1fus max=%.1fus", count,
+                    getMeanNanos() / 1000.0, valueAtPercentile(50) / 1000.0, valueAtPercentile(99) / 1000.0,
+                    valueAtPercentile(99.9) / 1000.0, getMaxNanos() / 1000.0);
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package com.asm.eb.store;
+
+import com.asm.eb.capture.FrameMatcher;
+import com.asm.eb.capture.StackCapture;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Decides, on entry to java.lang.Throwable.fillInStackTrace(), whether the stack of a known hot exception is
+ * captured at all. Exceptions of the configured classes, or thrown from a site under one of the configured
+ * prefixes, get no frames or only their top {@code maxFrames} frames instead of the native full capture.
+ * They are still constructed, counted and logged as usual.
+ * <p>
+ * To report what that saves, the first suppressed exception of every rule and then one in {@value #SAMPLE_ONE_IN}
+ * also pay for a full capture, which is timed and thrown away. The saving is the number suppressed times the
+ * difference between the mean full capture and the mean suppressed capture.
+ * <p>
+ * Throw sites and truncated traces are taken from the live stack, which needs the StackWalker engine; with the
+ * Throwable-based engine only class rules that keep no frames apply.
+ *
+ * @author asmishra
+ * @since 10/17/2026
+ */
+public final class StackSuppressor {
+    static final int SAMPLE_ONE_IN = 256;
+    private static final StackTraceElement[] NO_FRAMES = new StackTraceElement[0];
+
+    private final int maxFrames;
+    private final boolean walksLiveStack;
+    private final Map<String, Rule> classRules;
+    private final Rule[] siteRules;
+    private final FrameMatcher skipMatcher;
+    //Not withInitial: linking a lambda constructs throwables, which would call back into capture() before it exists
+    private final ThreadLocal<Probe> probes = new ThreadLocal<Probe>() {
+        @Override
+        protected Probe initialValue() {
+            return new Probe();
+        }
+    };
+
+    /**
+     * @param classNames   Exception classes, matched exactly, whose stack capture is suppressed.
+     * @param sitePrefixes Prefixes of {@code className.methodName} of the throw site whose exceptions are suppressed.
+     * @param maxFrames    Frames kept for a suppressed exception, 0 for none.
+     * @param skipPrefixes Additional frame prefixes (e.g. framework packages) that are not application frames.
+     */
+    public StackSuppressor(Collection<String> classNames, Collection<String> sitePrefixes, int maxFrames,
+                           Collection<String> skipPrefixes) {
+        this(classNames, sitePrefixes, maxFrames, skipPrefixes, StackCapture.walksLiveStack());
+    }
+
+    StackSuppressor(Collection<String> classNames, Collection<String> sitePrefixes, int maxFrames,
+                    Collection<String> skipPrefixes, boolean walksLiveStack) {
+        this.maxFrames = maxFrames;
+        this.walksLiveStack = walksLiveStack;
+        this.classRules = new HashMap<>();
+        for (String className : classNames == null ? Collections.<String>emptyList() : classNames) {
+            classRules.put(className, new Rule(className));
+        }
+        List<Rule> sites = new ArrayList<>();
+        for (String prefix : sitePrefixes == null ? Collections.<String>emptyList() : sitePrefixes) {
+            sites.add(new Rule(prefix));
+        }
+        this.siteRules = sites.toArray(new Rule[0]);
+        this.skipMatcher = ThrowSiteTracker.skipMatcher(skipPrefixes);
+    }
+
+    /**
+     * @return false if no configured rule can take effect with the capture engine in use.
+     */
+    public boolean isEffective() {
+        return walksLiveStack || (maxFrames == 0 && !classRules.isEmpty());
+    }
+
+    /**
+     * Called on entry to Throwable.fillInStackTrace(), on the thread filling it in.
+     *
+     * @param throwable The throwable being filled in.
+     * @return true to let the native capture proceed, false if the stack trace has already been set.
+     */
+    public boolean capture(Throwable throwable) {
+        if (!walksLiveStack && maxFrames > 0) {
+            return true;
+        }
+        Rule rule = classRules.get(throwable.getClass().getName());
+        if (rule == null && (siteRules.length == 0 || !walksLiveStack)) {
+            return true;
+        }
+        Probe probe = probes.get();
+        if (probe.busy) {
+            //Filled in by the suppressor itself, or the timed full capture
+            return true;
+        }
+        probe.busy = true;
+        try {
+            if (rule == null) {
+                rule = matchSite(throwable, probe);
+                if (rule == null) {
+                    return true;
+                }
+            }
+            suppress(throwable, rule);
+            return false;
+        } finally {
+            probe.busy = false;
+        }
+    }
+
+    private Rule matchSite(Throwable throwable, Probe probe) {
+        ThrowSiteTracker.SiteFinder finder = probe.siteFinder;
+        finder.reset(skipMatcher);
+        if (!StackCapture.anyFrameMatches(throwable, true, ThrowSiteTracker.SEARCH_DEPTH, finder)) {
+            return null;
+        }
+        String site = finder.className + '.' + finder.methodName;
+        for (Rule rule : siteRules) {
+            if (site.startsWith(rule.name)) {
+                return rule;
+            }
+        }
+        return null;
+    }
+
+    private void suppress(Throwable throwable, Rule rule) {
+        if (!rule.sampled || ThreadLocalRandom.current().nextInt(SAMPLE_ONE_IN) == 0) {
+            rule.sampled = true;
+            long start = System.nanoTime();
+            //Reenters fillInStackTrace(), which finds this thread busy and captures natively
+            throwable.fillInStackTrace();
+            rule.record(rule.fullCount, rule.fullNanos, System.nanoTime() - start);
+        }
+        long start = System.nanoTime();
+        throwable.setStackTrace(maxFrames == 0 ? NO_FRAMES : StackCapture.capture(throwable, true, maxFrames));
+        rule.record(rule.suppressedCount, rule.suppressedNanos, System.nanoTime() - start);
+    }
+
+    /**
+     * Returns the rules that suppressed anything since the previous call, largest saving first, and starts a new
+     * interval. Intended for a single periodic reporter.
+     */
+    public synchronized List<SuppressionSavings> report() {
+        List<SuppressionSavings> savings = new ArrayList<>();
+        for (Rule rule : allRules()) {
+            long count = rule.suppressedCount.sum();
+            long nanos = rule.suppressedNanos.sum();
+            if (count > rule.lastCount) {
+                savings.add(rule.toSavings(count - rule.lastCount, nanos - rule.lastNanos));
+            }
+            rule.lastCount = count;
+            rule.lastNanos = nanos;
+        }
+        return sorted(savings);
+    }
+
+    /**
+     * Returns what every rule saved since suppression started, largest saving first.
+     */
+    public List<SuppressionSavings> snapshot() {
+        List<SuppressionSavings> savings = new ArrayList<>();
+        for (Rule rule : allRules()) {
+            long count = rule.suppressedCount.sum();
+            if (count > 0) {
+                savings.add(rule.toSavings(count, rule.suppressedNanos.sum()));
+            }
+        }
+        return sorted(savings);
+    }
+
+    private List<Rule> allRules() {
+        List<Rule> all = new ArrayList<>(classRules.values());
+        Collections.addAll(all, siteRules);
+        return all;
+    }
+
+    private static List<SuppressionSavings> sorted(List<SuppressionSavings> savings) {
+        savings.sort((first, second) -> Long.compare(second.getSavedNanos(), first.getSavedNanos()));
+        return savings;
+    }
+
+    private static final class Rule {
+        private final String name;
+        private final LongAdder suppressedCount = new LongAdder();
+        private final LongAdder suppressedNanos = new LongAdder();
+        private final LongAdder fullCount = new LongAdder();
+        private final LongAdder fullNanos = new LongAdder();
+        //Racy on purpose: a lost update only costs an extra full capture
+        private boolean sampled;
+        //Only touched by the reporter, which is serialized
+        private long lastCount;
+        private long lastNanos;
+
+        private Rule(String name) {
+            this.name = name;
+        }
+
+        private void record(LongAdder count, LongAdder nanos, long elapsed) {
+            count.increment();
+            nanos.add(elapsed);
+        }
+
+        private SuppressionSavings toSavings(long count, long nanos) {
+            long samples = fullCount.sum();
+            long fullMeanNanos = samples == 0 ? -1L : fullNanos.sum() / samples;
+            return new SuppressionSavings(name, count, nanos, samples, fullMeanNanos);
+        }
+    }
+
+    /**
+     * Per-thread state, reused.
+     */
+    private static final class Probe {
+        private final ThrowSiteTracker.SiteFinder siteFinder = new ThrowSiteTracker.SiteFinder();
+        //Set while the suppressor runs, so throwables it fills in itself are captured normally
+        private boolean busy;
+    }
+}
@@ -1,8 +1,12 @@
 package com.asm.eb.store;
 
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Thread-safe store for tracking exception counts.
@@ -14,9 +18,124 @@ import java.util.concurrent.atomic.AtomicLong;
 public class StatsStore {
     private static final AtomicLong totalExceptionCount = new AtomicLong(0);
     private static final Map<String, AtomicLong> criticalExceptionStats = new ConcurrentHashMap<>();
+    //Updated by many throwing threads at once when the async ring overflows, hence striped
+    private static final LongAdder droppedEventCount = new LongAdder();
+    private static final LongAdder sampledOutEventCount = new LongAdder();
+    private static final LongAdder rateLimitedEventCount = new LongAdder();
+    private static final LongAdder exportedRecordCount = new LongAdder();
+    private static final LongAdder exportDatagramCount = new LongAdder();
+    private static final LongAdder exportDroppedCount = new LongAdder();
+    //Bounded so that generated exception classes cannot grow it without limit, later types are counted as OTHER_TYPES
+    private static final int MAX_TRACKED_TYPES = 1024;
+    private static final String OTHER_TYPES = "<other>";
+    private static final Map<String, LongAdder> exceptionCountsByType = new ConcurrentHashMap<>();
+    private static final LongAdder hookInvocationCount = new LongAdder();
+    private static final LongAdder hookTimeNanos = new LongAdder();
+    //Agent self-instrumentation, always on: recording is one striped increment
+    private static final LatencyHistogram logExceptionLatency = new LatencyHistogram();
+    private static final LatencyHistogram logClassLoadingLatency = new LatencyHistogram();
+    private static final LatencyHistogram lockWaitLatency = new LatencyHistogram();
+    private static final LongAdder bytesWritten = new LongAdder();
+    private static final LongAdder flushCount = new LongAdder();
+    private static final ExceptionRateTracker exceptionRates = new ExceptionRateTracker();
+    private static volatile ThrowSiteTracker throwSiteTracker; //null unless throw-site tracking is enabled
+    private static volatile ExceptionCostProfiler costProfiler; //null unless cost profiling is enabled
+    private static volatile StackSuppressor stackSuppressor; //null unless stack suppression is configured
 
     public static void incrementExceptionCount() {
         totalExceptionCount.incrementAndGet();
+        exceptionRates.record();
+    }
+
+    /**
+     * Counts an exception by its class name. A plain get() serves existing types, so counting never locks
+     * once a type has been seen.
+     */
+    public static void incrementExceptionTypeCount(String exceptionType) {
+        LongAdder counter = exceptionCountsByType.get(exceptionType);
+        if (counter == null) {
+            String key = exceptionCountsByType.size() < MAX_TRACKED_TYPES ? exceptionType : OTHER_TYPES;
+            counter = exceptionCountsByType.computeIfAbsent(key, type -> new LongAdder());
+        }
+        counter.increment();
+    }
+
+    public static Map<String, Long> getExceptionCountsByType() {
+        Map<String, Long> snapshot = new HashMap<>();
+        for (Map.Entry<String, LongAdder> entry : exceptionCountsByType.entrySet()) {
+            snapshot.put(entry.getKey(), entry.getValue().sum());
+        }
+        return snapshot;
+    }
+
+    /**
+     * Records the time one Throwable constructor spent inside the agent.
+     */
+    public static void recordHookTime(long nanos) {
+        hookInvocationCount.increment();
+        hookTimeNanos.add(nanos);
+        logExceptionLatency.record(nanos);
+    }
+
+    /**
+     * Records the time one class-loading event spent in ExceptionLogger.logClassLoading.
+     */
+    public static void recordClassLoadingTime(long nanos) {
+        logClassLoadingLatency.record(nanos);
+    }
+
+    /**
+     * Records how long a thread waited for the logger's write lock, 0 when it was free.
+     */
+    public static void recordLockWait(long nanos) {
+        lockWaitLatency.record(nanos);
+    }
+
+    /**
+     * Records one flush of the log and the bytes written since the previous one.
+     */
+    public static void recordFlush(long bytes) {
+        flushCount.increment();
+        bytesWritten.add(bytes);
+    }
+
+    /**
+     * @return Time spent in ExceptionLogger.logException per Throwable constructor, since the agent started.
+     */
+    public static LatencyHistogram.Snapshot getLogExceptionLatency() {
+        return logExceptionLatency.snapshot();
+    }
+
+    public static LatencyHistogram.Snapshot getLogClassLoadingLatency() {
+        return logClassLoadingLatency.snapshot();
+    }
+
+    public static LatencyHistogram.Snapshot getLockWaitLatency() {
+        return lockWaitLatency.snapshot();
+    }
+
+    public static long getBytesWritten() {
+        return bytesWritten.sum();
+    }
+
+    public static long getFlushCount() {
+        return flushCount.sum();
+    }
+
+    public static long getHookInvocationCount() {
+        return hookInvocationCount.sum();
+    }
+
+    public static long getHookTimeNanos() {
+        return hookTimeNanos.sum();
+    }
+
+    /**
+     * @param windowSeconds Window length, up to {@link ExceptionRateTracker#MAX_WINDOW_SECONDS}.
+     * @return Exceptions per second over the last {@code windowSeconds} complete seconds.
+     */
+    public static double getExceptionRate(int windowSeconds) {
+        return exceptionRates.ratePerSecond(windowSeconds);
     }
 
     public static long getExceptionCount() {
@@ -34,4 +153,122 @@ public class StatsStore {
         }
         return snapshot;
     }
+
+    public static void incrementDroppedEventCount() {
+        droppedEventCount.increment();
+    }
+
+    public static long getDroppedEventCount() {
+        return droppedEventCount.sum();
+    }
+
+    public static void incrementSampledOutEventCount() {
+        sampledOutEventCount.increment();
+    }
+
+    public static long getSampledOutEventCount() {
+        return sampledOutEventCount.sum();
+    }
+
+    public static void incrementRateLimitedEventCount() {
+        rateLimitedEventCount.increment();
+    }
+
+    public static long getRateLimitedEventCount() {
+        return rateLimitedEventCount.sum();
+    }
+
+    /**
+     * Counts a datagram sent to the node collector.
+     *
+     * @param records Trace and count records it carried.
+     */
+    public static void recordExportDatagram(int records) {
+        exportDatagramCount.increment();
+        exportedRecordCount.add(records);
+    }
+
+    public static long getExportDatagramCount() {
+        return exportDatagramCount.sum();
+    }
+
+    public static long getExportedRecordCount() {
+        return exportedRecordCount.sum();
+    }
+
+    /**
+     * Counts events or records the exporter could not hand to the node collector.
+     */
+    public static void incrementExportDroppedCount(long count) {
+        exportDroppedCount.add(count);
+    }
+
+    public static long getExportDroppedCount() {
+        return exportDroppedCount.sum();
+    }
+
+    public static void enableThrowSiteTracking(ThrowSiteTracker tracker) {
+        throwSiteTracker = tracker;
+    }
+
+    public static boolean isThrowSiteTrackingEnabled() {
+        return throwSiteTracker != null;
+    }
+
+    /**
+     * Counts the throwable against its throw site. Must be called on the thread constructing the throwable.
+     */
+    public static void recordThrowSite(Throwable throwable) {
+        recordThrowSite(throwable, true);
+    }
+
+    /**
+     * Counts the throwable against its throw site.
+     *
+     * @param constructingThread true when called from inside the throwable's constructor, false at a throw site.
+     */
+    public static void recordThrowSite(Throwable throwable, boolean constructingThread) {
+        ThrowSiteTracker tracker = throwSiteTracker;
+        if (tracker != null) {
+            tracker.record(throwable, constructingThread);
+        }
+    }
+
+    /**
+     * @return The heaviest throw sites, heaviest first, without marking them as reported.
+     */
+    public static List<ThrowSite> getTopThrowSites() {
+        ThrowSiteTracker tracker = throwSiteTracker;
+        return tracker == null ? Collections.<ThrowSite>emptyList() : tracker.snapshot(tracker.getTopK());
+    }
+
+    /**
+     * @return The heaviest throw sites, heaviest first, with the increase since the previous call.
+     */
+    public static List<ThrowSite> reportTopThrowSites() {
+        ThrowSiteTracker tracker = throwSiteTracker;
+        return tracker == null ? Collections.<ThrowSite>emptyList() : tracker.report(tracker.getTopK());
+    }
+
+    public static void enableCostProfiling(ExceptionCostProfiler profiler) {
+        costProfiler = profiler;
+    }
+
+    /**
+     * @return The cost profiler, null unless cost profiling is enabled.
+     */
+    public static ExceptionCostProfiler getCostProfiler() {
+        return costProfiler;
+    }
+
+    public static void enableStackSuppression(StackSuppressor suppressor) {
+        stackSuppressor = suppressor;
+    }
+
+    /**
+     * @return The stack suppressor, null unless stack suppression is configured.
+     */
+    public static StackSuppressor getStackSuppressor() {
+        return stackSuppressor;
+    }
 }
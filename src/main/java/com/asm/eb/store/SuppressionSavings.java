@@ -0,0 +1,71 @@
+package com.asm.eb.store;
+
+/**
+ * Snapshot of the stack capture time saved by one stack suppression rule, as reported by
+ * {@link StackSuppressor#report()}.
+ *
+ * @author asmishra
+ * @since 10/17/2026
+ */
+public final class SuppressionSavings {
+    private final String rule;
+    private final long suppressedCount;
+    private final long suppressedNanos;
+    private final long fullCaptureSamples;
+    private final long fullCaptureMeanNanos;
+
+    SuppressionSavings(String rule, long suppressedCount, long suppressedNanos, long fullCaptureSamples,
+                       long fullCaptureMeanNanos) {
+        this.rule = rule;
+        this.suppressedCount = suppressedCount;
+        this.suppressedNanos = suppressedNanos;
+        this.fullCaptureSamples = fullCaptureSamples;
+        this.fullCaptureMeanNanos = fullCaptureMeanNanos;
+    }
+
+    /**
+     * @return The exception class name or throw-site prefix of the rule.
+     */
+    public String getRule() {
+        return rule;
+    }
+
+    public long getSuppressedCount() {
+        return suppressedCount;
+    }
+
+    /**
+     * @return Time spent on the suppressed captures themselves, including truncated walks.
+     */
+    public long getSuppressedNanos() {
+        return suppressedNanos;
+    }
+
+    public long getFullCaptureSamples() {
+        return fullCaptureSamples;
+    }
+
+    /**
+     * @return Mean time of the sampled full captures since suppression started, -1 if none was sampled yet.
+     */
+    public long getFullCaptureMeanNanos() {
+        return fullCaptureMeanNanos;
+    }
+
+    /**
+     * @return Estimated capture time saved, 0 while no full capture has been sampled.
+     */
+    public long getSavedNanos() {
+        if (fullCaptureMeanNanos < 0) {
+            return 0L;
+        }
+        return Math.max(0L, fullCaptureMeanNanos * suppressedCount - suppressedNanos);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s n=%d saved~%.1fms (full capture %.1fus over %d samples, suppressed %.1fus)", rule,
+                suppressedCount, getSavedNanos() / 1_000_000.0, fullCaptureMeanNanos / 1000.0, fullCaptureSamples,
+                suppressedCount == 0 ? 0.0 : suppressedNanos / 1000.0 / suppressedCount);
+    }
+}
@@ -0,0 +1,49 @@
+package com.asm.eb.store;
+
+/**
+ * Snapshot of one heavy-hitter throw site, as reported by {@link ThrowSiteTracker#report(int)}.
+ *
+ * @author asmishra
+ * @since 10/17/2026
+ */
+public final class ThrowSite {
+    private final String exceptionClassName;
+    private final StackTraceElement frame;
+    private final long count;
+    private final long countSinceLastReport;
+
+    ThrowSite(String exceptionClassName, StackTraceElement frame, long count, long countSinceLastReport) {
+        this.exceptionClassName = exceptionClassName;
+        this.frame = frame;
+        this.count = count;
+        this.countSinceLastReport = countSinceLastReport;
+    }
+
+    public String getExceptionClassName() {
+        return exceptionClassName;
+    }
+
+    /**
+     * @return The top application frame, or null if none was found within the inspected frames.
+     */
+    public StackTraceElement getFrame() {
+        return frame;
+    }
+
+    /**
+     * @return Approximate number of exceptions thrown at this site since tracking started, never an undercount.
+     */
+    public long getCount() {
+        return count;
+    }
+
+    public long getCountSinceLastReport() {
+        return countSinceLastReport;
+    }
+
+    @Override
+    public String toString() {
+        return exceptionClassName + " at " + (frame == null ? "<no application frame>" : frame)
+                + " ~" + count + " (+" + countSinceLastReport + ")";
+    }
+}
@@ -0,0 +1,256 @@
+package com.asm.eb.store;
+
+import com.asm.eb.capture.FrameMatcher;
+import com.asm.eb.capture.FramePredicate;
+import com.asm.eb.capture.StackCapture;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded-memory heavy-hitter tracking of throw sites, a site being an exception class plus the top application frame.
+ * Counts live in a Count-Min sketch, so they may overestimate but never underestimate. Candidates for the top K are
+ * kept in a small slot array; a site only competes for a slot once its estimate exceeds the smallest estimate held, so
+ * the common case is four atomic increments. Everything is lock-free and safe to call from the throwing thread.
+ *
+ * @author asmishra
+ * @since 10/17/2026
+ */
+public final class ThrowSiteTracker {
+    private static final int DEPTH = 4;
+    private static final long[] ROW_SEEDS = {0x9E3779B97F4A7C15L, 0xC2B2AE3D27D4EB4FL, 0x165667B19E3779F9L, 0xD6E8FEB86659FD93L};
+    //Frames inspected while looking for the first application frame
+    static final int SEARCH_DEPTH = 64;
+    private static final List<String> DEFAULT_SKIP_PREFIXES = Arrays.asList("java.", "javax.", "jdk.", "sun.", "com.sun.");
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final int topK;
+    private final AtomicLongArray counters;
+    private final int widthMask;
+    private final AtomicReferenceArray<Candidate> slots;
+    private final FrameMatcher skipMatcher;
+    private final ThreadLocal<SiteFinder> siteFinders = ThreadLocal.withInitial(SiteFinder::new);
+    //Smallest estimate held by a slot when last computed; estimates only grow, so it stays a lower bound
+    private volatile long admissionThreshold;
+
+    /**
+     * @param topK          Number of sites reported. Twice as many candidates are kept to absorb churn at the boundary.
+     * @param sketchWidth   Counters per sketch row, rounded up to a power of two.
+     * @param skipPrefixes  Additional frame prefixes (e.g. framework packages) that are not application frames.
+     */
+    public ThrowSiteTracker(int topK, int sketchWidth, Collection<String> skipPrefixes) {
+        int width = Integer.highestOneBit(Math.max(2, sketchWidth - 1)) << 1;
+        this.topK = topK;
+        this.counters = new AtomicLongArray(DEPTH * width);
+        this.widthMask = width - 1;
+        this.slots = new AtomicReferenceArray<>(topK * 2);
+        this.skipMatcher = skipMatcher(skipPrefixes);
+    }
+
+    /**
+     * @return A matcher for the frames that are not application frames: the JDK's plus the given prefixes.
+     */
+    static FrameMatcher skipMatcher(Collection<String> skipPrefixes) {
+        Set<String> prefixes = new HashSet<>(DEFAULT_SKIP_PREFIXES);
+        if (skipPrefixes != null) {
+            prefixes.addAll(skipPrefixes);
+        }
+        return FrameMatcher.prefixes(prefixes);
+    }
+
+    /**
+     * Counts the throwable against its throw site. Must be called on the thread constructing the throwable.
+     */
+    public void record(Throwable throwable) {
+        record(throwable, true);
+    }
+
+    /**
+     * @param throwable          The throwable being constructed or thrown.
+     * @param constructingThread true when called from inside the throwable's constructor, false at a throw site.
+     */
+    public void record(Throwable throwable, boolean constructingThread) {
+        SiteFinder finder = siteFinders.get();
+        finder.reset(skipMatcher);
+        StackCapture.anyFrameMatches(throwable, constructingThread, SEARCH_DEPTH, finder);
+        String exceptionClassName = throwable.getClass().getName();
+        record(exceptionClassName, finder.className, finder.methodName, finder.fileName, finder.lineNumber);
+    }
+
+    void record(String exceptionClassName, String className, String methodName, String fileName, int lineNumber) {
+        long key = siteKey(exceptionClassName, className, methodName, lineNumber);
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < DEPTH; row++) {
+            estimate = Math.min(estimate, counters.incrementAndGet(index(row, key)));
+        }
+        if (estimate <= admissionThreshold) {
+            return;
+        }
+        int minimumSlot = -1;
+        long minimumEstimate = Long.MAX_VALUE;
+        for (int slot = 0; slot < slots.length(); slot++) {
+            Candidate candidate = slots.get(slot);
+            if (candidate == null) {
+                minimumSlot = slot;
+                minimumEstimate = 0;
+                break;
+            }
+            if (candidate.key == key) {
+                return;
+            }
+            long candidateEstimate = estimate(candidate.key);
+            if (candidateEstimate < minimumEstimate) {
+                minimumSlot = slot;
+                minimumEstimate = candidateEstimate;
+            }
+        }
+        if (estimate > minimumEstimate) {
+            Candidate current = slots.get(minimumSlot);
+            StackTraceElement frame = className == null ? null : new StackTraceElement(className, methodName, fileName, lineNumber);
+            slots.compareAndSet(minimumSlot, current, new Candidate(key, exceptionClassName, frame));
+            admissionThreshold = smallestSlotEstimate();
+        } else {
+            admissionThreshold = minimumEstimate;
+        }
+    }
+
+    /**
+     * Returns the heaviest sites, heaviest first, and remembers their counts so the next report can show the increase.
+     * Intended for a single periodic reporter.
+     *
+     * @param limit Maximum number of sites, capped at the configured top K.
+     */
+    public List<ThrowSite> report(int limit) {
+        return top(limit, true);
+    }
+
+    /**
+     * Returns the heaviest sites, heaviest first, without affecting what the next {@link #report(int)} shows as increase.
+     */
+    public List<ThrowSite> snapshot(int limit) {
+        return top(limit, false);
+    }
+
+    private synchronized List<ThrowSite> top(int limit, boolean markReported) {
+        List<Candidate> candidates = new ArrayList<>();
+        Set<Long> keys = new HashSet<>();
+        for (int slot = 0; slot < slots.length(); slot++) {
+            Candidate candidate = slots.get(slot);
+            if (candidate != null && keys.add(candidate.key)) {
+                candidate.estimate = estimate(candidate.key);
+                candidates.add(candidate);
+            }
+        }
+        candidates.sort((first, second) -> Long.compare(second.estimate, first.estimate));
+        List<ThrowSite> sites = new ArrayList<>();
+        for (Candidate candidate : candidates.subList(0, Math.min(Math.min(limit, topK), candidates.size()))) {
+            sites.add(new ThrowSite(candidate.exceptionClassName, candidate.frame, candidate.estimate,
+                    candidate.estimate - candidate.lastReported));
+            if (markReported) {
+                candidate.lastReported = candidate.estimate;
+            }
+        }
+        return sites;
+    }
+
+    public int getTopK() {
+        return topK;
+    }
+
+    private long smallestSlotEstimate() {
+        long smallest = Long.MAX_VALUE;
+        for (int slot = 0; slot < slots.length(); slot++) {
+            Candidate candidate = slots.get(slot);
+            if (candidate == null) {
+                return 0;
+            }
+            smallest = Math.min(smallest, estimate(candidate.key));
+        }
+        return smallest;
+    }
+
+    private long estimate(long key) {
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < DEPTH; row++) {
+            estimate = Math.min(estimate, counters.get(index(row, key)));
+        }
+        return estimate;
+    }
+
+    private int index(int row, long key) {
+        long hash = (key ^ ROW_SEEDS[row]) * 0xBF58476D1CE4E5B9L;
+        hash ^= hash >>> 31;
+        return row * (widthMask + 1) + ((int) hash & widthMask);
+    }
+
+    static long siteKey(String exceptionClassName, String className, String methodName, int lineNumber) {
+        long hash = hash(FNV_OFFSET_BASIS, exceptionClassName);
+        hash = hash(hash, className);
+        hash = hash(hash, methodName);
+        return (hash ^ lineNumber) * FNV_PRIME;
+    }
+
+    private static long hash(long hash, String value) {
+        if (value == null) {
+            return hash * FNV_PRIME;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= FNV_PRIME;
+        }
+        return hash;
+    }
+
+    private static final class Candidate {
+        private final long key;
+        private final String exceptionClassName;
+        private final StackTraceElement frame;
+        //Only touched by readers, which are serialized
+        private long estimate;
+        private long lastReported;
+
+        private Candidate(long key, String exceptionClassName, StackTraceElement frame) {
+            this.key = key;
+            this.exceptionClassName = exceptionClassName;
+            this.frame = frame;
+        }
+    }
+
+    /**
+     * Remembers the first frame that is not skipped and stops the walk there. Reused per thread.
+     */
+    static final class SiteFinder implements FramePredicate {
+        private FrameMatcher skipMatcher;
+        String className;
+        String methodName;
+        String fileName;
+        int lineNumber;
+
+        void reset(FrameMatcher skipMatcher) {
+            this.skipMatcher = skipMatcher;
+            this.className = null;
+            this.methodName = null;
+            this.fileName = null;
+            this.lineNumber = 0;
+        }
+
+        @Override
+        public boolean test(String className, String methodName, String fileName, int lineNumber) {
+            if (skipMatcher.test(className, methodName, fileName, lineNumber)) {
+                return false;
+            }
+            this.className = className;
+            this.methodName = methodName;
+            this.fileName = fileName;
+            this.lineNumber = lineNumber;
+            return true;
+        }
+    }
+}
@@ -2,17 +2,19 @@ package com.asm.eb.transformer;
 
 import com.asm.eb.logger.ExceptionLogger;
 import com.asm.eb.model.Configuration;
-import javassist.*;
-
-import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
 import java.lang.instrument.ClassFileTransformer;
 import java.lang.instrument.IllegalClassFormatException;
-import java.net.URL;
-import java.security.CodeSource;
+import java.lang.instrument.Instrumentation;
+import java.lang.instrument.UnmodifiableClassException;
 import java.security.ProtectionDomain;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
- * Transformer that modifies the bytecode of java.lang.Throwable to enable exception logging.
+ * Transformer that modifies the bytecode of java.lang.Throwable to enable exception logging, or in the THROW
+ * instrumentation mode the athrow instructions of classes under the configured packages instead.
  * It also provides optional class loader tracing if enabled in the configuration.
  *
  * @author asmishra
@@ -23,21 +25,92 @@ public class ExceptionTransformer implements ClassFileTransformer {
     private final ExceptionLogger exceptionLogger;
     private static final String THROWABLE_CLASS_NAME_FORMATTED = "java/lang/Throwable";
     private static final String EB_PACKAGE = "com/asm/eb";
-    private final String mode;
-    private final String agentAbsolutePath;
+    private static final String DEFAULT_CACHE_DIRECTORY = "eb-cache";
+    private final ThrowableBytecodeCache bytecodeCache; //Null when caching is disabled
+    private final InstrumentationMode instrumentationMode;
+    private final String[] throwSitePrefixes; //Internal form, only used in THROW mode
 
     /**
      * Constructs an ExceptionTransformer instance with the provided configuration and logger.
      *
      * @param configuration   The configuration settings for exception transformation.
      * @param exceptionLogger The logger instance used for recording class transformations and exceptions.
-     * @param absolutePath
+     * @param agentAbsolutePath The agent jar, whose directory holds the bytecode cache unless one is configured.
      */
-    public ExceptionTransformer(Configuration configuration, ExceptionLogger exceptionLogger, String mode, String agentAbsolutePath) {
+    public ExceptionTransformer(Configuration configuration, ExceptionLogger exceptionLogger, String agentAbsolutePath) {
         this.configuration = configuration;
         this.exceptionLogger = exceptionLogger;
-        this.mode = mode;
-        this.agentAbsolutePath = agentAbsolutePath;
+        this.bytecodeCache = bytecodeCacheFor(configuration, agentAbsolutePath);
+        this.instrumentationMode = InstrumentationMode.fromConfig(configuration.getInstrumentationMode());
+        List<String> packages = configuration.getThrowInstrumentationPackages();
+        this.throwSitePrefixes = new String[packages == null ? 0 : packages.size()];
+        for (int i = 0; i < throwSitePrefixes.length; i++) {
+            throwSitePrefixes[i] = packages.get(i).replace('.', '/');
+        }
+    }
+
+    private static ThrowableBytecodeCache bytecodeCacheFor(Configuration configuration, String agentAbsolutePath) {
+        if (!configuration.isBytecodeCache()) {
+            return null;
+        }
+        if (configuration.getBytecodeCacheDir() != null) {
+            return new ThrowableBytecodeCache(new File(configuration.getBytecodeCacheDir()));
+        }
+        File agentDirectory = agentAbsolutePath == null ? null : new File(agentAbsolutePath).getAbsoluteFile().getParentFile();
+        return agentDirectory == null ? null : new ThrowableBytecodeCache(new File(agentDirectory, DEFAULT_CACHE_DIRECTORY));
+    }
+
+    public InstrumentationMode getInstrumentationMode() {
+        return instrumentationMode;
+    }
+
+    /**
+     * @return A transformer that only instruments java.lang.Throwable. Registered in place of this one when
+     * there is nothing else to transform, so other class loads cost a single name comparison, while a later
+     * retransformation of Throwable, for example by another agent, is still instrumented again.
+     */
+    public ClassFileTransformer throwableOnly() {
+        return new ThrowableTransformer();
+    }
+
+    /**
+     * @param className A class name in internal form.
+     * @return true if the class is under one of the packages whose throw sites are instrumented in THROW mode.
+     */
+    public boolean isThrowSiteClass(String className) {
+        if (className == null || className.startsWith(EB_PACKAGE)) {
+            return false;
+        }
+        for (String prefix : throwSitePrefixes) {
+            if (className.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Retransforms the already loaded classes whose throw sites are instrumented in THROW mode; classes loaded
+     * later are instrumented as they are defined.
+     *
+     * @param inst The instrumentation instance this transformer is registered with.
+     */
+    public void retransformThrowSiteClasses(Instrumentation inst) {
+        List<Class<?>> loaded = new ArrayList<>();
+        for (Class<?> c : inst.getAllLoadedClasses()) {
+            if (isThrowSiteClass(c.getName().replace('.', '/')) && inst.isModifiableClass(c)) {
+                loaded.add(c);
+            }
+        }
+        exceptionLogger.logInfo("Instrumenting throw sites in classes under " + configuration.getThrowInstrumentationPackages()
+                + " (" + loaded.size() + " already loaded)");
+        for (Class<?> c : loaded) {
+            try {
+                inst.retransformClasses(c);
+            } catch (UnmodifiableClassException | RuntimeException | LinkageError e) {
+                exceptionLogger.logError("Cannot retransform " + c.getName() + ": " + e.getMessage());
+            }
+        }
     }
 
     /**
@@ -58,83 +131,69 @@ public class ExceptionTransformer implements ClassFileTransformer {
         if (configuration.isClassLoaderTracing() && className != null &&
                 !className.startsWith("java/") && !className.startsWith("jdk/") &&
                 !className.startsWith("sun/") && !className.startsWith("javax/") && !className.startsWith(EB_PACKAGE)) {
-            exceptionLogger.logClassLoading(buildClassLoadingTrace(loader, className, protectionDomain));
+            exceptionLogger.traceClassLoad(loader, className, protectionDomain);
+        }
+        if (instrumentationMode == InstrumentationMode.THROW) {
+            return isThrowSiteClass(className) ? instrumentThrowSites(className, classfileBuffer) : classfileBuffer;
         }
         if (!THROWABLE_CLASS_NAME_FORMATTED.equals(className)) {
             return classfileBuffer;
         }
-        CtClass throwableClass = null;
-        try {
-            ClassPool classPool = ClassPool.getDefault();
-            throwableClass = classPool.makeClass(new ByteArrayInputStream(classfileBuffer));
-            boolean isJdk9OrLater = Integer.parseInt(System.getProperty("java.version").split("\\.")[0]) >= 9;
-            if (isJdk9OrLater && mode.equals("attachVM")) {
-                // Fix for JDK 9+ visibility issue in agentmain mode:
-                // Ensures java.lang classes are accessible by appending the system class loader to ClassPool.
-                classPool.appendClassPath(agentAbsolutePath);
-                classPool.appendClassPath(new LoaderClassPath(ClassLoader.getSystemClassLoader()));
-            }
+        return instrumentThrowable(classfileBuffer);
+    }
 
-            // Inject exception logging into all Throwable constructors
-            for (CtConstructor constructor : throwableClass.getDeclaredConstructors()) {
-                constructor.insertAfter(
-                        "{ " +
-                                "    com.asm.eb.logger.ExceptionLogger exceptionLogger = com.asm.eb.logger.ExceptionLogger.getInstance(); " +
-                                "    try { exceptionLogger.logException(this); } catch (Exception e) {} " +
-                                "}"
-                );
+    private byte[] instrumentThrowable(byte[] classfileBuffer) {
+        long start = System.nanoTime();
+        if (bytecodeCache != null) {
+            try {
+                byte[] cached = bytecodeCache.load(classfileBuffer);
+                if (cached != null) {
+                    exceptionLogger.logInfo(String.format("Instrumented java.lang.Throwable from cached bytecode in %.2f ms", elapsedMillis(start)));
+                    return cached;
+                }
+            } catch (IOException | RuntimeException e) {
+                exceptionLogger.logError("Failed to read cached Throwable bytecode: " + e.getMessage());
             }
-            exceptionLogger.logInfo("Successfully instrumented java.lang.Throwable");
-            return throwableClass.toBytecode();
+        }
+        byte[] instrumented;
+        try {
+            // Inject exception logging into all Throwable constructors
+            instrumented = ThrowableInstrumenter.instrument(classfileBuffer);
         } catch (Exception e) {
             exceptionLogger.logError("Error during Throwable modification: " + e.getMessage());
-        } finally {
-            if (throwableClass != null) {
-                throwableClass.detach();
+            return classfileBuffer;
+        }
+        exceptionLogger.logInfo(String.format("Instrumented java.lang.Throwable in %.2f ms", elapsedMillis(start)));
+        if (bytecodeCache != null) {
+            try {
+                File cached = bytecodeCache.store(classfileBuffer, instrumented);
+                exceptionLogger.logInfo("Cached instrumented Throwable bytecode in " + cached.getAbsolutePath());
+            } catch (IOException | RuntimeException e) {
+                exceptionLogger.logError("Failed to cache Throwable bytecode: " + e.getMessage());
             }
         }
-        return classfileBuffer;
+        return instrumented;
     }
 
-    private String buildClassLoadingTrace(ClassLoader loader, String className, ProtectionDomain protectionDomain) {
-        StringBuilder traceInfo = new StringBuilder();
-        traceInfo.append("Class: ").append(className).append('\n');
-        traceInfo.append("ClassLoader Hierarchy: ").append(getClassLoaderHierarchy(loader));
-
-        URL jarLocation = resolveLocation(protectionDomain);
-        if (jarLocation != null) {
-            traceInfo.append('\n').append("Loaded from: ").append(jarLocation.getPath());
+    private final class ThrowableTransformer implements ClassFileTransformer {
+        @Override
+        public byte[] transform(ClassLoader loader, String className,
+                                Class<?> classBeingRedefined, ProtectionDomain protectionDomain, byte[] classfileBuffer) {
+            return THROWABLE_CLASS_NAME_FORMATTED.equals(className) ? instrumentThrowable(classfileBuffer) : classfileBuffer;
         }
-        return traceInfo.toString();
     }
 
-    private URL resolveLocation(ProtectionDomain protectionDomain) {
-        if (protectionDomain == null) {
-            return null;
-        }
-        CodeSource codeSource = protectionDomain.getCodeSource();
-        if (codeSource == null) {
-            return null;
-        }
-        return codeSource.getLocation();
+    private static double elapsedMillis(long start) {
+        return (System.nanoTime() - start) / 1_000_000.0;
     }
 
-    /**
-     * Builds a string representation of the class loader hierarchy for a given class loader.
-     *
-     * @param loader The starting class loader.
-     * @return A formatted string showing the class loader hierarchy.
-     */
-    private String getClassLoaderHierarchy(ClassLoader loader) {
-        StringBuilder hierarchy = new StringBuilder();
-
-        while (loader != null) {
-            hierarchy.append(loader.getClass().getName()).append(" -> ");
-            loader = loader.getParent();
+    private byte[] instrumentThrowSites(String className, byte[] classfileBuffer) {
+        try {
+            byte[] instrumented = ThrowSiteInstrumenter.instrument(classfileBuffer);
+            return instrumented == null ? classfileBuffer : instrumented;
+        } catch (Exception e) {
+            exceptionLogger.logError("Error instrumenting throw sites of " + className + ": " + e.getMessage());
+            return classfileBuffer;
         }
-
-        // Always include the Bootstrap class loader at the end
-        hierarchy.append("Bootstrap");
-        return hierarchy.toString();
     }
 }
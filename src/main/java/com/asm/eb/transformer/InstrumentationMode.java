@@ -0,0 +1,36 @@
+package com.asm.eb.transformer;
+
+/**
+ * Where exceptions are intercepted.
+ *
+ * @author asmishra
+ * @since 10/17/2026
+ */
+public enum InstrumentationMode {
+    /**
+     * Every java.lang.Throwable constructor, so every exception created anywhere in the JVM is seen.
+     */
+    CONSTRUCTOR,
+    /**
+     * Only athrow instructions in classes under the configured packages; Throwable itself is left untouched.
+     */
+    THROW;
+
+    /**
+     * Resolves a mode from its configuration value, ignoring case and surrounding whitespace.
+     *
+     * @param value The configured value, may be null.
+     * @return The matching mode, or {@link #CONSTRUCTOR} when no value is configured.
+     * @throws IllegalArgumentException If the value does not name a mode.
+     */
+    public static InstrumentationMode fromConfig(String value) {
+        if (value == null || value.trim().isEmpty()) {
+            return CONSTRUCTOR;
+        }
+        try {
+            return InstrumentationMode.valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Configuration property 'instrumentationMode' must be one of CONSTRUCTOR, THROW.");
+        }
+    }
+}
@@ -0,0 +1,267 @@
+package com.asm.eb.transformer;
+
+import javassist.bytecode.BadBytecode;
+import javassist.bytecode.ClassFile;
+import javassist.bytecode.CodeAttribute;
+import javassist.bytecode.CodeIterator;
+import javassist.bytecode.ConstPool;
+import javassist.bytecode.ExceptionTable;
+import javassist.bytecode.MethodInfo;
+import javassist.bytecode.Opcode;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Inserts a call to {@code ExceptionHook.onThrow} before the athrow instructions of a class file.
+ * The injected {@code dup; invokestatic} leaves the stack as it found it, so branch targets simply move to the
+ * inserted code and existing stack map frames stay valid. Works on the raw class file, so nothing the class
+ * refers to has to be resolvable.
+ * <p>
+ * A data flow pass over the local variables tells which athrow instructions throw the value an exception handler of
+ * the same method caught. One that rethrows the value of a catch-all handler, as javac emits for finally and
+ * synchronized blocks, is not instrumented: the exception was reported where it was thrown, and would otherwise be
+ * reported again by every finally block it passes through. One that rethrows the value of a typed handler, as in
+ * {@code catch (E e) { throw e; }}, calls {@code ExceptionHook.onRethrow} instead, which reports the exception unless
+ * it is the one last reported on the thread, so exceptions thrown by uninstrumented code are seen when rethrown.
+ * Anything the pass cannot prove, such as a local variable slot that javac reused for another value, counts as a throw.
+ *
+ * @author asmishra
+ * @since 10/17/2026
+ */
+final class ThrowSiteInstrumenter {
+    private static final String HOOK_CLASS_NAME = "com.asm.eb.hook.ExceptionHook";
+    static final String THROW_HOOK_METHOD_NAME = "onThrow";
+    static final String RETHROW_HOOK_METHOD_NAME = "onRethrow";
+    private static final String HOOK_DESCRIPTOR = "(Ljava/lang/Throwable;)V";
+    //What a local variable is known to hold; merging two different values gives OTHER
+    private static final byte OTHER = 0;
+    private static final byte CAUGHT_BY_ANY = 1;
+    private static final byte CAUGHT_BY_TYPE = 2;
+
+    private ThrowSiteInstrumenter() {
+    }
+
+    /**
+     * @param classfileBuffer The class file to instrument.
+     * @return The instrumented class file, or null when the class has no athrow to instrument.
+     * @throws IOException  If the class file cannot be parsed.
+     * @throws BadBytecode If a method's bytecode cannot be rewritten.
+     */
+    static byte[] instrument(byte[] classfileBuffer) throws IOException, BadBytecode {
+        ClassFile classFile = new ClassFile(new DataInputStream(new ByteArrayInputStream(classfileBuffer)));
+        ConstPool constPool = classFile.getConstPool();
+        Map<String, Integer> hookMethods = new HashMap<>();
+        for (MethodInfo method : classFile.getMethods()) {
+            CodeAttribute code = method.getCodeAttribute();
+            if (code == null) {
+                continue;
+            }
+            SortedMap<Integer, String> sites = throwSites(code);
+            if (sites.isEmpty()) {
+                continue;
+            }
+            CodeIterator iterator = code.iterator();
+            List<Integer> offsets = new ArrayList<>(sites.keySet());
+            //Last site first, so inserting code never moves a site still to be instrumented
+            for (int i = offsets.size() - 1; i >= 0; i--) {
+                String hookName = sites.get(offsets.get(i));
+                Integer hookMethod = hookMethods.get(hookName);
+                if (hookMethod == null) {
+                    hookMethod = constPool.addMethodrefInfo(constPool.addClassInfo(HOOK_CLASS_NAME), hookName, HOOK_DESCRIPTOR);
+                    hookMethods.put(hookName, hookMethod);
+                }
+                int methodRef = hookMethod;
+                iterator.insert(offsets.get(i), new byte[]{(byte) Opcode.DUP, (byte) Opcode.INVOKESTATIC, (byte) (methodRef >>> 8), (byte) methodRef});
+            }
+            code.setMaxStack(code.getMaxStack() + 1);
+        }
+        if (hookMethods.isEmpty()) {
+            return null;
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream(classfileBuffer.length + 256);
+        classFile.write(new DataOutputStream(out));
+        return out.toByteArray();
+    }
+
+    /**
+     * @return The athrow instructions to instrument by offset, each with the name of the hook method to call.
+     */
+    static SortedMap<Integer, String> throwSites(CodeAttribute code) throws BadBytecode {
+        CodeIterator iterator = code.iterator();
+        List<Integer> offsets = new ArrayList<>();
+        while (iterator.hasNext()) {
+            offsets.add(iterator.next());
+        }
+        Map<Integer, Integer> indexes = new HashMap<>();
+        for (int i = 0; i < offsets.size(); i++) {
+            indexes.put(offsets.get(i), i);
+        }
+        ExceptionTable handlers = code.getExceptionTable();
+        Map<Integer, Byte> handlerKinds = new HashMap<>();
+        for (int i = 0; i < handlers.size(); i++) {
+            byte kind = handlers.catchType(i) == 0 ? CAUGHT_BY_ANY : CAUGHT_BY_TYPE;
+            Byte known = handlerKinds.get(handlers.handlerPc(i));
+            handlerKinds.put(handlers.handlerPc(i), known == null || known == kind ? kind : CAUGHT_BY_TYPE);
+        }
+
+        //Known contents of the local variables on entry to each instruction, null while unreached
+        byte[][] states = new byte[offsets.size()][];
+        Set<Integer> jumpTargets = new HashSet<>();
+        Deque<Integer> work = new ArrayDeque<>();
+        states[0] = new byte[code.getMaxLocals()];
+        work.add(0);
+        for (int handlerPc : handlerKinds.keySet()) {
+            //Nothing is assumed about the locals at a handler, only that it starts with the caught value
+            int index = indexes.get(handlerPc);
+            if (states[index] == null) {
+                states[index] = new byte[code.getMaxLocals()];
+                work.add(index);
+            }
+        }
+        while (!work.isEmpty()) {
+            int index = work.poll();
+            int offset = offsets.get(index);
+            byte[] out = transfer(iterator, offset, states[index], handlerKinds.get(offset));
+            List<Integer> successors = successors(iterator, offset);
+            jumpTargets.addAll(successors);
+            if (fallsThrough(iterator.byteAt(offset)) && index + 1 < offsets.size()) {
+                successors.add(offsets.get(index + 1));
+            }
+            for (int successor : successors) {
+                int next = indexes.get(successor);
+                if (merge(states, next, out)) {
+                    work.add(next);
+                }
+            }
+        }
+
+        SortedMap<Integer, String> sites = new TreeMap<>();
+        for (int i = 0; i < offsets.size(); i++) {
+            int offset = offsets.get(i);
+            if (iterator.byteAt(offset) != Opcode.ATHROW) {
+                continue;
+            }
+            byte thrown = OTHER;
+            if (handlerKinds.containsKey(offset)) {
+                thrown = handlerKinds.get(offset);
+            } else if (i > 0 && !jumpTargets.contains(offset) && states[i - 1] != null) {
+                int local = localIndex(iterator, offsets.get(i - 1), Opcode.ALOAD, Opcode.ALOAD_0);
+                thrown = local >= 0 ? states[i - 1][local] : OTHER;
+            }
+            if (thrown == OTHER) {
+                sites.put(offset, THROW_HOOK_METHOD_NAME);
+            } else if (thrown == CAUGHT_BY_TYPE) {
+                sites.put(offset, RETHROW_HOOK_METHOD_NAME);
+            }
+        }
+        return sites;
+    }
+
+    //Any store forgets what the local held, except the handler's store of the value it caught
+    private static byte[] transfer(CodeIterator iterator, int offset, byte[] in, Byte handlerKind) {
+        int instruction = iterator.byteAt(offset);
+        int local;
+        if (instruction == Opcode.WIDE) {
+            instruction = iterator.byteAt(offset + 1);
+            local = iterator.u16bitAt(offset + 2);
+        } else if (instruction >= Opcode.ISTORE_0 && instruction <= Opcode.ASTORE_3) {
+            local = (instruction - Opcode.ISTORE_0) % 4;
+            instruction = Opcode.ISTORE + (instruction - Opcode.ISTORE_0) / 4;
+        } else if ((instruction >= Opcode.ISTORE && instruction <= Opcode.ASTORE) || instruction == Opcode.IINC) {
+            local = iterator.byteAt(offset + 1);
+        } else {
+            return in;
+        }
+        if ((instruction < Opcode.ISTORE || instruction > Opcode.ASTORE) && instruction != Opcode.IINC) {
+            return in;
+        }
+        int width = instruction == Opcode.LSTORE || instruction == Opcode.DSTORE ? 2 : 1;
+        byte[] out = in.clone();
+        for (int slot = local; slot < local + width && slot < out.length; slot++) {
+            out[slot] = OTHER;
+        }
+        if (instruction == Opcode.ASTORE && handlerKind != null) {
+            out[local] = handlerKind;
+        }
+        return out;
+    }
+
+    private static boolean merge(byte[][] states, int index, byte[] incoming) {
+        byte[] state = states[index];
+        if (state == null) {
+            states[index] = incoming.clone();
+            return true;
+        }
+        boolean changed = false;
+        for (int i = 0; i < state.length; i++) {
+            if (state[i] != incoming[i] && state[i] != OTHER) {
+                state[i] = OTHER;
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    //Branch targets of the instruction, not counting the next instruction
+    private static List<Integer> successors(CodeIterator iterator, int offset) {
+        List<Integer> targets = new ArrayList<>();
+        int instruction = iterator.byteAt(offset);
+        if ((instruction >= Opcode.IFEQ && instruction <= Opcode.JSR) || instruction == Opcode.IFNULL || instruction == Opcode.IFNONNULL) {
+            targets.add(offset + iterator.s16bitAt(offset + 1));
+        } else if (instruction == Opcode.GOTO_W || instruction == Opcode.JSR_W) {
+            targets.add(offset + iterator.s32bitAt(offset + 1));
+        } else if (instruction == Opcode.TABLESWITCH || instruction == Opcode.LOOKUPSWITCH) {
+            int base = (offset & ~3) + 4;
+            targets.add(offset + iterator.s32bitAt(base));
+            if (instruction == Opcode.TABLESWITCH) {
+                int count = iterator.s32bitAt(base + 8) - iterator.s32bitAt(base + 4) + 1;
+                for (int i = 0; i < count; i++) {
+                    targets.add(offset + iterator.s32bitAt(base + 12 + 4 * i));
+                }
+            } else {
+                int pairs = iterator.s32bitAt(base + 4);
+                for (int i = 0; i < pairs; i++) {
+                    targets.add(offset + iterator.s32bitAt(base + 12 + 8 * i));
+                }
+            }
+        }
+        return targets;
+    }
+
+    private static boolean fallsThrough(int instruction) {
+        return instruction != Opcode.GOTO && instruction != Opcode.GOTO_W && instruction != Opcode.ATHROW
+                && instruction != Opcode.RET && instruction != Opcode.TABLESWITCH && instruction != Opcode.LOOKUPSWITCH
+                && (instruction < Opcode.IRETURN || instruction > Opcode.RETURN);
+    }
+
+    /**
+     * @return The local variable the instruction at {@code index} loads or stores, or -1 if it is not the given opcode.
+     */
+    private static int localIndex(CodeIterator iterator, int index, int opcode, int shortFormZero) {
+        int instruction = iterator.byteAt(index);
+        if (instruction >= shortFormZero && instruction <= shortFormZero + 3) {
+            return instruction - shortFormZero;
+        }
+        if (instruction == opcode) {
+            return iterator.byteAt(index + 1);
+        }
+        if (instruction == Opcode.WIDE && iterator.byteAt(index + 1) == opcode) {
+            return iterator.u16bitAt(index + 2);
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,177 @@
+package com.asm.eb.transformer;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFileAttributes;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.nio.file.attribute.UserPrincipal;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Set;
+import java.util.zip.CRC32;
+
+/**
+ * On-disk cache of the instrumented java.lang.Throwable class file, so repeated attaches to the same JDK skip
+ * instrumenting it again. Entries are keyed by a SHA-256 of the JDK vendor and version, the version of the emitted
+ * code and the original class bytes; a class file changed by another agent therefore simply misses.
+ * <p>
+ * The cached bytes become java.lang.Throwable in the bootstrap class loader, so whoever can write the directory can
+ * run code in every JVM using it. An entry is only read if the directory and the entry are owned by the user running
+ * the JVM, are not symbolic links and, where POSIX permissions exist, are writable by that user alone. The directory
+ * is created with owner-only access.
+ * <p>
+ * Each entry carries a CRC32 of its payload and is published with an atomic rename, so a truncated or
+ * half-written file is detected and treated as a miss instead of being handed to the JVM.
+ *
+ * @author asmishra
+ * @since 10/17/2026
+ */
+final class ThrowableBytecodeCache {
+    private static final int MAGIC = 0x45424243; //"EBBC"
+
+    private final File directory;
+
+    ThrowableBytecodeCache(File directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * @param original The class file as handed to the transformer.
+     * @return The cached instrumented class file, or null if there is no valid entry for it.
+     * @throws IOException If an existing entry cannot be read.
+     */
+    byte[] load(byte[] original) throws IOException {
+        File file = fileFor(original);
+        if (!file.isFile()) {
+            return null;
+        }
+        checkTrusted(directory.toPath());
+        checkTrusted(file.toPath());
+        long expectedChecksum;
+        byte[] payload;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != MAGIC) {
+                return null;
+            }
+            expectedChecksum = in.readInt() & 0xFFFFFFFFL;
+            int length = in.readInt();
+            if (length <= 0 || length > file.length()) {
+                return null;
+            }
+            payload = new byte[length];
+            in.readFully(payload);
+        } catch (EOFException e) {
+            return null;
+        }
+        return crc32(payload) == expectedChecksum ? payload : null;
+    }
+
+    /**
+     * Stores the instrumented class file for the given original one.
+     *
+     * @return The file the entry was written to.
+     * @throws IOException If the directory or the entry cannot be written.
+     */
+    File store(byte[] original, byte[] instrumented) throws IOException {
+        Path dir = directory.toPath();
+        if (!Files.isDirectory(dir)) {
+            if (Files.getFileStore(existingAncestor(dir)).supportsFileAttributeView(PosixFileAttributeView.class)) {
+                Files.createDirectories(dir, PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rwx------")));
+            } else {
+                Files.createDirectories(dir);
+            }
+        }
+        checkTrusted(dir);
+        File file = fileFor(original);
+        Path temp = Files.createTempFile(dir, "Throwable-", ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(Files.newOutputStream(temp))) {
+                out.writeInt(MAGIC);
+                out.writeInt((int) crc32(instrumented));
+                out.writeInt(instrumented.length);
+                out.write(instrumented);
+            }
+            try {
+                Files.move(temp, file.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        return file;
+    }
+
+    File fileFor(byte[] original) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+        digest.update(keyPrefix().getBytes(StandardCharsets.UTF_8));
+        byte[] hash = digest.digest(original);
+        StringBuilder name = new StringBuilder("Throwable-");
+        for (byte b : hash) {
+            name.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return new File(directory, name.append(".bin").toString());
+    }
+
+    /*
+     * Refuses a path another user could have written: a symbolic link, one owned by someone else, or one that the
+     * group or others may write.
+     */
+    private static void checkTrusted(Path path) throws IOException {
+        if (Files.isSymbolicLink(path)) {
+            throw new IOException("Bytecode cache path is a symbolic link: " + path);
+        }
+        UserPrincipal owner = Files.getOwner(path, LinkOption.NOFOLLOW_LINKS);
+        UserPrincipal user = FileSystems.getDefault().getUserPrincipalLookupService()
+                .lookupPrincipalByName(System.getProperty("user.name"));
+        if (!owner.equals(user)) {
+            throw new IOException("Bytecode cache path is owned by " + owner.getName() + ", not by " + user.getName() + ": " + path);
+        }
+        PosixFileAttributeView view = Files.getFileAttributeView(path, PosixFileAttributeView.class, LinkOption.NOFOLLOW_LINKS);
+        if (view != null) {
+            PosixFileAttributes attributes = view.readAttributes();
+            Set<PosixFilePermission> permissions = attributes.permissions();
+            if (permissions.contains(PosixFilePermission.GROUP_WRITE) || permissions.contains(PosixFilePermission.OTHERS_WRITE)) {
+                throw new IOException("Bytecode cache path is writable by group or others: " + path);
+            }
+        }
+    }
+
+    private static Path existingAncestor(Path path) {
+        Path existing = path.toAbsolutePath();
+        while (existing.getParent() != null && !Files.exists(existing)) {
+            existing = existing.getParent();
+        }
+        return existing;
+    }
+
+    private static String keyPrefix() {
+        String version = System.getProperty("java.runtime.version", System.getProperty("java.version"));
+        return System.getProperty("java.vendor") + '|' + version + '|' + ThrowableInstrumenter.VERSION + '|';
+    }
+
+    private static long crc32(byte[] bytes) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+        return crc.getValue();
+    }
+}
@@ -0,0 +1,160 @@
+package com.asm.eb.transformer;
+
+import javassist.bytecode.BadBytecode;
+import javassist.bytecode.ClassFile;
+import javassist.bytecode.CodeAttribute;
+import javassist.bytecode.CodeIterator;
+import javassist.bytecode.ConstPool;
+import javassist.bytecode.MethodInfo;
+import javassist.bytecode.Opcode;
+import javassist.bytecode.StackMapTable;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Inserts a call to {@code ExceptionHook.onThrowableStart()} on entry to the java.lang.Throwable constructors and
+ * to {@code ExceptionHook.onThrowable(this)} before every return. The bytecode is emitted directly instead of
+ * compiling a source snippet, so neither a ClassPool nor the javassist compiler is needed, and nothing Throwable
+ * refers to has to be resolvable. The injected calls leave the stack as they found it, so branch targets simply
+ * move to the inserted code and existing stack map frames stay valid.
+ * <p>
+ * {@code fillInStackTrace()} starts with a check of {@code ExceptionHook.onFillInStackTrace(this)} that returns
+ * early when the hook already set the stack trace. Its original code becomes a branch target, so a frame is added
+ * to the stack map table for it.
+ *
+ * @author asmishra
+ * @since 10/17/2026
+ */
+final class ThrowableInstrumenter {
+    //Part of the bytecode cache key, bump whenever the emitted code changes
+    static final int VERSION = 3;
+    private static final String HOOK_CLASS_NAME = "com.asm.eb.hook.ExceptionHook";
+    private static final String HOOK_METHOD_NAME = "onThrowable";
+    private static final String HOOK_DESCRIPTOR = "(Ljava/lang/Throwable;)V";
+    private static final String START_HOOK_METHOD_NAME = "onThrowableStart";
+    private static final String START_HOOK_DESCRIPTOR = "()V";
+    private static final String FILL_HOOK_METHOD_NAME = "onFillInStackTrace";
+    private static final String FILL_HOOK_DESCRIPTOR = "(Ljava/lang/Throwable;)Z";
+    private static final String FILL_IN_STACK_TRACE = "fillInStackTrace";
+    private static final String FILL_IN_STACK_TRACE_DESCRIPTOR = "()Ljava/lang/Throwable;";
+
+    private ThrowableInstrumenter() {
+    }
+
+    /**
+     * @param classfileBuffer The class file of java.lang.Throwable.
+     * @return The instrumented class file.
+     * @throws IOException  If the class file cannot be parsed.
+     * @throws BadBytecode If a constructor's bytecode cannot be rewritten.
+     */
+    static byte[] instrument(byte[] classfileBuffer) throws IOException, BadBytecode {
+        ClassFile classFile = new ClassFile(new DataInputStream(new ByteArrayInputStream(classfileBuffer)));
+        ConstPool constPool = classFile.getConstPool();
+        int hookClass = constPool.addClassInfo(HOOK_CLASS_NAME);
+        int hookMethod = constPool.addMethodrefInfo(hookClass, HOOK_METHOD_NAME, HOOK_DESCRIPTOR);
+        int startHookMethod = constPool.addMethodrefInfo(hookClass, START_HOOK_METHOD_NAME, START_HOOK_DESCRIPTOR);
+        byte[] call = {(byte) Opcode.ALOAD_0, (byte) Opcode.INVOKESTATIC, (byte) (hookMethod >>> 8), (byte) hookMethod};
+        //Takes no arguments, so it may run while this is still uninitialized
+        byte[] startCall = {(byte) Opcode.INVOKESTATIC, (byte) (startHookMethod >>> 8), (byte) startHookMethod};
+        int fillHookMethod = constPool.addMethodrefInfo(hookClass, FILL_HOOK_METHOD_NAME, FILL_HOOK_DESCRIPTOR);
+        //if (!ExceptionHook.onFillInStackTrace(this)) return this; ifne jumps 5 bytes ahead, past the early return
+        byte[] fillCheck = {(byte) Opcode.ALOAD_0, (byte) Opcode.INVOKESTATIC, (byte) (fillHookMethod >>> 8), (byte) fillHookMethod,
+                (byte) Opcode.IFNE, 0, 5, (byte) Opcode.ALOAD_0, (byte) Opcode.ARETURN};
+        int constructors = 0;
+        for (MethodInfo method : classFile.getMethods()) {
+            CodeAttribute code = method.getCodeAttribute();
+            if (code == null) {
+                continue;
+            }
+            if (FILL_IN_STACK_TRACE.equals(method.getName()) && FILL_IN_STACK_TRACE_DESCRIPTOR.equals(method.getDescriptor())) {
+                code.iterator().insert(0, fillCheck);
+                code.setMaxStack(Math.max(code.getMaxStack(), 1));
+                code.setAttribute(withFrameAt(fillCheck.length, (StackMapTable) code.getAttribute(StackMapTable.tag), constPool));
+                continue;
+            }
+            if (!method.isConstructor()) {
+                continue;
+            }
+            CodeIterator iterator = code.iterator();
+            List<Integer> returns = new ArrayList<>();
+            while (iterator.hasNext()) {
+                int index = iterator.next();
+                if (iterator.byteAt(index) == Opcode.RETURN) {
+                    returns.add(index);
+                }
+            }
+            //Last return first, so inserting code never moves a return still to be instrumented
+            for (int i = returns.size() - 1; i >= 0; i--) {
+                iterator.insert(returns.get(i), call);
+            }
+            iterator.insert(0, startCall);
+            code.setMaxStack(code.getMaxStack() + 1);
+            constructors++;
+        }
+        if (constructors == 0) {
+            throw new BadBytecode("No constructors found in " + classFile.getName());
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream(classfileBuffer.length + 256);
+        classFile.write(new DataOutputStream(out));
+        return out.toByteArray();
+    }
+
+    /**
+     * Rebuilds the stack map table with a frame at {@code offset} holding just the method's initial locals, which
+     * is where the original code of a method starts once the check has been inserted before it.
+     */
+    static StackMapTable withFrameAt(int offset, StackMapTable table, ConstPool constPool) throws BadBytecode {
+        StackMapTable.Writer writer = new StackMapTable.Writer(32);
+        writer.sameFrame(offset);
+        if (table != null) {
+            new StackMapTable.Walker(table) {
+                private int frameOffset = -1;
+                private int written = offset;
+
+                //Callbacks get offset deltas relative to the previous frame, the first one relative to -1
+                private int delta(int offsetDelta) throws BadBytecode {
+                    frameOffset = frameOffset < 0 ? offsetDelta : frameOffset + offsetDelta + 1;
+                    if (frameOffset <= written) {
+                        throw new BadBytecode("Unexpected stack map frame at " + frameOffset);
+                    }
+                    int delta = frameOffset - written - 1;
+                    written = frameOffset;
+                    return delta;
+                }
+
+                @Override
+                public void sameFrame(int pos, int offsetDelta) throws BadBytecode {
+                    writer.sameFrame(delta(offsetDelta));
+                }
+
+                @Override
+                public void sameLocals(int pos, int offsetDelta, int stackTag, int stackData) throws BadBytecode {
+                    writer.sameLocals(delta(offsetDelta), stackTag, stackData);
+                }
+
+                @Override
+                public void chopFrame(int pos, int offsetDelta, int k) throws BadBytecode {
+                    writer.chopFrame(delta(offsetDelta), k);
+                }
+
+                @Override
+                public void appendFrame(int pos, int offsetDelta, int[] tags, int[] data) throws BadBytecode {
+                    writer.appendFrame(delta(offsetDelta), tags, data);
+                }
+
+                @Override
+                public void fullFrame(int pos, int offsetDelta, int[] localTags, int[] localData, int[] stackTags,
+                                      int[] stackData) throws BadBytecode {
+                    writer.fullFrame(delta(offsetDelta), localTags, localData, stackTags, stackData);
+                }
+            }.parse();
+        }
+        return writer.toStackMapTable(constPool);
+    }
+}
@@ -0,0 +1,112 @@
+package com.asm.eb.capture;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * JDK 9+ frame walker. When called from inside the throwable's constructor, the current thread's stack
+ * is walked lazily with StackWalker, so only the inspected frames are ever materialized and a filter match
+ * stops the walk. Otherwise it falls back to {@link ThrowableFrameWalker}.
+ *
+ * @author asmishra
+ * @since 10/17/2026
+ */
+public final class StackWalkerFrameWalker implements FrameWalker {
+    private static final String THROWABLE_CLASS_NAME = "java.lang.Throwable";
+    private static final String CONSTRUCTOR_NAME = "<init>";
+    // Throwable.getStackTrace() includes reflection frames, so the walk does too.
+    private static final StackWalker WALKER = StackWalker.getInstance(StackWalker.Option.SHOW_REFLECT_FRAMES);
+
+    @Override
+    public String name() {
+        return "StackWalker";
+    }
+
+    @Override
+    public boolean anyFrameMatches(Throwable throwable, boolean constructingThread, int maxFrames, FramePredicate predicate) {
+        if (constructingThread) {
+            Boolean matched = WALKER.walk(frames -> {
+                Iterator<StackWalker.StackFrame> iterator = frames.iterator();
+                if (!skipToThrowableConstructor(iterator)) {
+                    return null;
+                }
+                int remaining = StackCapture.limit(maxFrames);
+                StackWalker.StackFrame frame = firstTraceFrame(iterator, throwable);
+                while (frame != null && remaining-- > 0) {
+                    if (predicate.test(frame.getClassName(), frame.getMethodName(), frame.getFileName(), frame.getLineNumber())) {
+                        return Boolean.TRUE;
+                    }
+                    frame = iterator.hasNext() ? iterator.next() : null;
+                }
+                return Boolean.FALSE;
+            });
+            if (matched != null) {
+                return matched;
+            }
+        }
+        return StackCapture.fallback().anyFrameMatches(throwable, constructingThread, maxFrames, predicate);
+    }
+
+    @Override
+    public StackTraceElement[] capture(Throwable throwable, boolean constructingThread, int maxFrames) {
+        if (constructingThread) {
+            StackTraceElement[] captured = WALKER.walk(frames -> {
+                Iterator<StackWalker.StackFrame> iterator = frames.iterator();
+                if (!skipToThrowableConstructor(iterator)) {
+                    return null;
+                }
+                int remaining = StackCapture.limit(maxFrames);
+                List<StackTraceElement> elements = new ArrayList<>(Math.min(remaining, 64));
+                StackWalker.StackFrame frame = firstTraceFrame(iterator, throwable);
+                while (frame != null && remaining-- > 0) {
+                    elements.add(frame.toStackTraceElement());
+                    frame = iterator.hasNext() ? iterator.next() : null;
+                }
+                return elements.toArray(new StackTraceElement[0]);
+            });
+            if (captured != null) {
+                return captured;
+            }
+        }
+        return StackCapture.fallback().capture(throwable, constructingThread, maxFrames);
+    }
+
+    /**
+     * Advances past the agent frames up to and including the instrumented Throwable constructor.
+     *
+     * @return false if no Throwable constructor is on the stack, i.e. the caller is not inside one.
+     */
+    private static boolean skipToThrowableConstructor(Iterator<StackWalker.StackFrame> iterator) {
+        while (iterator.hasNext()) {
+            StackWalker.StackFrame frame = iterator.next();
+            if (CONSTRUCTOR_NAME.equals(frame.getMethodName()) && THROWABLE_CLASS_NAME.equals(frame.getClassName())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Skips the remaining constructor frames of the throwable's own class hierarchy, the same frames
+     * fillInStackTrace leaves out, and returns the first frame that belongs to the trace.
+     */
+    private static StackWalker.StackFrame firstTraceFrame(Iterator<StackWalker.StackFrame> iterator, Throwable throwable) {
+        while (iterator.hasNext()) {
+            StackWalker.StackFrame frame = iterator.next();
+            if (!CONSTRUCTOR_NAME.equals(frame.getMethodName()) || !isInHierarchy(throwable.getClass(), frame.getClassName())) {
+                return frame;
+            }
+        }
+        return null;
+    }
+
+    private static boolean isInHierarchy(Class<?> throwableClass, String className) {
+        for (Class<?> type = throwableClass; type != null; type = type.getSuperclass()) {
+            if (type.getName().equals(className)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
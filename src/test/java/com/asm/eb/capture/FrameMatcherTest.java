@@ -0,0 +1,84 @@
+package com.asm.eb.capture;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class FrameMatcherTest {
+
+    private static final StackTraceElement[] DEEP_FRAMES = buildFrames(200);
+
+    @Test
+    public void shouldMatchFramesStartingWithAnyPrefix() {
+        FrameMatcher matcher = FrameMatcher.prefixes(Arrays.asList("org.apache.logging", "com.foo.Bar.run", ""));
+
+        assertEquals(2, matcher.size());
+        assertTrue(matcher.test("org.apache.logging.log4j.Logger", "info", "Logger.java", 10));
+        assertTrue(matcher.test("com.foo.Bar", "run", "Bar.java", 42));
+        assertFalse(matcher.test("com.foo.Bar", "stop", "Bar.java", 42));
+        assertFalse(matcher.test("org.apache.commons.Lang", "trim", "Lang.java", 1));
+    }
+
+    @Test
+    public void shouldMatchPrefixesReachingIntoTheLocation() {
+        FrameMatcher matcher = FrameMatcher.prefixes(Arrays.asList("com.foo.Bar.run(Bar.java:4", "java.lang.Object.wait(Native"));
+
+        assertTrue(matcher.test("com.foo.Bar", "run", "Bar.java", 42));
+        assertFalse(matcher.test("com.foo.Bar", "run", "Bar.java", 52));
+        assertTrue(matcher.test("java.lang.Object", "wait", null, -2));
+    }
+
+    @Test
+    public void exactMatcherShouldRequireTheWholeFrame() {
+        FrameMatcher matcher = FrameMatcher.exact("java.lang.ClassLoader.loadClass(ClassLoader.java:406)");
+
+        assertTrue(matcher.test("java.lang.ClassLoader", "loadClass", "ClassLoader.java", 406));
+        assertFalse(matcher.test("java.lang.ClassLoader", "loadClass", "ClassLoader.java", 4061));
+        assertFalse(matcher.test("java.lang.ClassLoader", "loadClass", "ClassLoader.java", 40));
+        assertFalse(matcher.test("java.lang.ClassLoader", "loadClass", null, -1));
+    }
+
+    @Test
+    public void shouldAgreeWithStringPrefixMatching() {
+        List<String> filters = buildFilters(50);
+        filters.add("com.app.service.Handler19.handle(Handler19.java:1");
+        FrameMatcher matcher = FrameMatcher.prefixes(filters);
+        for (StackTraceElement frame : DEEP_FRAMES) {
+            assertEquals(frame.toString(), naiveMatches(filters, frame),
+                    matcher.test(frame.getClassName(), frame.getMethodName(), frame.getFileName(), frame.getLineNumber()));
+        }
+    }
+
+    private static boolean naiveMatches(List<String> filters, StackTraceElement frame) {
+        String text = frame.getClassName() + "." + frame.getMethodName() + "(" + frame.getFileName() + ":" + frame.getLineNumber() + ")";
+        for (String filter : filters) {
+            if (text.startsWith(filter)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static List<String> buildFilters(int count) {
+        List<String> filters = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            filters.add("com.vendor" + i + ".lib");
+        }
+        filters.set(count - 1, "com.app.service.Handler7");
+        return filters;
+    }
+
+    private static StackTraceElement[] buildFrames(int depth) {
+        StackTraceElement[] frames = new StackTraceElement[depth];
+        for (int i = 0; i < depth; i++) {
+            frames[i] = new StackTraceElement("com.app.service.Handler" + (i % 20), "handle", "Handler" + (i % 20) + ".java", 100 + i);
+        }
+        return frames;
+    }
+}
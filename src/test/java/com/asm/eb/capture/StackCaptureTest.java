@@ -0,0 +1,45 @@
+package com.asm.eb.capture;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class StackCaptureTest {
+
+    @Test
+    public void shouldBoundCapturedFramesToMaxFrames() {
+        RuntimeException exception = new RuntimeException();
+        StackTraceElement[] frames = StackCapture.capture(exception, false, 2);
+
+        assertEquals(2, frames.length);
+        assertEquals(exception.getStackTrace()[0], frames[0]);
+    }
+
+    @Test
+    public void shouldReturnFullTraceWhenUnbounded() {
+        RuntimeException exception = new RuntimeException();
+        assertArrayEquals(exception.getStackTrace(), StackCapture.capture(exception, false, 0));
+    }
+
+    @Test
+    public void shouldFallBackToThrowableTraceOutsideConstructor() {
+        RuntimeException exception = new RuntimeException();
+        // No Throwable constructor is on the stack here, so the lazy walk must not be used.
+        assertArrayEquals(exception.getStackTrace(), StackCapture.capture(exception, true, 0));
+    }
+
+    @Test
+    public void shouldStopMatchingAtMaxFrames() {
+        RuntimeException exception = new RuntimeException();
+        String testClass = StackCaptureTest.class.getName();
+        String testMethod = "shouldStopMatchingAtMaxFrames";
+
+        assertTrue(StackCapture.anyFrameMatches(exception, false, 1,
+                (className, methodName, fileName, lineNumber) -> className.equals(testClass) && methodName.equals(testMethod)));
+        assertFalse(StackCapture.anyFrameMatches(exception, false, 1,
+                (className, methodName, fileName, lineNumber) -> !className.equals(testClass)));
+    }
+}
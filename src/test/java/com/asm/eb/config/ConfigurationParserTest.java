@@ -8,6 +8,7 @@ import org.junit.rules.TemporaryFolder;
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.util.Collections;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
@@ -37,6 +38,23 @@ public class ConfigurationParserTest {
         assertTrue(configuration.getFilters().contains("com.bar"));
         assertEquals(temporaryFolder.getRoot().toPath().resolve("logs/eb.log").toString(), configuration.getLogFilePath());
         assertEquals("java.lang.ClassLoader.loadClass(ClassLoader.java:406)", configuration.getCnfSkipString());
+        assertEquals(2, configuration.getFilterMatcher().size());
+        assertTrue(configuration.getFilterMatcher().test("com.foo.Service", "call", "Service.java", 12));
+        assertTrue(configuration.getCnfSkipMatcher().test("java.lang.ClassLoader", "loadClass", "ClassLoader.java", 406));
+    }
+
+    @Test
+    public void shouldBindMetricsToLoopbackByDefault() throws Exception {
+        File configFile = writeConfig("{\n" +
+                "  \"logFilePath\": \"" + escapedPath("logs/eb.log") + "\",\n" +
+                "  \"metricsPort\": 0,\n" +
+                "  \"metricsBindAddress\": \"  \"\n" +
+                "}\n");
+
+        Configuration configuration = ConfigurationParser.parseConfigurationFile(configFile.getAbsolutePath());
+
+        assertEquals("127.0.0.1", configuration.getMetricsBindAddress());
+        assertEquals("127.0.0.1", new Configuration().getMetricsBindAddress());
     }
 
     @Test
@@ -81,6 +99,178 @@ public class ConfigurationParserTest {
 
         Configuration configuration = ConfigurationParser.parseConfigurationFile(configFile.getAbsolutePath());
         assertNull(configuration.getFilters());
+        assertNull(configuration.getFilterMatcher());
+    }
+
+    @Test
+    public void shouldNormalizeAsyncOverflowPolicy() throws Exception {
+        File configFile = writeConfig("{\n" +
+                "  \"logFilePath\": \"" + escapedPath("logs/eb.log") + "\",\n" +
+                "  \"asyncLogging\": true,\n" +
+                "  \"asyncOverflowPolicy\": \" sample \"\n" +
+                "}\n");
+
+        Configuration configuration = ConfigurationParser.parseConfigurationFile(configFile.getAbsolutePath());
+
+        assertTrue(configuration.isAsyncLogging());
+        assertEquals("SAMPLE", configuration.getAsyncOverflowPolicy());
+        assertEquals(8192, configuration.getAsyncQueueCapacity());
+    }
+
+    @Test
+    public void shouldRejectUnknownAsyncOverflowPolicy() throws Exception {
+        File configFile = writeConfig("{\n" +
+                "  \"logFilePath\": \"" + escapedPath("logs/eb.log") + "\",\n" +
+                "  \"asyncOverflowPolicy\": \"retry\"\n" +
+                "}\n");
+
+        IllegalArgumentException exception = assertThrows(
+                IllegalArgumentException.class,
+                () -> ConfigurationParser.parseConfigurationFile(configFile.getAbsolutePath())
+        );
+
+        assertEquals("Configuration property 'asyncOverflowPolicy' must be one of DROP, BLOCK, SAMPLE.", exception.getMessage());
+    }
+
+    @Test
+    public void shouldNormalizeLogFormat() throws Exception {
+        File configFile = writeConfig("{\n" +
+                "  \"logFilePath\": \"" + escapedPath("logs/eb.bin") + "\",\n" +
+                "  \"logFormat\": \"binary\"\n" +
+                "}\n");
+
+        Configuration configuration = ConfigurationParser.parseConfigurationFile(configFile.getAbsolutePath());
+
+        assertEquals("BINARY", configuration.getLogFormat());
+        assertEquals(8L * 1024 * 1024, configuration.getBinarySegmentBytes());
+    }
+
+    @Test
+    public void shouldRejectUnknownLogFormat() throws Exception {
+        File configFile = writeConfig("{\n" +
+                "  \"logFilePath\": \"" + escapedPath("logs/eb.log") + "\",\n" +
+                "  \"logFormat\": \"json\"\n" +
+                "}\n");
+
+        IllegalArgumentException exception = assertThrows(
+                IllegalArgumentException.class,
+                () -> ConfigurationParser.parseConfigurationFile(configFile.getAbsolutePath())
+        );
+
+        assertEquals("Configuration property 'logFormat' must be one of TEXT, BINARY.", exception.getMessage());
+    }
+
+    @Test
+    public void shouldNormalizeThrowInstrumentationSettings() throws Exception {
+        File configFile = writeConfig("{\n" +
+                "  \"logFilePath\": \"" + escapedPath("logs/eb.log") + "\",\n" +
+                "  \"instrumentationMode\": \"throw\",\n" +
+                "  \"throwInstrumentationPackages\": [\" com.example. \", \"\"]\n" +
+                "}\n");
+
+        Configuration configuration = ConfigurationParser.parseConfigurationFile(configFile.getAbsolutePath());
+
+        assertEquals("THROW", configuration.getInstrumentationMode());
+        assertEquals(Collections.singletonList("com.example."), configuration.getThrowInstrumentationPackages());
+    }
+
+    @Test
+    public void shouldRejectThrowInstrumentationOfJdkPackages() throws Exception {
+        File configFile = writeConfig("{\n" +
+                "  \"logFilePath\": \"" + escapedPath("logs/eb.log") + "\",\n" +
+                "  \"instrumentationMode\": \"THROW\",\n" +
+                "  \"throwInstrumentationPackages\": [\"java.util.\"]\n" +
+                "}\n");
+
+        IllegalArgumentException exception = assertThrows(
+                IllegalArgumentException.class,
+                () -> ConfigurationParser.parseConfigurationFile(configFile.getAbsolutePath())
+        );
+
+        assertEquals("Configuration property 'throwInstrumentationPackages' cannot include JDK or agent packages: java.util.", exception.getMessage());
+    }
+
+    @Test
+    public void shouldNormalizeStackSuppressionSettings() throws Exception {
+        File configFile = writeConfig("{\n" +
+                "  \"logFilePath\": \"" + escapedPath("logs/eb.log") + "\",\n" +
+                "  \"stackSuppressionClasses\": [\" java.lang.NumberFormatException \", \"\"],\n" +
+                "  \"stackSuppressionMaxFrames\": 3\n" +
+                "}\n");
+
+        Configuration configuration = ConfigurationParser.parseConfigurationFile(configFile.getAbsolutePath());
+
+        assertEquals(Collections.singletonList("java.lang.NumberFormatException"), configuration.getStackSuppressionClasses());
+        assertEquals(Collections.<String>emptyList(), configuration.getStackSuppressionSitePrefixes());
+        assertEquals(3, configuration.getStackSuppressionMaxFrames());
+        assertTrue(configuration.isStackSuppression());
+    }
+
+    @Test
+    public void shouldRejectStackSuppressionInThrowMode() throws Exception {
+        File configFile = writeConfig("{\n" +
+                "  \"logFilePath\": \"" + escapedPath("logs/eb.log") + "\",\n" +
+                "  \"instrumentationMode\": \"THROW\",\n" +
+                "  \"throwInstrumentationPackages\": [\"com.example.\"],\n" +
+                "  \"stackSuppressionSitePrefixes\": [\"com.example.parser.\"]\n" +
+                "}\n");
+
+        IllegalArgumentException exception = assertThrows(
+                IllegalArgumentException.class,
+                () -> ConfigurationParser.parseConfigurationFile(configFile.getAbsolutePath())
+        );
+
+        assertEquals("Configuration properties 'stackSuppressionClasses' and 'stackSuppressionSitePrefixes' require 'instrumentationMode' CONSTRUCTOR.", exception.getMessage());
+    }
+
+    @Test
+    public void shouldNormalizeExportSettings() throws Exception {
+        File configFile = writeConfig("{\n" +
+                "  \"logFilePath\": \"" + escapedPath("logs/eb.log") + "\",\n" +
+                "  \"exportPort\": 7070,\n" +
+                "  \"exportHost\": \" \",\n" +
+                "  \"exportJvmName\": \" orders-1 \",\n" +
+                "  \"exportOnly\": true\n" +
+                "}\n");
+
+        Configuration configuration = ConfigurationParser.parseConfigurationFile(configFile.getAbsolutePath());
+
+        assertEquals(7070, configuration.getExportPort());
+        assertEquals("127.0.0.1", configuration.getExportHost());
+        assertEquals("orders-1", configuration.getExportJvmName());
+        assertEquals(8192, configuration.getExportQueueCapacity());
+        assertTrue(configuration.isExportOnly());
+    }
+
+    @Test
+    public void shouldRejectExportOnlyWithoutPort() throws Exception {
+        File configFile = writeConfig("{\n" +
+                "  \"logFilePath\": \"" + escapedPath("logs/eb.log") + "\",\n" +
+                "  \"exportOnly\": true\n" +
+                "}\n");
+
+        IllegalArgumentException exception = assertThrows(
+                IllegalArgumentException.class,
+                () -> ConfigurationParser.parseConfigurationFile(configFile.getAbsolutePath())
+        );
+
+        assertEquals("Configuration property 'exportOnly' requires 'exportPort'.", exception.getMessage());
+    }
+
+    @Test
+    public void shouldRejectSharedRingSlotsNotPowerOfTwo() throws Exception {
+        File configFile = writeConfig("{\n" +
+                "  \"logFilePath\": \"" + escapedPath("logs/eb.log") + "\",\n" +
+                "  \"sharedRingFile\": \" " + escapedPath("eb.ring") + " \",\n" +
+                "  \"sharedRingSlots\": 1000\n" +
+                "}\n");
+
+        IllegalArgumentException exception = assertThrows(
+                IllegalArgumentException.class,
+                () -> ConfigurationParser.parseConfigurationFile(configFile.getAbsolutePath())
+        );
+
+        assertEquals("Configuration property 'sharedRingSlots' must be a power of two.", exception.getMessage());
     }
 
     private File writeConfig(String content) throws IOException {
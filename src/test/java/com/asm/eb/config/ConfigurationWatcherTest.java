@@ -0,0 +1,209 @@
+package com.asm.eb.config;
+
+import com.asm.eb.logger.ExceptionLogger;
+import com.asm.eb.model.Configuration;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeNoException;
+
+public class ConfigurationWatcherTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private ExceptionLogger exceptionLogger;
+    private CompiledConfiguration original;
+    private File configFile;
+    private String logFilePath;
+
+    @Before
+    public void setUp() throws Exception {
+        logFilePath = new File(temporaryFolder.getRoot(), "eb.log").getAbsolutePath();
+        Configuration configuration = new Configuration();
+        configuration.setLogFilePath(logFilePath);
+        exceptionLogger = ExceptionLogger.getInstance(configuration);
+        //The logger is a JVM-wide singleton, other tests must not see the reloaded settings
+        original = exceptionLogger.getCompiledConfiguration();
+        configFile = temporaryFolder.newFile("ebConfig.json");
+        write("");
+    }
+
+    @After
+    public void tearDown() {
+        ConfigurationWatcher.stop();
+        exceptionLogger.applyConfiguration(original);
+    }
+
+    @Test
+    public void shouldApplyChangedSettingsAtomically() throws Exception {
+        ConfigurationWatcher watcher = new ConfigurationWatcher(configFile.getPath(), exceptionLogger, startupConfiguration());
+        assertFalse(watcher.reloadIfChanged());
+
+        write(", \"useFilters\": true, \"filters\": [\"com.example.\"], \"maxFrames\": 12, \"monitorIntervalSeconds\": 5");
+        assertTrue(watcher.reloadIfChanged());
+        CompiledConfiguration reloaded = exceptionLogger.getCompiledConfiguration();
+        assertNotNull(reloaded.getFilterMatcher());
+        assertEquals(12, reloaded.getMaxFrames());
+        assertEquals(5000L, reloaded.getMonitorIntervalMillis());
+        assertFalse("Unchanged content must not be applied again", watcher.reloadIfChanged());
+    }
+
+    @Test
+    public void shouldKeepRunningSettingsWhenReloadIsInvalid() throws Exception {
+        ConfigurationWatcher watcher = new ConfigurationWatcher(configFile.getPath(), exceptionLogger, startupConfiguration());
+        CompiledConfiguration before = exceptionLogger.getCompiledConfiguration();
+
+        write(", \"useFilters\": true, \"filters\": []");
+        assertFalse(watcher.reloadIfChanged());
+        assertSame(before, exceptionLogger.getCompiledConfiguration());
+    }
+
+    @Test
+    public void shouldKeepSamplerStateWhenSamplingIsUnchanged() throws Exception {
+        ConfigurationWatcher watcher = new ConfigurationWatcher(configFile.getPath(), exceptionLogger, startupConfiguration());
+        write(", \"samplingEnabled\": true");
+        assertTrue(watcher.reloadIfChanged());
+        CompiledConfiguration first = exceptionLogger.getCompiledConfiguration();
+        assertNotNull(first.getSampler());
+
+        write(", \"samplingEnabled\": true, \"maxFrames\": 3");
+        assertTrue(watcher.reloadIfChanged());
+        assertSame(first.getSampler(), exceptionLogger.getCompiledConfiguration().getSampler());
+
+        write(", \"maxFrames\": 3");
+        assertTrue(watcher.reloadIfChanged());
+        assertNull(exceptionLogger.getCompiledConfiguration().getSampler());
+    }
+
+    @Test
+    public void shouldPickUpFileChangesFromWatchService() throws Exception {
+        ConfigurationWatcher.start(configFile.getPath(), exceptionLogger, startupConfiguration());
+        write(", \"maxFrames\": 7");
+
+        long deadline = System.currentTimeMillis() + 15_000L;
+        while (exceptionLogger.getCompiledConfiguration().getMaxFrames() != 7 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50L);
+        }
+        assertEquals(7, exceptionLogger.getCompiledConfiguration().getMaxFrames());
+    }
+
+    @Test
+    public void shouldPickUpSymlinkSwapOfDirectory() throws Exception {
+        //Laid out like a mounted config map: the file resolves through a directory link that a deploy replaces
+        File root = temporaryFolder.newFolder("mounted");
+        File first = new File(root, "v1");
+        File second = new File(root, "v2");
+        assertTrue(first.mkdir() && second.mkdir());
+        Files.write(new File(first, "ebConfig.json").toPath(), json("").getBytes(StandardCharsets.UTF_8));
+        Files.write(new File(second, "ebConfig.json").toPath(), json(", \"maxFrames\": 9").getBytes(StandardCharsets.UTF_8));
+        Path current = new File(root, "current").toPath();
+        Path file = new File(root, "ebConfig.json").toPath();
+        try {
+            Files.createSymbolicLink(current, first.toPath().getFileName());
+            Files.createSymbolicLink(file, current.getFileName().resolve("ebConfig.json"));
+        } catch (UnsupportedOperationException | IOException e) {
+            assumeNoException(e);
+        }
+        ConfigurationWatcher.start(file.toString(), exceptionLogger, startupConfiguration());
+
+        Path next = new File(root, "next").toPath();
+        Files.createSymbolicLink(next, second.toPath().getFileName());
+        Files.move(next, current, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+
+        long deadline = System.currentTimeMillis() + 15_000L;
+        while (exceptionLogger.getCompiledConfiguration().getMaxFrames() != 9 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50L);
+        }
+        assertEquals(9, exceptionLogger.getCompiledConfiguration().getMaxFrames());
+    }
+
+    @Test
+    public void shouldReportEveryPropertyThatIsNotReloaded() throws Exception {
+        Set<String> reloadable = new HashSet<>(Arrays.asList("useFilters", "filters", "cnfSkipString", "maxFrames",
+                "samplingEnabled", "samplingPerTypeRate", "samplingGlobalRate", "samplingKeepOneIn", "samplingSiteCapacity",
+                "monitorIntervalSeconds", "spikeFactor", "spikeMinRate"));
+        for (Field field : Configuration.class.getDeclaredFields()) {
+            if (Modifier.isStatic(field.getModifiers()) || field.isAnnotationPresent(JsonIgnore.class)) {
+                continue;
+            }
+            Configuration running = startupConfiguration();
+            Configuration reloaded = startupConfiguration();
+            field.setAccessible(true);
+            field.set(reloaded, changedValue(field, field.get(reloaded)));
+
+            List<String> changes = ConfigurationWatcher.restartOnlyChanges(running, reloaded);
+            if (reloadable.contains(field.getName())) {
+                assertEquals(field.getName(), Collections.emptyList(), changes);
+            } else {
+                assertEquals(field.getName() + " is neither reloaded nor reported", 1, changes.size());
+                assertTrue(changes.get(0), changes.get(0).equalsIgnoreCase(field.getName()));
+            }
+        }
+    }
+
+    @Test
+    public void shouldNameChangesThatNeedRestart() {
+        Configuration running = startupConfiguration();
+        Configuration reloaded = startupConfiguration();
+        reloaded.setAsyncLogging(true);
+        reloaded.setMaxFrames(4);
+        assertEquals(Arrays.asList("asyncLogging"), ConfigurationWatcher.restartOnlyChanges(running, reloaded));
+    }
+
+    private Configuration startupConfiguration() {
+        Configuration configuration = new Configuration();
+        configuration.setLogFilePath(logFilePath);
+        return configuration;
+    }
+
+    private static Object changedValue(Field field, Object value) {
+        Class<?> type = field.getType();
+        if (type == boolean.class) {
+            return !(Boolean) value;
+        } else if (type == int.class) {
+            return (Integer) value + 1;
+        } else if (type == long.class) {
+            return (Long) value + 1;
+        } else if (type == double.class) {
+            return (Double) value + 1;
+        } else if (type == String.class) {
+            return value + "-changed";
+        } else if (type == List.class) {
+            return Collections.singletonList("changed");
+        }
+        throw new AssertionError("No changed value for " + field);
+    }
+
+    private void write(String extraProperties) throws Exception {
+        Files.write(configFile.toPath(), json(extraProperties).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String json(String extraProperties) {
+        return "{\"logFilePath\": \"" + logFilePath.replace("\\", "\\\\") + "\"" + extraProperties + "}";
+    }
+}
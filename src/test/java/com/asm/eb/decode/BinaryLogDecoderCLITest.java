@@ -0,0 +1,211 @@
+package com.asm.eb.decode;
+
+import com.asm.eb.logger.BinaryLogWriter;
+import com.asm.eb.logger.LogRecordWriter;
+import com.asm.eb.logger.TextLogWriter;
+import org.apache.commons.cli.ParseException;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+public class BinaryLogDecoderCLITest {
+
+    private static final long BASE = 1_760_000_000_000L;
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void shouldRenderBinaryLogAsTodaysTextLayout() throws Exception {
+        File binary = temporaryFolder.newFile("eb.bin");
+        StringWriter expected = new StringWriter();
+        LogRecordWriter text = new TextLogWriter(expected);
+        LogRecordWriter writer = new BinaryLogWriter(binary, 512);
+        writeSample(text);
+        writeSample(writer);
+        text.close();
+        writer.close();
+
+        String decoded = decode(binary);
+
+        assertEquals(expected.toString(), decoded);
+        assertTrue("Binary log should be smaller than its text rendering",
+                binary.length() < expected.toString().getBytes(StandardCharsets.UTF_8).length);
+    }
+
+    @Test
+    public void shouldAppendToExistingBinaryLog() throws Exception {
+        File binary = temporaryFolder.newFile("eb.bin");
+        LogRecordWriter first = new BinaryLogWriter(binary, 1024);
+        first.writeMessage(BASE, "INFO", "main", "first run");
+        first.close();
+        LogRecordWriter second = new BinaryLogWriter(binary, 1024);
+        second.writeMessage(BASE + 1000, "INFO", "main", "second run");
+        second.close();
+
+        String decoded = decode(binary);
+
+        assertTrue(decoded.contains("first run"));
+        assertTrue(decoded.contains("second run"));
+    }
+
+    @Test
+    public void shouldRejectExistingTextLog() throws Exception {
+        File log = temporaryFolder.newFile("eb.log");
+        Files.write(log.toPath(), "2025-02-13 10:00:00.000 [INFO] [main] started\n".getBytes(StandardCharsets.UTF_8));
+
+        assertThrows(IllegalArgumentException.class, () -> new BinaryLogWriter(log, 1024));
+    }
+
+    @Test
+    public void shouldStopQuietlyAtTruncatedTail() throws Exception {
+        File binary = temporaryFolder.newFile("eb.bin");
+        LogRecordWriter writer = new BinaryLogWriter(binary, 1 << 20);
+        writeSample(writer);
+        writer.close();
+        long fullRecords = countRecords(binary);
+        try (RandomAccessFile file = new RandomAccessFile(binary, "rw")) {
+            file.setLength(file.length() - 3);
+        }
+
+        long truncatedRecords = countRecords(binary);
+
+        assertEquals(fullRecords - 1, truncatedRecords);
+    }
+
+    @Test
+    public void shouldCutTornRecordBeforeAppending() throws Exception {
+        File binary = temporaryFolder.newFile("eb.bin");
+        LogRecordWriter first = new BinaryLogWriter(binary, 1 << 20);
+        writeSample(first);
+        first.close();
+        long fullLength = binary.length();
+        long fullRecords = countRecords(binary);
+        try (RandomAccessFile file = new RandomAccessFile(binary, "rw")) {
+            file.setLength(fullLength - 3);
+        }
+
+        LogRecordWriter second = new BinaryLogWriter(binary, 1 << 20);
+        second.writeMessage(BASE + 1000, "INFO", "main", "after restart");
+        second.close();
+
+        String decoded = decode(binary);
+        assertTrue(decoded, decoded.contains("after restart"));
+        //The torn exception is gone, the new segment, strings and message follow the complete records
+        assertFalse(decoded, decoded.contains("second"));
+        assertTrue(countRecords(binary) > fullRecords - 1);
+    }
+
+    @Test
+    public void shouldCutZeroFilledTailBeforeAppending() throws Exception {
+        File binary = temporaryFolder.newFile("eb.bin");
+        LogRecordWriter first = new BinaryLogWriter(binary, 1 << 20);
+        writeSample(first);
+        first.close();
+        long fullLength = binary.length();
+        try (RandomAccessFile file = new RandomAccessFile(binary, "rw")) {
+            file.setLength(fullLength + 4096);
+        }
+
+        LogRecordWriter second = new BinaryLogWriter(binary, 1 << 20);
+        assertEquals(fullLength, second.bytesWritten());
+        second.writeMessage(BASE + 1000, "INFO", "main", "after restart");
+        second.close();
+
+        assertTrue(decode(binary).contains("after restart"));
+    }
+
+    @Test
+    public void shouldFilterByTimeRangeAndExceptionType() throws Exception {
+        File binary = temporaryFolder.newFile("eb.bin");
+        LogRecordWriter writer = new BinaryLogWriter(binary, 1 << 20);
+        writeSample(writer);
+        writer.close();
+        File output = new File(temporaryFolder.getRoot(), "filtered.log");
+
+        BinaryLogDecoderCLI.CliArguments arguments = BinaryLogDecoderCLI.parseAndValidateArguments(
+                new String[]{
+                        "--input", binary.getAbsolutePath(),
+                        "--output", output.getAbsolutePath(),
+                        "--from", String.valueOf(BASE + 1),
+                        "--type", "java.lang.IllegalStateException"
+                },
+                BinaryLogDecoderCLI.buildOptions()
+        );
+        BinaryLogDecoderCLI.decode(arguments);
+        String filtered = new String(Files.readAllBytes(output.toPath()), StandardCharsets.UTF_8);
+
+        assertTrue(filtered.contains("java.lang.IllegalStateException: second"));
+        assertFalse(filtered.contains("java.lang.IllegalStateException: first"));
+        assertFalse(filtered.contains("java.lang.IllegalArgumentException"));
+        assertFalse(filtered.contains("[INFO]"));
+    }
+
+    @Test
+    public void shouldParseDateTimes() throws Exception {
+        long expected = new java.text.SimpleDateFormat("yyyy-MM-dd HH:mm:ss").parse("2026-10-17 08:30:00").getTime();
+
+        assertEquals(expected, BinaryLogDecoderCLI.parseTime("2026-10-17 08:30:00", "from", 0L));
+        assertEquals(1234L, BinaryLogDecoderCLI.parseTime("1234", "from", 0L));
+        assertEquals(-1L, BinaryLogDecoderCLI.parseTime(null, "from", -1L));
+    }
+
+    @Test
+    public void shouldRejectInvertedTimeRange() throws Exception {
+        File binary = temporaryFolder.newFile("eb.bin");
+        ParseException parseException = assertThrows(
+                ParseException.class,
+                () -> BinaryLogDecoderCLI.parseAndValidateArguments(
+                        new String[]{"--input", binary.getAbsolutePath(), "--from", "2000", "--to", "1000"},
+                        BinaryLogDecoderCLI.buildOptions()
+                )
+        );
+
+        assertEquals("Option 'from' must not be after option 'to'.", parseException.getMessage());
+    }
+
+    private static void writeSample(LogRecordWriter writer) {
+        StackTraceElement[] frames = {
+                new StackTraceElement("com.example.Service", "handle", "Service.java", 42),
+                new StackTraceElement("com.example.Controller", "get", "Controller.java", 17),
+                new StackTraceElement("sun.reflect.NativeMethodAccessorImpl", "invoke0", null, -2),
+                new StackTraceElement("com.example.Generated", "run", null, -1)
+        };
+        writer.writeMessage(BASE, "INFO", "main", "Exception Buddy initialized successfully.");
+        writer.writeException(BASE, "main", "java.lang.IllegalStateException", "first", frames, 0, true, 0x1234abcdL);
+        for (int i = 1; i <= 20; i++) {
+            writer.writeException(BASE + i * 10, "worker-" + (i % 3), "java.lang.IllegalArgumentException", null, frames, 4, false, 0L);
+        }
+        writer.writeRepeat(BASE + 500, "worker-1", 0x1234abcdL, "java.lang.IllegalStateException", 7, BASE);
+        writer.writeClassLoading(BASE + 600, "main", "Loaded com.example.Service");
+        writer.writeException(BASE + 700, "main", "java.lang.IllegalStateException", "second", frames, 0, false, 0L);
+    }
+
+    private static String decode(File binary) throws IOException {
+        StringWriter decoded = new StringWriter();
+        try (InputStream in = new FileInputStream(binary)) {
+            new BinaryLogReader().read(in, new TextLogWriter(decoded));
+        }
+        return decoded.toString();
+    }
+
+    private static long countRecords(File binary) throws IOException {
+        try (InputStream in = new FileInputStream(binary)) {
+            return new BinaryLogReader().read(in, new TextLogWriter(new StringWriter()));
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.asm.eb.decode;
+
+import com.asm.eb.logger.LogRecordWriter;
+import com.asm.eb.logger.TextLogWriter;
+import org.apache.commons.cli.ParseException;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+public class LogAnalyzerCLITest {
+
+    private static final long BASE = 1_760_000_040_000L; //A whole minute
+    private static final String[] TYPES = {"java.lang.NullPointerException", "java.lang.IllegalStateException", "java.io.IOException"};
+    private static final String[] THREADS = {"pool-1-thread-1", "pool-1-thread-12", "main", "http-nio-8080-exec-3"};
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void shouldCountPerTypeFrameMinuteAndThreadPool() throws Exception {
+        File log = temporaryFolder.newFile("eb.log");
+        writeLog(log, 1200);
+
+        LogAnalysis analysis = LogAnalyzerCLI.analyze(log, 2);
+
+        //1200 traces, every tenth followed by a repeat record of 5, and an INFO record every hundredth
+        assertEquals(1200, analysis.getTraces());
+        assertEquals(120, analysis.getRepeatRecords());
+        assertEquals(1200 + 120 * 5, analysis.getOccurrences());
+        assertEquals(12, analysis.getOtherRecords());
+        assertEquals(Long.valueOf(400 + 40 * 5), analysis.getTypeCounts().get("java.lang.NullPointerException"));
+        assertEquals(Long.valueOf(600 + 60 * 5), analysis.getThreadPoolCounts().get("pool-1-thread-*"));
+        //Repeat records fall on multiples of 10, so on pool-1-thread-1 and main only
+        assertEquals(Long.valueOf(300 + 60 * 5), analysis.getThreadPoolCounts().get("main"));
+        assertEquals(Long.valueOf(300), analysis.getThreadPoolCounts().get("http-nio-8080-exec-*"));
+        //Repeat records count towards the top frame of their fingerprint
+        assertEquals(Long.valueOf(400 + 40 * 5), analysis.getTopFrameCounts().get("com.example.Service0.handle(Service0.java:10)"));
+        //One record per 100 ms, so 600 occurrences of traces per minute plus their repeats
+        Map<Long, Long> minutes = analysis.getMinuteCounts();
+        assertEquals(2, minutes.size());
+        assertEquals(Long.valueOf(600 + 60 * 5), minutes.get(BASE / 60_000L));
+    }
+
+    @Test
+    public void shouldGiveSameCountsForAnyChunking() throws Exception {
+        File log = temporaryFolder.newFile("eb.log");
+        writeLog(log, 3000);
+        LogAnalysis whole = LogAnalyzerCLI.analyze(log, 1, Long.MAX_VALUE);
+
+        for (long chunkBytes : new long[]{97L, 1000L, 4096L, 65_536L}) {
+            for (int threads : new int[]{1, 4}) {
+                LogAnalysis chunked = LogAnalyzerCLI.analyze(log, threads, chunkBytes);
+                String setup = chunkBytes + " bytes, " + threads + " threads";
+                assertEquals(setup, whole.getOccurrences(), chunked.getOccurrences());
+                assertEquals(setup, whole.getOtherRecords(), chunked.getOtherRecords());
+                assertEquals(setup, whole.getTypeCounts(), chunked.getTypeCounts());
+                assertEquals(setup, whole.getTopFrameCounts(), chunked.getTopFrameCounts());
+                assertEquals(setup, whole.getThreadPoolCounts(), chunked.getThreadPoolCounts());
+                assertEquals(setup, whole.getMinuteCounts(), chunked.getMinuteCounts());
+            }
+        }
+    }
+
+    @Test
+    public void shouldReportRepeatsOfTracesMissingFromLog() throws Exception {
+        File log = temporaryFolder.newFile("eb.log");
+        try (Writer out = new OutputStreamWriter(new FileOutputStream(log), StandardCharsets.UTF_8)) {
+            LogRecordWriter writer = new TextLogWriter(out);
+            writer.writeRepeat(BASE, "main", 0xabcL, "java.lang.IllegalStateException", 7, BASE - 60_000L);
+            writer.writeException(BASE + 1, "main", "java.lang.IllegalStateException", "no frames", new StackTraceElement[0], 0, false, 0L);
+            writer.flush();
+        }
+
+        LogAnalysis analysis = LogAnalyzerCLI.analyze(log, 1);
+
+        assertEquals(8, analysis.getOccurrences());
+        assertEquals(Long.valueOf(7), analysis.getTopFrameCounts().get("<fingerprint=abc>"));
+        assertEquals(Long.valueOf(1), analysis.getTopFrameCounts().get(LogAnalysis.NO_FRAMES));
+    }
+
+    @Test
+    public void shouldWriteReport() throws Exception {
+        File log = temporaryFolder.newFile("eb.log");
+        writeLog(log, 300);
+        File report = new File(temporaryFolder.getRoot(), "report.txt");
+
+        LogAnalyzerCLI.analyze(LogAnalyzerCLI.parseAndValidateArguments(
+                new String[]{"--input", log.getPath(), "--output", report.getPath(), "--top", "2", "--threads", "2"},
+                LogAnalyzerCLI.buildOptions()));
+
+        String text = new String(Files.readAllBytes(report.toPath()), StandardCharsets.UTF_8);
+        assertTrue(text, text.startsWith("Analyzed " + log.getAbsolutePath() + ": " + log.length() + " bytes in "));
+        assertTrue(text, text.contains("Exceptions: 450 (300 traces, 150 more in 30 repeat records), 3 other records"));
+        assertTrue(text, text.contains("Exception types (2 of 3):"));
+        assertTrue(text, text.contains("Thread pools (2 of 3):"));
+        assertTrue(text, text.contains("Per minute:"));
+    }
+
+    @Test
+    public void shouldRejectInvalidArguments() throws Exception {
+        File log = temporaryFolder.newFile("eb.log");
+
+        assertThrows(ParseException.class, () -> LogAnalyzerCLI.parseAndValidateArguments(
+                new String[]{"--input", new File(temporaryFolder.getRoot(), "missing.log").getPath()}, LogAnalyzerCLI.buildOptions()));
+        assertThrows(ParseException.class, () -> LogAnalyzerCLI.parseAndValidateArguments(
+                new String[]{"--input", log.getPath(), "--threads", "0"}, LogAnalyzerCLI.buildOptions()));
+        assertThrows(ParseException.class, () -> LogAnalyzerCLI.parseAndValidateArguments(
+                new String[]{"--input", log.getPath(), "--top", "many"}, LogAnalyzerCLI.buildOptions()));
+    }
+
+    private static void writeLog(File log, int traces) throws Exception {
+        try (Writer out = new OutputStreamWriter(new FileOutputStream(log), StandardCharsets.UTF_8)) {
+            LogRecordWriter writer = new TextLogWriter(out);
+            for (int i = 0; i < traces; i++) {
+                long timestamp = BASE + i * 100L;
+                int type = i % 3;
+                StackTraceElement[] frames = {
+                        new StackTraceElement("com.example.Service" + type, "handle", "Service" + type + ".java", 10),
+                        new StackTraceElement("com.example.Controller", "get", "Controller.java", 17)
+                };
+                writer.writeException(timestamp, THREADS[i % 4], TYPES[type], "event " + i + "\nsecond line", frames, 0, true, 0x100L + type);
+                if (i % 10 == 0) {
+                    writer.writeRepeat(timestamp, THREADS[i % 4], 0x100L + type, TYPES[type], 5, timestamp - 1000L);
+                }
+                if (i % 100 == 0) {
+                    writer.writeMessage(timestamp, "INFO", "main", "progress " + i);
+                }
+            }
+            writer.flush();
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package com.asm.eb.decode;
+
+import com.asm.eb.logger.LogRecordWriter;
+import com.asm.eb.logger.TextLogWriter;
+import org.apache.commons.cli.ParseException;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.BitSet;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+public class LogSearchCLITest {
+
+    private static final long BASE = 1_760_000_000_000L;
+    private static final String[] TYPES = {"java.lang.NullPointerException", "java.lang.IllegalStateException", "com.example.Outer$RetryException"};
+    private static final String[] THREADS = {"pool-1-thread-1", "pool-1-thread-2", "main", "pool-2-thread-1"};
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void shouldPrintExactlyTheMatchingRecords() throws Exception {
+        File log = temporaryFolder.newFile("eb.log");
+        writeLog(log, 0, 5000, true);
+        long from = BASE + 1000 * 100L;
+        long to = BASE + 1500 * 100L;
+        StringWriter expected = new StringWriter();
+        LogRecordWriter expectedWriter = new TextLogWriter(expected);
+        int expectedCount = 0;
+        for (int i = 1000; i <= 1500; i++) {
+            if (TYPES[i % 3].equals("java.lang.NullPointerException") && THREADS[i % 4].startsWith("pool-1-")) {
+                writeRecord(expectedWriter, i);
+                expectedCount++;
+            }
+        }
+        expectedWriter.close();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long printed = LogSearchCLI.search(arguments(log, "--from", String.valueOf(from), "--to", String.valueOf(to),
+                "--type", "NullPointerException", "--thread", "pool-1-*"), out);
+
+        assertEquals(expectedCount, printed);
+        assertEquals(expected.toString(), new String(out.toByteArray(), StandardCharsets.UTF_8));
+        assertTrue(new File(log.getPath() + ".idx").isFile());
+    }
+
+    @Test
+    public void shouldPrintSameRecordsWithCappedMappings() throws Exception {
+        File log = temporaryFolder.newFile("eb.log");
+        writeLog(log, 0, 20_000, true);
+        ByteArrayOutputStream whole = new ByteArrayOutputStream();
+        assertEquals(20_000, LogSearchCLI.search(arguments(log), whole));
+
+        //One and about three blocks per mapping, or less than a block, which is then mapped whole
+        for (long mapBytes : new long[]{LogIndex.BLOCK_BYTES, 3L * LogIndex.BLOCK_BYTES + 1000, 100L}) {
+            ByteArrayOutputStream capped = new ByteArrayOutputStream();
+            assertEquals(20_000, LogSearchCLI.search(arguments(log), capped, mapBytes));
+            assertArrayEquals(String.valueOf(mapBytes), whole.toByteArray(), capped.toByteArray());
+        }
+    }
+
+    @Test
+    public void shouldFindBlockOfOffset() throws Exception {
+        File log = temporaryFolder.newFile("eb.log");
+        writeLog(log, 0, 20_000, true);
+        try (FileChannel channel = FileChannel.open(log.toPath(), StandardOpenOption.READ)) {
+            LogIndex index = LogIndex.update(null, channel);
+            assertEquals(-1, index.findBlock(-1L));
+            assertEquals(0, index.findBlock(0L));
+            assertEquals(1, index.findBlock(index.getBlockOffset(1)));
+            assertEquals(1, index.findBlock(index.getBlockOffset(2) - 1));
+            assertEquals(index.getBlockCount() - 1, index.findBlock(Long.MAX_VALUE));
+        }
+    }
+
+    @Test
+    public void shouldSelectOnlyBlocksThatCanMatch() throws Exception {
+        File log = temporaryFolder.newFile("eb.log");
+        writeLog(log, 0, 20_000, true);
+
+        try (FileChannel channel = FileChannel.open(log.toPath(), StandardOpenOption.READ)) {
+            LogIndex index = LogIndex.update(null, channel);
+            BitSet inRange = index.candidates(BASE + 10_000 * 100L, BASE + 10_100 * 100L, null, null);
+            BitSet unknownType = index.candidates(Long.MIN_VALUE, Long.MAX_VALUE, LogSearchCLI.typeMatcher(Arrays.asList("java.io.IOException")), null);
+            BitSet nestedType = index.candidates(Long.MIN_VALUE, Long.MAX_VALUE, LogSearchCLI.typeMatcher(Arrays.asList("RetryException")), null);
+
+            assertTrue("Expected several blocks, got " + index.getBlockCount(), index.getBlockCount() > 10);
+            assertTrue(inRange.cardinality() + " blocks for a narrow time range", inRange.cardinality() > 0 && inRange.cardinality() <= 2);
+            assertEquals(0, unknownType.cardinality());
+            assertEquals(index.getBlockCount(), nestedType.cardinality());
+        }
+    }
+
+    @Test
+    public void shouldExtendIndexAsLogGrows() throws Exception {
+        File log = temporaryFolder.newFile("eb.log");
+        writeLog(log, 0, 2000, true);
+        assertEquals(2000, LogSearchCLI.search(arguments(log), new ByteArrayOutputStream()));
+        LogIndex first = LogIndex.load(new File(log.getPath() + ".idx"));
+        assertNotNull(first);
+
+        writeLog(log, 2000, 3000, true);
+        assertEquals(3000, LogSearchCLI.search(arguments(log), new ByteArrayOutputStream()));
+        LogIndex second = LogIndex.load(new File(log.getPath() + ".idx"));
+
+        assertTrue(second.getIndexedLength() > first.getIndexedLength());
+        for (int block = 0; block < first.getBlockCount() - 1; block++) {
+            assertEquals(first.getBlockOffset(block), second.getBlockOffset(block));
+        }
+        //The last record is not indexed while it may still grow, but is searched
+        assertTrue(second.getIndexedLength() < log.length());
+        assertEquals(1, LogSearchCLI.search(arguments(log, "--from", String.valueOf(BASE + 2999 * 100L)), new ByteArrayOutputStream()));
+    }
+
+    @Test
+    public void shouldRebuildIndexOfRolledOverLog() throws Exception {
+        File log = temporaryFolder.newFile("eb.log");
+        writeLog(log, 0, 3000, true);
+        assertEquals(3000, LogSearchCLI.search(arguments(log), new ByteArrayOutputStream()));
+
+        writeLog(log, 5000, 5100, false);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertEquals(100, LogSearchCLI.search(arguments(log), out));
+        assertTrue(new String(out.toByteArray(), StandardCharsets.UTF_8).startsWith(render(5000)));
+    }
+
+    @Test
+    public void shouldIgnoreDamagedIndex() throws Exception {
+        File log = temporaryFolder.newFile("eb.log");
+        writeLog(log, 0, 1000, true);
+        Files.write(new File(log.getPath() + ".idx").toPath(), "not an index".getBytes(StandardCharsets.UTF_8));
+
+        assertEquals(250, LogSearchCLI.search(arguments(log, "--thread", "main"), new ByteArrayOutputStream()));
+    }
+
+    @Test
+    public void shouldFollowNewRecords() throws Exception {
+        File log = temporaryFolder.newFile("eb.log");
+        writeLog(log, 0, 10, true);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        LogSearchCLI.CliArguments arguments = arguments(log, "--follow", "--thread", "main");
+        Thread follower = new Thread(() -> {
+            try {
+                LogSearchCLI.search(arguments, out);
+            } catch (Exception e) {
+                //Interrupted at the end of the test
+            }
+        });
+        follower.start();
+        try {
+            writeLog(log, 10, 20, true);
+            long deadline = System.currentTimeMillis() + 10_000;
+            String followed;
+            do {
+                Thread.sleep(50);
+                synchronized (out) {
+                    followed = new String(out.toByteArray(), StandardCharsets.UTF_8);
+                }
+            } while (!followed.contains("event 18") && System.currentTimeMillis() < deadline);
+
+            //Records of main are 2, 6, 10, 14 and 18; the last is printed once the log stops growing
+            String eol = System.lineSeparator();
+            assertTrue(followed, followed.contains("event 2" + eol) && followed.contains("event 14" + eol) && followed.contains("event 18" + eol));
+            assertEquals(followed, 5, followed.split("\\[EXCEPTION]").length - 1);
+        } finally {
+            follower.interrupt();
+            follower.join(5000);
+        }
+    }
+
+    @Test
+    public void shouldRejectInvalidArguments() throws Exception {
+        File log = temporaryFolder.newFile("eb.log");
+
+        assertThrows(ParseException.class, () -> arguments(new File(temporaryFolder.getRoot(), "missing.log")));
+        assertThrows(ParseException.class, () -> arguments(log, "--from", "2025-02-13 11:00:00", "--to", "2025-02-13 10:00:00"));
+        assertThrows(ParseException.class, () -> arguments(log, "--type", " , "));
+    }
+
+    private static LogSearchCLI.CliArguments arguments(File log, String... options) throws ParseException {
+        String[] args = new String[options.length + 2];
+        args[0] = "--input";
+        args[1] = log.getPath();
+        System.arraycopy(options, 0, args, 2, options.length);
+        return LogSearchCLI.parseAndValidateArguments(args, LogSearchCLI.buildOptions());
+    }
+
+    private static void writeLog(File log, int from, int to, boolean append) throws Exception {
+        try (Writer out = new OutputStreamWriter(new FileOutputStream(log, append), StandardCharsets.UTF_8)) {
+            LogRecordWriter writer = new TextLogWriter(out);
+            for (int i = from; i < to; i++) {
+                writeRecord(writer, i);
+            }
+            writer.flush();
+        }
+    }
+
+    private static String render(int i) {
+        StringWriter out = new StringWriter();
+        LogRecordWriter writer = new TextLogWriter(out);
+        writeRecord(writer, i);
+        writer.close();
+        return out.toString();
+    }
+
+    private static void writeRecord(LogRecordWriter writer, int i) {
+        StackTraceElement[] frames = {
+                new StackTraceElement("com.example.Service", "handle", "Service.java", 40 + i % 7),
+                new StackTraceElement("com.example.Controller", "get", "Controller.java", 17)
+        };
+        writer.writeException(BASE + i * 100L, THREADS[i % 4], TYPES[i % 3], "event " + i, frames, 0, true, 0x1000L + i % 3);
+    }
+}
@@ -0,0 +1,277 @@
+package com.asm.eb.export;
+
+import com.asm.eb.logger.TextLogWriter;
+import com.asm.eb.store.StatsStore;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.InputStreamReader;
+import java.io.StringWriter;
+import java.net.DatagramSocket;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+public class NodeCollectorTest {
+
+    private static final long BASE = 1_760_000_000_000L;
+    private static final long FINGERPRINT = 0x00ab12cdL;
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void shouldRoundTripDatagram() {
+        ExportFormat.Encoder encoder = new ExportFormat.Encoder(ExportFormat.MAX_DATAGRAM_BYTES);
+        encoder.begin("jvm-1", 7);
+        assertTrue(encoder.addTrace(FINGERPRINT, BASE, "worker-1", "java.lang.IllegalStateException", null, frames(3), 0));
+        assertTrue(encoder.addCount(FINGERPRINT, "java.lang.IllegalStateException", 42, BASE, BASE + 5));
+        List<String> decoded = new ArrayList<>();
+
+        ExportFormat.decode(encoder.finish(), new RecordingVisitor(decoded));
+
+        assertEquals("header jvm-1 7", decoded.get(0));
+        assertEquals("trace " + FINGERPRINT + " worker-1 java.lang.IllegalStateException null 3 frames, truncatedAt 0, first "
+                + frames(1)[0], decoded.get(1));
+        assertEquals("count " + FINGERPRINT + " java.lang.IllegalStateException 42 " + BASE + ".." + (BASE + 5), decoded.get(2));
+    }
+
+    @Test
+    public void shouldTruncateTraceLargerThanDatagram() {
+        ExportFormat.Encoder encoder = new ExportFormat.Encoder(2048);
+        encoder.begin("jvm-1", 0);
+        assertTrue(encoder.addCount(FINGERPRINT, "java.lang.IllegalStateException", 1, BASE, BASE));
+        assertTrue("Trace should not fit next to another record",
+                !encoder.addTrace(FINGERPRINT, BASE, "main", "java.lang.IllegalStateException", "boom", frames(200), 0));
+        encoder.begin("jvm-1", 1);
+        assertTrue(encoder.addTrace(FINGERPRINT, BASE, "main", "java.lang.IllegalStateException", "boom", frames(200), 0));
+        List<String> decoded = new ArrayList<>();
+
+        ExportFormat.decode(encoder.finish(), new RecordingVisitor(decoded));
+
+        Matcher matcher = Pattern.compile("(\\d+) frames, truncatedAt (\\d+)").matcher(decoded.get(1));
+        assertTrue(matcher.find());
+        assertTrue(Integer.parseInt(matcher.group(1)) < 200);
+        assertEquals(matcher.group(1), matcher.group(2));
+    }
+
+    @Test
+    public void shouldDropAndCountWhenQueueIsFull() {
+        EventExporter exporter = new EventExporter(new InetSocketAddress("127.0.0.1", 9), "jvm-1", 4, 1000);
+        long droppedBefore = StatsStore.getExportDroppedCount();
+
+        //Not started, so nothing drains the queue
+        for (int i = 0; i < 10; i++) {
+            exporter.export(BASE + i, "main", "java.lang.IllegalStateException", null, frames(3), 0, FINGERPRINT);
+        }
+
+        assertEquals(4, exporter.getQueueDepth());
+        assertEquals(6, StatsStore.getExportDroppedCount() - droppedBefore);
+    }
+
+    @Test
+    public void shouldCountDropsWhenCollectorIsDown() throws Exception {
+        int port;
+        try (DatagramSocket unused = new DatagramSocket(0)) {
+            port = unused.getLocalPort();
+        }
+        EventExporter exporter = new EventExporter(new InetSocketAddress("127.0.0.1", port), "jvm-1", 16, 1000);
+        exporter.start();
+        long droppedBefore = StatsStore.getExportDroppedCount();
+
+        //The first datagram to a closed port only provokes the ICMP error that fails the next ones
+        for (int i = 0; i < 5; i++) {
+            exporter.export(BASE + i, "main", "java.lang.IllegalStateException", null, frames(3), 0, FINGERPRINT + i);
+            Thread.sleep(1100);
+        }
+        exporter.shutdown();
+
+        assertTrue("Events sent to a stopped collector should be counted as dropped",
+                StatsStore.getExportDroppedCount() > droppedBefore);
+    }
+
+    @Test
+    public void shouldSendTraceAgainWhenItWasDropped() throws Exception {
+        StringWriter out = new StringWriter();
+        TextLogWriter store = new TextLogWriter(out);
+        NodeCollector collector = new NodeCollector(new InetSocketAddress("127.0.0.1", 0), store, 100, 60_000);
+        collector.start();
+        //Room for a single fingerprint per interval
+        EventExporter exporter = new EventExporter(new InetSocketAddress("127.0.0.1", collector.getPort()), "jvm-1", 1, 1000);
+        exporter.start();
+
+        exporter.export(BASE, "main", "java.lang.IllegalStateException", "boom", frames(3), 0, FINGERPRINT);
+        waitForDrain(exporter);
+        exporter.export(BASE + 1, "main", "java.lang.IllegalArgumentException", "bad", frames(4), 0, FINGERPRINT + 1);
+        waitFor(collector, 1);
+        exporter.export(BASE + 2, "main", "java.lang.IllegalArgumentException", "bad", frames(4), 0, FINGERPRINT + 1);
+        exporter.shutdown();
+        waitFor(collector, 2);
+        collector.shutdown();
+        store.close();
+
+        String log = out.toString();
+        assertEquals(log, 2, occurrences(log, "[EXCEPTION]"));
+        assertTrue(log, log.contains("java.lang.IllegalArgumentException: bad"));
+    }
+
+    @Test
+    public void shouldMergeSitesAcrossJvms() throws Exception {
+        StringWriter out = new StringWriter();
+        TextLogWriter store = new TextLogWriter(out);
+        NodeCollector collector = new NodeCollector(new InetSocketAddress("127.0.0.1", 0), store, 100, 60_000);
+        collector.start();
+        InetSocketAddress address = new InetSocketAddress("127.0.0.1", collector.getPort());
+        EventExporter first = new EventExporter(address, "jvm-1", 64, 60_000);
+        EventExporter second = new EventExporter(address, "jvm-2", 64, 60_000);
+        first.start();
+        second.start();
+
+        for (int i = 0; i < 3; i++) {
+            first.export(BASE + i, "worker-1", "java.lang.IllegalStateException", "boom", frames(3), 0, FINGERPRINT);
+        }
+        for (int i = 0; i < 5; i++) {
+            second.export(BASE + 10 + i, "worker-2", "java.lang.IllegalStateException", "boom", frames(3), 0, FINGERPRINT);
+        }
+        first.shutdown();
+        second.shutdown();
+        waitFor(collector, 2);
+        collector.shutdown();
+        store.close();
+
+        String log = out.toString();
+        assertEquals("The trace should be stored once for both JVMs", 1, occurrences(log, "[EXCEPTION]"));
+        assertTrue(log, log.contains("[jvm-1/worker-1]"));
+        assertTrue(log, log.contains("[eb-collector 2 JVMs, 8 total]"));
+        assertTrue(log, log.contains("java.lang.IllegalStateException seen 7 more times"));
+        assertEquals(0, collector.getLostDatagramCount());
+        assertEquals(0, collector.getMalformedDatagramCount());
+    }
+
+    @Test
+    public void shouldCountLostAndMalformedDatagrams() throws Exception {
+        StringWriter out = new StringWriter();
+        NodeCollector collector = new NodeCollector(new InetSocketAddress("127.0.0.1", 0), new TextLogWriter(out), 1, 60_000);
+        ExportFormat.Encoder encoder = new ExportFormat.Encoder(ExportFormat.MAX_DATAGRAM_BYTES);
+        encoder.begin("jvm-1", 0);
+        encoder.addCount(FINGERPRINT, "java.lang.IllegalStateException", 1, BASE, BASE);
+        collector.receive(encoder.finish());
+        encoder.begin("jvm-1", 3);
+        encoder.addCount(FINGERPRINT + 1, "java.lang.IllegalArgumentException", 4, BASE, BASE);
+        collector.receive(encoder.finish());
+        collector.receive(ByteBuffer.wrap("not a datagram".getBytes(StandardCharsets.UTF_8)));
+        collector.shutdown();
+
+        assertEquals(3, collector.getDatagramCount());
+        assertEquals(2, collector.getLostDatagramCount());
+        assertEquals(1, collector.getMalformedDatagramCount());
+        assertEquals("Events of sites beyond maxSites should be counted", 4, collector.getOverflowCount());
+    }
+
+    @Test
+    public void shouldCollectFromSeparateProcess() throws Exception {
+        File store = new File(temporaryFolder.getRoot(), "node.log");
+        File config = temporaryFolder.newFile("collector.json");
+        Files.write(config.toPath(), ("{\"logFilePath\": \"" + store.getAbsolutePath().replace("\\", "\\\\") + "\"}")
+                .getBytes(StandardCharsets.UTF_8));
+        String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+        Process process = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"), NodeCollectorCLI.class.getName(),
+                "--config", config.getAbsolutePath(), "--port", "0", "--summary-interval-seconds", "1")
+                .redirectErrorStream(true)
+                .start();
+        try {
+            BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8));
+            String line = reader.readLine();
+            assertNotNull("Collector exited without output", line);
+            Matcher matcher = Pattern.compile("listening on [^:]+:(\\d+)").matcher(line);
+            assertTrue(line, matcher.find());
+            EventExporter exporter = new EventExporter(new InetSocketAddress("127.0.0.1", Integer.parseInt(matcher.group(1))), "jvm-1", 64, 60_000);
+            exporter.start();
+            for (int i = 0; i < 4; i++) {
+                exporter.export(BASE + i, "main", "java.lang.IllegalStateException", "boom", frames(3), 0, FINGERPRINT);
+            }
+            exporter.shutdown();
+
+            String log = "";
+            long deadline = System.currentTimeMillis() + 10_000;
+            while (!log.contains("[REPEAT]") && System.currentTimeMillis() < deadline) {
+                Thread.sleep(100);
+                log = store.exists() ? new String(Files.readAllBytes(store.toPath()), StandardCharsets.UTF_8) : "";
+            }
+            assertTrue(log, log.contains("[jvm-1/main]"));
+            assertTrue(log, log.contains("seen 3 more times"));
+        } finally {
+            process.destroy();
+            process.waitFor();
+        }
+    }
+
+    private static void waitFor(NodeCollector collector, long datagrams) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (collector.getDatagramCount() < datagrams && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(datagrams, collector.getDatagramCount());
+    }
+
+    private static void waitForDrain(EventExporter exporter) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (exporter.getQueueDepth() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, exporter.getQueueDepth());
+    }
+
+    private static int occurrences(String text, String token) {
+        int count = 0;
+        for (int index = text.indexOf(token); index >= 0; index = text.indexOf(token, index + 1)) {
+            count++;
+        }
+        return count;
+    }
+
+    private static StackTraceElement[] frames(int count) {
+        StackTraceElement[] frames = new StackTraceElement[count];
+        for (int i = 0; i < count; i++) {
+            frames[i] = new StackTraceElement("com.example.Service" + i, "handle", "Service" + i + ".java", 10 + i);
+        }
+        return frames;
+    }
+
+    private static final class RecordingVisitor implements ExportFormat.Visitor {
+        private final List<String> decoded;
+
+        private RecordingVisitor(List<String> decoded) {
+            this.decoded = decoded;
+        }
+
+        @Override
+        public void header(String jvmId, long sequence) {
+            decoded.add("header " + jvmId + " " + sequence);
+        }
+
+        @Override
+        public void trace(long fingerprint, long timestamp, String threadName, String className, String message,
+                          StackTraceElement[] frames, int truncatedAt) {
+            decoded.add("trace " + fingerprint + " " + threadName + " " + className + " " + message + " " + frames.length
+                    + " frames, truncatedAt " + truncatedAt + ", first " + frames[0]);
+        }
+
+        @Override
+        public void count(long fingerprint, String className, long count, long firstTimestamp, long lastTimestamp) {
+            decoded.add("count " + fingerprint + " " + className + " " + count + " " + firstTimestamp + ".." + lastTimestamp);
+        }
+    }
+}
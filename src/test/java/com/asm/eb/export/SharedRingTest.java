@@ -0,0 +1,199 @@
+package com.asm.eb.export;
+
+import org.junit.Assume;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.StringWriter;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+public class SharedRingTest {
+
+    private static final long BASE = 1_760_000_000_000L;
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void shouldReadPublishedEvents() throws Exception {
+        File file = new File(temporaryFolder.getRoot(), "eb.ring");
+        SharedRingWriter writer = SharedRingWriter.create(file, 8, 256);
+        SharedRingReader reader = SharedRingReader.open(file);
+        Recorder recorder = new Recorder();
+        assertEquals(0, reader.poll(recorder, 10));
+
+        writer.publish(BASE, "worker-1", "java.lang.IllegalStateException", "boom", frames(), 0, 0x00ab12cdL);
+        writer.publish(BASE + 1, "worker-2", "java.io.IOException", null, new StackTraceElement[0], 0, 42L);
+
+        assertEquals(2, reader.poll(recorder, 10));
+        assertEquals("1 " + BASE + " worker-1 java.lang.IllegalStateException boom 4 " + 0x00ab12cdL
+                + " at com.example.Service.handle(Service.java:42)", recorder.events.get(0));
+        assertEquals("2 " + (BASE + 1) + " worker-2 java.io.IOException null -1 42 at null.null(null:0)", recorder.events.get(1));
+        assertEquals(0, reader.getOverrunCount());
+        assertFalse(reader.isWriterClosed());
+        writer.close();
+        assertTrue(reader.isWriterClosed());
+    }
+
+    @Test
+    public void shouldTruncateStringsToSlot() throws Exception {
+        File file = new File(temporaryFolder.getRoot(), "eb.ring");
+        SharedRingWriter writer = SharedRingWriter.create(file, 2, SharedRingWriter.MIN_SLOT_BYTES);
+        SharedRingReader reader = SharedRingReader.open(file);
+        StringBuilder message = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            message.append("long message ");
+        }
+        Recorder recorder = new Recorder();
+
+        writer.publish(BASE, "main", "java.lang.IllegalStateException", message.toString(), frames(), 0, 1L);
+        reader.poll(recorder, 1);
+
+        //(128 - 56) / 2 = 36 chars for all strings: the class and thread names fit, the top frame is cut short
+        //and no room is left for the message, whose full length is still known
+        assertEquals("1 " + BASE + " main java.lang.IllegalStateException  " + message.length() + " 1 at c.(:42)", recorder.events.get(0));
+        assertEquals(0, recorder.messageChars);
+    }
+
+    @Test
+    public void shouldReportOverrunAndContinueWithOldestEvent() throws Exception {
+        File file = new File(temporaryFolder.getRoot(), "eb.ring");
+        SharedRingWriter writer = SharedRingWriter.create(file, 4, 256);
+        SharedRingReader reader = SharedRingReader.open(file);
+        Recorder recorder = new Recorder();
+
+        for (int i = 0; i < 10; i++) {
+            writer.publish(BASE + i, "main", "java.lang.IllegalStateException", "event " + i, frames(), 0, i);
+        }
+
+        assertEquals(4, reader.poll(recorder, 100));
+        assertEquals(6, recorder.lost);
+        assertEquals(6, reader.getOverrunCount());
+        assertTrue(recorder.events.get(0), recorder.events.get(0).startsWith("7 "));
+        assertTrue(recorder.events.get(3), recorder.events.get(3).startsWith("10 "));
+    }
+
+    @Test
+    public void shouldDetectEventOverwrittenWhileRead() throws Exception {
+        File file = new File(temporaryFolder.getRoot(), "eb.ring");
+        SharedRingWriter writer = SharedRingWriter.create(file, 2, 256);
+        SharedRingReader reader = SharedRingReader.open(file);
+        writer.publish(BASE, "main", "java.lang.IllegalStateException", "first", frames(), 0, 1L);
+        List<Boolean> intact = new ArrayList<>();
+        long[] lost = new long[1];
+
+        reader.poll(new SharedRingReader.Handler() {
+            @Override
+            public void onEvent(SharedRingReader.RingEvent event) {
+                //The writer laps the reader while the handler looks at the event
+                writer.publish(BASE + 1, "main", "java.lang.IllegalStateException", "second", frames(), 0, 2L);
+                writer.publish(BASE + 2, "main", "java.lang.IllegalStateException", "third", frames(), 0, 3L);
+                intact.add(event.isIntact());
+            }
+
+            @Override
+            public void onOverrun(long lostEvents) {
+                lost[0] += lostEvents;
+            }
+        }, 1);
+
+        assertEquals(1, intact.size());
+        assertFalse(intact.get(0));
+        assertEquals(1, lost[0]);
+    }
+
+    @Test
+    public void shouldFollowReplacedRing() throws Exception {
+        File file = new File(temporaryFolder.getRoot(), "eb.ring");
+        SharedRingWriter.create(file, 4, 256);
+        SharedRingReader reader = SharedRingReader.open(file);
+        assertFalse(reader.isReplaced());
+
+        SharedRingWriter restarted = SharedRingWriter.create(file, 4, 256);
+        restarted.publish(BASE, "main", "java.lang.IllegalStateException", "after restart", frames(), 0, 1L);
+
+        Assume.assumeTrue("File keys are not supported here",
+                Files.readAttributes(file.toPath(), java.nio.file.attribute.BasicFileAttributes.class).fileKey() != null);
+        assertTrue(reader.isReplaced());
+        SharedRingTailCLI.CliArguments arguments = SharedRingTailCLI.parseAndValidateArguments(
+                new String[]{"--file", file.getPath(), "--from-oldest", "--no-follow"}, SharedRingTailCLI.buildOptions());
+        StringWriter out = new StringWriter();
+        assertEquals(1, SharedRingTailCLI.tail(arguments, out));
+        assertTrue(out.toString(), out.toString().contains(" #1 [main] [fingerprint="));
+        assertTrue(out.toString(), out.toString().contains("java.lang.IllegalStateException: after restart at com.example.Service.handle(Service.java:42)"));
+    }
+
+    @Test
+    public void shouldRejectOtherFiles() throws Exception {
+        File file = temporaryFolder.newFile("eb.log");
+        Files.write(file.toPath(), new byte[8192]);
+
+        assertThrows(IllegalArgumentException.class, () -> SharedRingReader.open(file));
+        assertThrows(IllegalArgumentException.class, () -> SharedRingWriter.create(new File(temporaryFolder.getRoot(), "bad.ring"), 3, 256));
+    }
+
+    @Test
+    public void publishShouldNotAllocate() throws Exception {
+        ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue(threadMXBean instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean allocationBean = (com.sun.management.ThreadMXBean) threadMXBean;
+        Assume.assumeTrue(allocationBean.isThreadAllocatedMemorySupported());
+        allocationBean.setThreadAllocatedMemoryEnabled(true);
+        SharedRingWriter writer = SharedRingWriter.create(new File(temporaryFolder.getRoot(), "eb.ring"), 1024, 512);
+        StackTraceElement[] frames = frames();
+        long threadId = Thread.currentThread().getId();
+        publish(writer, frames, 50_000);
+
+        long before = allocationBean.getThreadAllocatedBytes(threadId);
+        publish(writer, frames, 200_000);
+        long allocated = allocationBean.getThreadAllocatedBytes(threadId) - before;
+
+        assertTrue("Publishing allocated " + allocated + " bytes", allocated < 200_000);
+    }
+
+    private static void publish(SharedRingWriter writer, StackTraceElement[] frames, int events) {
+        for (int i = 0; i < events; i++) {
+            writer.publish(BASE + i, "worker-1", "java.lang.IllegalStateException", "boom", frames, 0, i);
+        }
+    }
+
+    private static StackTraceElement[] frames() {
+        return new StackTraceElement[]{
+                new StackTraceElement("com.example.Service", "handle", "Service.java", 42),
+                new StackTraceElement("com.example.Controller", "get", "Controller.java", 17)
+        };
+    }
+
+    private static final class Recorder implements SharedRingReader.Handler {
+        private final List<String> events = new ArrayList<>();
+        private long lost;
+        private int messageChars = -1;
+
+        @Override
+        public void onEvent(SharedRingReader.RingEvent event) {
+            CharSequence message = event.getMessage();
+            messageChars = message == null ? -1 : message.length();
+            events.add(event.getSequence() + " " + event.getTimestamp() + " " + event.getThreadName() + " " + event.getClassName()
+                    + " " + message + " " + event.getMessageLength() + " " + event.getFingerprint()
+                    + " at " + event.getTopFrameClass() + "." + event.getTopFrameMethod() + "(" + event.getTopFrameFile()
+                    + ":" + event.getTopFrameLine() + ")");
+        }
+
+        @Override
+        public void onOverrun(long lostEvents) {
+            lost += lostEvents;
+        }
+    }
+}
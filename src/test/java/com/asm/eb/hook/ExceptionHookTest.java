@@ -0,0 +1,78 @@
+package com.asm.eb.hook;
+
+import com.asm.eb.logger.ExceptionLogger;
+import com.asm.eb.model.Configuration;
+import org.junit.Assume;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks the dispatch of {@link ExceptionHook}. Its cost against the former
+ * synchronized dispatch is measured by HookDispatchBenchmark in the benchmarks module.
+ */
+public class ExceptionHookTest {
+
+    private static final int WARMUP_ITERATIONS = 200_000;
+    private static final int MEASURED_ITERATIONS = 2_000_000;
+
+    private static final RuntimeException SAMPLE = new RuntimeException("sample");
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void shouldIgnoreThrowablesWhenNoLoggerIsInstalled() {
+        ExceptionHook.uninstall();
+        assertFalse(ExceptionHook.isEnabled());
+        ExceptionHook.onThrowable(SAMPLE);
+    }
+
+    @Test
+    public void shouldNotLetAnErrorWhileLoggingEscape() throws Exception {
+        Configuration configuration = new Configuration();
+        configuration.setLogFilePath(temporaryFolder.newFile("eb.log").getAbsolutePath());
+        ExceptionHook.install(ExceptionLogger.getInstance(configuration));
+        try {
+            ExceptionHook.onThrowable(new IllegalStateException() {
+                @Override
+                public String getMessage() {
+                    throw new StackOverflowError();
+                }
+            });
+        } finally {
+            ExceptionHook.uninstall();
+        }
+    }
+
+    @Test
+    public void hookDispatchShouldNotAllocate() {
+        ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue(threadMXBean instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean allocationBean = (com.sun.management.ThreadMXBean) threadMXBean;
+        Assume.assumeTrue(allocationBean.isThreadAllocatedMemorySupported());
+        allocationBean.setThreadAllocatedMemoryEnabled(true);
+
+        ExceptionHook.uninstall();
+        long threadId = Thread.currentThread().getId();
+        runHook(WARMUP_ITERATIONS);
+        long hookBefore = allocationBean.getThreadAllocatedBytes(threadId);
+        runHook(MEASURED_ITERATIONS);
+        long hookBytes = allocationBean.getThreadAllocatedBytes(threadId) - hookBefore;
+
+        // Only the measurement itself may allocate a few bytes, nothing proportional to the iteration count.
+        assertTrue("Hook dispatch allocated " + hookBytes + " bytes", hookBytes < 4096);
+    }
+
+    private static void runHook(int iterations) {
+        for (int i = 0; i < iterations; i++) {
+            ExceptionHook.onThrowable(SAMPLE);
+        }
+    }
+}
@@ -14,9 +14,13 @@ import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
@@ -39,6 +43,26 @@ public class ExceptionBuddyAttachIT {
 
         String logContents = readLog(logFile);
         assertTrue(logContents.contains("EB_STARTUP_EXCEPTION"));
+        if (javaMajorVersion() >= 9) {
+            assertTrue(logContents.contains("Stack capture engine: StackWalker"));
+        }
+        assertTrue(logContents.contains("\tat " + ExceptionBuddyTargetApp.class.getName() + ".generateStartupEvent("));
+    }
+
+    @Test
+    public void startupAttachShouldTruncateTracesAtMaxFrames() throws Exception {
+        File logFile = temporaryFolder.newFile("maxframes.log");
+        File configFile = writeConfig(logFile, false, null, false, false, false, "\"maxFrames\": 1");
+
+        RunningProcess process = startStartupAttachedProcess(configFile, "startup");
+        assertTrue("MaxFrames target process did not finish in time.", process.process.waitFor(PROCESS_TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        assertTrue("MaxFrames target process failed. Output:\n" + process.joinedOutput(), process.process.exitValue() == 0);
+
+        String logContents = readLog(logFile);
+        assertTrue(logContents.contains("EB_STARTUP_EXCEPTION"));
+        assertTrue(logContents.contains("\tat " + ExceptionBuddyTargetApp.class.getName() + ".generateStartupEvent("));
+        assertFalse(logContents.contains("\tat " + ExceptionBuddyTargetApp.class.getName() + ".main("));
+        assertTrue(logContents.contains("(truncated at maxFrames=1)"));
     }
 
     @Test
@@ -69,6 +93,52 @@ public class ExceptionBuddyAttachIT {
         assertTrue(logContents.contains("*******Environment Variables*******"));
     }
 
+    @Test
+    public void startupAttachShouldLogExceptionsThroughAsyncWriter() throws Exception {
+        File logFile = temporaryFolder.newFile("async.log");
+        File configFile = writeConfig(logFile, false, null, true, false, false,
+                "\"asyncLogging\": true, \"asyncOverflowPolicy\": \"BLOCK\", \"jmxEnabled\": true, \"metricsPort\": 0");
+
+        RunningProcess process = startStartupAttachedProcess(configFile, "startup");
+        assertTrue("Async target process did not finish in time.", process.process.waitFor(PROCESS_TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        assertTrue("Async target process failed. Output:\n" + process.joinedOutput(), process.process.exitValue() == 0);
+
+        String logContents = readLog(logFile);
+        assertTrue(logContents.contains("EB_STARTUP_EXCEPTION"));
+        assertTrue(logContents.contains("Registered MBean com.asm.eb:type=ExceptionBuddy"));
+        assertTrue(logContents.contains("Metrics endpoint listening on 127.0.0.1:"));
+    }
+
+    @Test
+    public void deduplicatedTracesShouldBeWrittenAgainAfterRoll() throws Exception {
+        File logFile = new File(temporaryFolder.newFolder("rolling"), "rolling.log");
+        File configFile = writeConfig(logFile, false, null, false, false, false,
+                "\"deduplicateTraces\": true, \"rollMaxBytes\": 16384, \"rollRetention\": 1000, \"rollCompress\": false");
+
+        RunningProcess process = startStartupAttachedProcess(configFile, "rolling");
+        assertTrue("Rolling target process did not finish in time.", process.process.waitFor(PROCESS_TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        assertTrue("Rolling target process failed. Output:\n" + process.joinedOutput(), process.process.exitValue() == 0);
+
+        File[] files = logFile.getParentFile().listFiles();
+        assertTrue("Expected the log to roll", files != null && files.length > 2);
+        Pattern fingerprint = Pattern.compile("\\[(EXCEPTION|REPEAT)]  \\[[^]]*] \\[fingerprint=([0-9a-f]+)]");
+        int repeats = 0;
+        for (File file : files) {
+            String contents = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+            Set<String> traces = new HashSet<>();
+            Matcher matcher = fingerprint.matcher(contents);
+            while (matcher.find()) {
+                if (matcher.group(1).equals("EXCEPTION")) {
+                    traces.add(matcher.group(2));
+                } else {
+                    repeats++;
+                    assertTrue(file.getName() + " repeats a trace it does not hold", traces.contains(matcher.group(2)));
+                }
+            }
+        }
+        assertTrue("Expected repeat records", repeats > 0);
+    }
+
     @Test
     public void runtimeAttachShouldLogExceptionsAfterAttach() throws Exception {
         File logFile = temporaryFolder.newFile("runtime.log");
@@ -150,6 +220,16 @@ public class ExceptionBuddyAttachIT {
                              boolean exceptionMonitoring,
                              boolean printJvmSysProps,
                              boolean printEnvironmentVariables) throws IOException {
+        return writeConfig(logFile, useFilters, filterPrefix, exceptionMonitoring, printJvmSysProps, printEnvironmentVariables, null);
+    }
+
+    private File writeConfig(File logFile,
+                             boolean useFilters,
+                             String filterPrefix,
+                             boolean exceptionMonitoring,
+                             boolean printJvmSysProps,
+                             boolean printEnvironmentVariables,
+                             String extraProperties) throws IOException {
         File config = temporaryFolder.newFile("ebConfig-" + System.nanoTime() + ".json");
         StringBuilder json = new StringBuilder();
         json.append("{\n");
@@ -164,7 +244,11 @@ public class ExceptionBuddyAttachIT {
         json.append("  \"exceptionMonitoring\": ").append(exceptionMonitoring).append(",\n");
         json.append("  \"cnfSkipString\": \"java.lang.ClassLoader.loadClass(ClassLoader.java:406)\",\n");
         json.append("  \"printJVMSysProps\": ").append(printJvmSysProps).append(",\n");
-        json.append("  \"printEnvironmentVariables\": ").append(printEnvironmentVariables).append("\n");
+        json.append("  \"printEnvironmentVariables\": ").append(printEnvironmentVariables);
+        if (extraProperties != null) {
+            json.append(",\n  ").append(extraProperties);
+        }
+        json.append("\n");
         json.append("}\n");
 
         try (FileWriter writer = new FileWriter(config)) {
@@ -9,6 +9,7 @@ public class ExceptionBuddyTargetApp {
     private static final String MODE_STARTUP = "startup";
     private static final String MODE_FILTER = "filter";
     private static final String MODE_RUNTIME = "runtime";
+    private static final String MODE_ROLLING = "rolling";
 
     public static void main(String[] args) throws Exception {
         String mode = args.length > 0 ? args[0] : MODE_STARTUP;
@@ -20,6 +21,16 @@ public class ExceptionBuddyTargetApp {
             return;
         }
 
+        if (MODE_ROLLING.equals(mode)) {
+            //A new trace at every depth grows the log, the recurring one is deduplicated across its rolls
+            for (int depth = 1; depth <= 120; depth++) {
+                generateAtDepth(depth);
+                generateRecurringEvent();
+                Thread.sleep(2L);
+            }
+            return;
+        }
+
         if (MODE_RUNTIME.equals(mode)) {
             long deadline = System.currentTimeMillis() + 12000L;
             while (System.currentTimeMillis() < deadline) {
@@ -45,6 +56,26 @@ public class ExceptionBuddyTargetApp {
         OtherExceptionGenerator.throwMiss();
     }
 
+    private static void generateAtDepth(int depth) {
+        if (depth > 1) {
+            generateAtDepth(depth - 1);
+            return;
+        }
+        try {
+            throw new IllegalArgumentException("EB_ROLLING_DEPTH");
+        } catch (IllegalArgumentException ignored) {
+            // no-op
+        }
+    }
+
+    private static void generateRecurringEvent() {
+        try {
+            throw new IllegalStateException("EB_ROLLING_RECURRING");
+        } catch (IllegalStateException ignored) {
+            // no-op
+        }
+    }
+
     private static void generateRuntimeEvent() {
         try {
             throw new RuntimeException("EB_RUNTIME_ATTACH");
@@ -0,0 +1,68 @@
+package com.asm.eb.jmx;
+
+import com.asm.eb.logger.ExceptionLogger;
+import com.asm.eb.model.Configuration;
+import com.asm.eb.store.StatsStore;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+import javax.management.openmbean.TabularData;
+import java.io.File;
+import java.lang.management.ManagementFactory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ExceptionBuddyStatsTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @After
+    public void unregister() {
+        ExceptionBuddyStats.unregister();
+    }
+
+    @Test
+    public void shouldExposeStatisticsThroughPlatformMBeanServer() throws Exception {
+        Configuration configuration = new Configuration();
+        configuration.setLogFilePath(new File(temporaryFolder.getRoot(), "eb.log").getAbsolutePath());
+        ExceptionLogger exceptionLogger = ExceptionLogger.getInstance(configuration);
+        ExceptionBuddyStats.register(exceptionLogger);
+
+        long before = StatsStore.getExceptionCount();
+        StatsStore.incrementExceptionCount();
+        StatsStore.incrementExceptionTypeCount("com.example.JmxTestException");
+        StatsStore.recordHookTime(1_000L);
+
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(ExceptionBuddyStats.OBJECT_NAME);
+        assertEquals(before + 1, server.getAttribute(name, "TotalExceptionCount"));
+        assertTrue((Long) server.getAttribute(name, "HookInvocationCount") >= 1);
+        assertTrue((Double) server.getAttribute(name, "AverageHookTimeNanos") > 0);
+        assertFalse((Boolean) server.getAttribute(name, "AsyncLogging"));
+        assertEquals(0, server.getAttribute(name, "QueueDepth"));
+
+        TabularData byType = (TabularData) server.getAttribute(name, "ExceptionCountsByType");
+        CompositeData row = byType.get(new Object[]{"com.example.JmxTestException"});
+        assertEquals(1L, row.get("value"));
+    }
+
+    @Test
+    public void shouldReplaceMBeanLeftByEarlierRegistration() throws Exception {
+        Configuration configuration = new Configuration();
+        configuration.setLogFilePath(new File(temporaryFolder.getRoot(), "eb.log").getAbsolutePath());
+        ExceptionLogger exceptionLogger = ExceptionLogger.getInstance(configuration);
+
+        ExceptionBuddyStats.register(exceptionLogger);
+        ExceptionBuddyStats.register(exceptionLogger);
+
+        assertTrue(ManagementFactory.getPlatformMBeanServer().isRegistered(new ObjectName(ExceptionBuddyStats.OBJECT_NAME)));
+    }
+}
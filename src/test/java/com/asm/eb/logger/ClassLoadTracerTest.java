@@ -0,0 +1,44 @@
+package com.asm.eb.logger;
+
+import org.junit.Test;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.security.CodeSource;
+import java.security.ProtectionDomain;
+import java.security.cert.Certificate;
+
+import static org.junit.Assert.assertEquals;
+
+public class ClassLoadTracerTest {
+
+    @Test
+    public void shouldDescribeHierarchyAndLocationLikeTheSynchronousTrace() throws Exception {
+        ClassLoadTracer tracer = new ClassLoadTracer(null);
+        URL location = new URL("file:/opt/app/lib/app.jar");
+        ProtectionDomain protectionDomain = new ProtectionDomain(new CodeSource(location, (Certificate[]) null), null);
+        ClassLoader parent = ClassLoadTracerTest.class.getClassLoader();
+        try (URLClassLoader loader = new URLClassLoader(new URL[]{location}, parent)) {
+            String expectedHierarchy = URLClassLoader.class.getName() + " -> " + hierarchyOf(parent);
+            String described = tracer.describe(new ClassLoadTracer.Record(0L, "main", "com/example/App", loader, protectionDomain));
+            assertEquals("Class: com/example/App\nClassLoader Hierarchy: " + expectedHierarchy + "\nLoaded from: /opt/app/lib/app.jar", described);
+            //Served from the caches the second time
+            assertEquals(described, tracer.describe(new ClassLoadTracer.Record(0L, "main", "com/example/App", loader, protectionDomain)));
+        }
+    }
+
+    @Test
+    public void shouldDescribeBootstrapClassesWithoutLocation() {
+        ClassLoadTracer tracer = new ClassLoadTracer(null);
+        assertEquals("Class: com/example/Boot\nClassLoader Hierarchy: Bootstrap",
+                tracer.describe(new ClassLoadTracer.Record(0L, "main", "com/example/Boot", null, null)));
+    }
+
+    private static String hierarchyOf(ClassLoader loader) {
+        StringBuilder builder = new StringBuilder();
+        for (ClassLoader current = loader; current != null; current = current.getParent()) {
+            builder.append(current.getClass().getName()).append(" -> ");
+        }
+        return builder.append("Bootstrap").toString();
+    }
+}
@@ -0,0 +1,139 @@
+package com.asm.eb.logger;
+
+import com.asm.eb.config.CompiledConfiguration;
+import com.asm.eb.model.Configuration;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ExceptionEventRingTest {
+
+    @Test
+    public void shouldRoundCapacityUpToPowerOfTwo() {
+        assertEquals(8, new ExceptionEventRing(5).capacity());
+        assertEquals(8, new ExceptionEventRing(8).capacity());
+        assertEquals(2, new ExceptionEventRing(0).capacity());
+    }
+
+    @Test
+    public void shouldRejectOffersWhenFullAndAcceptAgainAfterDrain() {
+        ExceptionEventRing ring = new ExceptionEventRing(4);
+        for (int i = 0; i < 4; i++) {
+            assertTrue(ring.offer(new RuntimeException(), null, null, "t", i, null));
+        }
+        assertFalse(ring.offer(new RuntimeException(), null, null, "t", 4, null));
+        assertEquals(4, ring.size());
+
+        assertEquals(2, ring.drain((throwable, className, message, threadName, timestamp, configuration) -> { }, 2));
+        assertTrue(ring.offer(new RuntimeException(), null, null, "t", 5, null));
+        assertEquals(3, ring.size());
+    }
+
+    @Test
+    public void shouldDeliverConfigurationPublishedWithEvent() {
+        ExceptionEventRing ring = new ExceptionEventRing(4);
+        CompiledConfiguration before = CompiledConfiguration.compile(new Configuration(), null);
+        CompiledConfiguration after = CompiledConfiguration.compile(new Configuration(), null);
+        ring.offer(new RuntimeException(), null, null, "main", 1L, before);
+        ring.offer(new RuntimeException(), null, null, "main", 2L, after);
+
+        List<CompiledConfiguration> configurations = new ArrayList<>();
+        ring.drain((throwable, className, message, threadName, timestamp, configuration) -> configurations.add(configuration), 10);
+
+        assertSame(before, configurations.get(0));
+        assertSame(after, configurations.get(1));
+    }
+
+    @Test
+    public void shouldDeliverEventsInPublicationOrder() {
+        ExceptionEventRing ring = new ExceptionEventRing(8);
+        RuntimeException first = new RuntimeException("first");
+        IllegalStateException second = new IllegalStateException("second");
+        ring.offer(first, "java.lang.RuntimeException", "first", "main", 1L, null);
+        ring.offer(second, "java.lang.IllegalStateException", "second", "worker", 2L, null);
+
+        List<Throwable> throwables = new ArrayList<>();
+        List<String> threadNames = new ArrayList<>();
+        List<String> messages = new ArrayList<>();
+        ring.drain((throwable, className, message, threadName, timestamp, configuration) -> {
+            throwables.add(throwable);
+            threadNames.add(threadName);
+            messages.add(className + ": " + message);
+        }, 10);
+
+        assertSame(first, throwables.get(0));
+        assertSame(second, throwables.get(1));
+        assertEquals("worker", threadNames.get(1));
+        assertEquals("java.lang.IllegalStateException: second", messages.get(1));
+        assertTrue(ring.isEmpty());
+    }
+
+    @Test
+    public void shouldHandOverTheMessageReadWhenPublished() {
+        ExceptionEventRing ring = new ExceptionEventRing(2);
+        //Stands in for a subclass whose constructor had not run yet when the event was published
+        StringBuilder detail = new StringBuilder();
+        RuntimeException throwable = new RuntimeException() {
+            @Override
+            public String getMessage() {
+                return detail.length() == 0 ? null : detail.toString();
+            }
+        };
+        ring.offer(throwable, throwable.getClass().getName(), throwable.getMessage(), "main", 1L, null);
+        detail.append("set later");
+
+        List<String> messages = new ArrayList<>();
+        ring.drain((t, className, message, threadName, timestamp, configuration) -> messages.add(message), 1);
+
+        assertEquals(1, messages.size());
+        assertNull(messages.get(0));
+    }
+
+    @Test
+    public void shouldNotLoseEventsWithConcurrentProducers() throws Exception {
+        final int producers = 8;
+        final int eventsPerProducer = 20_000;
+        ExceptionEventRing ring = new ExceptionEventRing(1024);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            final long base = (long) p * eventsPerProducer;
+            Thread producer = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < eventsPerProducer; i++) {
+                    while (!ring.offer(null, null, null, "p", base + i, null)) {
+                        Thread.yield();
+                    }
+                }
+            });
+            producer.start();
+            threads.add(producer);
+        }
+
+        Set<Long> seen = new HashSet<>();
+        start.countDown();
+        int expected = producers * eventsPerProducer;
+        while (seen.size() < expected) {
+            ring.drain((throwable, className, message, threadName, timestamp, configuration) -> assertTrue(seen.add(timestamp)), 512);
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(expected, seen.size());
+        assertTrue(ring.isEmpty());
+    }
+}
@@ -0,0 +1,243 @@
+package com.asm.eb.logger;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class RollingLogWriterTest {
+
+    private static final RollingLogWriter.Opener TEXT = file -> new TextLogWriter(new BufferedWriter(new FileWriter(file, true)), file.length());
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void shouldRollBySizeAndKeepRetainedFilesCompressed() throws Exception {
+        File log = new File(temporaryFolder.getRoot(), "eb.log");
+        RollingLogWriter writer = new RollingLogWriter(log, TEXT, 1024, 0, 3, true);
+        for (int i = 0; i < 200; i++) {
+            writer.writeMessage(System.currentTimeMillis(), "INFO", "main", "message number " + i);
+            writer.flush();
+            if (writer.bytesWritten() >= 1024) {
+                flushUntilSwitched(writer);
+            }
+        }
+        writer.close();
+
+        File[] rolled = LogCompressor.rolledFiles(log);
+        assertEquals(3, rolled.length);
+        for (File file : rolled) {
+            assertTrue(file.getName() + " should be compressed", file.getName().endsWith(".gz"));
+            assertTrue(file.getName() + " should hold whole records", gunzip(file).endsWith("\n"));
+        }
+        assertTrue(log.length() < 1024 + 64);
+        assertTrue(gunzip(rolled[2]).contains("message number"));
+    }
+
+    @Test
+    public void shouldRollByTime() throws Exception {
+        File log = new File(temporaryFolder.getRoot(), "eb.log");
+        RollingLogWriter writer = new RollingLogWriter(log, TEXT, 0, 50, 10, false);
+        writer.writeMessage(System.currentTimeMillis(), "INFO", "main", "before boundary");
+        writer.flush();
+        Thread.sleep(120);
+        writer.writeMessage(System.currentTimeMillis(), "INFO", "main", "after boundary");
+        flushUntilSwitched(writer);
+        writer.close();
+
+        File[] rolled = LogCompressor.rolledFiles(log);
+        assertTrue(rolled.length >= 1);
+        assertTrue(read(rolled[rolled.length - 1]).contains("after boundary"));
+    }
+
+    @Test
+    public void shouldStartBinaryRolledFilesWithHeader() throws Exception {
+        File log = new File(temporaryFolder.getRoot(), "eb.bin");
+        RollingLogWriter writer = new RollingLogWriter(log, file -> new BinaryLogWriter(file, 1 << 20), 256, 0, 5, false);
+        for (int i = 0; i < 50; i++) {
+            writer.writeMessage(System.currentTimeMillis(), "INFO", "main", "binary message " + i);
+            writer.flush();
+            if (writer.bytesWritten() >= 256) {
+                flushUntilSwitched(writer);
+            }
+        }
+        writer.close();
+
+        File[] rolled = LogCompressor.rolledFiles(log);
+        assertTrue(rolled.length > 1);
+        for (File file : rolled) {
+            assertTrue(read(file).startsWith("EBLOG"));
+        }
+    }
+
+    @Test(timeout = 20_000L)
+    public void shouldNotWaitForTheRollOnTheFlushingThread() throws Exception {
+        File log = new File(temporaryFolder.getRoot(), "eb.log");
+        CountDownLatch reopen = new CountDownLatch(1);
+        AtomicInteger opens = new AtomicInteger();
+        RollingLogWriter writer = new RollingLogWriter(log, file -> {
+            try {
+                if (opens.incrementAndGet() > 1) {
+                    reopen.await();
+                }
+            } catch (InterruptedException e) {
+                throw new InterruptedIOException();
+            }
+            return TEXT.open(file);
+        }, 16, 0, 5, false);
+        try {
+            writer.writeMessage(System.currentTimeMillis(), "INFO", "main", "while reopening 0");
+            writer.flush();
+            long deadline = System.currentTimeMillis() + 10_000L;
+            while (opens.get() < 2 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(5);
+            }
+            assertEquals(2, opens.get());
+            //The compressor thread is stuck opening the new file, writing and flushing go on regardless
+            for (int i = 1; i < 100; i++) {
+                writer.writeMessage(System.currentTimeMillis(), "INFO", "main", "while reopening " + i);
+                writer.flush();
+            }
+            assertEquals(1, LogCompressor.rolledFiles(log).length);
+        } finally {
+            reopen.countDown();
+        }
+        flushUntilSwitched(writer);
+        writer.writeMessage(System.currentTimeMillis(), "INFO", "main", "in the new file");
+        writer.close();
+
+        String rolled = read(LogCompressor.rolledFiles(log)[0]);
+        assertTrue(rolled.contains("while reopening 0") && rolled.contains("while reopening 99"));
+        assertTrue(read(log).contains("in the new file"));
+    }
+
+    @Test
+    public void shouldKeepWritingToRolledFileWhenReopenFails() throws Exception {
+        File log = new File(temporaryFolder.getRoot(), "eb.log");
+        AtomicInteger opens = new AtomicInteger();
+        RollingLogWriter writer = new RollingLogWriter(log, file -> {
+            if (opens.incrementAndGet() > 1) {
+                throw new IOException("Too many open files");
+            }
+            return TEXT.open(file);
+        }, 16, 0, 5, false);
+        ByteArrayOutputStream errors = new ByteArrayOutputStream();
+        PrintStream originalErr = System.err;
+        System.setErr(new PrintStream(errors, true));
+        try {
+            writer.writeMessage(System.currentTimeMillis(), "INFO", "main", "before the roll");
+            writer.flush();
+            long deadline = System.currentTimeMillis() + 10_000L;
+            while (opens.get() < 2 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(5);
+            }
+            writer.writeMessage(System.currentTimeMillis(), "INFO", "main", "after the failed reopen");
+            writer.flush();
+            writer.close();
+        } finally {
+            System.setErr(originalErr);
+        }
+
+        assertTrue(new String(errors.toByteArray(), StandardCharsets.UTF_8).contains("Too many open files"));
+        File[] rolled = LogCompressor.rolledFiles(log);
+        assertEquals(1, rolled.length);
+        String text = read(rolled[0]);
+        assertTrue(text, text.contains("before the roll") && text.contains("after the failed reopen"));
+    }
+
+    @Test
+    public void shouldOrderRollsOfTheSameMillisecondByNumber() throws Exception {
+        File log = new File(temporaryFolder.getRoot(), "eb.log");
+        String base = log.getName() + ".20261017-101010-123";
+        for (String name : new String[]{base + "-10.gz", base + "-2", base + ".gz", base + "-1.gz", log.getName() + ".20261017-101010-124"}) {
+            assertTrue(new File(temporaryFolder.getRoot(), name).createNewFile());
+        }
+
+        File[] rolled = LogCompressor.rolledFiles(log);
+
+        String[] names = new String[rolled.length];
+        for (int i = 0; i < rolled.length; i++) {
+            names[i] = rolled[i].getName();
+        }
+        assertArrayEquals(new String[]{base + ".gz", base + "-1.gz", base + "-2", base + "-10.gz", log.getName() + ".20261017-101010-124"}, names);
+    }
+
+    @Test
+    public void shouldNotExpireFilesStillQueuedForCompression() throws Exception {
+        File log = new File(temporaryFolder.getRoot(), "eb.log");
+        LogCompressor compressor = new LogCompressor(log, 1, true);
+        File[] queued = new File[3];
+        for (int i = 0; i < queued.length; i++) {
+            queued[i] = new File(temporaryFolder.getRoot(), log.getName() + ".20261017-101010-123" + (i == 0 ? "" : "-" + (i * 5)));
+            Files.write(queued[i].toPath(), ("rolled " + i + "\n").getBytes(StandardCharsets.UTF_8));
+            compressor.submit(queued[i]);
+        }
+        ByteArrayOutputStream errors = new ByteArrayOutputStream();
+        PrintStream originalErr = System.err;
+        System.setErr(new PrintStream(errors, true));
+        try {
+            compressor.start();
+            compressor.shutdown(10_000L);
+        } finally {
+            System.setErr(originalErr);
+        }
+
+        assertEquals("", new String(errors.toByteArray(), StandardCharsets.UTF_8));
+        File[] rolled = LogCompressor.rolledFiles(log);
+        assertEquals(1, rolled.length);
+        assertEquals(queued[2].getName() + ".gz", rolled[0].getName());
+        assertEquals("rolled 2\n", gunzip(rolled[0]));
+    }
+
+    //Rolls are prepared on the compressor thread and switched to by a later flush
+    private static void flushUntilSwitched(RollingLogWriter writer) throws InterruptedException {
+        long before = writer.bytesWritten();
+        long deadline = System.currentTimeMillis() + 10_000L;
+        do {
+            writer.flush();
+            Thread.sleep(2);
+        } while (writer.bytesWritten() >= before && System.currentTimeMillis() < deadline);
+        assertTrue("The roll was not switched to", writer.bytesWritten() < before);
+    }
+
+    private static String gunzip(File file) throws IOException {
+        try (InputStream in = new GZIPInputStream(new FileInputStream(file))) {
+            return readFully(in);
+        }
+    }
+
+    private static String read(File file) throws IOException {
+        try (InputStream in = new FileInputStream(file)) {
+            return readFully(in);
+        }
+    }
+
+    private static String readFully(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[4096];
+        int read;
+        while ((read = in.read(buffer)) > 0) {
+            out.write(buffer, 0, read);
+        }
+        return new String(out.toByteArray(), StandardCharsets.ISO_8859_1);
+    }
+}
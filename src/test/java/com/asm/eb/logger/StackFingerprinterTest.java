@@ -0,0 +1,69 @@
+package com.asm.eb.logger;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+
+public class StackFingerprinterTest {
+
+    @Test
+    public void shouldStripGeneratedClassCounters() {
+        assertEquals("com.foo.Bar$$Lambda", StackFingerprinter.normalizeClassName("com.foo.Bar$$Lambda$123/0x0000000800c03000"));
+        assertEquals("jdk.internal.reflect.GeneratedMethodAccessor", StackFingerprinter.normalizeClassName("jdk.internal.reflect.GeneratedMethodAccessor42"));
+        assertEquals("com.sun.proxy.$Proxy", StackFingerprinter.normalizeClassName("com.sun.proxy.$Proxy17"));
+        assertEquals("com.foo.Bar$Inner", StackFingerprinter.normalizeClassName("com.foo.Bar$Inner"));
+    }
+
+    @Test
+    public void shouldIgnoreGeneratedClassCountersInFingerprint() {
+        StackTraceElement[] first = {
+                new StackTraceElement("com.foo.Bar$$Lambda$12/0x0000000800c01000", "apply", null, -1),
+                new StackTraceElement("sun.reflect.GeneratedMethodAccessor7", "invoke", null, -1),
+                new StackTraceElement("com.foo.Bar", "run", "Bar.java", 42)
+        };
+        StackTraceElement[] second = {
+                new StackTraceElement("com.foo.Bar$$Lambda$98/0x0000000800c07000", "apply", null, -1),
+                new StackTraceElement("sun.reflect.GeneratedMethodAccessor31", "invoke", null, -1),
+                new StackTraceElement("com.foo.Bar", "run", "Bar.java", 42)
+        };
+
+        assertEquals(StackFingerprinter.fingerprint("java.lang.NumberFormatException", first),
+                StackFingerprinter.fingerprint("java.lang.NumberFormatException", second));
+    }
+
+    @Test
+    public void shouldDistinguishExceptionTypeAndThrowSite() {
+        StackTraceElement[] frames = {new StackTraceElement("com.foo.Bar", "run", "Bar.java", 42)};
+        StackTraceElement[] otherLine = {new StackTraceElement("com.foo.Bar", "run", "Bar.java", 43)};
+
+        long fingerprint = StackFingerprinter.fingerprint("java.lang.NumberFormatException", frames);
+        assertNotEquals(fingerprint, StackFingerprinter.fingerprint("java.lang.IllegalStateException", frames));
+        assertNotEquals(fingerprint, StackFingerprinter.fingerprint("java.lang.NumberFormatException", otherLine));
+    }
+
+    @Test
+    public void shouldFormatFingerprintAsFixedWidthHex() {
+        assertEquals("00000000000000ff", StackFingerprinter.toHex(0xffL));
+        assertEquals("ffffffffffffffff", StackFingerprinter.toHex(-1L));
+    }
+
+    @Test
+    public void tableShouldEvictLeastRecentlySeenFingerprint() {
+        List<FingerprintTable.Entry> evicted = new ArrayList<>();
+        FingerprintTable table = new FingerprintTable(2, evicted::add);
+        FingerprintTable.Entry first = table.add(1L, "A", 0L);
+        table.add(2L, "B", 0L);
+        table.get(1L);
+        table.add(3L, "C", 0L);
+
+        assertEquals(2, table.size());
+        assertEquals(1, evicted.size());
+        assertEquals("B", evicted.get(0).exceptionClassName);
+        assertSame(first, table.get(1L));
+    }
+}
@@ -0,0 +1,131 @@
+package com.asm.eb.logger;
+
+import org.junit.Assume;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks that {@link TextLogWriter} keeps the layout of the former string-concatenating PrintWriter path and
+ * encodes records into reused buffers. Its speed against that path is measured by TextLogWriterBenchmark in the
+ * benchmarks module.
+ */
+public class TextLogWriterTest {
+
+    private static final int WARMUP_RECORDS = 50_000;
+    private static final int MEASURED_RECORDS = 200_000;
+    private static final long TIMESTAMP = 1_760_000_000_123L;
+    private static final String LINE_SEPARATOR = System.lineSeparator();
+
+    @Test
+    public void shouldKeepTextLayout() {
+        StackTraceElement[] frames = sampleFrames();
+        StringWriter out = new StringWriter();
+        TextLogWriter writer = new TextLogWriter(out);
+
+        writer.writeMessage(TIMESTAMP, "INFO", "main", "started");
+        writer.writeException(TIMESTAMP + 5, "worker-1", "java.lang.IllegalStateException", null, frames, 3, true, 0x00ab12cdL);
+        writer.writeRepeat(TIMESTAMP + 61_000, "worker-2", 0x00ab12cdL, "java.lang.IllegalStateException", 42, TIMESTAMP + 5);
+        writer.writeClassLoading(TIMESTAMP + 61_001, "main", "Loaded com.example.Service");
+        writer.flush();
+
+        SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss.SSS");
+        StringBuilder expected = new StringBuilder();
+        expected.append(format.format(new Date(TIMESTAMP))).append(" [INFO] [main] started").append(LINE_SEPARATOR);
+        expected.append(format.format(new Date(TIMESTAMP + 5))).append(" [EXCEPTION]  [worker-1] [fingerprint=")
+                .append(StackFingerprinter.toHex(0x00ab12cdL)).append("] java.lang.IllegalStateException: null").append(LINE_SEPARATOR);
+        for (StackTraceElement frame : frames) {
+            expected.append("\tat ").append(frame).append(LINE_SEPARATOR);
+        }
+        expected.append("\t... (truncated at maxFrames=3)").append(LINE_SEPARATOR).append(LINE_SEPARATOR);
+        expected.append(format.format(new Date(TIMESTAMP + 61_000))).append(" [REPEAT]  [worker-2] [fingerprint=")
+                .append(StackFingerprinter.toHex(0x00ab12cdL)).append("] java.lang.IllegalStateException seen 42 more times since ")
+                .append(format.format(new Date(TIMESTAMP + 5))).append(LINE_SEPARATOR);
+        expected.append(format.format(new Date(TIMESTAMP + 61_001))).append(" [CLT] [main]\nLoaded com.example.Service\n").append(LINE_SEPARATOR);
+        assertEquals(expected.toString(), out.toString());
+        assertEquals(expected.toString().getBytes(StandardCharsets.UTF_8).length, writer.bytesWritten());
+    }
+
+    @Test
+    public void shouldCountEncodedBytesOfNonAsciiText() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        TextLogWriter writer = new TextLogWriter(new OutputStreamWriter(bytes, StandardCharsets.UTF_8), 100L);
+        StackTraceElement[] frames = {new StackTraceElement("com.example.Größe", "zählen", "Größe.java", 7)};
+
+        writer.writeMessage(TIMESTAMP, "INFO", "main", "café \u20ac \ud83d\ude00");
+        writer.writeException(TIMESTAMP + 1, "工作线程-1", "java.lang.IllegalStateException", "lone \ud800 surrogate", frames, 0, false, 0L);
+        writer.flush();
+
+        assertEquals(100L + bytes.size(), writer.bytesWritten());
+    }
+
+    @Test
+    public void exceptionRecordShouldNotAllocate() {
+        ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue(threadMXBean instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean allocationBean = (com.sun.management.ThreadMXBean) threadMXBean;
+        Assume.assumeTrue(allocationBean.isThreadAllocatedMemorySupported());
+        allocationBean.setThreadAllocatedMemoryEnabled(true);
+
+        StackTraceElement[] frames = sampleFrames();
+        TextLogWriter writer = new TextLogWriter(new DiscardingWriter());
+        long threadId = Thread.currentThread().getId();
+        writeRecords(writer, frames, WARMUP_RECORDS);
+        long before = allocationBean.getThreadAllocatedBytes(threadId);
+        writeRecords(writer, frames, MEASURED_RECORDS);
+        long encoderBytes = allocationBean.getThreadAllocatedBytes(threadId) - before;
+
+        // Covers the writer only: the caller's frame array and strings are allocated before it is called.
+        // The timestamp prefix is formatted once per second of log time, everything else reuses buffers.
+        assertTrue("Encoder allocated " + encoderBytes + " bytes", encoderBytes < MEASURED_RECORDS);
+    }
+
+    private static void writeRecords(TextLogWriter writer, StackTraceElement[] frames, int records) {
+        for (int i = 0; i < records; i++) {
+            writer.writeException(TIMESTAMP + i, "worker-1", "java.lang.IllegalStateException", "boom", frames, 0, true, i);
+        }
+    }
+
+    private static StackTraceElement[] sampleFrames() {
+        return new StackTraceElement[]{
+                new StackTraceElement("com.example.Service", "handle", "Service.java", 42),
+                new StackTraceElement("com.example.Controller", "get", "Controller.java", 17),
+                new StackTraceElement("sun.reflect.NativeMethodAccessorImpl", "invoke0", null, -2),
+                new StackTraceElement("com.example.Generated", "run", null, -1),
+                new StackTraceElement("java.lang.Thread", "run", "Thread.java", 750)
+        };
+    }
+
+    private static final class DiscardingWriter extends Writer {
+        @Override
+        public void write(char[] buffer, int offset, int length) {
+        }
+
+        @Override
+        public void write(String value, int offset, int length) {
+        }
+
+        @Override
+        public void write(int c) {
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.asm.eb.metrics;
+
+import com.asm.eb.logger.ExceptionLogger;
+import com.asm.eb.model.Configuration;
+import com.asm.eb.store.StatsStore;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class MetricsServerTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @After
+    public void stop() {
+        MetricsServer.stop();
+    }
+
+    @Test
+    public void shouldServePrometheusTextByDefault() throws Exception {
+        MetricsEndpoint server = start();
+        StatsStore.incrementExceptionCount();
+        StatsStore.incrementExceptionTypeCount("com.example.Quoted\"Exception");
+
+        HttpURLConnection connection = open(server, "/metrics", null);
+        assertEquals(200, connection.getResponseCode());
+        assertEquals(OpenMetricsRenderer.PROMETHEUS_CONTENT_TYPE, connection.getContentType());
+        String body = read(connection);
+        assertTrue(body.contains("# TYPE exceptionbuddy_exceptions_total counter\n"));
+        assertTrue(body.contains("\nexceptionbuddy_exceptions_total "));
+        assertTrue(body.contains("exceptionbuddy_exceptions_by_type_total{type=\"com.example.Quoted\\\"Exception\"} 1\n"));
+        assertTrue(body.contains("exceptionbuddy_exception_rate{window=\"10s\"} "));
+        assertTrue(body.contains("exceptionbuddy_queue_depth 0\n"));
+        assertFalse(body.contains("# EOF"));
+    }
+
+    @Test
+    public void shouldServeOpenMetricsWhenRequested() throws Exception {
+        MetricsEndpoint server = start();
+
+        HttpURLConnection connection = open(server, "/metrics", "application/openmetrics-text; version=1.0.0,text/plain;q=0.5");
+        assertEquals(200, connection.getResponseCode());
+        assertEquals(OpenMetricsRenderer.OPENMETRICS_CONTENT_TYPE, connection.getContentType());
+        String body = read(connection);
+        assertTrue(body.contains("# TYPE exceptionbuddy_exceptions counter\n"));
+        assertTrue(body.contains("exceptionbuddy_hook_invocations_total "));
+        assertTrue(body.endsWith("# EOF\n"));
+    }
+
+    @Test
+    public void shouldAnswerUnknownPathsWithNotFound() throws Exception {
+        MetricsEndpoint server = start();
+
+        assertEquals(404, open(server, "/metrics/other", null).getResponseCode());
+    }
+
+    private MetricsEndpoint start() throws IOException {
+        Configuration configuration = new Configuration();
+        configuration.setLogFilePath(new File(temporaryFolder.getRoot(), "eb.log").getAbsolutePath());
+        return MetricsServer.start("127.0.0.1", 0, ExceptionLogger.getInstance(configuration), null);
+    }
+
+    private static HttpURLConnection open(MetricsEndpoint server, String path, String accept) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL("http://127.0.0.1:" + server.getPort() + path).openConnection();
+        if (accept != null) {
+            connection.setRequestProperty("Accept", accept);
+        }
+        return connection;
+    }
+
+    private static String read(HttpURLConnection connection) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (InputStream in = connection.getInputStream()) {
+            byte[] buffer = new byte[4096];
+            for (int n; (n = in.read(buffer)) > 0; ) {
+                bytes.write(buffer, 0, n);
+            }
+        }
+        return new String(bytes.toByteArray(), StandardCharsets.UTF_8);
+    }
+}
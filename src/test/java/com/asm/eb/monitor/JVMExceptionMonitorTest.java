@@ -0,0 +1,25 @@
+package com.asm.eb.monitor;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class JVMExceptionMonitorTest {
+
+    @Test
+    public void shouldFlagShortWindowRateAboveBaselineMultiple() {
+        assertTrue(JVMExceptionMonitor.isSpike(120, 20, 5, 10));
+        assertFalse(JVMExceptionMonitor.isSpike(90, 20, 5, 10));
+    }
+
+    @Test
+    public void shouldIgnoreSpikesBelowMinimumRate() {
+        assertFalse(JVMExceptionMonitor.isSpike(8, 0.1, 5, 10));
+    }
+
+    @Test
+    public void shouldNotFlagWhenSpikeDetectionIsDisabled() {
+        assertFalse(JVMExceptionMonitor.isSpike(1000, 1, 0, 0));
+    }
+}
@@ -0,0 +1,83 @@
+package com.asm.eb.sampling;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ExceptionSamplerTest {
+
+    @Test
+    public void tokenBucketShouldAllowOneSecondBurstThenRefill() {
+        long start = 1_000L;
+        TokenBucket bucket = new TokenBucket(5, start);
+        for (int i = 0; i < 5; i++) {
+            assertTrue(bucket.tryAcquire(start));
+        }
+        assertFalse(bucket.tryAcquire(start));
+        assertTrue(bucket.tryAcquire(start + 200_000_000L));
+        assertFalse(bucket.tryAcquire(start + 200_000_000L));
+    }
+
+    @Test
+    public void tokenBucketShouldTakeBackReleasedPermit() {
+        long start = 1_000L;
+        TokenBucket bucket = new TokenBucket(2, start);
+        assertTrue(bucket.tryAcquire(start));
+        assertTrue(bucket.tryAcquire(start));
+        assertFalse(bucket.tryAcquire(start));
+        bucket.release();
+        assertTrue(bucket.tryAcquire(start));
+        assertFalse(bucket.tryAcquire(start));
+    }
+
+    @Test
+    public void shouldAlwaysKeepFirstOccurrenceOfEachType() {
+        ExceptionSampler sampler = new ExceptionSampler(1, 1, 0, 0);
+        for (int i = 0; i < 10; i++) {
+            sampler.shouldKeep(new IllegalStateException());
+        }
+        assertTrue(sampler.shouldKeep(new UnsupportedOperationException()));
+    }
+
+    @Test
+    public void shouldRateLimitRepeatedTypeFromSameSite() {
+        ExceptionSampler sampler = new ExceptionSampler(2, 0, 0, 16);
+        int kept = 0;
+        for (int i = 0; i < 100; i++) {
+            if (sampler.shouldKeep(new IllegalArgumentException())) {
+                kept++;
+            }
+        }
+        // First occurrence, up to two tokens and the first occurrence of the site.
+        assertTrue("kept " + kept, kept >= 2 && kept <= 4);
+    }
+
+    @Test
+    public void shouldKeepFirstOccurrenceOfNewSiteWhileRateLimited() {
+        ExceptionSampler sampler = new ExceptionSampler(1, 0, 0, 16);
+        for (int i = 0; i < 10; i++) {
+            sampler.shouldKeep(firstSite());
+        }
+        assertFalse(sampler.shouldKeep(firstSite()));
+        assertTrue(sampler.shouldKeep(otherSite()));
+        assertFalse(sampler.shouldKeep(otherSite()));
+    }
+
+    @Test
+    public void siteTableShouldReportOnlyNewSites() {
+        SiteTable table = new SiteTable(8);
+        assertTrue(table.add(42L));
+        assertFalse(table.add(42L));
+        assertTrue(table.add(0L));
+        assertFalse(table.add(0L));
+    }
+
+    private static ArithmeticException firstSite() {
+        return new ArithmeticException();
+    }
+
+    private static ArithmeticException otherSite() {
+        return new ArithmeticException();
+    }
+}
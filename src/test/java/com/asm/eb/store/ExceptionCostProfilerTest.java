@@ -0,0 +1,77 @@
+package com.asm.eb.store;
+
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+public class ExceptionCostProfilerTest {
+
+    @Test
+    public void shouldRankSitesByTotalCostPerInterval() {
+        ExceptionCostProfiler profiler = new ExceptionCostProfiler(2, 16, null);
+        for (int i = 0; i < 100; i++) {
+            profiler.record("java.lang.NumberFormatException", "com.example.Parser", "parse", "Parser.java", 42, 2_000, 800);
+        }
+        profiler.record("java.io.IOException", "com.example.Store", "load", "Store.java", 7, 150_000, 4_000);
+        profiler.record("java.lang.IllegalStateException", "com.example.Cache", "get", "Cache.java", 3, 1_000, 100);
+
+        List<ExceptionCost> costs = profiler.report();
+        assertEquals(2, costs.size());
+        assertEquals("java.lang.NumberFormatException", costs.get(0).getExceptionClassName());
+        assertEquals(100, costs.get(0).getCount());
+        assertEquals(200_000, costs.get(0).getTotalNanos());
+        assertEquals("com.example.Parser.parse(Parser.java:42)", costs.get(0).getFrame().toString());
+        assertEquals("java.io.IOException", costs.get(1).getExceptionClassName());
+
+        //The next interval only shows what happened since
+        profiler.record("java.lang.IllegalStateException", "com.example.Cache", "get", "Cache.java", 3, 1_000, 100);
+        costs = profiler.report();
+        assertEquals(1, costs.size());
+        assertEquals("java.lang.IllegalStateException", costs.get(0).getExceptionClassName());
+        assertEquals(1, costs.get(0).getCount());
+        assertEquals(150_000, profiler.snapshot().get(1).getTotalNanos());
+    }
+
+    @Test
+    public void shouldSumSitesBeyondCapacityAsOther() {
+        ExceptionCostProfiler profiler = new ExceptionCostProfiler(10, 2, Collections.<String>emptyList());
+        for (int line = 1; line <= 5; line++) {
+            profiler.record("java.lang.RuntimeException", "com.example.App", "run", "App.java", line, 1_000, 0);
+        }
+        List<ExceptionCost> costs = profiler.snapshot();
+        assertEquals(3, costs.size());
+        ExceptionCost other = costs.get(0);
+        assertEquals("<other>", other.getExceptionClassName());
+        assertEquals(3, other.getCount());
+        assertEquals(3_000, other.getTotalNanos());
+    }
+
+    @Test
+    public void shouldMeasureConstructionOnTheCallingThread() {
+        ExceptionCostProfiler profiler = new ExceptionCostProfiler(10, 16, null);
+        profiler.start();
+        RuntimeException exception = new RuntimeException("measured");
+        profiler.end(exception, System.nanoTime());
+        //Without a matching start nothing is recorded
+        profiler.end(new RuntimeException("unmatched"), System.nanoTime());
+
+        List<ExceptionCost> costs = profiler.snapshot();
+        assertEquals(1, costs.size());
+        ExceptionCost cost = costs.get(0);
+        assertEquals(1, cost.getCount());
+        assertTrue(cost.getTotalNanos() > 0);
+        assertNotNull(cost.getFrame());
+        assertEquals(ExceptionCostProfilerTest.class.getName(), cost.getFrame().getClassName());
+        if (profiler.isMeasuringAllocation()) {
+            //At least the backtrace filled in by the constructor
+            assertTrue(cost.getAllocatedBytes() > 0);
+        } else {
+            assertEquals(-1, cost.getAllocatedBytes());
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.asm.eb.store;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+
+public class ExceptionRateTrackerTest {
+
+    private static final long START = 1_760_000_000_000L;
+
+    @Test
+    public void shouldAverageCompleteSecondsOfTheWindow() {
+        ExceptionRateTracker tracker = new ExceptionRateTracker(START);
+        for (int second = 0; second < 20; second++) {
+            for (int i = 0; i < (second < 10 ? 2 : 8); i++) {
+                tracker.record(START + second * 1000L + i);
+            }
+        }
+        // The second in progress is not part of any window.
+        tracker.record(START + 20_000L);
+
+        long now = START + 20_500L;
+        assertEquals(8.0, tracker.ratePerSecond(1, now), 0.0);
+        assertEquals(8.0, tracker.ratePerSecond(10, now), 0.0);
+        assertEquals(5.0, tracker.ratePerSecond(60, now), 0.0);
+        assertEquals(5.0, tracker.ratePerSecond(300, now), 0.0);
+    }
+
+    @Test
+    public void shouldForgetSecondsThatLeftTheRing() {
+        ExceptionRateTracker tracker = new ExceptionRateTracker(START);
+        for (int i = 0; i < 100; i++) {
+            tracker.record(START);
+        }
+        // 512 seconds later the bucket of START is reused by a different second.
+        tracker.record(START + 512_000L);
+
+        long now = START + 513_000L;
+        assertEquals(1.0, tracker.ratePerSecond(1, now), 0.0);
+        assertEquals(1.0 / 300, tracker.ratePerSecond(300, now), 1e-9);
+        assertEquals(0.0, tracker.ratePerSecond(10, START + 530_000L), 0.0);
+    }
+
+    @Test
+    public void shouldNotLoseConcurrentCounts() throws Exception {
+        ExceptionRateTracker tracker = new ExceptionRateTracker(START);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < 100_000; i++) {
+                    tracker.record(START + (i % 5) * 1000L);
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(400_000 / 5.0, tracker.ratePerSecond(5, START + 5_000L), 0.0);
+    }
+
+    @Test
+    public void shouldRejectWindowsLongerThanTheRing() {
+        ExceptionRateTracker tracker = new ExceptionRateTracker(START);
+
+        assertThrows(IllegalArgumentException.class, () -> tracker.ratePerSecond(301, START));
+    }
+}
@@ -0,0 +1,72 @@
+package com.asm.eb.store;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void bucketsShouldCoverEveryValueWithinOneEighth() {
+        for (long value = 0; value < 1L << 36; value = value < 64 ? value + 1 : value * 3 / 2 + 7) {
+            int index = LatencyHistogram.bucketIndex(value);
+            long highest = LatencyHistogram.highestValue(index);
+            assertTrue("bucket of " + value + " ends at " + highest, highest >= value);
+            assertTrue("bucket of " + value + " ends at " + highest, highest - value <= value / 8);
+            assertTrue(index < LatencyHistogram.BUCKETS);
+            if (index > 0) {
+                assertTrue(LatencyHistogram.highestValue(index - 1) < value);
+            }
+        }
+        assertEquals(LatencyHistogram.BUCKETS - 1, LatencyHistogram.bucketIndex(Long.MAX_VALUE));
+        assertEquals(0, LatencyHistogram.bucketIndex(-5));
+    }
+
+    @Test
+    public void shouldReportPercentilesAndIntervals() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i * 1000L);
+        }
+        LatencyHistogram.Snapshot first = histogram.snapshot();
+        assertEquals(1000, first.getCount());
+        assertEquals(500_500_000L, first.getTotalNanos());
+        assertWithinEighth(500_000L, first.valueAtPercentile(50));
+        assertWithinEighth(990_000L, first.valueAtPercentile(99));
+        assertWithinEighth(1_000_000L, first.getMaxNanos());
+
+        histogram.record(5_000_000L);
+        LatencyHistogram.Snapshot interval = histogram.snapshot().since(first);
+        assertEquals(1, interval.getCount());
+        assertEquals(5_000_000L, interval.getTotalNanos());
+        assertWithinEighth(5_000_000L, interval.valueAtPercentile(50));
+        assertEquals(0L, new LatencyHistogram().snapshot().valueAtPercentile(99));
+    }
+
+    @Test
+    public void shouldNotLoseRecordsFromConcurrentThreads() throws Exception {
+        LatencyHistogram histogram = new LatencyHistogram();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < 100_000; i++) {
+                    histogram.record(i & 1023);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(800_000L, histogram.snapshot().getCount());
+    }
+
+    private static void assertWithinEighth(long expected, long actual) {
+        assertTrue("expected about " + expected + " but was " + actual, actual >= expected && actual - expected <= expected / 8);
+    }
+}
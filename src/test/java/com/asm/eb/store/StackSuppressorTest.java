@@ -0,0 +1,65 @@
+package com.asm.eb.store;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class StackSuppressorTest {
+
+    @Test
+    public void shouldSuppressConfiguredClassesOnly() {
+        StackSuppressor suppressor = new StackSuppressor(Collections.singletonList(IllegalStateException.class.getName()),
+                null, 0, null, false);
+        IllegalStateException suppressed = new IllegalStateException("hot");
+        assertFalse(suppressor.capture(suppressed));
+        assertEquals(0, suppressed.getStackTrace().length);
+
+        RuntimeException other = new RuntimeException("cold");
+        int frames = other.getStackTrace().length;
+        assertTrue(suppressor.capture(other));
+        assertEquals(frames, other.getStackTrace().length);
+
+        List<SuppressionSavings> savings = suppressor.report();
+        assertEquals(1, savings.size());
+        assertEquals(IllegalStateException.class.getName(), savings.get(0).getRule());
+        assertEquals(1, savings.get(0).getSuppressedCount());
+        assertEquals(1, savings.get(0).getFullCaptureSamples());
+        assertTrue(suppressor.report().isEmpty());
+    }
+
+    @Test
+    public void shouldMatchThrowSitePrefixes() {
+        StackSuppressor suppressor = new StackSuppressor(null, Arrays.asList("com.example.", StackSuppressorTest.class.getName() + ".should"),
+                0, null, true);
+        //Outside a constructor the site comes from the stack trace already filled in
+        RuntimeException exception = new RuntimeException("site");
+        assertFalse(suppressor.capture(exception));
+        List<SuppressionSavings> savings = suppressor.snapshot();
+        assertEquals(1, savings.size());
+        assertEquals(StackSuppressorTest.class.getName() + ".should", savings.get(0).getRule());
+
+        assertTrue(new StackSuppressor(null, Collections.singletonList("com.example."), 0, null, true).capture(new RuntimeException()));
+    }
+
+    @Test
+    public void shouldOnlyApplyClassRulesWithoutFramesWhenNotWalkingTheLiveStack() {
+        assertFalse(new StackSuppressor(null, Collections.singletonList("com.example."), 0, null, false).isEffective());
+        assertFalse(new StackSuppressor(Collections.singletonList("java.lang.Exception"), null, 3, null, false).isEffective());
+        assertTrue(new StackSuppressor(Collections.singletonList("java.lang.Exception"), null, 0, null, false).isEffective());
+        assertTrue(new StackSuppressor(Collections.singletonList("java.lang.Exception"), null, 3, null, true).isEffective());
+    }
+
+    @Test
+    public void shouldEstimateSavingsFromSampledFullCaptures() {
+        SuppressionSavings savings = new SuppressionSavings("java.lang.Exception", 1_000, 200_000, 4, 5_000);
+        assertEquals(4_800_000, savings.getSavedNanos());
+        assertEquals(0, new SuppressionSavings("java.lang.Exception", 1_000, 200_000, 0, -1).getSavedNanos());
+        assertEquals(0, new SuppressionSavings("java.lang.Exception", 10, 200_000, 1, 5_000).getSavedNanos());
+    }
+}
@@ -0,0 +1,84 @@
+package com.asm.eb.store;
+
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+public class ThrowSiteTrackerTest {
+
+    @Test
+    public void shouldFindHeavyHittersAmongManyColdSites() {
+        ThrowSiteTracker tracker = new ThrowSiteTracker(3, 4096, null);
+        Random random = new Random(42);
+        for (int i = 0; i < 200_000; i++) {
+            int pick = random.nextInt(100);
+            if (pick < 20) {
+                tracker.record("java.lang.NumberFormatException", "com.example.Parser", "parse", "Parser.java", 42);
+            } else if (pick < 35) {
+                tracker.record("java.io.FileNotFoundException", "com.example.Config", "load", "Config.java", 7);
+            } else if (pick < 45) {
+                tracker.record("java.lang.ClassNotFoundException", "com.example.Plugins", "find", "Plugins.java", 99);
+            } else {
+                // Long tail of 2000 rarely hit sites
+                tracker.record("java.lang.IllegalStateException", "com.example.Cold" + random.nextInt(2000), "run", "Cold.java", 1);
+            }
+        }
+
+        List<ThrowSite> top = tracker.report(3);
+
+        assertEquals(3, top.size());
+        assertEquals("java.lang.NumberFormatException", top.get(0).getExceptionClassName());
+        assertEquals("com.example.Parser", top.get(0).getFrame().getClassName());
+        assertEquals("java.io.FileNotFoundException", top.get(1).getExceptionClassName());
+        assertEquals("java.lang.ClassNotFoundException", top.get(2).getExceptionClassName());
+        long expected = 40_000;
+        assertTrue("Count-Min estimates never undercount", top.get(0).getCount() >= expected * 0.95);
+        assertTrue("Estimate " + top.get(0).getCount() + " too far above " + expected, top.get(0).getCount() < expected * 1.1);
+    }
+
+    @Test
+    public void shouldReportIncreaseSinceLastReport() {
+        ThrowSiteTracker tracker = new ThrowSiteTracker(2, 1024, null);
+        for (int i = 0; i < 10; i++) {
+            tracker.record("java.lang.IllegalStateException", "com.example.Service", "handle", "Service.java", 3);
+        }
+        assertEquals(10, tracker.report(2).get(0).getCountSinceLastReport());
+
+        for (int i = 0; i < 4; i++) {
+            tracker.record("java.lang.IllegalStateException", "com.example.Service", "handle", "Service.java", 3);
+        }
+        ThrowSite site = tracker.report(2).get(0);
+
+        assertEquals(14, site.getCount());
+        assertEquals(4, site.getCountSinceLastReport());
+    }
+
+    @Test
+    public void shouldAttributeThrowableToFirstApplicationFrame() {
+        ThrowSiteTracker tracker = new ThrowSiteTracker(2, 1024, Collections.singletonList("org.junit."));
+
+        tracker.record(throwFromApplicationCode());
+        List<ThrowSite> top = tracker.report(2);
+
+        assertEquals(1, top.size());
+        assertEquals("java.lang.NumberFormatException", top.get(0).getExceptionClassName());
+        assertNotNull(top.get(0).getFrame());
+        assertEquals(ThrowSiteTrackerTest.class.getName(), top.get(0).getFrame().getClassName());
+        assertEquals("throwFromApplicationCode", top.get(0).getFrame().getMethodName());
+    }
+
+    private static Throwable throwFromApplicationCode() {
+        try {
+            Integer.parseInt("not a number");
+            throw new AssertionError("parseInt should have failed");
+        } catch (NumberFormatException e) {
+            return e;
+        }
+    }
+}
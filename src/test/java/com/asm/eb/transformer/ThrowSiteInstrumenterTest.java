@@ -0,0 +1,233 @@
+package com.asm.eb.transformer;
+
+import com.asm.eb.hook.ExceptionHook;
+import com.asm.eb.logger.ExceptionLogger;
+import com.asm.eb.model.Configuration;
+import com.asm.eb.store.StatsStore;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.Callable;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+public class ThrowSiteInstrumenterTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Before
+    public void setUp() {
+        Configuration configuration = new Configuration();
+        configuration.setLogFilePath(new File(temporaryFolder.getRoot(), "eb.log").getAbsolutePath());
+        ExceptionHook.install(ExceptionLogger.getInstance(configuration));
+    }
+
+    @After
+    public void tearDown() {
+        ExceptionHook.uninstall();
+    }
+
+    @Test
+    public void shouldReportEachThrowOnce() throws Exception {
+        assertEquals(1, throwsReported("throwNew"));
+        assertEquals(1, throwsReported("throwFromFinally"));
+        assertEquals(1, throwsReported("throwFromSynchronized"));
+        assertEquals(1, throwsReported("catchAndRethrow"));
+        assertEquals(1, throwsReported("throwFromBranch"));
+        assertEquals(1, throwsReported("throwThroughReusedSlot"));
+    }
+
+    @Test
+    public void shouldReportRethrowOfExceptionFromUninstrumentedCode() throws Exception {
+        assertEquals(1, throwsReported("catchAndRethrowFromLibrary"));
+    }
+
+    @Test
+    public void shouldReportEveryThrowOfAPreallocatedException() throws Exception {
+        assertEquals(3, throwsReported("throwPreallocatedThreeTimes"));
+    }
+
+    @Test
+    public void shouldLeaveClassesWithoutThrowsAlone() throws Exception {
+        assertNull(ThrowSiteInstrumenter.instrument(classBytes(NoThrows.class)));
+    }
+
+    private long throwsReported(String methodName) throws Exception {
+        Class<?> instrumented = new InstrumentingLoader().loadClass(Targets.class.getName());
+        @SuppressWarnings("unchecked")
+        Callable<Object> target = (Callable<Object>) instrumented.getConstructor(String.class).newInstance(methodName);
+        long before = StatsStore.getHookInvocationCount();
+        try {
+            target.call();
+            fail(methodName + " should have thrown");
+        } catch (IllegalStateException expected) {
+            //Every target ends by throwing an IllegalStateException
+        }
+        return StatsStore.getHookInvocationCount() - before;
+    }
+
+    private static byte[] classBytes(Class<?> type) throws IOException {
+        String resource = type.getName().replace('.', '/') + ".class";
+        try (InputStream in = ThrowSiteInstrumenterTest.class.getClassLoader().getResourceAsStream(resource)) {
+            assertNotNull(resource, in);
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[4096];
+            int read;
+            while ((read = in.read(buffer)) > 0) {
+                out.write(buffer, 0, read);
+            }
+            return out.toByteArray();
+        }
+    }
+
+    /**
+     * Defines {@link Targets} from its instrumented bytes, so the verifier checks the rewritten code.
+     */
+    private static final class InstrumentingLoader extends ClassLoader {
+        InstrumentingLoader() {
+            super(ThrowSiteInstrumenterTest.class.getClassLoader());
+        }
+
+        @Override
+        protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+            if (!Targets.class.getName().equals(name)) {
+                return super.loadClass(name, resolve);
+            }
+            synchronized (getClassLoadingLock(name)) {
+                Class<?> loaded = findLoadedClass(name);
+                if (loaded == null) {
+                    try {
+                        byte[] instrumented = ThrowSiteInstrumenter.instrument(classBytes(Targets.class));
+                        assertNotNull(instrumented);
+                        loaded = defineClass(name, instrumented, 0, instrumented.length);
+                    } catch (Exception e) {
+                        throw new ClassNotFoundException(name, e);
+                    }
+                }
+                return loaded;
+            }
+        }
+    }
+
+    public static final class Targets implements Callable<Object> {
+        private static final IllegalStateException PREALLOCATED = new IllegalStateException("preallocated");
+        private final String methodName;
+        private final Object lock = new Object();
+        private int counter;
+
+        public Targets(String methodName) {
+            this.methodName = methodName;
+        }
+
+        @Override
+        public Object call() {
+            switch (methodName) {
+                case "throwNew":
+                    throw new IllegalStateException("new");
+                case "throwFromFinally":
+                    return throwFromFinally();
+                case "throwFromSynchronized":
+                    return throwFromSynchronized();
+                case "catchAndRethrow":
+                    return catchAndRethrow();
+                case "throwFromBranch":
+                    return throwFromBranch(counter == 0);
+                case "throwPreallocatedThreeTimes":
+                    return throwPreallocatedThreeTimes();
+                case "throwThroughReusedSlot":
+                    return throwThroughReusedSlot();
+                case "catchAndRethrowFromLibrary":
+                    return catchAndRethrowFromLibrary();
+                default:
+                    return null;
+            }
+        }
+
+        private Object throwFromFinally() {
+            try {
+                throw new IllegalStateException("finally");
+            } finally {
+                counter++;
+            }
+        }
+
+        private Object throwFromSynchronized() {
+            synchronized (lock) {
+                counter++;
+                throw new IllegalStateException("synchronized");
+            }
+        }
+
+        private Object catchAndRethrow() {
+            try {
+                throw new IllegalStateException("rethrown");
+            } catch (IllegalStateException e) {
+                counter++;
+                throw e;
+            }
+        }
+
+        private Object throwFromBranch(boolean first) {
+            throw first ? new IllegalStateException("first") : new IllegalStateException("second");
+        }
+
+        private Object throwPreallocatedThreeTimes() {
+            for (int i = 0; i < 2; i++) {
+                try {
+                    throw PREALLOCATED;
+                } catch (IllegalStateException ignored) {
+                    counter++;
+                }
+            }
+            throw PREALLOCATED;
+        }
+
+        private Object throwThroughReusedSlot() {
+            try {
+                if (counter < 0) {
+                    throw new IllegalArgumentException("never");
+                }
+            } catch (IllegalArgumentException e) {
+                counter--;
+            }
+            //javac gives ex the local slot e had
+            IllegalStateException ex = new IllegalStateException("reused");
+            throw ex;
+        }
+
+        private Object catchAndRethrowFromLibrary() {
+            try {
+                return Library.fail();
+            } catch (IllegalStateException e) {
+                counter++;
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Loaded by the parent loader, so its throws are not instrumented.
+     */
+    public static final class Library {
+        public static Object fail() {
+            throw new IllegalStateException("library");
+        }
+    }
+
+    static final class NoThrows {
+        int value() {
+            return 1;
+        }
+    }
+}
@@ -0,0 +1,281 @@
+package com.asm.eb.transformer;
+
+import com.asm.eb.capture.StackCapture;
+import com.asm.eb.hook.ExceptionHook;
+import com.asm.eb.logger.ExceptionLogger;
+import com.asm.eb.model.Configuration;
+import com.asm.eb.store.ExceptionCost;
+import com.asm.eb.store.ExceptionCostProfiler;
+import com.asm.eb.store.StackSuppressor;
+import com.asm.eb.store.StatsStore;
+import com.asm.eb.store.SuppressionSavings;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.lang.instrument.ClassFileTransformer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+public class ThrowableInstrumenterTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Before
+    public void setUp() {
+        Configuration configuration = new Configuration();
+        configuration.setLogFilePath(new File(temporaryFolder.getRoot(), "eb.log").getAbsolutePath());
+        ExceptionHook.install(ExceptionLogger.getInstance(configuration));
+    }
+
+    @After
+    public void tearDown() {
+        ExceptionHook.uninstall();
+    }
+
+    @Test
+    public void shouldCallHookOnceAtTheEndOfEveryConstructor() throws Exception {
+        Class<?> instrumented = new InstrumentingLoader(ThrowableInstrumenter.instrument(classBytes(SampleException.class)))
+                .loadClass(SampleException.class.getName());
+
+        long before = StatsStore.getHookInvocationCount();
+        instrumented.getConstructor().newInstance();
+        assertEquals(1, StatsStore.getHookInvocationCount() - before);
+
+        before = StatsStore.getHookInvocationCount();
+        instrumented.getConstructor(String.class).newInstance((String) null);
+        instrumented.getConstructor(String.class).newInstance("early");
+        instrumented.getConstructor(String.class).newInstance("late");
+        assertEquals(3, StatsStore.getHookInvocationCount() - before);
+    }
+
+    @Test
+    public void shouldReportConstructionCostWhenProfiling() throws Exception {
+        Class<?> instrumented = new InstrumentingLoader(ThrowableInstrumenter.instrument(classBytes(SampleException.class)))
+                .loadClass(SampleException.class.getName());
+        ExceptionCostProfiler profiler = new ExceptionCostProfiler(10, 16, null);
+        StatsStore.enableCostProfiling(profiler);
+        try {
+            instrumented.getConstructor(String.class).newInstance("early");
+        } finally {
+            StatsStore.enableCostProfiling(null);
+        }
+
+        List<ExceptionCost> costs = profiler.snapshot();
+        assertEquals(1, costs.size());
+        assertEquals(SampleException.class.getName(), costs.get(0).getExceptionClassName());
+        assertEquals(1, costs.get(0).getCount());
+    }
+
+    @Test
+    public void shouldSkipStackCaptureForSuppressedClasses() throws Exception {
+        Class<?> instrumented = new InstrumentingLoader(ThrowableInstrumenter.instrument(classBytes(SampleException.class)))
+                .loadClass(SampleException.class.getName());
+        //Without a suppressor the overridden fillInStackTrace() behaves as before
+        assertTrue(((Throwable) instrumented.getConstructor(String.class).newInstance("early")).getStackTrace().length > 2);
+
+        StackSuppressor suppressor = new StackSuppressor(Collections.singletonList(SampleException.class.getName()), null, 0, null);
+        StatsStore.enableStackSuppression(suppressor);
+        long before = StatsStore.getHookInvocationCount();
+        try {
+            assertEquals(0, ((Throwable) instrumented.getConstructor(String.class).newInstance("early")).getStackTrace().length);
+        } finally {
+            StatsStore.enableStackSuppression(null);
+        }
+        assertEquals(1, StatsStore.getHookInvocationCount() - before);
+        List<SuppressionSavings> savings = suppressor.snapshot();
+        assertEquals(1, savings.size());
+        assertEquals(1, savings.get(0).getSuppressedCount());
+        assertEquals(1, savings.get(0).getFullCaptureSamples());
+    }
+
+    @Test
+    public void shouldTruncateStackCaptureForSuppressedClasses() throws Exception {
+        if (!StackCapture.walksLiveStack()) {
+            return;
+        }
+        Class<?> instrumented = new InstrumentingLoader(ThrowableInstrumenter.instrument(classBytes(SampleException.class)))
+                .loadClass(SampleException.class.getName());
+        StatsStore.enableStackSuppression(new StackSuppressor(Collections.singletonList(SampleException.class.getName()), null, 2, null));
+        Throwable throwable;
+        try {
+            throwable = (Throwable) instrumented.getConstructor(String.class).newInstance("late");
+        } finally {
+            StatsStore.enableStackSuppression(null);
+        }
+        StackTraceElement[] frames = throwable.getStackTrace();
+        assertEquals(2, frames.length);
+        assertNotEquals(SampleException.class.getName(), frames[0].getClassName());
+    }
+
+    @Test
+    public void throwableOnlyTransformerShouldInstrumentThrowableOnEveryRetransform() throws Exception {
+        Configuration configuration = new Configuration();
+        configuration.setLogFilePath(new File(temporaryFolder.getRoot(), "eb.log").getAbsolutePath());
+        ClassFileTransformer transformer = new ExceptionTransformer(configuration, ExceptionLogger.getInstance(), null).throwableOnly();
+        byte[] original = classBytes(Throwable.class);
+        byte[] other = classBytes(SampleException.class);
+
+        byte[] first = transformer.transform(null, "java/lang/Throwable", null, null, original);
+        byte[] again = transformer.transform(null, "java/lang/Throwable", Throwable.class, null, original);
+
+        assertArrayEquals(ThrowableInstrumenter.instrument(original), first);
+        assertArrayEquals(first, again);
+        assertTrue(other == transformer.transform(null, SampleException.class.getName().replace('.', '/'), null, null, other));
+    }
+
+    @Test
+    public void shouldServeStoredBytecodeForTheSameOriginal() throws Exception {
+        ThrowableBytecodeCache cache = new ThrowableBytecodeCache(new File(temporaryFolder.getRoot(), "cache"));
+        byte[] original = classBytes(SampleException.class);
+        assertNull(cache.load(original));
+
+        byte[] instrumented = ThrowableInstrumenter.instrument(original);
+        File entry = cache.store(original, instrumented);
+        assertArrayEquals(instrumented, cache.load(original));
+
+        byte[] changed = Arrays.copyOf(original, original.length + 1);
+        assertNotEquals(entry, cache.fileFor(changed));
+        assertNull(cache.load(changed));
+    }
+
+    @Test
+    public void shouldTreatCorruptedEntryAsMiss() throws Exception {
+        ThrowableBytecodeCache cache = new ThrowableBytecodeCache(temporaryFolder.getRoot());
+        byte[] original = classBytes(SampleException.class);
+        File entry = cache.store(original, ThrowableInstrumenter.instrument(original));
+
+        try (RandomAccessFile file = new RandomAccessFile(entry, "rw")) {
+            file.seek(file.length() - 1);
+            int last = file.read();
+            file.seek(file.length() - 1);
+            file.write(last ^ 0xFF);
+        }
+        assertNull(cache.load(original));
+
+        try (RandomAccessFile file = new RandomAccessFile(entry, "rw")) {
+            file.setLength(file.length() / 2);
+        }
+        assertNull(cache.load(original));
+    }
+
+    @Test
+    public void shouldRefuseEntriesOthersCanWrite() throws Exception {
+        File directory = new File(temporaryFolder.getRoot(), "cache");
+        ThrowableBytecodeCache cache = new ThrowableBytecodeCache(directory);
+        byte[] original = classBytes(SampleException.class);
+        File entry = cache.store(original, ThrowableInstrumenter.instrument(original));
+        Path path = directory.toPath();
+        assumeTrue(Files.getFileAttributeView(path, PosixFileAttributeView.class) != null);
+        assertEquals("rwx------", PosixFilePermissions.toString(Files.getPosixFilePermissions(path)));
+        assertNotNull(cache.load(original));
+
+        Files.setPosixFilePermissions(entry.toPath(), PosixFilePermissions.fromString("rw-rw-r--"));
+        assertThrows(IOException.class, () -> cache.load(original));
+
+        Files.setPosixFilePermissions(entry.toPath(), PosixFilePermissions.fromString("rw-------"));
+        Files.setPosixFilePermissions(path, PosixFilePermissions.fromString("rwxrwxrwx"));
+        assertThrows(IOException.class, () -> cache.load(original));
+        assertThrows(IOException.class, () -> cache.store(original, original));
+    }
+
+    @Test
+    public void shouldRefuseSymbolicLinkEntry() throws Exception {
+        ThrowableBytecodeCache cache = new ThrowableBytecodeCache(new File(temporaryFolder.getRoot(), "cache"));
+        byte[] original = classBytes(SampleException.class);
+        File entry = cache.store(original, ThrowableInstrumenter.instrument(original));
+        File elsewhere = new File(temporaryFolder.getRoot(), "elsewhere.bin");
+        assertTrue(entry.renameTo(elsewhere));
+        try {
+            Files.createSymbolicLink(entry.toPath(), elsewhere.toPath());
+        } catch (UnsupportedOperationException | IOException e) {
+            assumeTrue(false);
+        }
+        assertThrows(IOException.class, () -> cache.load(original));
+    }
+
+    private static byte[] classBytes(Class<?> type) throws IOException {
+        String resource = type.getName().replace('.', '/') + ".class";
+        try (InputStream in = ThrowableInstrumenterTest.class.getClassLoader().getResourceAsStream(resource)) {
+            assertNotNull(resource, in);
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[4096];
+            int read;
+            while ((read = in.read(buffer)) > 0) {
+                out.write(buffer, 0, read);
+            }
+            return out.toByteArray();
+        }
+    }
+
+    /**
+     * Defines {@link SampleException} from the given bytes, so the verifier checks the rewritten code.
+     */
+    private static final class InstrumentingLoader extends ClassLoader {
+        private final byte[] instrumented;
+
+        InstrumentingLoader(byte[] instrumented) {
+            super(ThrowableInstrumenterTest.class.getClassLoader());
+            this.instrumented = instrumented;
+        }
+
+        @Override
+        protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+            if (!SampleException.class.getName().equals(name)) {
+                return super.loadClass(name, resolve);
+            }
+            synchronized (getClassLoadingLock(name)) {
+                Class<?> loaded = findLoadedClass(name);
+                return loaded != null ? loaded : defineClass(name, instrumented, 0, instrumented.length);
+            }
+        }
+    }
+
+    public static final class SampleException extends RuntimeException {
+        private String detail;
+
+        public SampleException() {
+            super("sample");
+        }
+
+        public SampleException(String message) {
+            super(message);
+            if (message == null) {
+                return;
+            }
+            detail = message.equals("early") ? "early" : "late";
+        }
+
+        public String getDetail() {
+            return detail;
+        }
+
+        @Override
+        public Throwable fillInStackTrace() {
+            //Branches, so the instrumented method has a stack map table to rewrite
+            return Thread.currentThread().isInterrupted() ? this : super.fillInStackTrace();
+        }
+    }
+}